@@ -11,17 +11,24 @@ import edu.utexas.tacc.tapis.sharedapi.jaxrs.filters.JWTValidateRequestFilter;
 import edu.utexas.tacc.tapis.sharedapi.providers.ObjectMapperContextResolver;
 import edu.utexas.tacc.tapis.sharedapi.providers.TapisExceptionMapper;
 import edu.utexas.tacc.tapis.sharedapi.providers.ValidationExceptionMapper;
+import edu.utexas.tacc.tapis.systems.api.resources.SystemsResource;
 import edu.utexas.tacc.tapis.systems.config.RuntimeParameters;
 import edu.utexas.tacc.tapis.systems.dao.SystemsDao;
-import edu.utexas.tacc.tapis.systems.dao.SystemsDaoImpl;
 import edu.utexas.tacc.tapis.systems.service.SystemsService;
+import edu.utexas.tacc.tapis.systems.service.SystemsDaoFactory;
 import edu.utexas.tacc.tapis.systems.service.SystemsServiceImpl;
 import edu.utexas.tacc.tapis.systems.service.ServiceClientsFactory;
 import edu.utexas.tacc.tapis.systems.service.ServiceContextFactory;
+import edu.utexas.tacc.tapis.systems.utils.ThreadUtils;
 
 import org.glassfish.hk2.api.ServiceLocator;
 import org.glassfish.hk2.utilities.binding.AbstractBinder;
+import org.glassfish.grizzly.http.CompressionConfig;
 import org.glassfish.grizzly.http.server.HttpServer;
+import org.glassfish.grizzly.http.server.NetworkListener;
+import org.glassfish.grizzly.nio.transport.TCPNIOTransport;
+import org.glassfish.grizzly.threadpool.AbstractThreadPool;
+import org.glassfish.grizzly.threadpool.ThreadPoolConfig;
 import org.glassfish.jersey.grizzly2.httpserver.GrizzlyHttpServerFactory;
 import org.glassfish.jersey.internal.inject.InjectionManager;
 import org.glassfish.jersey.jackson.JacksonFeature;
@@ -31,6 +38,7 @@ import org.glassfish.jersey.server.ResourceConfig;
 import org.jooq.tools.StringUtils;
 
 import java.net.URI;
+import java.util.concurrent.ExecutorService;
 
 /*
  * Main startup class for the web application. Uses Jersey and Grizzly frameworks.
@@ -40,7 +48,7 @@ import java.net.URI;
  *   Initializes the service:
  *     Init service context.
  *     DB creation or migration
- *   Starts the Grizzly server.
+ *   Configures and starts the Grizzly server.
  *
  * The path here is appended to the context root and is configured to work when invoked in a standalone
  * container (command line) and in an IDE (such as eclipse).
@@ -52,6 +60,10 @@ import java.net.URI;
 @ApplicationPath("/")
 public class SystemsApplication extends ResourceConfig
 {
+  // Response types compressed when compression is enabled. Event streams are not compressed since that would
+  //   delay delivery of events.
+  private static final String[] COMPRESSIBLE_MIME_TYPES = {"application/json", "text/plain"};
+
   // We must be running on a specific site and this will never change
   private static String siteId;
   public static String getSiteId() {return siteId;}
@@ -109,7 +121,7 @@ public class SystemsApplication extends ResourceConfig
         protected void configure() {
           bind(SystemsServiceImpl.class).to(SystemsService.class); // Used in Resource classes for most service calls
           bind(SystemsServiceImpl.class).to(SystemsServiceImpl.class); // Used in SystemsResource for checkDB
-          bind(SystemsDaoImpl.class).to(SystemsDao.class); // Used in service impl
+          bindFactory(SystemsDaoFactory.class).to(SystemsDao.class); // Used in service impl, records DAO metrics
           bindFactory(ServiceContextFactory.class).to(ServiceContext.class); // Used in SystemsResource for checkJWT
           bindFactory(ServiceClientsFactory.class).to(ServiceClients.class); // Used in service impl
         }
@@ -151,8 +163,88 @@ public class SystemsApplication extends ResourceConfig
 
     // Call the main service init method
     svcImpl.initService(siteId, siteAdminTenantId, RuntimeParameters.getInstance().getServicePassword());
+    SystemsResource.registerMetrics();
     // Create and start the server
     final HttpServer server = GrizzlyHttpServerFactory.createHttpServer(baseUri, config, false);
+    configureServer(server, RuntimeParameters.getInstance());
     server.start();
+    logServerConfig(server);
+  }
+
+  /**
+   * Apply transport, keep-alive, header and compression settings from runtime parameters.
+   * Must be called before the server is started.
+   */
+  private static void configureServer(HttpServer server, RuntimeParameters runParms)
+  {
+    for (NetworkListener listener : server.getListeners())
+    {
+      TCPNIOTransport transport = listener.getTransport();
+      // Worker threads. Use a virtual thread per request if requested and supported, else a fixed size pool.
+      ExecutorService virtualPool = runParms.isServerVirtualThreads() ? ThreadUtils.newVirtualThreadExecutor() : null;
+      if (virtualPool != null)
+      {
+        transport.setWorkerThreadPool(virtualPool);
+      }
+      else
+      {
+        if (runParms.isServerVirtualThreads())
+          System.out.println("**** Virtual threads not supported by this JVM. Using worker thread pool. ****");
+        // Update the existing config so that settings made by the server factory, such as thread names, are kept
+        if (runParms.getServerWorkerThreads() > 0)
+        {
+          transport.getWorkerThreadPoolConfig().setMaxPoolSize(runParms.getServerWorkerThreads())
+                                               .setCorePoolSize(runParms.getServerWorkerThreads());
+        }
+      }
+      if (runParms.getServerSelectorThreads() > 0) transport.setSelectorRunnersCount(runParms.getServerSelectorThreads());
+
+      // Keep-alive and request header limits
+      listener.getKeepAlive().setIdleTimeoutInSeconds(runParms.getServerKeepAliveIdleSeconds());
+      listener.getKeepAlive().setMaxRequestsCount(runParms.getServerKeepAliveMaxRequests());
+      listener.setMaxHttpHeaderSize(runParms.getServerMaxHeaderSize());
+
+      // Gzip responses above the size threshold for clients that accept it
+      CompressionConfig compressionConfig = listener.getCompressionConfig();
+      if (runParms.isServerCompression())
+      {
+        compressionConfig.setCompressionMode(CompressionConfig.CompressionMode.ON);
+        compressionConfig.setCompressionMinSize(runParms.getServerCompressionMinSize());
+        compressionConfig.setCompressibleMimeTypes(COMPRESSIBLE_MIME_TYPES);
+      }
+      else
+      {
+        compressionConfig.setCompressionMode(CompressionConfig.CompressionMode.OFF);
+      }
+    }
+  }
+
+  /*
+   * Output the effective transport configuration of each listener.
+   */
+  private static void logServerConfig(HttpServer server)
+  {
+    for (NetworkListener listener : server.getListeners())
+    {
+      TCPNIOTransport transport = listener.getTransport();
+      // Only a pool created by the server has a config, otherwise we are using virtual threads
+      ExecutorService workerPool = transport.getWorkerThreadPool();
+      String workers = "virtual threads";
+      if (workerPool instanceof AbstractThreadPool)
+      {
+        ThreadPoolConfig workerConfig = ((AbstractThreadPool) workerPool).getConfig();
+        workers = workerConfig.getCorePoolSize() + "-" + workerConfig.getMaxPoolSize();
+      }
+      CompressionConfig compressionConfig = listener.getCompressionConfig();
+      System.out.println("**** Server listener: " + listener.getName() + " " + listener.getHost() + ":" + listener.getPort() +
+                         " Worker threads: " + workers +
+                         " Selector threads: " + transport.getSelectorRunnersCount() +
+                         " Keep-alive idle seconds: " + listener.getKeepAlive().getIdleTimeoutInSeconds() +
+                         " Keep-alive max requests: " + listener.getKeepAlive().getMaxRequestsCount() +
+                         " Max header size: " + listener.getMaxHttpHeaderSize() +
+                         " Compression: " + compressionConfig.getCompressionMode() +
+                         " Compression min size: " + compressionConfig.getCompressionMinSize() +
+                         " Available processors: " + Runtime.getRuntime().availableProcessors() + " ****");
+    }
   }
 }
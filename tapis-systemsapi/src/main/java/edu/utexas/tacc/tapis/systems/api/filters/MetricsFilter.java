@@ -0,0 +1,115 @@
+package edu.utexas.tacc.tapis.systems.api.filters;
+
+import java.lang.reflect.Method;
+import javax.annotation.Priority;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerRequestFilter;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.container.ContainerResponseFilter;
+import javax.ws.rs.container.PreMatching;
+import javax.ws.rs.container.ResourceInfo;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.ext.Provider;
+
+import edu.utexas.tacc.tapis.systems.config.RuntimeParameters;
+import edu.utexas.tacc.tapis.systems.metrics.RequestTiming;
+import edu.utexas.tacc.tapis.systems.metrics.SystemsMetrics;
+
+/*
+ * Record the latency of each request in the HTTP metrics, labeled with the resource class and method.
+ * The start time is taken before any other filter runs, so authentication is included. The request is recorded
+ *   when the response filters run, which for a suspended request is when it is resumed.
+ * A response with a 5xx status is counted as an error.
+ *
+ * Also sets up the timing context for requests that send the X-Tapis-Server-Timing header with a value of true,
+ *   or for all requests if TAPIS_SERVER_TIMING is set. The context is made current for the request thread so
+ *   that time spent in each phase is recorded, and the breakdown is returned in a Server-Timing header.
+ */
+@Provider
+@PreMatching
+@Priority(1)
+public class MetricsFilter implements ContainerRequestFilter, ContainerResponseFilter
+{
+  /* ********************************************************************** */
+  /*                               Constants                                */
+  /* ********************************************************************** */
+  // Request property holding the start time
+  private static final String START_NANOS_PROPERTY = MetricsFilter.class.getName() + ".startNanos";
+
+  // Request property holding the timing context, if the request is timed
+  static final String TIMING_PROPERTY = MetricsFilter.class.getName() + ".timing";
+
+  // Request header used by a client to ask for a Server-Timing header
+  public static final String TIMING_REQUEST_HEADER = "X-Tapis-Server-Timing";
+
+  // Label for requests that did not match a resource method, e.g. 404 or rejected by authentication
+  private static final String UNMATCHED_LABEL = "unmatched";
+
+  /* ********************************************************************** */
+  /*                                 Fields                                 */
+  /* ********************************************************************** */
+  @Context
+  private ResourceInfo resourceInfo;
+
+  // Add a Server-Timing header to every response
+  private final boolean alwaysTimed;
+
+  /* ********************************************************************** */
+  /*                             Constructors                               */
+  /* ********************************************************************** */
+  public MetricsFilter()
+  {
+    RuntimeParameters parms = RuntimeParameters.getInstance();
+    alwaysTimed = (parms != null) && parms.isServerTiming();
+  }
+
+  /* ********************************************************************** */
+  /*                             Public Methods                             */
+  /* ********************************************************************** */
+
+  @Override
+  public void filter(ContainerRequestContext requestContext)
+  {
+    long start = System.nanoTime();
+    requestContext.setProperty(START_NANOS_PROPERTY, start);
+    RequestTiming timing = null;
+    if (alwaysTimed || "true".equalsIgnoreCase(requestContext.getHeaderString(TIMING_REQUEST_HEADER)))
+    {
+      timing = new RequestTiming(start);
+      requestContext.setProperty(TIMING_PROPERTY, timing);
+    }
+    // Always set so that nothing is left over from an earlier request on this thread
+    RequestTiming.setCurrent(timing);
+  }
+
+  @Override
+  public void filter(ContainerRequestContext requestContext, ContainerResponseContext responseContext)
+  {
+    long end = System.nanoTime();
+    Object start = requestContext.getProperty(START_NANOS_PROPERTY);
+    if (start instanceof Long)
+    {
+      SystemsMetrics.HTTP.record(getLabel(), end - (Long) start, responseContext.getStatus() >= 500);
+    }
+    Object timing = requestContext.getProperty(TIMING_PROPERTY);
+    if (timing instanceof RequestTiming)
+    {
+      responseContext.getHeaders().add(RequestTiming.HEADER_NAME, ((RequestTiming) timing).toHeaderValue(end));
+    }
+    RequestTiming.setCurrent(null);
+  }
+
+  /* ********************************************************************** */
+  /*                             Private Methods                            */
+  /* ********************************************************************** */
+
+  /*
+   * Label is class and method of the matched resource method, e.g. SystemResource.getSystem
+   */
+  private String getLabel()
+  {
+    Method method = (resourceInfo == null) ? null : resourceInfo.getResourceMethod();
+    if (method == null) return UNMATCHED_LABEL;
+    return resourceInfo.getResourceClass().getSimpleName() + "." + method.getName();
+  }
+}
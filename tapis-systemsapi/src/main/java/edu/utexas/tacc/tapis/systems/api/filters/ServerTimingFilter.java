@@ -0,0 +1,29 @@
+package edu.utexas.tacc.tapis.systems.api.filters;
+
+import javax.annotation.Priority;
+import javax.ws.rs.Priorities;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerRequestFilter;
+import javax.ws.rs.ext.Provider;
+
+import edu.utexas.tacc.tapis.systems.metrics.RequestTiming;
+import edu.utexas.tacc.tapis.systems.metrics.RequestTiming.Phase;
+
+/*
+ * For a timed request, record the time from receipt of the request until the resource method is about to be
+ *   called as the filters phase. This covers JWT validation and the other request filters.
+ * Runs after all other request filters. See MetricsFilter for how a request becomes timed.
+ */
+@Provider
+@Priority(Priorities.USER + 1000)
+public class ServerTimingFilter implements ContainerRequestFilter
+{
+  @Override
+  public void filter(ContainerRequestContext requestContext)
+  {
+    Object timing = requestContext.getProperty(MetricsFilter.TIMING_PROPERTY);
+    if (!(timing instanceof RequestTiming)) return;
+    RequestTiming requestTiming = (RequestTiming) timing;
+    requestTiming.add(Phase.FILTERS, System.nanoTime() - requestTiming.getStartNanos());
+  }
+}
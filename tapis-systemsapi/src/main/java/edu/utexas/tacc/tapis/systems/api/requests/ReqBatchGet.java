@@ -0,0 +1,12 @@
+package edu.utexas.tacc.tapis.systems.api.requests;
+
+import java.util.List;
+
+/*
+ * Class representing all attributes that can be set in an incoming batch get request json body
+ */
+public final class ReqBatchGet
+{
+  public List<String> ids;
+  public List<String> select; // Attributes to return for each system. If not set the select query parameter is used.
+}
@@ -0,0 +1,13 @@
+package edu.utexas.tacc.tapis.systems.api.requests;
+
+import java.util.List;
+
+/*
+ * Class representing all attributes that can be set in an incoming bulk permissions request json body
+ */
+public final class ReqPermsBulk
+{
+  public List<String> systemIds;
+  public List<String> users;
+  public List<String> permissions;
+}
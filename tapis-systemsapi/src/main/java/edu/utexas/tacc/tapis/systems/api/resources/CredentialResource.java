@@ -4,6 +4,7 @@ import edu.utexas.tacc.tapis.systems.model.ResourceRequestUser;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.glassfish.grizzly.http.server.Request;
+import org.glassfish.jersey.process.internal.RequestScope;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -18,6 +19,8 @@ import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
 import javax.ws.rs.core.Application;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.HttpHeaders;
@@ -42,6 +45,7 @@ import edu.utexas.tacc.tapis.sharedapi.utils.TapisRestUtils;
 import edu.utexas.tacc.tapis.systems.api.requests.ReqPostCredential;
 import edu.utexas.tacc.tapis.systems.api.responses.RespCredential;
 import edu.utexas.tacc.tapis.systems.api.utils.ApiUtils;
+import edu.utexas.tacc.tapis.systems.api.utils.AsyncDispatcher;
 import edu.utexas.tacc.tapis.systems.model.Credential;
 import edu.utexas.tacc.tapis.systems.model.TSystem.AuthnMethod;
 import edu.utexas.tacc.tapis.systems.service.SystemsService;
@@ -93,10 +97,16 @@ public class CredentialResource
   private ServletContext _servletContext;
   @Context
   private Request _request;
+  // JAX-RS view of the request, used by AsyncDispatcher to get the HTTP method
+  @Context
+  private javax.ws.rs.core.Request _restRequest;
 
   // **************** Inject Services using HK2 ****************
   @Inject
   private SystemsService systemsService;
+  // Used to carry the request context to the thread that does the work for a suspended request
+  @Inject
+  private RequestScope requestScope;
 
   // ************************************************************************
   // *********************** Public Methods *********************************
@@ -111,10 +121,20 @@ public class CredentialResource
   @Path("/{systemName}/user/{userName}")
   @Consumes(MediaType.APPLICATION_JSON)
   @Produces(MediaType.APPLICATION_JSON)
-  public Response createUserCredential(@PathParam("systemName") String systemName,
-                                       @PathParam("userName") String userName,
-                                       InputStream payloadStream,
-                                       @Context SecurityContext securityContext)
+  public void createUserCredential(@PathParam("systemName") String systemName,
+                                   @PathParam("userName") String userName,
+                                   InputStream payloadStream,
+                                   @Context SecurityContext securityContext,
+                                   @Suspended AsyncResponse asyncResponse)
+  {
+    AsyncDispatcher.getInstance().dispatch(asyncResponse, requestScope, _restRequest, "createUserCredential",
+                                           () -> createUserCredentialSync(systemName, userName, payloadStream, securityContext));
+  }
+
+  private Response createUserCredentialSync(String systemName,
+                                            String userName,
+                                            InputStream payloadStream,
+                                            SecurityContext securityContext)
   {
     String msg;
     // Trace this request.
@@ -201,7 +221,7 @@ public class CredentialResource
     // ---------------------------- Success -------------------------------
     RespBasic resp1 = new RespBasic();
     return Response.status(Status.CREATED)
-      .entity(TapisRestUtils.createSuccessResponse(ApiUtils.getMsgAuth("SYSAPI_CRED_UPDATED", rUser, systemName, userName),
+      .entity(ApiUtils.createSuccessResponse(ApiUtils.getMsgAuth("SYSAPI_CRED_UPDATED", rUser, systemName, userName),
                                                    PRETTY, resp1))
       .build();
   }
@@ -215,10 +235,20 @@ public class CredentialResource
   @Path("/{systemName}/user/{userName}")
   @Consumes(MediaType.APPLICATION_JSON)
   @Produces(MediaType.APPLICATION_JSON)
-  public Response getUserCredential(@PathParam("systemName") String systemName,
-                                    @PathParam("userName") String userName,
-                                    @QueryParam("authnMethod") @DefaultValue("") String authnMethodStr,
-                                    @Context SecurityContext securityContext)
+  public void getUserCredential(@PathParam("systemName") String systemName,
+                                @PathParam("userName") String userName,
+                                @QueryParam("authnMethod") @DefaultValue("") String authnMethodStr,
+                                @Context SecurityContext securityContext,
+                                @Suspended AsyncResponse asyncResponse)
+  {
+    AsyncDispatcher.getInstance().dispatch(asyncResponse, requestScope, _restRequest, "getUserCredential",
+                                           () -> getUserCredentialSync(systemName, userName, authnMethodStr, securityContext));
+  }
+
+  private Response getUserCredentialSync(String systemName,
+                                         String userName,
+                                         String authnMethodStr,
+                                         SecurityContext securityContext)
   {
     String msg;
     TapisThreadContext threadContext = TapisThreadLocal.tapisThreadContext.get(); // Local thread context
@@ -276,7 +306,7 @@ public class CredentialResource
     // ---------------------------- Success -------------------------------
     // Success means we retrieved the information.
     RespCredential resp1 = new RespCredential(credential);
-    return Response.status(Status.OK).entity(TapisRestUtils.createSuccessResponse(
+    return Response.status(Status.OK).entity(ApiUtils.createSuccessResponse(
             ApiUtils.getMsgAuth("SYSAPI_CRED_FOUND", rUser, systemName, userName), PRETTY, resp1)).build();
   }
 
@@ -288,9 +318,18 @@ public class CredentialResource
   @Path("/{systemName}/user/{userName}")
   @Consumes(MediaType.APPLICATION_JSON)
   @Produces(MediaType.APPLICATION_JSON)
-  public Response removeUserCredential(@PathParam("systemName") String systemName,
-                                       @PathParam("userName") String userName,
-                                       @Context SecurityContext securityContext)
+  public void removeUserCredential(@PathParam("systemName") String systemName,
+                                   @PathParam("userName") String userName,
+                                   @Context SecurityContext securityContext,
+                                   @Suspended AsyncResponse asyncResponse)
+  {
+    AsyncDispatcher.getInstance().dispatch(asyncResponse, requestScope, _restRequest, "removeUserCredential",
+                                           () -> removeUserCredentialSync(systemName, userName, securityContext));
+  }
+
+  private Response removeUserCredentialSync(String systemName,
+                                            String userName,
+                                            SecurityContext securityContext)
   {
     String msg;
     TapisThreadContext threadContext = TapisThreadLocal.tapisThreadContext.get(); // Local thread context
@@ -332,7 +371,7 @@ public class CredentialResource
     // ---------------------------- Success -------------------------------
     RespBasic resp1 = new RespBasic();
     return Response.status(Status.CREATED)
-      .entity(TapisRestUtils.createSuccessResponse(ApiUtils.getMsgAuth("SYSAPI_CRED_DELETED", rUser, systemName,
+      .entity(ApiUtils.createSuccessResponse(ApiUtils.getMsgAuth("SYSAPI_CRED_DELETED", rUser, systemName,
                                                                        userName), PRETTY, resp1))
       .build();
   }
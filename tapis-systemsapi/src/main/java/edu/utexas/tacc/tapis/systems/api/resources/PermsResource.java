@@ -2,6 +2,7 @@ package edu.utexas.tacc.tapis.systems.api.resources;
 
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
+import com.google.gson.JsonSyntaxException;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
@@ -10,13 +11,17 @@ import org.slf4j.LoggerFactory;
 import javax.inject.Inject;
 import javax.servlet.ServletContext;
 import org.glassfish.grizzly.http.server.Request;
+import org.glassfish.jersey.process.internal.RequestScope;
 import javax.ws.rs.*;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
 import javax.ws.rs.core.*;
 import javax.ws.rs.core.Response.Status;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -35,7 +40,9 @@ import edu.utexas.tacc.tapis.sharedapi.responses.RespBasic;
 import edu.utexas.tacc.tapis.sharedapi.responses.RespNameArray;
 import edu.utexas.tacc.tapis.sharedapi.responses.results.ResultNameArray;
 import edu.utexas.tacc.tapis.sharedapi.utils.TapisRestUtils;
+import edu.utexas.tacc.tapis.systems.api.requests.ReqPermsBulk;
 import edu.utexas.tacc.tapis.systems.api.utils.ApiUtils;
+import edu.utexas.tacc.tapis.systems.api.utils.AsyncDispatcher;
 import edu.utexas.tacc.tapis.systems.model.TSystem.Permission;
 import edu.utexas.tacc.tapis.systems.service.SystemsService;
 
@@ -59,6 +66,12 @@ public class PermsResource
 
   // Json schema resource files.
   private static final String FILE_PERMS_REQUEST = "/edu/utexas/tacc/tapis/systems/api/jsonschema/PermsRequest.json";
+  private static final String FILE_PERMS_BULK_REQUEST =
+          "/edu/utexas/tacc/tapis/systems/api/jsonschema/PermsBulkRequest.json";
+
+  // Message keys
+  private static final String INVALID_JSON_INPUT = "NET_INVALID_JSON_INPUT";
+  private static final String JSON_VALIDATION_ERR = "TAPIS_JSON_VALIDATION_ERROR";
 
   // Field names used in Json
   private static final String PERMISSIONS_FIELD = "permissions";
@@ -81,10 +94,16 @@ public class PermsResource
   private ServletContext _servletContext;
   @Context
   private Request _request;
+  // JAX-RS view of the request, used by AsyncDispatcher to get the HTTP method
+  @Context
+  private javax.ws.rs.core.Request _restRequest;
 
   // **************** Inject Services using HK2 ****************
   @Inject
   private SystemsService systemsService;
+  // Used to carry the request context to the thread that does the work for a suspended request
+  @Inject
+  private RequestScope requestScope;
 
   // ************************************************************************
   // *********************** Public Methods *********************************
@@ -99,10 +118,20 @@ public class PermsResource
   @Path("/{systemId}/user/{userName}")
   @Consumes(MediaType.APPLICATION_JSON)
   @Produces(MediaType.APPLICATION_JSON)
-  public Response grantUserPerms(@PathParam("systemId") String systemId,
-                                 @PathParam("userName") String userName,
-                                 InputStream payloadStream,
-                                 @Context SecurityContext securityContext)
+  public void grantUserPerms(@PathParam("systemId") String systemId,
+                             @PathParam("userName") String userName,
+                             InputStream payloadStream,
+                             @Context SecurityContext securityContext,
+                             @Suspended AsyncResponse asyncResponse)
+  {
+    AsyncDispatcher.getInstance().dispatch(asyncResponse, requestScope, _restRequest, "grantUserPerms",
+                                           () -> grantUserPermsSync(systemId, userName, payloadStream, securityContext));
+  }
+
+  private Response grantUserPermsSync(String systemId,
+                                      String userName,
+                                      InputStream payloadStream,
+                                      SecurityContext securityContext)
   {
     String msg;
     TapisThreadContext threadContext = TapisThreadLocal.tapisThreadContext.get(); // Local thread context
@@ -160,7 +189,7 @@ public class PermsResource
     String permsListStr = permsList.stream().map(Enum::name).collect(Collectors.joining(","));
     RespBasic resp1 = new RespBasic();
     return Response.status(Status.CREATED)
-      .entity(TapisRestUtils.createSuccessResponse(ApiUtils.getMsgAuth("SYSAPI_PERMS_GRANTED", rUser, systemId,
+      .entity(ApiUtils.createSuccessResponse(ApiUtils.getMsgAuth("SYSAPI_PERMS_GRANTED", rUser, systemId,
                                                                        userName, permsListStr),
                                                    PRETTY, resp1))
       .build();
@@ -174,9 +203,18 @@ public class PermsResource
   @Path("/{systemId}/user/{userName}")
   @Consumes(MediaType.APPLICATION_JSON)
   @Produces(MediaType.APPLICATION_JSON)
-  public Response getUserPerms(@PathParam("systemId") String systemId,
-                               @PathParam("userName") String userName,
-                               @Context SecurityContext securityContext)
+  public void getUserPerms(@PathParam("systemId") String systemId,
+                           @PathParam("userName") String userName,
+                           @Context SecurityContext securityContext,
+                           @Suspended AsyncResponse asyncResponse)
+  {
+    AsyncDispatcher.getInstance().dispatch(asyncResponse, requestScope, _restRequest, "getUserPerms",
+                                           () -> getUserPermsSync(systemId, userName, securityContext));
+  }
+
+  private Response getUserPermsSync(String systemId,
+                                    String userName,
+                                    SecurityContext securityContext)
   {
     String msg;
     TapisThreadContext threadContext = TapisThreadLocal.tapisThreadContext.get(); // Local thread context
@@ -226,7 +264,7 @@ public class PermsResource
     for (Permission perm : perms) { permNames.add(perm.name()); }
     names.names = permNames.toArray(TSystem.EMPTY_STR_ARRAY);
     RespNameArray resp1 = new RespNameArray(names);
-    return Response.status(Status.OK).entity(TapisRestUtils.createSuccessResponse(
+    return Response.status(Status.OK).entity(ApiUtils.createSuccessResponse(
       MsgUtils.getMsg("TAPIS_FOUND", "System permissions", perms.size() + " items"), PRETTY, resp1)).build();
   }
 
@@ -238,10 +276,20 @@ public class PermsResource
   @Path("/{systemId}/user/{userName}/{permission}")
   @Consumes(MediaType.APPLICATION_JSON)
   @Produces(MediaType.APPLICATION_JSON)
-  public Response revokeUserPerm(@PathParam("systemId") String systemId,
-                                 @PathParam("userName") String userName,
-                                 @PathParam("permission") String permissionStr,
-                                 @Context SecurityContext securityContext)
+  public void revokeUserPerm(@PathParam("systemId") String systemId,
+                             @PathParam("userName") String userName,
+                             @PathParam("permission") String permissionStr,
+                             @Context SecurityContext securityContext,
+                             @Suspended AsyncResponse asyncResponse)
+  {
+    AsyncDispatcher.getInstance().dispatch(asyncResponse, requestScope, _restRequest, "revokeUserPerm",
+                                           () -> revokeUserPermSync(systemId, userName, permissionStr, securityContext));
+  }
+
+  private Response revokeUserPermSync(String systemId,
+                                      String userName,
+                                      String permissionStr,
+                                      SecurityContext securityContext)
   {
     String msg;
     TapisThreadContext threadContext = TapisThreadLocal.tapisThreadContext.get(); // Local thread context
@@ -292,7 +340,7 @@ public class PermsResource
     // ---------------------------- Success -------------------------------
     RespBasic resp1 = new RespBasic();
     return Response.status(Status.CREATED)
-      .entity(TapisRestUtils.createSuccessResponse(ApiUtils.getMsgAuth("SYSAPI_PERMS_REVOKED", rUser, systemId,
+      .entity(ApiUtils.createSuccessResponse(ApiUtils.getMsgAuth("SYSAPI_PERMS_REVOKED", rUser, systemId,
                                                                        userName, permissionStr),
                                                    PRETTY, resp1))
       .build();
@@ -307,10 +355,20 @@ public class PermsResource
   @Path("/{systemId}/user/{userName}/revoke")
   @Consumes(MediaType.APPLICATION_JSON)
   @Produces(MediaType.APPLICATION_JSON)
-  public Response revokeUserPerms(@PathParam("systemId") String systemId,
-                                  @PathParam("userName") String userName,
-                                  InputStream payloadStream,
-                                  @Context SecurityContext securityContext)
+  public void revokeUserPerms(@PathParam("systemId") String systemId,
+                              @PathParam("userName") String userName,
+                              InputStream payloadStream,
+                              @Context SecurityContext securityContext,
+                              @Suspended AsyncResponse asyncResponse)
+  {
+    AsyncDispatcher.getInstance().dispatch(asyncResponse, requestScope, _restRequest, "revokeUserPerms",
+                                           () -> revokeUserPermsSync(systemId, userName, payloadStream, securityContext));
+  }
+
+  private Response revokeUserPermsSync(String systemId,
+                                       String userName,
+                                       InputStream payloadStream,
+                                       SecurityContext securityContext)
   {
     String msg;
     // Trace this request.
@@ -368,17 +426,135 @@ public class PermsResource
     String permsListStr = permsList.stream().map(Enum::name).collect(Collectors.joining(","));
     RespBasic resp1 = new RespBasic();
     return Response.status(Status.CREATED)
-      .entity(TapisRestUtils.createSuccessResponse(ApiUtils.getMsgAuth("SYSAPI_PERMS_REVOKED", rUser, systemId,
+      .entity(ApiUtils.createSuccessResponse(ApiUtils.getMsgAuth("SYSAPI_PERMS_REVOKED", rUser, systemId,
                                                                        userName, permsListStr),
                                                    PRETTY, resp1))
       .build();
   }
 
 
+  /**
+   * Assign specified permissions to many users for many systems.
+   * @param payloadStream - request body containing systemIds, users and permissions
+   * @return basic response
+   */
+  @POST
+  @Path("/bulk/grant")
+  @Consumes(MediaType.APPLICATION_JSON)
+  @Produces(MediaType.APPLICATION_JSON)
+  public void grantUserPermsBulk(InputStream payloadStream,
+                                 @Context SecurityContext securityContext,
+                                 @Suspended AsyncResponse asyncResponse)
+  {
+    AsyncDispatcher.getInstance().dispatch(asyncResponse, requestScope, _restRequest, "grantUserPermsBulk",
+                                           () -> updateUserPermsBulk("grantUserPermsBulk", true, payloadStream, securityContext));
+  }
+
+  /**
+   * Revoke specified permissions from many users for many systems.
+   * @param payloadStream - request body containing systemIds, users and permissions
+   * @return basic response
+   */
+  @POST
+  @Path("/bulk/revoke")
+  @Consumes(MediaType.APPLICATION_JSON)
+  @Produces(MediaType.APPLICATION_JSON)
+  public void revokeUserPermsBulk(InputStream payloadStream,
+                                  @Context SecurityContext securityContext,
+                                  @Suspended AsyncResponse asyncResponse)
+  {
+    AsyncDispatcher.getInstance().dispatch(asyncResponse, requestScope, _restRequest, "revokeUserPermsBulk",
+                                           () -> updateUserPermsBulk("revokeUserPermsBulk", false, payloadStream, securityContext));
+  }
+
   // ************************************************************************
   // *********************** Private Methods ********************************
   // ************************************************************************
 
+  /**
+   * Common code for bulk grant and revoke.
+   * Every combination of system and user in the request is updated.
+   */
+  private Response updateUserPermsBulk(String opName, boolean isGrant, InputStream payloadStream,
+                                       SecurityContext securityContext)
+  {
+    String msg;
+    TapisThreadContext threadContext = TapisThreadLocal.tapisThreadContext.get(); // Local thread context
+
+    // Trace this request.
+    if (_log.isTraceEnabled())
+    {
+      msg = MsgUtils.getMsg("TAPIS_TRACE_REQUEST", getClass().getSimpleName(), opName,
+                            "  " + _request.getRequestURL());
+      _log.trace(msg);
+    }
+
+    // Check that we have all we need from the context, tenant name and apiUserId
+    // Utility method returns null if all OK and appropriate error response if there was a problem.
+    Response resp = ApiUtils.checkContext(threadContext, PRETTY);
+    if (resp != null) return resp;
+
+    // Create a user that collects together tenant, user and request information needed by the service call
+    ResourceRequestUser rUser = new ResourceRequestUser((AuthenticatedUser) securityContext.getUserPrincipal());
+
+    // Read the payload into a string.
+    String json;
+    try { json = IOUtils.toString(payloadStream, StandardCharsets.UTF_8); }
+    catch (Exception e)
+    {
+      msg = MsgUtils.getMsg(INVALID_JSON_INPUT, opName, e.getMessage());
+      _log.error(msg, e);
+      return Response.status(Status.BAD_REQUEST).entity(TapisRestUtils.createErrorResponse(msg, PRETTY)).build();
+    }
+
+    // ------------------------- Extract and validate payload -------------------------
+    // Create validator specification and validate the json against the schema
+    JsonValidatorSpec spec = new JsonValidatorSpec(json, FILE_PERMS_BULK_REQUEST);
+    try { JsonValidator.validate(spec); }
+    catch (TapisJSONException e)
+    {
+      msg = MsgUtils.getMsg(JSON_VALIDATION_ERR, e.getMessage());
+      _log.error(msg, e);
+      return Response.status(Status.BAD_REQUEST).entity(TapisRestUtils.createErrorResponse(msg, PRETTY)).build();
+    }
+    ReqPermsBulk req;
+    try { req = TapisGsonUtils.getGson().fromJson(json, ReqPermsBulk.class); }
+    catch (JsonSyntaxException e)
+    {
+      msg = MsgUtils.getMsg(INVALID_JSON_INPUT, opName, e.getMessage());
+      _log.error(msg, e);
+      return Response.status(Status.BAD_REQUEST).entity(TapisRestUtils.createErrorResponse(msg, PRETTY)).build();
+    }
+    // Schema restricts permissions to valid values in upper or lower case
+    var permsList = new HashSet<Permission>();
+    for (String permStr : req.permissions) { permsList.add(Permission.valueOf(permStr.toUpperCase())); }
+
+    // ------------------------- Perform the operation -------------------------
+    int count;
+    try
+    {
+      var systemIds = new LinkedHashSet<>(req.systemIds);
+      var userNames = new LinkedHashSet<>(req.users);
+      if (isGrant) count = systemsService.grantUserPermissionsBulk(rUser, systemIds, userNames, permsList, json);
+      else count = systemsService.revokeUserPermissionsBulk(rUser, systemIds, userNames, permsList, json);
+    }
+    catch (Exception e)
+    {
+      msg = ApiUtils.getMsgAuth("SYSAPI_PERMS_BULK_ERROR", rUser, opName, e.getMessage());
+      _log.error(msg, e);
+      return Response.status(TapisRestUtils.getStatus(e)).entity(TapisRestUtils.createErrorResponse(msg, PRETTY)).build();
+    }
+
+    // ---------------------------- Success -------------------------------
+    String permsListStr = permsList.stream().map(Enum::name).collect(Collectors.joining(","));
+    String key = isGrant ? "SYSAPI_PERMS_BULK_GRANTED" : "SYSAPI_PERMS_BULK_REVOKED";
+    RespBasic resp1 = new RespBasic();
+    return Response.status(isGrant ? Status.CREATED : Status.OK)
+      .entity(ApiUtils.createSuccessResponse(ApiUtils.getMsgAuth(key, rUser, count, permsListStr),
+                                                   PRETTY, resp1))
+      .build();
+  }
+
   /**
    * Check json payload and extract permissions list.
    * @param systemId - name of the system, for constructing response msg in case of err
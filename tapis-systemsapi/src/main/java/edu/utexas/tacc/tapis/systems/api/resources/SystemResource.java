@@ -5,11 +5,13 @@ import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import javax.inject.Inject;
 import javax.servlet.ServletContext;
 import javax.ws.rs.Consumes;
 import javax.ws.rs.DefaultValue;
 import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
 import javax.ws.rs.NotAuthorizedException;
 import javax.ws.rs.NotFoundException;
 import javax.ws.rs.PATCH;
@@ -19,6 +21,9 @@ import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
 import javax.ws.rs.core.Application;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.HttpHeaders;
@@ -27,6 +32,8 @@ import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
 import javax.ws.rs.core.SecurityContext;
 import javax.ws.rs.core.UriInfo;
+import javax.ws.rs.sse.Sse;
+import javax.ws.rs.sse.SseEventSink;
 
 import com.google.gson.JsonObject;
 import com.google.gson.JsonSyntaxException;
@@ -45,6 +52,7 @@ import edu.utexas.tacc.tapis.systems.model.ResourceRequestUser;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.glassfish.grizzly.http.server.Request;
+import org.glassfish.jersey.process.internal.RequestScope;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -61,14 +69,27 @@ import edu.utexas.tacc.tapis.sharedapi.responses.RespChangeCount;
 import edu.utexas.tacc.tapis.sharedapi.responses.RespResourceUrl;
 import edu.utexas.tacc.tapis.sharedapi.responses.results.ResultChangeCount;
 import edu.utexas.tacc.tapis.sharedapi.responses.results.ResultResourceUrl;
+import edu.utexas.tacc.tapis.systems.api.requests.ReqBatchGet;
 import edu.utexas.tacc.tapis.systems.api.requests.ReqPatchSystem;
 import edu.utexas.tacc.tapis.systems.api.requests.ReqPostSystem;
 import edu.utexas.tacc.tapis.systems.api.requests.ReqPutSystem;
 import edu.utexas.tacc.tapis.systems.api.responses.RespSystem;
+import edu.utexas.tacc.tapis.systems.api.responses.RespSystemChanges;
+import edu.utexas.tacc.tapis.systems.api.responses.RespStatementStats;
+import edu.utexas.tacc.tapis.systems.api.responses.RespSystemFacets;
 import edu.utexas.tacc.tapis.systems.api.responses.RespSystems;
+import edu.utexas.tacc.tapis.systems.api.responses.RespSystemsBatch;
 import edu.utexas.tacc.tapis.systems.api.utils.ApiUtils;
+import edu.utexas.tacc.tapis.systems.api.utils.AsyncDispatcher;
+import edu.utexas.tacc.tapis.systems.api.utils.SseSystemEventSink;
+import edu.utexas.tacc.tapis.systems.events.SystemEventHub;
+import edu.utexas.tacc.tapis.systems.model.SystemBatchItem;
+import edu.utexas.tacc.tapis.systems.model.StatementStats;
+import edu.utexas.tacc.tapis.systems.model.SystemChanges;
+import edu.utexas.tacc.tapis.systems.model.SystemVersionInfo;
 import edu.utexas.tacc.tapis.systems.model.TSystem;
 import edu.utexas.tacc.tapis.systems.model.TSystem.AuthnMethod;
+import edu.utexas.tacc.tapis.systems.model.TotalCount;
 import edu.utexas.tacc.tapis.systems.service.SystemsService;
 
 import static edu.utexas.tacc.tapis.systems.model.Credential.SECRETS_MASK;
@@ -105,6 +126,7 @@ public class SystemResource
   private static final String FILE_SYSTEM_PUT_REQUEST = "/edu/utexas/tacc/tapis/systems/api/jsonschema/SystemPutRequest.json";
   private static final String FILE_SYSTEM_UPDATE_REQUEST = "/edu/utexas/tacc/tapis/systems/api/jsonschema/SystemPatchRequest.json";
   private static final String FILE_SYSTEM_SEARCH_REQUEST = "/edu/utexas/tacc/tapis/systems/api/jsonschema/SystemSearchRequest.json";
+  private static final String FILE_SYSTEM_BATCHGET_REQUEST = "/edu/utexas/tacc/tapis/systems/api/jsonschema/SystemBatchGetRequest.json";
   private static final String FILE_SYSTEM_MATCH_REQUEST = "/edu/utexas/tacc/tapis/systems/api/jsonschema/MatchConstraintsRequest.json";
 
   // Message keys
@@ -118,10 +140,20 @@ public class SystemResource
   private static final String TAPIS_FOUND = "TAPIS_FOUND";
   private static final String NOT_FOUND = "SYSAPI_NOT_FOUND";
   private static final String UPDATED = "SYSAPI_UPDATED";
+  private static final String CHANGES_TOKEN_ERR = "SYSAPI_CHANGES_TOKEN_ERROR";
+  private static final String EVENTS_TOKEN_ERR = "SYSAPI_EVENTS_TOKEN_ERROR";
+  private static final String EVENTS_UNAVAILABLE = "SYSAPI_EVENTS_UNAVAILABLE";
+  private static final String TOTAL_MODE_ERR = "SYSAPI_TOTAL_MODE_ERROR";
 
   // Format strings
   private static final String SYS_CNT_STR = "%d systems";
 
+  // Query parameter and values used to choose how totalCount is computed, i.e. totalMode=approx or totalMode=exact
+  // computeTotal can not be used since the shared QueryParametersRequestFilter only accepts a boolean for it.
+  private static final String TOTAL_MODE_PARM = "totalMode";
+  private static final String TOTAL_MODE_APPROX = "approx";
+  private static final String TOTAL_MODE_EXACT = "exact";
+
   // Operation names
   private static final String OP_ENABLE = "enableSystem";
   private static final String OP_DISABLE = "disableSystem";
@@ -152,10 +184,16 @@ public class SystemResource
   private ServletContext _servletContext;
   @Context
   private Request _request;
+  // JAX-RS view of the request, used by AsyncDispatcher to get the HTTP method
+  @Context
+  private javax.ws.rs.core.Request _restRequest;
 
   // **************** Inject Services using HK2 ****************
   @Inject
   private SystemsService systemsService;
+  // Used to carry the request context to the thread that does the work for a suspended request
+  @Inject
+  private RequestScope requestScope;
 
   // ************************************************************************
   // *********************** Public Methods *********************************
@@ -170,8 +208,16 @@ public class SystemResource
   @POST
   @Consumes(MediaType.APPLICATION_JSON)
   @Produces(MediaType.APPLICATION_JSON)
-  public Response createSystem(InputStream payloadStream,
-                               @Context SecurityContext securityContext)
+  public void createSystem(InputStream payloadStream,
+                           @Context SecurityContext securityContext,
+                           @Suspended AsyncResponse asyncResponse)
+  {
+    AsyncDispatcher.getInstance().dispatch(asyncResponse, requestScope, _restRequest, "createSystem",
+                                           () -> createSystemSync(payloadStream, securityContext));
+  }
+
+  private Response createSystemSync(InputStream payloadStream,
+                                    SecurityContext securityContext)
   {
     String opName = "createSystem";
 
@@ -307,9 +353,18 @@ public class SystemResource
   @Path("{systemId}")
   @Consumes(MediaType.APPLICATION_JSON)
   @Produces(MediaType.APPLICATION_JSON)
-  public Response updateSystem(@PathParam("systemId") String systemId,
-                               InputStream payloadStream,
-                               @Context SecurityContext securityContext)
+  public void updateSystem(@PathParam("systemId") String systemId,
+                           InputStream payloadStream,
+                           @Context SecurityContext securityContext,
+                           @Suspended AsyncResponse asyncResponse)
+  {
+    AsyncDispatcher.getInstance().dispatch(asyncResponse, requestScope, _restRequest, "updateSystem",
+                                           () -> updateSystemSync(systemId, payloadStream, securityContext));
+  }
+
+  private Response updateSystemSync(String systemId,
+                                    InputStream payloadStream,
+                                    SecurityContext securityContext)
   {
     String opName = "updateSystem";
     // Trace this request.
@@ -430,9 +485,18 @@ public class SystemResource
   @Path("{systemId}")
   @Consumes(MediaType.APPLICATION_JSON)
   @Produces(MediaType.APPLICATION_JSON)
-  public Response putSystem(@PathParam("systemId") String systemId,
-                            InputStream payloadStream,
-                            @Context SecurityContext securityContext)
+  public void putSystem(@PathParam("systemId") String systemId,
+                        InputStream payloadStream,
+                        @Context SecurityContext securityContext,
+                        @Suspended AsyncResponse asyncResponse)
+  {
+    AsyncDispatcher.getInstance().dispatch(asyncResponse, requestScope, _restRequest, "putSystem",
+                                           () -> putSystemSync(systemId, payloadStream, securityContext));
+  }
+
+  private Response putSystemSync(String systemId,
+                                 InputStream payloadStream,
+                                 SecurityContext securityContext)
   {
     String opName = "putSystem";
     // Trace this request.
@@ -560,10 +624,12 @@ public class SystemResource
   @Path("{systemId}/enable")
   @Consumes(MediaType.APPLICATION_JSON)
   @Produces(MediaType.APPLICATION_JSON)
-  public Response enableSystem(@PathParam("systemId") String systemId,
-                               @Context SecurityContext securityContext)
+  public void enableSystem(@PathParam("systemId") String systemId,
+                           @Context SecurityContext securityContext,
+                           @Suspended AsyncResponse asyncResponse)
   {
-    return postSystemSingleUpdate(OP_ENABLE, systemId, null, securityContext);
+    AsyncDispatcher.getInstance().dispatch(asyncResponse, requestScope, _restRequest, "enableSystem",
+                                           () -> postSystemSingleUpdate(OP_ENABLE, systemId, null, securityContext));
   }
 
   /**
@@ -576,10 +642,12 @@ public class SystemResource
   @Path("{systemId}/disable")
   @Consumes(MediaType.APPLICATION_JSON)
   @Produces(MediaType.APPLICATION_JSON)
-  public Response disableSystem(@PathParam("systemId") String systemId,
-                                @Context SecurityContext securityContext)
+  public void disableSystem(@PathParam("systemId") String systemId,
+                            @Context SecurityContext securityContext,
+                            @Suspended AsyncResponse asyncResponse)
   {
-    return postSystemSingleUpdate(OP_DISABLE, systemId, null, securityContext);
+    AsyncDispatcher.getInstance().dispatch(asyncResponse, requestScope, _restRequest, "disableSystem",
+                                           () -> postSystemSingleUpdate(OP_DISABLE, systemId, null, securityContext));
   }
 
   /**
@@ -592,10 +660,12 @@ public class SystemResource
   @Path("{systemId}/delete")
   @Consumes(MediaType.APPLICATION_JSON)
   @Produces(MediaType.APPLICATION_JSON)
-  public Response deleteSystem(@PathParam("systemId") String systemId,
-                               @Context SecurityContext securityContext)
+  public void deleteSystem(@PathParam("systemId") String systemId,
+                           @Context SecurityContext securityContext,
+                           @Suspended AsyncResponse asyncResponse)
   {
-    return postSystemSingleUpdate(OP_DELETE, systemId, null, securityContext);
+    AsyncDispatcher.getInstance().dispatch(asyncResponse, requestScope, _restRequest, "deleteSystem",
+                                           () -> postSystemSingleUpdate(OP_DELETE, systemId, null, securityContext));
   }
 
   /**
@@ -608,10 +678,12 @@ public class SystemResource
   @Path("{systemId}/undelete")
   @Consumes(MediaType.APPLICATION_JSON)
   @Produces(MediaType.APPLICATION_JSON)
-  public Response undeleteSystem(@PathParam("systemId") String systemId,
-                                 @Context SecurityContext securityContext)
+  public void undeleteSystem(@PathParam("systemId") String systemId,
+                             @Context SecurityContext securityContext,
+                             @Suspended AsyncResponse asyncResponse)
   {
-    return postSystemSingleUpdate(OP_UNDELETE, systemId, null, securityContext);
+    AsyncDispatcher.getInstance().dispatch(asyncResponse, requestScope, _restRequest, "undeleteSystem",
+                                           () -> postSystemSingleUpdate(OP_UNDELETE, systemId, null, securityContext));
   }
 
   /**
@@ -625,11 +697,13 @@ public class SystemResource
   @Path("{systemId}/changeOwner/{userName}")
   @Consumes(MediaType.APPLICATION_JSON)
   @Produces(MediaType.APPLICATION_JSON)
-  public Response changeSystemOwner(@PathParam("systemId") String systemId,
-                                    @PathParam("userName") String userName,
-                                    @Context SecurityContext securityContext)
+  public void changeSystemOwner(@PathParam("systemId") String systemId,
+                                @PathParam("userName") String userName,
+                                @Context SecurityContext securityContext,
+                                @Suspended AsyncResponse asyncResponse)
   {
-    return postSystemSingleUpdate(OP_CHANGEOWNER, systemId, userName, securityContext);
+    AsyncDispatcher.getInstance().dispatch(asyncResponse, requestScope, _restRequest, "changeSystemOwner",
+                                           () -> postSystemSingleUpdate(OP_CHANGEOWNER, systemId, userName, securityContext));
   }
 
   /**
@@ -645,11 +719,22 @@ public class SystemResource
   @Path("{systemId}")
   @Consumes(MediaType.APPLICATION_JSON)
   @Produces(MediaType.APPLICATION_JSON)
-  public Response getSystem(@PathParam("systemId") String systemId,
-                            @QueryParam("returnCredentials") @DefaultValue("false") boolean getCreds,
-                            @QueryParam("authnMethod") @DefaultValue("") String authnMethodStr,
-                            @QueryParam("requireExecPerm") @DefaultValue("false") boolean requireExecPerm,
-                            @Context SecurityContext securityContext)
+  public void getSystem(@PathParam("systemId") String systemId,
+                        @QueryParam("returnCredentials") @DefaultValue("false") boolean getCreds,
+                        @QueryParam("authnMethod") @DefaultValue("") String authnMethodStr,
+                        @QueryParam("requireExecPerm") @DefaultValue("false") boolean requireExecPerm,
+                        @Context SecurityContext securityContext,
+                        @Suspended AsyncResponse asyncResponse)
+  {
+    AsyncDispatcher.getInstance().dispatch(asyncResponse, requestScope, _restRequest, "getSystem",
+                                           () -> getSystemSync(systemId, getCreds, authnMethodStr, requireExecPerm, securityContext));
+  }
+
+  private Response getSystemSync(String systemId,
+                                 boolean getCreds,
+                                 String authnMethodStr,
+                                 boolean requireExecPerm,
+                                 SecurityContext securityContext)
   {
     String opName = "getSystem";
     if (_log.isTraceEnabled()) logRequest(opName);
@@ -675,6 +760,30 @@ public class SystemResource
 
     List<String> selectList = threadContext.getSearchParameters().getSelectList();
 
+    // Conditional GET. If client has current version then we are done. Credentials are stored outside the
+    //   system definition so there is no ETag when they are requested.
+    String ifNoneMatch = _httpHeaders.getHeaderString(HttpHeaders.IF_NONE_MATCH);
+    if (!getCreds && !StringUtils.isBlank(ifNoneMatch))
+    {
+      try
+      {
+        SystemVersionInfo versionInfo = systemsService.getSystemVersionInfo(rUser, systemId, requireExecPerm);
+        if (versionInfo != null)
+        {
+          String eTag = ApiUtils.getSystemETag(versionInfo.getUuid(), versionInfo.getUpdated(),
+                                               versionInfo.getEffectiveUserId(), selectList);
+          if (ApiUtils.ifNoneMatchMatches(ifNoneMatch, eTag))
+            return Response.status(Status.NOT_MODIFIED).header(HttpHeaders.ETAG, eTag).build();
+        }
+      }
+      catch (Exception e)
+      {
+        String msg = ApiUtils.getMsgAuth("SYSAPI_GET_SYS_ERROR", rUser, systemId, e.getMessage());
+        _log.error(msg, e);
+        return Response.status(TapisRestUtils.getStatus(e)).entity(TapisRestUtils.createErrorResponse(msg, PRETTY)).build();
+      }
+    }
+
     TSystem tSystem;
     try
     {
@@ -697,7 +806,11 @@ public class SystemResource
     // ---------------------------- Success -------------------------------
     // Success means we retrieved the system information.
     RespSystem resp1 = new RespSystem(tSystem, selectList);
-    return createSuccessResponse(Status.OK, MsgUtils.getMsg(TAPIS_FOUND, "System", systemId), resp1);
+    Response successResponse = createSuccessResponse(Status.OK, MsgUtils.getMsg(TAPIS_FOUND, "System", systemId), resp1);
+    if (getCreds) return successResponse;
+    String eTag = ApiUtils.getSystemETag(tSystem.getUuid(), tSystem.getUpdated(), tSystem.getEffectiveUserId(),
+                                         selectList);
+    return Response.fromResponse(successResponse).header(HttpHeaders.ETAG, eTag).build();
   }
 
   /**
@@ -711,8 +824,16 @@ public class SystemResource
   @Path("{systemId}/isEnabled")
   @Consumes(MediaType.APPLICATION_JSON)
   @Produces(MediaType.APPLICATION_JSON)
-  public Response isEnabled(@PathParam("systemId") String sysId,
-                            @Context SecurityContext securityContext)
+  public void isEnabled(@PathParam("systemId") String sysId,
+                        @Context SecurityContext securityContext,
+                        @Suspended AsyncResponse asyncResponse)
+  {
+    AsyncDispatcher.getInstance().dispatch(asyncResponse, requestScope, _restRequest, "isEnabled",
+                                           () -> isEnabledSync(sysId, securityContext));
+  }
+
+  private Response isEnabledSync(String sysId,
+                                 SecurityContext securityContext)
   {
     String opName = "isEnabled";
     if (_log.isTraceEnabled()) logRequest(opName);
@@ -764,8 +885,16 @@ public class SystemResource
   @GET
   @Consumes(MediaType.APPLICATION_JSON)
   @Produces(MediaType.APPLICATION_JSON)
-  public Response getSystems(@Context SecurityContext securityContext,
-                             @QueryParam("showDeleted") @DefaultValue("false") boolean showDeleted)
+  public void getSystems(@Context SecurityContext securityContext,
+                         @QueryParam("showDeleted") @DefaultValue("false") boolean showDeleted,
+                         @Suspended AsyncResponse asyncResponse)
+  {
+    AsyncDispatcher.getInstance().dispatch(asyncResponse, requestScope, _restRequest, "getSystems",
+                                           () -> getSystemsSync(securityContext, showDeleted));
+  }
+
+  private Response getSystemsSync(SecurityContext securityContext,
+                                  boolean showDeleted)
   {
     String opName = "getSystems";
     // Trace this request.
@@ -798,6 +927,269 @@ public class SystemResource
     return successResponse;
   }
 
+  /**
+   * getSystemFacets
+   * Retrieve counts grouped by attribute value for all systems accessible by requester and matching any
+   *   search conditions provided. Intended for dashboards so that all systems need not be retrieved.
+   * NOTE: The query parameter search is handled in the filter QueryParametersRequestFilter.
+   * @param securityContext - user identity
+   * @param facets - comma separated list of attributes, e.g. facets=systemType,owner. Default is all supported.
+   * @param showDeleted - whether or not to included resources that have been marked as deleted.
+   * @return - map of attribute name to map of value to count.
+   */
+  @GET
+  @Path("facets")
+  @Consumes(MediaType.APPLICATION_JSON)
+  @Produces(MediaType.APPLICATION_JSON)
+  public void getSystemFacets(@Context SecurityContext securityContext,
+                              @QueryParam("facets") String facets,
+                              @QueryParam("showDeleted") @DefaultValue("false") boolean showDeleted,
+                              @Suspended AsyncResponse asyncResponse)
+  {
+    AsyncDispatcher.getInstance().dispatch(asyncResponse, requestScope, _restRequest, "getSystemFacets",
+                                           () -> getSystemFacetsSync(securityContext, facets, showDeleted));
+  }
+
+  private Response getSystemFacetsSync(SecurityContext securityContext,
+                                       String facets,
+                                       boolean showDeleted)
+  {
+    String opName = "getSystemFacets";
+    // Trace this request.
+    if (_log.isTraceEnabled()) logRequest(opName);
+
+    // Check that we have all we need from the context, the jwtTenantId and jwtUserId
+    // Utility method returns null if all OK and appropriate error response if there was a problem.
+    TapisThreadContext threadContext = TapisThreadLocal.tapisThreadContext.get();
+    Response resp = ApiUtils.checkContext(threadContext, PRETTY);
+    if (resp != null) return resp;
+
+    // Create a user that collects together tenant, user and request information needed by the service call
+    ResourceRequestUser rUser = new ResourceRequestUser((AuthenticatedUser) securityContext.getUserPrincipal());
+
+    // ThreadContext designed to never return null for SearchParameters
+    SearchParameters srchParms = threadContext.getSearchParameters();
+
+    // Build list of attributes from comma separated string
+    var facetList = new ArrayList<String>();
+    if (!StringUtils.isBlank(facets))
+    {
+      for (String facet : facets.split(",")) { if (!StringUtils.isBlank(facet)) facetList.add(facet.trim()); }
+    }
+
+    // ------------------------- Retrieve records -----------------------------
+    Map<String, Map<String, Integer>> facetMap;
+    try
+    {
+      facetMap = systemsService.getSystemsFacets(rUser, srchParms.getSearchList(), facetList, showDeleted);
+    }
+    catch (Exception e)
+    {
+      String msg = ApiUtils.getMsgAuth(SELECT_ERR, rUser, e.getMessage());
+      _log.error(msg, e);
+      return Response.status(TapisRestUtils.getStatus(e)).entity(TapisRestUtils.createErrorResponse(msg, PRETTY)).build();
+    }
+
+    // ---------------------------- Success -------------------------------
+    RespSystemFacets resp1 = new RespSystemFacets(facetMap);
+    return createSuccessResponse(Status.OK, MsgUtils.getMsg(TAPIS_FOUND, SYSTEMS_SVC, "facets"), resp1);
+  }
+
+  /**
+   * getSystemChanges
+   * Retrieve systems accessible by requester that have been created, updated or deleted since a change sequence
+   *   token, along with tombstones for systems that have been permanently removed or are no longer accessible.
+   * Intended for clients that keep a local copy of systems, so they can poll cheaply rather than retrieve all
+   *   systems. Start with since=0 and then pass the value of nextToken from each response.
+   * @param securityContext - user identity
+   * @param since - token from a previous response, 0 to retrieve all systems
+   * @param limit - maximum number of changes to return, default used if not specified
+   * @return - changed systems, tombstones and the token for the next request.
+   */
+  @GET
+  @Path("changes")
+  @Consumes(MediaType.APPLICATION_JSON)
+  @Produces(MediaType.APPLICATION_JSON)
+  public void getSystemChanges(@Context SecurityContext securityContext,
+                               @QueryParam("since") @DefaultValue("0") String since,
+                               @QueryParam("limit") @DefaultValue("-1") int limit,
+                               @Suspended AsyncResponse asyncResponse)
+  {
+    AsyncDispatcher.getInstance().dispatch(asyncResponse, requestScope, _restRequest, "getSystemChanges",
+                                           () -> getSystemChangesSync(securityContext, since, limit));
+  }
+
+  private Response getSystemChangesSync(SecurityContext securityContext,
+                                        String since,
+                                        int limit)
+  {
+    String opName = "getSystemChanges";
+    // Trace this request.
+    if (_log.isTraceEnabled()) logRequest(opName);
+
+    // Check that we have all we need from the context, the jwtTenantId and jwtUserId
+    // Utility method returns null if all OK and appropriate error response if there was a problem.
+    TapisThreadContext threadContext = TapisThreadLocal.tapisThreadContext.get();
+    Response resp = ApiUtils.checkContext(threadContext, PRETTY);
+    if (resp != null) return resp;
+
+    // Create a user that collects together tenant, user and request information needed by the service call
+    ResourceRequestUser rUser = new ResourceRequestUser((AuthenticatedUser) securityContext.getUserPrincipal());
+
+    // Token is opaque to clients but is currently a change sequence value.
+    long sinceSeq;
+    try { sinceSeq = Long.parseLong(since.trim()); }
+    catch (NumberFormatException e)
+    {
+      String msg = ApiUtils.getMsgAuth(CHANGES_TOKEN_ERR, rUser, since);
+      _log.error(msg);
+      return Response.status(Status.BAD_REQUEST).entity(TapisRestUtils.createErrorResponse(msg, PRETTY)).build();
+    }
+
+    // ------------------------- Retrieve records -----------------------------
+    SystemChanges changes;
+    try
+    {
+      changes = systemsService.getSystemChanges(rUser, sinceSeq, limit);
+    }
+    catch (Exception e)
+    {
+      String msg = ApiUtils.getMsgAuth(SELECT_ERR, rUser, e.getMessage());
+      _log.error(msg, e);
+      return Response.status(TapisRestUtils.getStatus(e)).entity(TapisRestUtils.createErrorResponse(msg, PRETTY)).build();
+    }
+
+    // ---------------------------- Success -------------------------------
+    RespSystemChanges resp1 = new RespSystemChanges(changes);
+    String itemCountStr = String.format(SYS_CNT_STR, changes.getSystems().size());
+    return createSuccessResponse(Status.OK, MsgUtils.getMsg(TAPIS_FOUND, SYSTEMS_SVC, itemCountStr), resp1);
+  }
+
+  /**
+   * getStatementStats
+   * Retrieve execution statistics for the DB statements run by this service instance, for use in finding slow
+   *   queries. Statements are identified by normalized SQL, which does not include any values.
+   * Allowed for services and for administrators in the site admin tenant.
+   * @param securityContext - user identity
+   * @return - statistics for each distinct statement, in order of decreasing total time.
+   */
+  @GET
+  @Path("admin/statementStats")
+  @Consumes(MediaType.APPLICATION_JSON)
+  @Produces(MediaType.APPLICATION_JSON)
+  public void getStatementStats(@Context SecurityContext securityContext,
+                                @Suspended AsyncResponse asyncResponse)
+  {
+    AsyncDispatcher.getInstance().dispatch(asyncResponse, requestScope, _restRequest, "getStatementStats",
+                                           () -> getStatementStatsSync(securityContext));
+  }
+
+  private Response getStatementStatsSync(SecurityContext securityContext)
+  {
+    String opName = "getStatementStats";
+    // Trace this request.
+    if (_log.isTraceEnabled()) logRequest(opName);
+
+    // Check that we have all we need from the context, the jwtTenantId and jwtUserId
+    // Utility method returns null if all OK and appropriate error response if there was a problem.
+    TapisThreadContext threadContext = TapisThreadLocal.tapisThreadContext.get();
+    Response resp = ApiUtils.checkContext(threadContext, PRETTY);
+    if (resp != null) return resp;
+
+    // Create a user that collects together tenant, user and request information needed by the service call
+    ResourceRequestUser rUser = new ResourceRequestUser((AuthenticatedUser) securityContext.getUserPrincipal());
+
+    // ------------------------- Retrieve records -----------------------------
+    List<StatementStats> stats;
+    try
+    {
+      stats = systemsService.getStatementStats(rUser);
+    }
+    catch (Exception e)
+    {
+      String msg = ApiUtils.getMsgAuth(SELECT_ERR, rUser, e.getMessage());
+      _log.error(msg, e);
+      return Response.status(TapisRestUtils.getStatus(e)).entity(TapisRestUtils.createErrorResponse(msg, PRETTY)).build();
+    }
+
+    // ---------------------------- Success -------------------------------
+    RespStatementStats resp1 = new RespStatementStats(stats);
+    return createSuccessResponse(Status.OK, MsgUtils.getMsg(TAPIS_FOUND, SYSTEMS_SVC, "statement statistics"), resp1);
+  }
+
+  /**
+   * getSystemEvents
+   * Stream of server-sent events describing changes to systems accessible by requester.
+   * An event is sent when a system is created, modified, enabled, disabled, deleted or undeleted, or when its
+   *   owner, permissions or credentials change. The id of each event is a token that may be used to resume the
+   *   stream, either through the standard Last-Event-ID header or the since query parameter.
+   * Each connection has a bounded buffer. A client that falls too far behind is sent an overflow event with the
+   *   token from which to resume and the connection is closed.
+   * @param securityContext - user identity
+   * @param lastEventId - id of the last event received, sent by clients when reconnecting
+   * @param since - token of the last event received, used if Last-Event-ID not set. 0 for only new events.
+   * @param eventSink - server-sent events connection
+   * @param sse - server-sent events builder
+   */
+  @GET
+  @Path("events")
+  @Produces(MediaType.SERVER_SENT_EVENTS)
+  public void getSystemEvents(@Context SecurityContext securityContext,
+                              @HeaderParam(HttpHeaders.LAST_EVENT_ID_HEADER) String lastEventId,
+                              @QueryParam("since") @DefaultValue("0") String since,
+                              @Context SseEventSink eventSink,
+                              @Context Sse sse)
+  {
+    String opName = "getSystemEvents";
+    // Trace this request.
+    if (_log.isTraceEnabled()) logRequest(opName);
+
+    // Check that we have all we need from the context, the jwtTenantId and jwtUserId
+    // Utility method returns null if all OK and appropriate error response if there was a problem.
+    // Errors are returned as regular responses since the event stream has not yet been started.
+    TapisThreadContext threadContext = TapisThreadLocal.tapisThreadContext.get();
+    Response resp = ApiUtils.checkContext(threadContext, PRETTY);
+    if (resp != null) throw new WebApplicationException(resp);
+
+    // Create a user that collects together tenant, user and request information needed by the service call
+    ResourceRequestUser rUser = new ResourceRequestUser((AuthenticatedUser) securityContext.getUserPrincipal());
+
+    // Token is opaque to clients but is currently the sequence id of the update record.
+    String tokenStr = StringUtils.isBlank(lastEventId) ? since : lastEventId;
+    long afterToken;
+    try { afterToken = Long.parseLong(tokenStr.trim()); }
+    catch (NumberFormatException e)
+    {
+      String msg = ApiUtils.getMsgAuth(EVENTS_TOKEN_ERR, rUser, tokenStr);
+      _log.error(msg);
+      throw new WebApplicationException(Response.status(Status.BAD_REQUEST).type(MediaType.APPLICATION_JSON)
+                                                .entity(TapisRestUtils.createErrorResponse(msg, PRETTY)).build());
+    }
+
+    // ------------------------- Subscribe --------------------------------
+    // Events are delivered by the hub after this method returns. The connection stays open until the client
+    //   disconnects or the hub closes it.
+    SystemEventHub.Subscription sub;
+    try
+    {
+      sub = systemsService.subscribeSystemEvents(rUser, afterToken, new SseSystemEventSink(eventSink, sse));
+    }
+    catch (Exception e)
+    {
+      String msg = ApiUtils.getMsgAuth(SELECT_ERR, rUser, e.getMessage());
+      _log.error(msg, e);
+      throw new WebApplicationException(Response.status(TapisRestUtils.getStatus(e)).type(MediaType.APPLICATION_JSON)
+                                                .entity(TapisRestUtils.createErrorResponse(msg, PRETTY)).build());
+    }
+    if (sub == null)
+    {
+      String msg = ApiUtils.getMsgAuth(EVENTS_UNAVAILABLE, rUser);
+      _log.warn(msg);
+      throw new WebApplicationException(Response.status(Status.SERVICE_UNAVAILABLE).type(MediaType.APPLICATION_JSON)
+                                                .entity(TapisRestUtils.createErrorResponse(msg, PRETTY)).build());
+    }
+  }
+
   /**
    * searchSystemsQueryParameters
    * Dedicated search endpoint for System resource. Search conditions provided as query parameters.
@@ -809,8 +1201,16 @@ public class SystemResource
   @Path("search")
   @Consumes(MediaType.APPLICATION_JSON)
   @Produces(MediaType.APPLICATION_JSON)
-  public Response searchSystemsQueryParameters(@Context SecurityContext securityContext,
-                                               @QueryParam("showDeleted") @DefaultValue("false") boolean showDeleted)
+  public void searchSystemsQueryParameters(@Context SecurityContext securityContext,
+                                           @QueryParam("showDeleted") @DefaultValue("false") boolean showDeleted,
+                                           @Suspended AsyncResponse asyncResponse)
+  {
+    AsyncDispatcher.getInstance().dispatch(asyncResponse, requestScope, _restRequest, "searchSystemsQueryParameters",
+                                           () -> searchSystemsQueryParametersSync(securityContext, showDeleted));
+  }
+
+  private Response searchSystemsQueryParametersSync(SecurityContext securityContext,
+                                                    boolean showDeleted)
   {
     String opName = "searchSystemsGet";
     // Trace this request.
@@ -874,9 +1274,18 @@ public class SystemResource
   @Path("search")
   @Consumes(MediaType.APPLICATION_JSON)
   @Produces(MediaType.APPLICATION_JSON)
-  public Response searchSystemsRequestBody(InputStream payloadStream,
-                                           @Context SecurityContext securityContext,
-                                           @QueryParam("showDeleted") @DefaultValue("false") boolean showDeleted)
+  public void searchSystemsRequestBody(InputStream payloadStream,
+                                       @Context SecurityContext securityContext,
+                                       @QueryParam("showDeleted") @DefaultValue("false") boolean showDeleted,
+                                       @Suspended AsyncResponse asyncResponse)
+  {
+    AsyncDispatcher.getInstance().dispatch(asyncResponse, requestScope, _restRequest, "searchSystemsRequestBody",
+                                           () -> searchSystemsRequestBodySync(payloadStream, securityContext, showDeleted));
+  }
+
+  private Response searchSystemsRequestBodySync(InputStream payloadStream,
+                                                SecurityContext securityContext,
+                                                boolean showDeleted)
   {
     String opName = "searchSystemsPost";
     // Trace this request.
@@ -947,6 +1356,95 @@ public class SystemResource
     return successResponse;
   }
 
+  /**
+   * getSystemsBatch
+   * Retrieve many systems in one request. Request body contains the list of IDs and an optional select list.
+   * If the body does not contain a select list then the select query parameter is used.
+   * Authorization for all systems is resolved at once. Each system has its own result with the status that
+   *   would have been returned by a request for that system alone, so a missing or unauthorized system does not
+   *   cause the request to fail.
+   * @param payloadStream - request body
+   * @param securityContext - user identity
+   * @return - one result for each system requested, in the order requested.
+   */
+  @POST
+  @Path("batchGet")
+  @Consumes(MediaType.APPLICATION_JSON)
+  @Produces(MediaType.APPLICATION_JSON)
+  public void getSystemsBatch(InputStream payloadStream,
+                              @Context SecurityContext securityContext,
+                              @Suspended AsyncResponse asyncResponse)
+  {
+    AsyncDispatcher.getInstance().dispatch(asyncResponse, requestScope, _restRequest, "getSystemsBatch",
+                                           () -> getSystemsBatchSync(payloadStream, securityContext));
+  }
+
+  private Response getSystemsBatchSync(InputStream payloadStream,
+                                       SecurityContext securityContext)
+  {
+    String opName = "getSystemsBatch";
+    // Trace this request.
+    if (_log.isTraceEnabled()) logRequest(opName);
+
+    // Check that we have all we need from the context, the jwtTenantId and jwtUserId
+    // Utility method returns null if all OK and appropriate error response if there was a problem.
+    TapisThreadContext threadContext = TapisThreadLocal.tapisThreadContext.get();
+    Response resp = ApiUtils.checkContext(threadContext, PRETTY);
+    if (resp != null) return resp;
+
+    // Create a user that collects together tenant, user and request information needed by the service call
+    ResourceRequestUser rUser = new ResourceRequestUser((AuthenticatedUser) securityContext.getUserPrincipal());
+
+    // ------------------------- Extract and validate payload -------------------------
+    // Read the payload into a string.
+    String rawJson;
+    String msg;
+    try { rawJson = IOUtils.toString(payloadStream, StandardCharsets.UTF_8); }
+    catch (Exception e)
+    {
+      msg = MsgUtils.getMsg(INVALID_JSON_INPUT, opName , e.getMessage());
+      _log.error(msg, e);
+      return Response.status(Status.BAD_REQUEST).entity(TapisRestUtils.createErrorResponse(msg, PRETTY)).build();
+    }
+    // Create validator specification and validate the json against the schema
+    JsonValidatorSpec spec = new JsonValidatorSpec(rawJson, FILE_SYSTEM_BATCHGET_REQUEST);
+    try { JsonValidator.validate(spec); }
+    catch (TapisJSONException e)
+    {
+      msg = MsgUtils.getMsg(JSON_VALIDATION_ERR, e.getMessage());
+      _log.error(msg, e);
+      return Response.status(Status.BAD_REQUEST).entity(TapisRestUtils.createErrorResponse(msg, PRETTY)).build();
+    }
+
+    ReqBatchGet req;
+    try { req = TapisGsonUtils.getGson().fromJson(rawJson, ReqBatchGet.class); }
+    catch (JsonSyntaxException e)
+    {
+      msg = MsgUtils.getMsg(INVALID_JSON_INPUT, opName, e.getMessage());
+      _log.error(msg, e);
+      return Response.status(Status.BAD_REQUEST).entity(TapisRestUtils.createErrorResponse(msg, PRETTY)).build();
+    }
+    List<String> selectList = (req.select == null) ? threadContext.getSearchParameters().getSelectList() : req.select;
+
+    // ------------------------- Retrieve records -----------------------------
+    List<SystemBatchItem> items;
+    try
+    {
+      items = systemsService.getSystemsBatch(rUser, req.ids);
+    }
+    catch (Exception e)
+    {
+      msg = ApiUtils.getMsgAuth(SELECT_ERR, rUser, e.getMessage());
+      _log.error(msg, e);
+      return Response.status(TapisRestUtils.getStatus(e)).entity(TapisRestUtils.createErrorResponse(msg, PRETTY)).build();
+    }
+
+    // ---------------------------- Success -------------------------------
+    RespSystemsBatch resp1 = new RespSystemsBatch(items, selectList);
+    String itemCountStr = String.format(SYS_CNT_STR, items.size());
+    return createSuccessResponse(Status.OK, MsgUtils.getMsg(TAPIS_FOUND, SYSTEMS_SVC, itemCountStr), resp1);
+  }
+
 //  /**
 //   * matchConstraints
 //   * Retrieve details for systems. Use request body to specify constraint conditions as an SQL-like WHERE clause.
@@ -1349,7 +1847,17 @@ public class SystemResource
     // Set some variables to make code easier to read
     int skip = srchParms.getSkip();
     String startAfter = srchParms.getStartAfter();
-    boolean computeTotal = srchParms.getComputeTotal();
+    // totalMode=exact is the same as computeTotal=true, totalMode=approx accepts an estimate
+    String totalMode = _uriInfo.getQueryParameters().getFirst(TOTAL_MODE_PARM);
+    if (!StringUtils.isBlank(totalMode) && !TOTAL_MODE_APPROX.equalsIgnoreCase(totalMode) &&
+        !TOTAL_MODE_EXACT.equalsIgnoreCase(totalMode))
+    {
+      String msg = ApiUtils.getMsgAuth(TOTAL_MODE_ERR, rUser, totalMode);
+      _log.error(msg);
+      return Response.status(Status.BAD_REQUEST).entity(TapisRestUtils.createErrorResponse(msg, PRETTY)).build();
+    }
+    boolean approxTotal = TOTAL_MODE_APPROX.equalsIgnoreCase(totalMode);
+    boolean computeTotal = srchParms.getComputeTotal() || TOTAL_MODE_EXACT.equalsIgnoreCase(totalMode);
     String orderBy = srchParms.getOrderBy();
     List<OrderBy> orderByList = srchParms.getOrderByList();
 
@@ -1364,14 +1872,19 @@ public class SystemResource
     if (computeTotal && limit <= 0) totalCount = systems.size();
 
     // If we need the count and there was a limit then we need to make a call
-    if (computeTotal && limit > 0)
+    // An estimate is acceptable if client specified totalMode=approx
+    boolean totalCountExact = true;
+    if (limit > 0 && (computeTotal || approxTotal))
     {
-      totalCount = systemsService.getSystemsTotalCount(rUser, searchList, orderByList,
-                                                       startAfter, showDeleted);
+      TotalCount total = systemsService.getSystemsTotalCount(rUser, searchList, orderByList,
+                                                             startAfter, showDeleted, approxTotal);
+      totalCount = total.getCount();
+      totalCountExact = total.isExact();
     }
+    else if (approxTotal) totalCount = systems.size();
 
     // ---------------------------- Success -------------------------------
-    resp1 = new RespSystems(systems, limit, orderBy, skip, startAfter, totalCount, selectList);
+    resp1 = new RespSystems(systems, limit, orderBy, skip, startAfter, totalCount, totalCountExact, selectList);
 
     return createSuccessResponse(Status.OK, MsgUtils.getMsg(TAPIS_FOUND, SYSTEMS_SVC, itemCountStr), resp1);
   }
@@ -1384,6 +1897,6 @@ public class SystemResource
    */
   private static Response createSuccessResponse(Status status, String msg, RespAbstract resp)
   {
-    return Response.status(status).entity(TapisRestUtils.createSuccessResponse(msg, PRETTY, resp)).build();
+    return Response.status(status).entity(ApiUtils.createSuccessResponse(msg, PRETTY, resp)).build();
   }
 }
@@ -29,6 +29,7 @@ import edu.utexas.tacc.tapis.sharedapi.utils.TapisRestUtils;
 import edu.utexas.tacc.tapis.sharedapi.utils.TapisRestUtils.RESPONSE_STATUS;
 import edu.utexas.tacc.tapis.systems.api.SystemsApplication;
 import edu.utexas.tacc.tapis.systems.api.utils.ApiUtils;
+import edu.utexas.tacc.tapis.systems.metrics.SystemsMetrics;
 import edu.utexas.tacc.tapis.systems.service.SystemsServiceImpl;
 import edu.utexas.tacc.tapis.systems.utils.LibUtils;
 import org.glassfish.grizzly.http.server.Request;
@@ -37,7 +38,7 @@ import org.jooq.tools.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-/* Tapis Systems general resources including healthcheck and readycheck
+/* Tapis Systems general resources including healthcheck, readycheck and metrics
  *
  *  NOTE: Switching to hand-crafted openapi located in repo tapis-client-java at systems-client/SystemsAPI.yaml
  *        Could not fully automate generation of spec and annotations have some limits. E.g., how to mark a parameter
@@ -244,6 +245,33 @@ public class SystemsResource
     return Response.ok(resp).build();
   }
 
+  /**
+   * Non-authenticated metrics endpoint for scraping by Prometheus.
+   * Reports latency histograms and error counts for resource methods, DAO calls, Security Kernel calls and
+   *   JSON serialization, along with cache and DB connection pool gauges.
+   * Note that no JWT is required on this call and no logging is done.
+   * @return metrics in the Prometheus text format
+   */
+  @GET
+  @Path("/metrics")
+  @Produces(SystemsMetrics.CONTENT_TYPE)
+  @PermitAll
+  public Response getMetrics()
+  {
+    return Response.ok(SystemsMetrics.scrape()).build();
+  }
+
+  /**
+   * Register counters maintained by this class
+   */
+  public static void registerMetrics()
+  {
+    SystemsMetrics.registerCounter("healthcheck_requests_total", "Health check requests received",
+                                   healthCheckCount::get);
+    SystemsMetrics.registerCounter("readycheck_requests_total", "Ready check requests received",
+                                   readyCheckCount::get);
+  }
+
   /* **************************************************************************** */
   /*                                Private Methods                               */
   /* **************************************************************************** */
@@ -0,0 +1,17 @@
+package edu.utexas.tacc.tapis.systems.api.responses;
+
+import java.util.List;
+
+import edu.utexas.tacc.tapis.sharedapi.responses.RespAbstract;
+import edu.utexas.tacc.tapis.systems.model.StatementStats;
+
+/*
+  Results from a request for DB statement execution statistics.
+  Result is a list of statistics for each distinct statement, in order of decreasing total time.
+ */
+public final class RespStatementStats extends RespAbstract
+{
+  public List<StatementStats> result;
+
+  public RespStatementStats(List<StatementStats> stats) { result = stats; }
+}
@@ -0,0 +1,30 @@
+package edu.utexas.tacc.tapis.systems.api.responses;
+
+import com.google.gson.JsonArray;
+import edu.utexas.tacc.tapis.sharedapi.responses.RespAbstract;
+import edu.utexas.tacc.tapis.systems.api.responses.results.ResultSystemChanges;
+import edu.utexas.tacc.tapis.systems.api.responses.results.TapisSystemDTO;
+import edu.utexas.tacc.tapis.systems.model.SystemChanges;
+import edu.utexas.tacc.tapis.systems.model.TSystem;
+
+/*
+  Results from a request for systems changed since a given change sequence token.
+  Systems always include all attributes, including deleted and changeSeq, so clients can replace a local copy.
+ */
+public final class RespSystemChanges extends RespAbstract
+{
+  public ResultSystemChanges result;
+
+  public RespSystemChanges(SystemChanges changes)
+  {
+    result = new ResultSystemChanges();
+    result.systems = new JsonArray();
+    for (TSystem sys : changes.getSystems())
+    {
+      result.systems.add(new TapisSystemDTO(sys).getDisplayObject(null));
+    }
+    result.tombstones = changes.getTombstones();
+    result.nextToken = Long.toString(changes.getNextToken());
+    result.more = changes.isMore();
+  }
+}
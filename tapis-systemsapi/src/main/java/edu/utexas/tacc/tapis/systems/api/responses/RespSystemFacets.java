@@ -0,0 +1,16 @@
+package edu.utexas.tacc.tapis.systems.api.responses;
+
+import java.util.Map;
+
+import edu.utexas.tacc.tapis.sharedapi.responses.RespAbstract;
+
+/*
+  Results from a request for counts of systems grouped by attribute value.
+  Result is a map of attribute name to map of value to count, e.g. {"systemType": {"LINUX": 10, "S3": 2}}
+ */
+public final class RespSystemFacets extends RespAbstract
+{
+  public Map<String, Map<String, Integer>> result;
+
+  public RespSystemFacets(Map<String, Map<String, Integer>> facets) { result = facets; }
+}
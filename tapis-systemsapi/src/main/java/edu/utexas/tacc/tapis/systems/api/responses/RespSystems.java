@@ -4,7 +4,7 @@ import java.util.List;
 
 import com.google.gson.JsonArray;
 import edu.utexas.tacc.tapis.sharedapi.responses.RespAbstract;
-import edu.utexas.tacc.tapis.sharedapi.responses.results.ResultListMetadata;
+import edu.utexas.tacc.tapis.systems.api.responses.results.ResultListMetadataSystems;
 import edu.utexas.tacc.tapis.systems.api.responses.results.TapisSystemDTO;
 import edu.utexas.tacc.tapis.systems.model.TSystem;
 
@@ -17,6 +17,12 @@ public final class RespSystems extends RespAbstract
 
   public RespSystems(List<TSystem> sList, int limit, String orderBy, int skip, String startAfter, int totalCount,
                      List<String> selectList)
+  {
+    this(sList, limit, orderBy, skip, startAfter, totalCount, true, selectList);
+  }
+
+  public RespSystems(List<TSystem> sList, int limit, String orderBy, int skip, String startAfter, int totalCount,
+                     boolean totalCountExact, List<String> selectList)
   {
     result = new JsonArray();
     for (TSystem sys : sList)
@@ -24,13 +30,14 @@ public final class RespSystems extends RespAbstract
       result.add(new TapisSystemDTO(sys).getDisplayObject(selectList));
     }
 
-    ResultListMetadata meta = new ResultListMetadata();
+    ResultListMetadataSystems meta = new ResultListMetadataSystems();
     meta.recordCount = result.size();
     meta.recordLimit = limit;
     meta.recordsSkipped = skip;
     meta.orderBy = orderBy;
     meta.startAfter = startAfter;
     meta.totalCount = totalCount;
+    meta.totalCountExact = totalCountExact;
     metadata = meta;
   }
 }
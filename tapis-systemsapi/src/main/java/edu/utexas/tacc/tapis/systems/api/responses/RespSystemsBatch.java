@@ -0,0 +1,40 @@
+package edu.utexas.tacc.tapis.systems.api.responses;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.ws.rs.core.Response.Status;
+
+import edu.utexas.tacc.tapis.sharedapi.responses.RespAbstract;
+import edu.utexas.tacc.tapis.systems.api.responses.results.ResultSystemBatchItem;
+import edu.utexas.tacc.tapis.systems.api.responses.results.TapisSystemDTO;
+import edu.utexas.tacc.tapis.systems.model.SystemBatchItem;
+
+/*
+  Results from a batch get of systems. One result for each system requested, in the order requested.
+ */
+public final class RespSystemsBatch extends RespAbstract
+{
+  public List<ResultSystemBatchItem> result;
+
+  public RespSystemsBatch(List<SystemBatchItem> items, List<String> selectList)
+  {
+    result = new ArrayList<>();
+    for (SystemBatchItem item : items)
+    {
+      var r = new ResultSystemBatchItem();
+      r.id = item.getId();
+      r.message = item.getMessage();
+      switch (item.getStatus())
+      {
+        case FOUND -> {
+          r.status = Status.OK.getStatusCode();
+          r.system = new TapisSystemDTO(item.getSystem()).getDisplayObject(selectList);
+        }
+        case NOT_AUTHORIZED -> r.status = Status.FORBIDDEN.getStatusCode();
+        default -> r.status = Status.NOT_FOUND.getStatusCode();
+      }
+      result.add(r);
+    }
+  }
+}
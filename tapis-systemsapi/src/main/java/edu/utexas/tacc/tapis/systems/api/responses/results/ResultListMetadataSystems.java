@@ -0,0 +1,12 @@
+package edu.utexas.tacc.tapis.systems.api.responses.results;
+
+import edu.utexas.tacc.tapis.sharedapi.responses.results.ResultListMetadata;
+
+/*
+  Metadata for a list of systems. Adds an indication of whether totalCount is exact or an estimate.
+  totalCount is an estimate when totalMode=approx was requested and no exact count was available.
+ */
+public final class ResultListMetadataSystems extends ResultListMetadata
+{
+  public boolean totalCountExact = true;
+}
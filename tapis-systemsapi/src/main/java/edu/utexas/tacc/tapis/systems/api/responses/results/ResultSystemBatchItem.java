@@ -0,0 +1,18 @@
+package edu.utexas.tacc.tapis.systems.api.responses.results;
+
+import com.google.gson.JsonObject;
+
+/*
+  Result for a single system in a batch get request.
+  id - system requested
+  status - HTTP status that would have been returned by a request for this system alone: 200, 403 or 404
+  message - description of the problem if status is not 200
+  system - the system, if status is 200. Contains attributes from the select list.
+ */
+public final class ResultSystemBatchItem
+{
+  public String id;
+  public int status;
+  public String message;
+  public JsonObject system;
+}
@@ -0,0 +1,22 @@
+package edu.utexas.tacc.tapis.systems.api.responses.results;
+
+import java.util.List;
+
+import com.google.gson.JsonArray;
+import edu.utexas.tacc.tapis.systems.model.SystemTombstone;
+
+/*
+  Result of a delta sync request.
+  systems - systems created, updated or soft deleted after the token in the request, in order of change
+  tombstones - systems permanently removed, or no longer readable by the requester, after the token in the request,
+               in order of change
+  nextToken - token to use as the value of since in the next request
+  more - true if there are more changes available, in which case the client should request again right away
+ */
+public final class ResultSystemChanges
+{
+  public JsonArray systems;
+  public List<SystemTombstone> tombstones;
+  public String nextToken;
+  public boolean more;
+}
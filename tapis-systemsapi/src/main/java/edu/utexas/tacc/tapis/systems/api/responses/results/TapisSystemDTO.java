@@ -56,6 +56,7 @@ import static edu.utexas.tacc.tapis.systems.model.TSystem.USE_PROXY_FIELD;
 import static edu.utexas.tacc.tapis.systems.model.TSystem.UUID_FIELD;
 import static edu.utexas.tacc.tapis.systems.model.TSystem.CREATED_FIELD;
 import static edu.utexas.tacc.tapis.systems.model.TSystem.UPDATED_FIELD;
+import static edu.utexas.tacc.tapis.systems.model.TSystem.CHANGE_SEQ_FIELD;
 
 /*
     Class representing a TSystem result to be returned
@@ -101,6 +102,7 @@ public final class TapisSystemDTO
   public boolean deleted;
   public Instant created;
   public Instant updated;
+  public long changeSeq;
 
   public TapisSystemDTO(TSystem s)
   {
@@ -158,6 +160,7 @@ public final class TapisSystemDTO
     deleted = s.isDeleted();
     created = s.getCreated();
     updated = s.getUpdated();
+    changeSeq = s.getChangeSeq();
     // Check for -1 in max values and return Integer.MAX_VALUE instead.
     //   As requested by Jobs service.
     if (jobMaxJobs < 0) jobMaxJobs = Integer.MAX_VALUE;
@@ -271,6 +274,7 @@ public final class TapisSystemDTO
       }
       case CREATED_FIELD -> jsonObject.addProperty(CREATED_FIELD, created.toString());
       case UPDATED_FIELD -> jsonObject.addProperty(UPDATED_FIELD, updated.toString());
+      case CHANGE_SEQ_FIELD -> jsonObject.addProperty(CHANGE_SEQ_FIELD, changeSeq);
     }
   }
 }
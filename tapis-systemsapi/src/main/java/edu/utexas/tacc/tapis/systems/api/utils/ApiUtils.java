@@ -3,7 +3,11 @@ package edu.utexas.tacc.tapis.systems.api.utils;
 import com.google.gson.JsonElement;
 import edu.utexas.tacc.tapis.shared.i18n.MsgUtils;
 import edu.utexas.tacc.tapis.shared.threadlocal.TapisThreadContext;
+import edu.utexas.tacc.tapis.sharedapi.responses.RespAbstract;
 import edu.utexas.tacc.tapis.sharedapi.utils.TapisRestUtils;
+import edu.utexas.tacc.tapis.systems.metrics.RequestTiming;
+import edu.utexas.tacc.tapis.systems.metrics.RequestTiming.Phase;
+import edu.utexas.tacc.tapis.systems.metrics.SystemsMetrics;
 import edu.utexas.tacc.tapis.systems.model.ResourceRequestUser;
 import edu.utexas.tacc.tapis.systems.model.TSystem;
 import edu.utexas.tacc.tapis.systems.service.SystemsService;
@@ -12,12 +16,17 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.ws.rs.core.Response;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.text.MessageFormat;
+import java.time.Instant;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
 import java.util.ResourceBundle;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 /*
@@ -206,6 +215,82 @@ public class ApiUtils
     return null;
   }
 
+  /**
+   * Build a strong ETag for a single system as returned by GET /v3/systems/{systemId}.
+   * Value is derived from everything that determines the response body: uuid, last update time, resolved
+   *   effectiveUserId and select list. Any update to a system changes its last update time.
+   * @param uuid - system uuid
+   * @param updated - time of last update
+   * @param effectiveUserId - resolved effectiveUserId
+   * @param selectList - select list from request, may be null
+   * @return quoted ETag value
+   */
+  public static String getSystemETag(UUID uuid, Instant updated, String effectiveUserId, List<String> selectList)
+  {
+    var sb = new StringBuilder();
+    sb.append(uuid).append('|').append(updated).append('|').append(effectiveUserId).append('|');
+    if (selectList != null) sb.append(String.join(",", selectList));
+    try
+    {
+      byte[] digest = MessageDigest.getInstance("SHA-256").digest(sb.toString().getBytes(StandardCharsets.UTF_8));
+      // First 128 bits of the hash are plenty to distinguish versions of a single system
+      var hex = new StringBuilder("\"");
+      for (int i = 0; i < 16; i++) hex.append(String.format("%02x", digest[i]));
+      return hex.append('"').toString();
+    }
+    catch (NoSuchAlgorithmException e)
+    {
+      // Every Java platform is required to support SHA-256
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * Create the JSON for a success response, recording the time taken in the JSON serialization metrics and the
+   *   request timing.
+   * @param msg - message for resp.message
+   * @param prettyPrint - format the JSON for readability
+   * @param resp - base response (the result)
+   * @return JSON string for the response entity
+   */
+  public static String createSuccessResponse(String msg, boolean prettyPrint, RespAbstract resp)
+  {
+    long start = System.nanoTime();
+    boolean error = true;
+    try
+    {
+      String json = TapisRestUtils.createSuccessResponse(msg, prettyPrint, resp);
+      error = false;
+      return json;
+    }
+    finally
+    {
+      long elapsed = System.nanoTime() - start;
+      SystemsMetrics.JSON.record(resp.getClass().getSimpleName(), elapsed, error);
+      RequestTiming.record(Phase.SER, elapsed);
+    }
+  }
+
+  /**
+   * Determine if an If-None-Match header value matches an ETag.
+   * Uses weak comparison as required for If-None-Match, i.e. a W/ prefix is ignored.
+   * @param ifNoneMatch - header value, may be null, "*" or a comma separated list of ETags
+   * @param eTag - quoted ETag of current representation
+   * @return true if header matches ETag
+   */
+  public static boolean ifNoneMatchMatches(String ifNoneMatch, String eTag)
+  {
+    if (StringUtils.isBlank(ifNoneMatch) || StringUtils.isBlank(eTag)) return false;
+    for (String tag : ifNoneMatch.split(","))
+    {
+      tag = tag.trim();
+      if ("*".equals(tag)) return true;
+      if (tag.startsWith("W/")) tag = tag.substring(2);
+      if (tag.equals(eTag)) return true;
+    }
+    return false;
+  }
+
   /**
    * Return String[] array of jobEnvVariables given list of KeyValuePair
    */
@@ -0,0 +1,238 @@
+package edu.utexas.tacc.tapis.systems.api.utils;
+
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.Status;
+
+import org.glassfish.jersey.process.internal.RequestContext;
+import org.glassfish.jersey.process.internal.RequestScope;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import edu.utexas.tacc.tapis.shared.threadlocal.TapisThreadContext;
+import edu.utexas.tacc.tapis.shared.threadlocal.TapisThreadLocal;
+import edu.utexas.tacc.tapis.sharedapi.utils.TapisRestUtils;
+import edu.utexas.tacc.tapis.systems.config.RuntimeParameters;
+import edu.utexas.tacc.tapis.systems.metrics.RequestTiming;
+import edu.utexas.tacc.tapis.systems.utils.ThreadUtils;
+
+/*
+ * Runs the work for a suspended request on a separate executor so that server worker threads are not held
+ *   while waiting on the Security Kernel or the DB.
+ * When running on a JVM that supports virtual threads each request gets its own virtual thread. Otherwise a
+ *   fixed size pool of daemon threads is used.
+ * The number of requests accepted is bounded. The pool has a queue as large as the pool, and with virtual threads
+ *   the same total number of requests may be in progress. Requests beyond that get a 503 right away, rather than
+ *   waiting to be run until they time out.
+ * The Jersey request scope, the Tapis thread context and the request timing are carried over to the thread
+ *   doing the work, so resource methods may use injected request objects (UriInfo, HttpHeaders, Request) and
+ *   TapisThreadLocal as they do when running synchronously.
+ * If the work for a GET or DELETE does not complete within the configured timeout the client receives a 503.
+ *   The work itself is allowed to finish in the background and its result is discarded. Requests that create or
+ *   update resources (POST, PUT and PATCH) have no timeout. The work would carry on after the 503 and a client
+ *   retrying the request could create duplicates, so the client receives the actual result.
+ */
+public final class AsyncDispatcher
+{
+  /* ********************************************************************** */
+  /*                               Constants                                */
+  /* ********************************************************************** */
+  // Local logger.
+  private static final Logger _log = LoggerFactory.getLogger(AsyncDispatcher.class);
+
+  // Defaults
+  public static final int DEFAULT_MAX_THREADS = 200;
+  public static final int DEFAULT_TIMEOUT_SECONDS = 60;
+
+  // Always return a nicely formatted response
+  private static final boolean PRETTY = true;
+
+  // Requests that are not timed out
+  private static final Set<String> NO_TIMEOUT_METHODS = Set.of("POST", "PUT", "PATCH");
+
+  /* ********************************************************************** */
+  /*                                 Fields                                 */
+  /* ********************************************************************** */
+  private static AsyncDispatcher instance;
+
+  private final ExecutorService executor;
+  private final boolean usingVirtualThreads;
+  private final int maxThreads;
+  private final int maxRequests;
+  private final int timeoutSeconds;
+  // Limits requests in progress when using virtual threads. The pool is bounded by its queue.
+  private final Semaphore virtualPermits;
+
+  /* ********************************************************************** */
+  /*                             Constructors                               */
+  /* ********************************************************************** */
+  /**
+   * @param maxThreads1 - size of pool if virtual threads are not available. Requests accepted are limited to twice
+   *                      this number, running or waiting to run.
+   * @param timeoutSeconds1 - seconds before responding with 503. 0 or less for no timeout.
+   * @param useVirtualThreads - use virtual threads if supported by the JVM
+   */
+  public AsyncDispatcher(int maxThreads1, int timeoutSeconds1, boolean useVirtualThreads)
+  {
+    maxThreads = Math.max(1, maxThreads1);
+    maxRequests = 2 * maxThreads;
+    timeoutSeconds = timeoutSeconds1;
+    ExecutorService virtualPool = useVirtualThreads ? ThreadUtils.newVirtualThreadExecutor() : null;
+    usingVirtualThreads = (virtualPool != null);
+    if (usingVirtualThreads)
+    {
+      executor = virtualPool;
+      virtualPermits = new Semaphore(maxRequests);
+    }
+    else
+    {
+      executor = new ThreadPoolExecutor(maxThreads, maxThreads, 0L, TimeUnit.MILLISECONDS,
+                                        new ArrayBlockingQueue<>(maxRequests - maxThreads),
+                                        ThreadUtils.daemonThreadFactory("SysApi"));
+      virtualPermits = null;
+    }
+  }
+
+  /* ********************************************************************** */
+  /*                             Public Methods                             */
+  /* ********************************************************************** */
+
+  /**
+   * Get the dispatcher shared by all resources. Create it on first use with settings from runtime parameters.
+   * @return dispatcher
+   */
+  public static synchronized AsyncDispatcher getInstance()
+  {
+    if (instance == null)
+    {
+      RuntimeParameters parms = RuntimeParameters.getInstance();
+      int maxThreads = (parms == null) ? DEFAULT_MAX_THREADS : parms.getApiMaxThreads();
+      int timeoutSeconds = (parms == null) ? DEFAULT_TIMEOUT_SECONDS : parms.getApiTimeoutSeconds();
+      instance = new AsyncDispatcher(maxThreads, timeoutSeconds, true);
+      _log.info(ApiUtils.getMsg("SYSAPI_ASYNC_INIT", instance.usingVirtualThreads, maxThreads, timeoutSeconds));
+    }
+    return instance;
+  }
+
+  /**
+   * Run the work for a request on the executor and resume the request with the result.
+   * Must be called from the thread processing the request.
+   * @param asyncResponse - suspended response
+   * @param requestScope - Jersey request scope, so that the request context can be used while doing the work
+   * @param request - request being processed, used to decide if the request may time out
+   * @param opName - operation name, used in messages
+   * @param work - produces the response. An exception thrown is passed to Jersey for mapping.
+   */
+  public void dispatch(AsyncResponse asyncResponse, RequestScope requestScope, Request request, String opName,
+                       Supplier<Response> work)
+  {
+    boolean allowTimeout = !NO_TIMEOUT_METHODS.contains(request.getMethod());
+    RequestContext requestContext = requestScope.referenceCurrent();
+    boolean submitted = dispatch(asyncResponse, opName, allowTimeout, work, task ->
+    {
+      try { requestScope.runInScope(requestContext, task); }
+      finally { requestContext.release(); }
+    });
+    if (!submitted) requestContext.release();
+  }
+
+  public boolean isUsingVirtualThreads() { return usingVirtualThreads; }
+  public int getMaxThreads() { return maxThreads; }
+  public int getMaxRequests() { return maxRequests; }
+  public int getTimeoutSeconds() { return timeoutSeconds; }
+
+  /**
+   * Stop the executor. Requests in progress are allowed to finish.
+   */
+  public void shutdown()
+  {
+    executor.shutdown();
+  }
+
+  /**
+   * Wait for requests in progress to finish after shutdown.
+   * @return true if all requests finished before the timeout
+   */
+  public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException
+  {
+    return executor.awaitTermination(timeout, unit);
+  }
+
+  /* ********************************************************************** */
+  /*                             Package Methods                            */
+  /* ********************************************************************** */
+
+  /*
+   * Run the work on the executor using scopeRunner to set up the request scope.
+   * If allowTimeout is false no timeout is set, whatever the configured timeout.
+   * Return false if the executor did not accept the work, in which case the request has been resumed with a 503.
+   */
+  boolean dispatch(AsyncResponse asyncResponse, String opName, boolean allowTimeout, Supplier<Response> work,
+                   Consumer<Runnable> scopeRunner)
+  {
+    if (allowTimeout && timeoutSeconds > 0)
+    {
+      asyncResponse.setTimeoutHandler(ar ->
+      {
+        String msg = ApiUtils.getMsg("SYSAPI_ASYNC_TIMEOUT", opName, timeoutSeconds);
+        _log.warn(msg);
+        ar.resume(errorResponse(msg));
+      });
+      asyncResponse.setTimeout(timeoutSeconds, TimeUnit.SECONDS);
+    }
+
+    TapisThreadContext threadContext = TapisThreadLocal.tapisThreadContext.get();
+    RequestTiming timing = RequestTiming.current();
+    boolean permitAcquired = false;
+    try
+    {
+      if (virtualPermits != null)
+      {
+        if (!virtualPermits.tryAcquire())
+          throw new RejectedExecutionException("Requests in progress: " + maxRequests);
+        permitAcquired = true;
+      }
+      executor.execute(() -> scopeRunner.accept(() ->
+      {
+        TapisThreadLocal.tapisThreadContext.set(threadContext);
+        RequestTiming.setCurrent(timing);
+        try { asyncResponse.resume(work.get()); }
+        catch (Throwable t) { asyncResponse.resume(t); }
+        finally
+        {
+          TapisThreadLocal.tapisThreadContext.remove();
+          RequestTiming.setCurrent(null);
+          if (virtualPermits != null) virtualPermits.release();
+        }
+      }));
+      return true;
+    }
+    catch (RejectedExecutionException e)
+    {
+      if (permitAcquired) virtualPermits.release();
+      String msg = ApiUtils.getMsg("SYSAPI_ASYNC_REJECTED", opName, e.getMessage());
+      _log.warn(msg);
+      asyncResponse.resume(errorResponse(msg));
+      return false;
+    }
+  }
+
+  /* ********************************************************************** */
+  /*                             Private Methods                            */
+  /* ********************************************************************** */
+
+  private static Response errorResponse(String msg)
+  {
+    return Response.status(Status.SERVICE_UNAVAILABLE).entity(TapisRestUtils.createErrorResponse(msg, PRETTY)).build();
+  }
+}
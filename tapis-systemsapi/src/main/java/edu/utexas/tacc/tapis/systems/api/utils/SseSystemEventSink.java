@@ -0,0 +1,107 @@
+package edu.utexas.tacc.tapis.systems.api.utils;
+
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.sse.OutboundSseEvent;
+import javax.ws.rs.sse.Sse;
+import javax.ws.rs.sse.SseEventSink;
+
+import com.google.gson.JsonObject;
+
+import edu.utexas.tacc.tapis.systems.events.SystemEventHub;
+import edu.utexas.tacc.tapis.systems.model.SystemEvent;
+
+/*
+ * Adapter that sends system change events over a server-sent events connection.
+ * Each event has the event token as its id, so a client that reconnects automatically will send the token of the
+ *   last event received in the Last-Event-ID header.
+ * Event names:
+ *   system   - a system has changed. Data is a JSON object describing the change.
+ *   overflow - events have been dropped and the stream is about to be closed. Data contains lastToken, the token
+ *              from which the client should resume.
+ * Heartbeats are sent as SSE comments which clients ignore.
+ */
+public final class SseSystemEventSink implements SystemEventHub.EventSink
+{
+  /* ********************************************************************** */
+  /*                               Constants                                */
+  /* ********************************************************************** */
+  public static final String EVENT_NAME_SYSTEM = "system";
+  public static final String EVENT_NAME_OVERFLOW = "overflow";
+  private static final String HEARTBEAT_COMMENT = "heartbeat";
+
+  /* ********************************************************************** */
+  /*                                 Fields                                 */
+  /* ********************************************************************** */
+  private final SseEventSink eventSink;
+  private final Sse sse;
+
+  /* ********************************************************************** */
+  /*                             Constructors                               */
+  /* ********************************************************************** */
+  public SseSystemEventSink(SseEventSink eventSink1, Sse sse1)
+  {
+    eventSink = eventSink1;
+    sse = sse1;
+  }
+
+  /* ********************************************************************** */
+  /*                             Public Methods                             */
+  /* ********************************************************************** */
+  @Override
+  public void send(SystemEvent event) throws Exception
+  {
+    write(sse.newEventBuilder().id(Long.toString(event.getToken())).name(EVENT_NAME_SYSTEM)
+             .mediaType(MediaType.APPLICATION_JSON_TYPE).data(String.class, toJson(event)).build());
+  }
+
+  @Override
+  public void sendHeartbeat() throws Exception
+  {
+    write(sse.newEventBuilder().comment(HEARTBEAT_COMMENT).build());
+  }
+
+  @Override
+  public void sendOverflow(long lastToken) throws Exception
+  {
+    var data = new JsonObject();
+    data.addProperty("lastToken", Long.toString(lastToken));
+    write(sse.newEventBuilder().id(Long.toString(lastToken)).name(EVENT_NAME_OVERFLOW)
+             .mediaType(MediaType.APPLICATION_JSON_TYPE).data(String.class, data.toString()).build());
+  }
+
+  @Override
+  public void close() { eventSink.close(); }
+
+  @Override
+  public boolean isClosed() { return eventSink.isClosed(); }
+
+  /**
+   * Convert an event to the JSON sent as event data. Token is a string since it is opaque to clients.
+   * @param event - event to convert
+   * @return JSON string
+   */
+  public static String toJson(SystemEvent event)
+  {
+    var json = new JsonObject();
+    json.addProperty("token", Long.toString(event.getToken()));
+    json.addProperty("tenant", event.getTenant());
+    json.addProperty("systemId", event.getSystemId());
+    json.addProperty("uuid", event.getUuid() == null ? null : event.getUuid().toString());
+    json.addProperty("operation", event.getOperation() == null ? null : event.getOperation().name());
+    json.addProperty("userName", event.getUserName());
+    json.addProperty("created", event.getCreated() == null ? null : event.getCreated().toString());
+    return json.toString();
+  }
+
+  /* ********************************************************************** */
+  /*                             Private Methods                            */
+  /* ********************************************************************** */
+  /*
+   * Send an event and wait for the result so that failures, such as the client going away, are reported to the
+   *   hub. Jersey writes the event before returning so this does not block for long.
+   */
+  private void write(OutboundSseEvent sseEvent)
+  {
+    eventSink.send(sseEvent).toCompletableFuture().join();
+  }
+}
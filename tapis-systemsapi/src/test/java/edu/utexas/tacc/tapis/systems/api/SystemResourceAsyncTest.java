@@ -0,0 +1,95 @@
+package edu.utexas.tacc.tapis.systems.api;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerRequestFilter;
+import javax.ws.rs.core.Application;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+
+import org.glassfish.hk2.utilities.binding.AbstractBinder;
+import org.glassfish.jersey.server.ResourceConfig;
+import org.glassfish.jersey.test.JerseyTestNg;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import edu.utexas.tacc.tapis.systems.api.resources.SystemResource;
+import edu.utexas.tacc.tapis.systems.service.SystemsService;
+
+import static org.testng.Assert.*;
+
+/**
+ * Test that requests to SystemResource are run by AsyncDispatcher when the resource is running in a test container.
+ * Covers the objects the resource injects for the dispatcher, such as the request used to get the HTTP method,
+ *   which a test of the dispatcher alone does not.
+ * The service is replaced by a stand-in that records the calls made and the threads they were made on.
+ */
+@Test(groups={"integration"})
+public class SystemResourceAsyncTest extends JerseyTestNg.ContainerPerClassTest
+{
+  private static final String systemId = "sys1";
+
+  // Service calls made, thread that made them and thread on which the request was received
+  private final List<String> calls = new ArrayList<>();
+  private final AtomicReference<Thread> serviceThread = new AtomicReference<>();
+  private final AtomicReference<Thread> requestThread = new AtomicReference<>();
+
+  @Override
+  protected Application configure()
+  {
+    SystemsService svc = (SystemsService) Proxy.newProxyInstance(SystemsService.class.getClassLoader(),
+            new Class<?>[] {SystemsService.class}, (proxy, method, args) ->
+            {
+              synchronized (calls) { calls.add(method.getName() + ":" + args[1]); }
+              serviceThread.set(Thread.currentThread());
+              if (method.getName().equals("isEnabled")) return Boolean.TRUE;
+              if (method.getName().equals("enableSystem")) return 1;
+              throw new UnsupportedOperationException(method.getName());
+            });
+    return new ResourceConfig(SystemResource.class)
+            .register(new SystemResourceTotalCountTest.UserFilter())
+            .register(new ContainerRequestFilter() {
+              @Override
+              public void filter(ContainerRequestContext requestContext) { requestThread.set(Thread.currentThread()); }
+            })
+            .register(new AbstractBinder() {
+              @Override
+              protected void configure() { bind(svc).to(SystemsService.class); }
+            });
+  }
+
+  @BeforeMethod
+  public void resetCalls()
+  {
+    synchronized (calls) { calls.clear(); }
+    serviceThread.set(null);
+    requestThread.set(null);
+  }
+
+  // GET is run on a dispatcher thread
+  @Test
+  public void testGet()
+  {
+    Response response = target("/v3/systems/" + systemId + "/isEnabled").request().get();
+    assertEquals(response.getStatus(), Response.Status.OK.getStatusCode());
+    assertEquals(calls, List.of("isEnabled:" + systemId));
+    assertNotNull(serviceThread.get());
+    assertNotSame(serviceThread.get(), requestThread.get(), "Service called on the request thread");
+  }
+
+  // POST is run on a dispatcher thread
+  @Test
+  public void testPost()
+  {
+    Response response = target("/v3/systems/" + systemId + "/enable").request()
+                          .post(Entity.entity("{}", MediaType.APPLICATION_JSON));
+    assertEquals(response.getStatus(), Response.Status.OK.getStatusCode());
+    assertEquals(calls, List.of("enableSystem:" + systemId));
+    assertNotNull(serviceThread.get());
+    assertNotSame(serviceThread.get(), requestThread.get(), "Service called on the request thread");
+  }
+}
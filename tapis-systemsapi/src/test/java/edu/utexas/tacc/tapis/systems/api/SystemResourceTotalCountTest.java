@@ -0,0 +1,149 @@
+package edu.utexas.tacc.tapis.systems.api;
+
+import java.lang.reflect.Proxy;
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerRequestFilter;
+import javax.ws.rs.core.Application;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.SecurityContext;
+
+import com.google.gson.JsonObject;
+import org.glassfish.hk2.utilities.binding.AbstractBinder;
+import org.glassfish.jersey.server.ResourceConfig;
+import org.glassfish.jersey.test.JerseyTestNg;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import edu.utexas.tacc.tapis.shared.threadlocal.TapisThreadContext;
+import edu.utexas.tacc.tapis.shared.threadlocal.TapisThreadLocal;
+import edu.utexas.tacc.tapis.shared.utils.TapisGsonUtils;
+import edu.utexas.tacc.tapis.sharedapi.security.AuthenticatedUser;
+import edu.utexas.tacc.tapis.systems.api.resources.SystemResource;
+import edu.utexas.tacc.tapis.systems.model.TSystem;
+import edu.utexas.tacc.tapis.systems.model.TotalCount;
+import edu.utexas.tacc.tapis.systems.service.SystemsService;
+
+import static org.testng.Assert.*;
+
+/**
+ * Test the totalMode query parameter of GET /v3/systems against SystemResource running in a test container.
+ * The service is replaced by a stand-in that records how the total count was requested, so no DB or
+ *   Security Kernel is needed. The Tapis thread context and user normally set up by the JWT filter are set by
+ *   a test filter.
+ */
+@Test(groups={"integration"})
+public class SystemResourceTotalCountTest extends JerseyTestNg.ContainerPerClassTest
+{
+  private static final String tenantName = "dev";
+  private static final String userName = "testuser1";
+  private static final int estimatedCount = 42;
+
+  // Calls to getSystemsTotalCount and the value of approximate passed in
+  private final AtomicInteger totalCountCalls = new AtomicInteger();
+  private final AtomicReference<Boolean> approximateArg = new AtomicReference<>();
+
+  @Override
+  protected Application configure()
+  {
+    SystemsService svc = (SystemsService) Proxy.newProxyInstance(SystemsService.class.getClassLoader(),
+            new Class<?>[] {SystemsService.class}, (proxy, method, args) ->
+            {
+              if (method.getName().equals("getSystems")) return new ArrayList<TSystem>();
+              if (method.getName().equals("getSystemsTotalCount") && args.length == 6)
+              {
+                totalCountCalls.incrementAndGet();
+                approximateArg.set((Boolean) args[5]);
+                return new TotalCount(estimatedCount, !((Boolean) args[5]));
+              }
+              throw new UnsupportedOperationException(method.getName());
+            });
+    return new ResourceConfig(SystemResource.class)
+            .register(new UserFilter())
+            .register(new AbstractBinder() {
+              @Override
+              protected void configure() { bind(svc).to(SystemsService.class); }
+            });
+  }
+
+  @BeforeMethod
+  public void resetCalls()
+  {
+    totalCountCalls.set(0);
+    approximateArg.set(null);
+  }
+
+  @Test
+  public void testTotalModeApprox()
+  {
+    Response response = target("/v3/systems").queryParam("totalMode", "approx").request().get();
+    assertEquals(response.getStatus(), Response.Status.OK.getStatusCode());
+    JsonObject metadata = getMetadata(response);
+    assertEquals(totalCountCalls.get(), 1);
+    assertEquals(approximateArg.get(), Boolean.TRUE);
+    assertEquals(metadata.get("totalCount").getAsInt(), estimatedCount);
+    assertFalse(metadata.get("totalCountExact").getAsBoolean());
+  }
+
+  @Test
+  public void testTotalModeExact()
+  {
+    Response response = target("/v3/systems").queryParam("totalMode", "exact").request().get();
+    assertEquals(response.getStatus(), Response.Status.OK.getStatusCode());
+    JsonObject metadata = getMetadata(response);
+    assertEquals(totalCountCalls.get(), 1);
+    assertEquals(approximateArg.get(), Boolean.FALSE);
+    assertTrue(metadata.get("totalCountExact").getAsBoolean());
+  }
+
+  @Test
+  public void testTotalModeAbsentOrInvalid()
+  {
+    // No count requested
+    Response response = target("/v3/systems").request().get();
+    assertEquals(response.getStatus(), Response.Status.OK.getStatusCode());
+    assertEquals(getMetadata(response).get("totalCount").getAsInt(), -1);
+    assertEquals(totalCountCalls.get(), 0);
+
+    // Unknown value is rejected
+    response = target("/v3/systems").queryParam("totalMode", "sometimes").request().get();
+    assertEquals(response.getStatus(), Response.Status.BAD_REQUEST.getStatusCode());
+    assertEquals(totalCountCalls.get(), 0);
+  }
+
+  private static JsonObject getMetadata(Response response)
+  {
+    JsonObject json = TapisGsonUtils.getGson().fromJson(response.readEntity(String.class), JsonObject.class);
+    return json.getAsJsonObject("metadata");
+  }
+
+  /*
+   * Set up the thread context and user as the JWT filter does for an authenticated user.
+   * Package-private so that other resource tests can use it.
+   */
+  static final class UserFilter implements ContainerRequestFilter
+  {
+    @Override
+    public void filter(ContainerRequestContext requestContext)
+    {
+      TapisThreadContext threadContext = TapisThreadLocal.tapisThreadContext.get();
+      threadContext.setJwtTenantId(tenantName);
+      threadContext.setJwtUser(userName);
+      threadContext.setOboTenantId(tenantName);
+      threadContext.setOboUser(userName);
+      threadContext.setAccountType(TapisThreadContext.AccountType.user);
+      var user = new AuthenticatedUser(userName, tenantName, TapisThreadContext.AccountType.user.name(), null,
+                                       userName, tenantName, null, null, null);
+      requestContext.setSecurityContext(new SecurityContext()
+      {
+        @Override public Principal getUserPrincipal() { return user; }
+        @Override public boolean isUserInRole(String role) { return false; }
+        @Override public boolean isSecure() { return false; }
+        @Override public String getAuthenticationScheme() { return "Bearer"; }
+      });
+    }
+  }
+}
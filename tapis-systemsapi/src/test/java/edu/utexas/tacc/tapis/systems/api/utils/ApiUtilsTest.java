@@ -6,6 +6,10 @@ import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
 import static org.testng.Assert.*;
 
 public class ApiUtilsTest
@@ -37,4 +41,29 @@ public class ApiUtilsTest
     assertEquals(testStr, "notdefault",  "Incorrect string returned");
   }
 
+  /*
+   * Test building system ETags and matching them against If-None-Match
+   */
+  @Test(groups={"unit"})
+  public void testSystemETag()
+  {
+    UUID uuid = UUID.randomUUID();
+    Instant updated = Instant.now();
+    List<String> selectList = List.of("id", "host");
+    String eTag = ApiUtils.getSystemETag(uuid, updated, "testuser", selectList);
+    assertTrue(eTag.startsWith("\"") && eTag.endsWith("\""), "ETag must be quoted");
+    assertEquals(ApiUtils.getSystemETag(uuid, updated, "testuser", selectList), eTag, "ETag must be stable");
+    // Any change in inputs should change the ETag
+    assertNotEquals(ApiUtils.getSystemETag(uuid, updated.plusMillis(1), "testuser", selectList), eTag);
+    assertNotEquals(ApiUtils.getSystemETag(uuid, updated, "testuser2", selectList), eTag);
+    assertNotEquals(ApiUtils.getSystemETag(uuid, updated, "testuser", null), eTag);
+    assertNotEquals(ApiUtils.getSystemETag(UUID.randomUUID(), updated, "testuser", selectList), eTag);
+    // If-None-Match handling
+    assertTrue(ApiUtils.ifNoneMatchMatches(eTag, eTag));
+    assertTrue(ApiUtils.ifNoneMatchMatches("\"abc\", W/" + eTag, eTag));
+    assertTrue(ApiUtils.ifNoneMatchMatches("*", eTag));
+    assertFalse(ApiUtils.ifNoneMatchMatches("\"abc\"", eTag));
+    assertFalse(ApiUtils.ifNoneMatchMatches(null, eTag));
+  }
+
 }
\ No newline at end of file
@@ -0,0 +1,240 @@
+package edu.utexas.tacc.tapis.systems.api.utils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.TimeoutHandler;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.Status;
+
+import org.testng.annotations.Test;
+
+import edu.utexas.tacc.tapis.shared.threadlocal.TapisThreadContext;
+import edu.utexas.tacc.tapis.shared.threadlocal.TapisThreadLocal;
+import edu.utexas.tacc.tapis.systems.metrics.RequestTiming;
+import edu.utexas.tacc.tapis.systems.metrics.RequestTiming.Phase;
+
+import static org.testng.Assert.*;
+
+/*
+ * Test AsyncDispatcher: offloading of requests waiting on a blocked Security Kernel stand-in, limits on requests
+ *   accepted, timeouts, errors and propagation of the thread context.
+ * A small fixed pool stands in for the server worker threads.
+ */
+public class AsyncDispatcherTest
+{
+  private static final int numWorkers = 4;
+  private static final int numRequests = 40;
+
+  /*
+   * With the work offloaded the worker threads are free while requests wait on SK. More requests than workers are
+   *   in progress at once, none of them on a worker thread, and a quick request such as a healthcheck completes
+   *   on the workers while all the requests are blocked.
+   */
+  @Test(groups={"unit"})
+  public void testOffloadWithBlockedSK() throws Exception
+  {
+    ExecutorService workers = Executors.newFixedThreadPool(numWorkers);
+    var dispatcher = new AsyncDispatcher(numRequests, 0, true);
+    var started = new CountDownLatch(numRequests);
+    var release = new CountDownLatch(1);
+    Set<Thread> workerThreads = ConcurrentHashMap.newKeySet();
+    Set<Thread> workThreads = ConcurrentHashMap.newKeySet();
+    var responses = new ArrayList<FakeAsyncResponse>();
+    for (int i = 0; i < numRequests; i++)
+    {
+      var asyncResponse = new FakeAsyncResponse();
+      responses.add(asyncResponse);
+      workers.execute(() ->
+      {
+        workerThreads.add(Thread.currentThread());
+        dispatcher.dispatch(asyncResponse, "testOp", true, () ->
+        {
+          workThreads.add(Thread.currentThread());
+          started.countDown();
+          try { release.await(); } catch (InterruptedException e) { Thread.currentThread().interrupt(); }
+          return Response.ok().build();
+        }, Runnable::run);
+      });
+    }
+    assertTrue(started.await(30, TimeUnit.SECONDS), "Requests not in progress at the same time");
+    // Healthcheck runs on the workers while every request is blocked
+    assertEquals(workers.submit(() -> Response.ok().build()).get(30, TimeUnit.SECONDS).getStatus(),
+                 Status.OK.getStatusCode());
+    assertEquals(release.getCount(), 1L);
+    release.countDown();
+    for (FakeAsyncResponse asyncResponse : responses)
+    {
+      assertEquals(asyncResponse.awaitResponse().getStatus(), Status.OK.getStatusCode());
+    }
+    for (Thread t : workThreads) assertFalse(workerThreads.contains(t), "Work ran on a worker thread: " + t);
+    workers.shutdown();
+    dispatcher.shutdown();
+  }
+
+  /*
+   * Once the limit on requests is reached a request gets a 503 immediately, with or without virtual threads.
+   *   Requests are accepted again once requests in progress complete.
+   */
+  @Test(groups={"unit"})
+  public void testSaturation() throws Exception
+  {
+    for (boolean useVirtualThreads : new boolean[] {false, true})
+    {
+      var dispatcher = new AsyncDispatcher(2, 0, useVirtualThreads);
+      var release = new CountDownLatch(1);
+      var responses = new ArrayList<FakeAsyncResponse>();
+      for (int i = 0; i < dispatcher.getMaxRequests(); i++)
+      {
+        var asyncResponse = new FakeAsyncResponse();
+        responses.add(asyncResponse);
+        assertTrue(dispatcher.dispatch(asyncResponse, "testOp", true, () ->
+        {
+          try { release.await(); } catch (InterruptedException e) { Thread.currentThread().interrupt(); }
+          return Response.ok().build();
+        }, Runnable::run));
+      }
+      var rejected = new FakeAsyncResponse();
+      assertFalse(dispatcher.dispatch(rejected, "testOp", true, () -> Response.ok().build(), Runnable::run));
+      assertEquals(rejected.awaitResponse().getStatus(), Status.SERVICE_UNAVAILABLE.getStatusCode());
+      release.countDown();
+      for (FakeAsyncResponse asyncResponse : responses)
+      {
+        assertEquals(asyncResponse.awaitResponse().getStatus(), Status.OK.getStatusCode());
+      }
+      // Capacity is given back by completed requests
+      var accepted = new FakeAsyncResponse();
+      assertTrue(dispatcher.dispatch(accepted, "testOp", true, () -> Response.ok().build(), Runnable::run));
+      assertEquals(accepted.awaitResponse().getStatus(), Status.OK.getStatusCode());
+      dispatcher.shutdown();
+    }
+  }
+
+  /*
+   * A request that does not finish in time gets a 503 and the late result is discarded
+   */
+  @Test(groups={"unit"})
+  public void testTimeout() throws Exception
+  {
+    var dispatcher = new AsyncDispatcher(2, 1, false);
+    var release = new CountDownLatch(1);
+    var asyncResponse = new FakeAsyncResponse();
+    dispatcher.dispatch(asyncResponse, "testOp", true, () ->
+    {
+      try { release.await(); } catch (InterruptedException e) { Thread.currentThread().interrupt(); }
+      return Response.ok().build();
+    }, Runnable::run);
+    assertEquals(asyncResponse.timeoutSeconds, 1L);
+    // Simulate the container firing the timeout
+    asyncResponse.timeoutHandler.handleTimeout(asyncResponse);
+    assertEquals(asyncResponse.awaitResponse().getStatus(), Status.SERVICE_UNAVAILABLE.getStatusCode());
+
+    // A request that creates or updates a resource is not timed out and gets the actual result
+    var mutation = new FakeAsyncResponse();
+    dispatcher.dispatch(mutation, "testOp", false, () ->
+    {
+      try { release.await(); } catch (InterruptedException e) { Thread.currentThread().interrupt(); }
+      return Response.status(Status.CREATED).build();
+    }, Runnable::run);
+    assertNull(mutation.timeoutHandler, "Timeout set for request that may not time out");
+    release.countDown();
+    assertEquals(mutation.awaitResponse().getStatus(), Status.CREATED.getStatusCode());
+    dispatcher.shutdown();
+    assertTrue(dispatcher.awaitTermination(30, TimeUnit.SECONDS));
+    assertEquals(asyncResponse.resumeCount, 1, "Late result not discarded");
+  }
+
+  /*
+   * Thread context and request timing are available to the work, exceptions are passed on for mapping and a
+   *   request that cannot be scheduled gets a 503.
+   */
+  @Test(groups={"unit"})
+  public void testContextErrorAndRejected() throws Exception
+  {
+    var dispatcher = new AsyncDispatcher(2, 0, false);
+    TapisThreadContext threadContext = TapisThreadLocal.tapisThreadContext.get();
+    var timing = new RequestTiming(System.nanoTime());
+    RequestTiming.setCurrent(timing);
+    var asyncResponse = new FakeAsyncResponse();
+    dispatcher.dispatch(asyncResponse, "testOp", true, () ->
+    {
+      assertSame(TapisThreadLocal.tapisThreadContext.get(), threadContext);
+      assertSame(RequestTiming.current(), timing);
+      RequestTiming.record(Phase.SK, 1000L);
+      return Response.ok().build();
+    }, Runnable::run);
+    RequestTiming.setCurrent(null);
+    assertEquals(asyncResponse.awaitResponse().getStatus(), Status.OK.getStatusCode());
+    assertEquals(timing.getCount(Phase.SK), 1L);
+    assertNull(asyncResponse.timeoutHandler, "Timeout set when disabled");
+
+    asyncResponse = new FakeAsyncResponse();
+    dispatcher.dispatch(asyncResponse, "testOp", true, () -> { throw new IllegalStateException("work failed"); },
+                        Runnable::run);
+    assertTrue(asyncResponse.await());
+    assertTrue(asyncResponse.result instanceof IllegalStateException, "Wrong result: " + asyncResponse.result);
+
+    dispatcher.shutdown();
+    asyncResponse = new FakeAsyncResponse();
+    assertFalse(dispatcher.dispatch(asyncResponse, "testOp", true, () -> Response.ok().build(), Runnable::run));
+    assertEquals(asyncResponse.awaitResponse().getStatus(), Status.SERVICE_UNAVAILABLE.getStatusCode());
+  }
+
+  /* ********************************************************************** */
+  /*                             Private Methods                            */
+  /* ********************************************************************** */
+
+  /*
+   * Minimal AsyncResponse that records the result
+   */
+  private static final class FakeAsyncResponse implements AsyncResponse
+  {
+    private final CountDownLatch done = new CountDownLatch(1);
+    private volatile Object result;
+    private volatile int resumeCount;
+    private volatile long timeoutSeconds;
+    private volatile TimeoutHandler timeoutHandler;
+
+    private boolean await() throws InterruptedException { return done.await(30, TimeUnit.SECONDS); }
+
+    private Response awaitResponse() throws InterruptedException
+    {
+      assertTrue(await(), "Request not resumed");
+      assertTrue(result instanceof Response, "Wrong result: " + result);
+      return (Response) result;
+    }
+
+    private synchronized boolean complete(Object result1)
+    {
+      if (done.getCount() == 0) return false;
+      result = result1;
+      resumeCount++;
+      done.countDown();
+      return true;
+    }
+
+    @Override public boolean resume(Object response) { return complete(response); }
+    @Override public boolean resume(Throwable response) { return complete(response); }
+    @Override public boolean cancel() { return complete(null); }
+    @Override public boolean cancel(int retryAfter) { return complete(null); }
+    @Override public boolean cancel(Date retryAfter) { return complete(null); }
+    @Override public boolean isSuspended() { return done.getCount() > 0; }
+    @Override public boolean isCancelled() { return false; }
+    @Override public boolean isDone() { return done.getCount() == 0; }
+    @Override public boolean setTimeout(long time, TimeUnit unit) { timeoutSeconds = unit.toSeconds(time); return true; }
+    @Override public void setTimeoutHandler(TimeoutHandler handler) { timeoutHandler = handler; }
+    @Override public Collection<Class<?>> register(Class<?> callback) { return List.of(); }
+    @Override public Map<Class<?>, Collection<Class<?>>> register(Class<?> callback, Class<?>... callbacks) { return Map.of(); }
+    @Override public Collection<Class<?>> register(Object callback) { return List.of(); }
+    @Override public Map<Class<?>, Collection<Class<?>>> register(Object callback, Object... callbacks) { return Map.of(); }
+  }
+}
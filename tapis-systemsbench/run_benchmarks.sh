@@ -0,0 +1,36 @@
+#!/bin/bash
+# Build and run the JMH benchmarks for the Systems service.
+# Results are written as JSON to tapis-systemsbench/results/<git commit>.json so that runs
+#   for different commits can be compared.
+# Any arguments are passed to JMH. For example, to run only the search benchmarks with fewer iterations:
+#   ./run_benchmarks.sh SearchConditionBenchmark -wi 1 -i 3
+# Run with -h to see all JMH options.
+PrgName=$(basename "$0")
+
+# Determine absolute path to location from which we are running.
+export RUN_DIR=$(pwd)
+export PRG_RELPATH=$(dirname "$0")
+cd "$PRG_RELPATH"/. || exit
+export PRG_PATH=$(pwd)
+
+# Build the benchmark module and the modules it depends on
+cd "$PRG_PATH"/.. || exit
+mvn -B -q -Pbench -pl tapis-systemsbench -am -DskipTests clean package
+RET_CODE=$?
+if [ $RET_CODE -ne 0 ]; then
+  echo "$PrgName: Build failed"
+  exit $RET_CODE
+fi
+
+COMMIT=$(git rev-parse --short=7 HEAD)
+if [ -n "$(git status --porcelain --untracked-files=no)" ]; then
+  COMMIT="${COMMIT}-dirty"
+fi
+RESULTS_DIR="$PRG_PATH/results"
+RESULTS_FILE="$RESULTS_DIR/${COMMIT}.json"
+mkdir -p "$RESULTS_DIR"
+
+java -jar "$PRG_PATH"/target/systems-bench.jar -rf json -rff "$RESULTS_FILE" "$@"
+RET_CODE=$?
+echo "$PrgName: Results written to $RESULTS_FILE"
+exit $RET_CODE
@@ -0,0 +1,104 @@
+package edu.utexas.tacc.tapis.systems.bench;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import com.google.gson.JsonObject;
+
+import edu.utexas.tacc.tapis.shared.utils.TapisGsonUtils;
+import edu.utexas.tacc.tapis.systems.model.Capability;
+import edu.utexas.tacc.tapis.systems.model.Capability.Category;
+import edu.utexas.tacc.tapis.systems.model.Capability.Datatype;
+import edu.utexas.tacc.tapis.systems.model.JobRuntime;
+import edu.utexas.tacc.tapis.systems.model.JobRuntime.RuntimeType;
+import edu.utexas.tacc.tapis.systems.model.LogicalQueue;
+import edu.utexas.tacc.tapis.systems.model.TSystem;
+import edu.utexas.tacc.tapis.systems.model.TSystem.AuthnMethod;
+import edu.utexas.tacc.tapis.systems.model.TSystem.SchedulerType;
+import edu.utexas.tacc.tapis.systems.model.TSystem.SystemType;
+
+/*
+ * Data shared by the benchmarks.
+ * Systems are fully populated, with capabilities, queues, runtimes, tags and notes, so that the benchmarks
+ *   reflect the cost of a realistic system rather than a minimal one.
+ */
+public final class BenchData
+{
+  public static final String TENANT = "dev";
+  public static final String OWNER = "benchowner";
+  public static final String SYS_PREFIX = "bench-sys-";
+
+  // Notes as stored in the jsonb column
+  public static final String NOTES_JSON =
+          "{\"project\": \"benchproj\", \"testdata\": \"abc1\", \"contacts\": [\"a@example.org\", \"b@example.org\"]," +
+          " \"allocation\": {\"name\": \"TG-BENCH\", \"hours\": 10000, \"active\": true}}";
+
+  private BenchData() { throw new AssertionError(); }
+
+  /**
+   * Create a fully populated system
+   * @param i - index used to make attributes unique
+   * @return system
+   */
+  public static TSystem makeSystem(int i)
+  {
+    String id = SYS_PREFIX + i;
+    Instant now = Instant.now();
+    var notes = TapisGsonUtils.getGson().fromJson(NOTES_JSON, JsonObject.class);
+    var system = new TSystem(i+1, TENANT, id, "Benchmark system " + i, SystemType.LINUX, OWNER,
+            "host" + i + ".example.org", true, "${apiUserId}", AuthnMethod.PKI_KEYS, null, "/home/${apiUserId}",
+            22, false, null, 0, null, null, null, false, true, "/scratch/${apiUserId}/jobs",
+            new String[] {"HOME=/home/${apiUserId}", "TMP=/tmp", "SCRATCH=/scratch"}, 100, 10, true,
+            SchedulerType.SLURM, "normal", new String[] {"bench", "linux", "slurm", "tag" + i}, notes,
+            UUID.randomUUID(), false, now, now);
+    system.setJobRuntimes(new ArrayList<>(List.of(new JobRuntime(RuntimeType.DOCKER, "20.10"),
+                                                  new JobRuntime(RuntimeType.SINGULARITY, "3.7"))));
+    system.setBatchLogicalQueues(new ArrayList<>(List.of(
+            new LogicalQueue("normal", "normal", 50, 10, 1, 256, 1, 68, 1, 96000, 1, 2880),
+            new LogicalQueue("dev", "development", 1, 1, 1, 4, 1, 68, 1, 96000, 1, 120),
+            new LogicalQueue("large", "large", 5, 2, 257, 2048, 1, 68, 1, 96000, 1, 1440))));
+    system.setJobCapabilities(new ArrayList<>(List.of(
+            new Capability(Category.SCHEDULER, "Type", Datatype.STRING, 100, "Slurm"),
+            new Capability(Category.HARDWARE, "CoresPerNode", Datatype.INTEGER, 100, "68"),
+            new Capability(Category.HARDWARE, "MemoryMB", Datatype.INTEGER, 100, "96000"),
+            new Capability(Category.SOFTWARE, "MPI", Datatype.STRING, 100, "intel"),
+            new Capability(Category.CONTAINER, "Singularity", Datatype.BOOLEAN, 100, "true"))));
+    return system;
+  }
+
+  /**
+   * Create a list of systems
+   * @param count - number of systems
+   * @return list of systems
+   */
+  public static List<TSystem> makeSystems(int count)
+  {
+    var systems = new ArrayList<TSystem>(count);
+    for (int i = 0; i < count; i++) systems.add(makeSystem(i));
+    return systems;
+  }
+
+  /**
+   * Create permSpecs such as a user might hold. Most grant READ or MODIFY on a single system.
+   * Some are for other resources or grant only EXECUTE so that they are skipped.
+   * @param count - number of permSpecs
+   * @return list of permSpecs
+   */
+  public static List<String> makePermSpecs(int count)
+  {
+    var perms = new ArrayList<String>(count);
+    for (int i = 0; i < count; i++)
+    {
+      switch (i % 5)
+      {
+        case 0, 1 -> perms.add("system:" + TENANT + ":READ:" + SYS_PREFIX + i);
+        case 2 -> perms.add("system:" + TENANT + ":READ,MODIFY:" + SYS_PREFIX + i);
+        case 3 -> perms.add("system:" + TENANT + ":EXECUTE:" + SYS_PREFIX + i);
+        default -> perms.add("files:" + TENANT + ":READ:" + SYS_PREFIX + i + ":/home");
+      }
+    }
+    return perms;
+  }
+}
@@ -0,0 +1,100 @@
+package edu.utexas.tacc.tapis.systems.bench;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.google.gson.JsonObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.utexas.tacc.tapis.systems.api.responses.RespSystems;
+import edu.utexas.tacc.tapis.systems.api.responses.results.TapisSystemDTO;
+import edu.utexas.tacc.tapis.systems.model.TSystem;
+
+/*
+ * Building the JSON returned for systems: a single DTO for each kind of select list and a complete
+ *   RespSystems for a page of systems.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DisplayBenchmark
+{
+  private static final List<String> SELECT_ALL = List.of("allAttributes");
+  private static final List<String> SELECT_SUMMARY = List.of("summaryAttributes");
+  private static final List<String> SELECT_EXPLICIT = List.of("id", "host", "owner", "canExec", "tags", "notes");
+
+  private TSystem system;
+  private TapisSystemDTO dto;
+
+  /*
+   * A page of results. Separate state so that only the RespSystems benchmarks are run for each size.
+   */
+  @State(Scope.Benchmark)
+  public static class Page
+  {
+    @Param({"10", "100", "1000"})
+    public int numSystems;
+
+    private List<TSystem> systems;
+
+    @Setup
+    public void setup() { systems = BenchData.makeSystems(numSystems); }
+  }
+
+  @Setup
+  public void setup()
+  {
+    system = BenchData.makeSystem(0);
+    dto = new TapisSystemDTO(system);
+  }
+
+  @Benchmark
+  public JsonObject displayAllAttributes()
+  {
+    return dto.getDisplayObject(SELECT_ALL);
+  }
+
+  @Benchmark
+  public JsonObject displaySummaryAttributes()
+  {
+    return dto.getDisplayObject(SELECT_SUMMARY);
+  }
+
+  @Benchmark
+  public JsonObject displaySelectedAttributes()
+  {
+    return dto.getDisplayObject(SELECT_EXPLICIT);
+  }
+
+  // Includes creating the DTO, as is done for each system returned
+  @Benchmark
+  public JsonObject dtoAndDisplayAll()
+  {
+    return new TapisSystemDTO(system).getDisplayObject(SELECT_ALL);
+  }
+
+  @Benchmark
+  public RespSystems respSystemsAllAttributes(Page page)
+  {
+    return new RespSystems(page.systems, page.numSystems, null, 0, null, page.numSystems, SELECT_ALL);
+  }
+
+  @Benchmark
+  public RespSystems respSystemsSummaryAttributes(Page page)
+  {
+    return new RespSystems(page.systems, page.numSystems, null, 0, null, page.numSystems, SELECT_SUMMARY);
+  }
+}
@@ -0,0 +1,79 @@
+package edu.utexas.tacc.tapis.systems.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import org.jooq.Converter;
+import org.jooq.JSONB;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.utexas.tacc.tapis.shared.utils.TapisGsonUtils;
+import edu.utexas.tacc.tapis.systems.dao.JSONBToJsonElementBinding;
+import edu.utexas.tacc.tapis.systems.model.TSystem;
+
+/*
+ * JSON conversions done for every system read or written: the jsonb column binding used for notes and
+ *   Gson serialization of a complete system.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonBenchmark
+{
+  private Converter<JSONB, JsonElement> converter;
+  private JSONB notesJsonb;
+  private JsonElement notesElement;
+  private Gson gson;
+  private TSystem system;
+  private String systemJson;
+
+  @Setup
+  public void setup()
+  {
+    converter = new JSONBToJsonElementBinding().converter();
+    notesJsonb = JSONB.valueOf(BenchData.NOTES_JSON);
+    notesElement = converter.from(notesJsonb);
+    gson = TapisGsonUtils.getGson();
+    system = BenchData.makeSystem(0);
+    systemJson = gson.toJson(system);
+  }
+
+  // Reading notes from the DB
+  @Benchmark
+  public JsonElement jsonbFrom()
+  {
+    return converter.from(notesJsonb);
+  }
+
+  // Writing notes to the DB
+  @Benchmark
+  public JSONB jsonbTo()
+  {
+    return converter.to(notesElement);
+  }
+
+  @Benchmark
+  public String gsonSystemToJson()
+  {
+    return gson.toJson(system);
+  }
+
+  @Benchmark
+  public TSystem gsonSystemFromJson()
+  {
+    return gson.fromJson(systemJson, TSystem.class);
+  }
+}
@@ -0,0 +1,76 @@
+package edu.utexas.tacc.tapis.systems.dao;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.jooq.Condition;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.utexas.tacc.tapis.search.SearchUtils;
+import edu.utexas.tacc.tapis.search.parser.ASTNode;
+import edu.utexas.tacc.tapis.search.parser.ASTParser;
+import edu.utexas.tacc.tapis.shared.exceptions.TapisException;
+
+/*
+ * Compiling search conditions into jOOQ conditions, bypassing the search condition cache.
+ * Search strings are pre-processed just as is done in SystemsServiceImpl before it calls the Dao.
+ * This is in the dao package so that it can call the package-private methods of SystemsDaoImpl.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchConditionBenchmark
+{
+  // Typical searchList from a query parameter search
+  private static final List<String> SEARCH_LIST =
+          List.of("id.like.bench-sys-*", "owner.eq.benchowner", "enabled.eq.true", "port.between.1,1024",
+                  "system_type.in.LINUX,S3", "created.gt.2020-01-01T00:00:00Z");
+
+  // Typical sql-like search from a request body
+  private static final String SEARCH_SQL =
+          "(id LIKE 'bench-sys-%' AND owner = 'benchowner') OR (enabled = true AND port BETWEEN '1' AND '1024')" +
+          " OR (host NLIKE 'login%' AND can_exec = false AND created > '2020-01-01T00:00:00Z')";
+
+  private List<String> searchList;
+  private ASTNode searchAST;
+
+  @Setup
+  public void setup() throws Exception
+  {
+    searchList = new ArrayList<>();
+    for (String cond : SEARCH_LIST) searchList.add(SearchUtils.validateAndProcessSearchCondition(cond));
+    searchAST = ASTParser.parse(SEARCH_SQL);
+  }
+
+  @Benchmark
+  public Condition searchList() throws TapisException
+  {
+    return SystemsDaoImpl.addSearchListToWhere(null, searchList);
+  }
+
+  @Benchmark
+  public Condition searchAST() throws TapisException
+  {
+    return SystemsDaoImpl.createConditionFromAst(searchAST);
+  }
+
+  // Parsing as well as compiling, as is done for each request with a sql-like search
+  @Benchmark
+  public Condition parseAndSearchAST() throws Exception
+  {
+    return SystemsDaoImpl.createConditionFromAst(ASTParser.parse(SEARCH_SQL));
+  }
+}
@@ -0,0 +1,50 @@
+package edu.utexas.tacc.tapis.systems.service;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.utexas.tacc.tapis.systems.bench.BenchData;
+
+/*
+ * Parsing the permSpecs held by a user to find the systems they may read, as done when listing systems.
+ * This is in the service package so that it can call the package-private method of SystemsServiceImpl.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PermSpecBenchmark
+{
+  // Number of permSpecs held by the user
+  @Param({"10", "1000", "10000"})
+  public int numPerms;
+
+  private List<String> userPerms;
+
+  @Setup
+  public void setup()
+  {
+    userPerms = BenchData.makePermSpecs(numPerms);
+  }
+
+  @Benchmark
+  public Set<String> readableSysIDs()
+  {
+    return SystemsServiceImpl.getReadableSysIDs(userPerms, BenchData.TENANT);
+  }
+}
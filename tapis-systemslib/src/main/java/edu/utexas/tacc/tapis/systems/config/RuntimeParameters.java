@@ -64,6 +64,64 @@ public final class RuntimeParameters
     
     // Support defaults.
     private static final String DEFAULT_SUPPORT_NAME = "Oracle of Delphi";
+
+    // Default maximum number of entries in the search condition cache. 0 disables the cache.
+    private static final int DEFAULT_SEARCH_CACHE_SIZE = 500;
+
+    // Defaults for the cache of exact counts of systems. Size of 0 disables the cache.
+    private static final int DEFAULT_COUNT_CACHE_SIZE = 200;
+    private static final int DEFAULT_COUNT_CACHE_TTL_SECONDS = 60;
+
+    // Defaults for the cache of systems used by getSystem. Size of 0 disables the cache.
+    private static final int DEFAULT_SYSTEM_CACHE_SIZE = 1000;
+    private static final int DEFAULT_SYSTEM_CACHE_TTL_SECONDS = 300;
+
+    // Defaults for the cache of credentials read from the Security Kernel. Disabled by default.
+    private static final int DEFAULT_CRED_CACHE_SIZE = 0;
+    private static final int DEFAULT_CRED_CACHE_TTL_SECONDS = 30;
+
+    // Defaults for the server-sent events stream of system changes.
+    private static final int DEFAULT_EVENTS_BUFFER_SIZE = 256;
+    private static final int DEFAULT_EVENTS_MAX_SUBSCRIBERS = 10000;
+    private static final int DEFAULT_EVENTS_HEARTBEAT_SECONDS = 30;
+    private static final int DEFAULT_EVENTS_MAX_LIFETIME_SECONDS = 3600;
+
+    // Security Kernel defaults
+    private static final int DEFAULT_SK_MAX_PARALLEL = 8;
+    private static final int DEFAULT_SK_TIMEOUT_SECONDS = 30;
+
+    // Request processing defaults
+    private static final int DEFAULT_API_MAX_THREADS = 200;
+    private static final int DEFAULT_API_TIMEOUT_SECONDS = 60;
+
+    // HTTP server defaults
+    private static final int DEFAULT_SERVER_WORKER_THREADS = 0;
+    private static final int DEFAULT_SERVER_SELECTOR_THREADS = 0;
+    private static final boolean DEFAULT_SERVER_VIRTUAL_THREADS = false;
+    private static final int DEFAULT_SERVER_KEEPALIVE_IDLE_SECONDS = 30;
+    private static final int DEFAULT_SERVER_KEEPALIVE_MAX_REQUESTS = 256;
+    private static final int DEFAULT_SERVER_MAX_HEADER_SIZE = 8192;
+    private static final boolean DEFAULT_SERVER_COMPRESSION = true;
+    private static final int DEFAULT_SERVER_COMPRESSION_MIN_SIZE = 2048;
+
+    // DB statement statistics defaults
+    private static final int DEFAULT_DB_SLOW_QUERY_MILLIS = 500;
+    private static final int DEFAULT_DB_STATEMENT_STATS_MAX = 500;
+
+    // Request timing defaults
+    private static final boolean DEFAULT_SERVER_TIMING = false;
+
+    // Security Kernel stand-in defaults
+    private static final boolean DEFAULT_SK_FAKE = false;
+    private static final int DEFAULT_SK_FAKE_LATENCY_MILLIS = 0;
+    private static final int DEFAULT_SK_FAKE_JITTER_MILLIS = 0;
+    private static final int DEFAULT_SK_FAKE_ERROR_PERCENT = 0;
+    // Run profiles in which the Security Kernel stand-in may be used
+    private static final List<String> SK_FAKE_PROFILES = List.of("test", "bench");
+
+    // Permission mirror defaults
+    private static final boolean DEFAULT_PERM_MIRROR = false;
+    private static final int DEFAULT_PERM_MIRROR_RECONCILE_SECONDS = 3600;
      
     /* ********************************************************************** */
     /*                                 Fields                                 */
@@ -116,6 +174,57 @@ public final class RuntimeParameters
 	// The slf4j/logback target directory and file.
 	private String  logDirectory;
 	private String  logFile;
+
+	// Caching.
+	private int     searchCacheSize;
+	private int     countCacheSize;
+	private int     countCacheTtlSeconds;
+	private int     systemCacheSize;
+	private int     systemCacheTtlSeconds;
+	private int     credCacheSize;
+	private int     credCacheTtlSeconds;
+
+	// Events
+	private int     eventsBufferSize;
+	private int     eventsMaxSubscribers;
+	private int     eventsHeartbeatSeconds;
+	private int     eventsMaxLifetimeSeconds;
+
+	// Security Kernel
+	private int     skMaxParallel;
+	private int     skTimeoutSeconds;
+
+	// Request Processing
+	private int     apiMaxThreads;
+	private int     apiTimeoutSeconds;
+
+	// Server
+	private int     serverWorkerThreads;
+	private int     serverSelectorThreads;
+	private boolean serverVirtualThreads;
+	private int     serverKeepAliveIdleSeconds;
+	private int     serverKeepAliveMaxRequests;
+	private int     serverMaxHeaderSize;
+	private boolean serverCompression;
+	private int     serverCompressionMinSize;
+
+	// DB Statement Statistics
+	private int     dbSlowQueryMillis;
+	private int     dbStatementStatsMax;
+
+	// Request Timing
+	private boolean serverTiming;
+
+	// SK Stand-in
+	private boolean skFake;
+	private int     skFakeLatencyMillis;
+	private int     skFakeJitterMillis;
+	private int     skFakeErrorPercent;
+	private String  runProfile;
+
+	// Permission Mirror
+	private boolean permMirror;
+	private int     permMirrorReconcileSeconds;
 	
 	/* ********************************************************************** */
 	/*                              Constructors                              */
@@ -402,6 +511,535 @@ public final class RuntimeParameters
     // Empty support email means no support emails will be sent.
     parm = inputProperties.getProperty(EnvVar.TAPIS_SUPPORT_EMAIL.getEnvName());
     if (!StringUtils.isBlank(parm)) setSupportEmail(parm);
+
+    // --------------------- Caching Parameters -----------------------
+    // Maximum number of validated search conditions to cache. Zero or less disables the cache.
+    parm = inputProperties.getProperty(EnvVar2.TAPIS_SEARCH_CACHE_SIZE.getEnvName());
+    if (StringUtils.isBlank(parm)) setSearchCacheSize(DEFAULT_SEARCH_CACHE_SIZE);
+      else {
+        try {setSearchCacheSize(Integer.parseInt(parm));}
+          catch (Exception e) {
+            // Stop on bad input.
+            String msg = MsgUtils.getMsg("TAPIS_SERVICE_PARM_INITIALIZATION_FAILED",
+                                         TapisConstants.SERVICE_NAME_SYSTEMS,
+                                         "searchCacheSize",
+                                         e.getMessage());
+            _log.error(msg, e);
+            throw new TapisRuntimeException(msg, e);
+          }
+      }
+
+    // Maximum number of exact counts of systems to cache. Zero or less disables the cache.
+    parm = inputProperties.getProperty(EnvVar2.TAPIS_COUNT_CACHE_SIZE.getEnvName());
+    if (StringUtils.isBlank(parm)) setCountCacheSize(DEFAULT_COUNT_CACHE_SIZE);
+      else {
+        try {setCountCacheSize(Integer.parseInt(parm));}
+          catch (Exception e) {
+            // Stop on bad input.
+            String msg = MsgUtils.getMsg("TAPIS_SERVICE_PARM_INITIALIZATION_FAILED",
+                                         TapisConstants.SERVICE_NAME_SYSTEMS,
+                                         "countCacheSize",
+                                         e.getMessage());
+            _log.error(msg, e);
+            throw new TapisRuntimeException(msg, e);
+          }
+      }
+
+    // Maximum age in seconds of a cached count. Bounds staleness for writes made by other service instances.
+    parm = inputProperties.getProperty(EnvVar2.TAPIS_COUNT_CACHE_TTL.getEnvName());
+    if (StringUtils.isBlank(parm)) setCountCacheTtlSeconds(DEFAULT_COUNT_CACHE_TTL_SECONDS);
+      else {
+        try {setCountCacheTtlSeconds(Integer.parseInt(parm));}
+          catch (Exception e) {
+            // Stop on bad input.
+            String msg = MsgUtils.getMsg("TAPIS_SERVICE_PARM_INITIALIZATION_FAILED",
+                                         TapisConstants.SERVICE_NAME_SYSTEMS,
+                                         "countCacheTtlSeconds",
+                                         e.getMessage());
+            _log.error(msg, e);
+            throw new TapisRuntimeException(msg, e);
+          }
+      }
+
+    // Maximum number of undelivered events for a subscriber before it is told to resume and disconnected.
+    parm = inputProperties.getProperty(EnvVar2.TAPIS_EVENTS_BUFFER_SIZE.getEnvName());
+    if (StringUtils.isBlank(parm)) setEventsBufferSize(DEFAULT_EVENTS_BUFFER_SIZE);
+      else {
+        try {setEventsBufferSize(Integer.parseInt(parm));}
+          catch (Exception e) {
+            // Stop on bad input.
+            String msg = MsgUtils.getMsg("TAPIS_SERVICE_PARM_INITIALIZATION_FAILED",
+                                         TapisConstants.SERVICE_NAME_SYSTEMS,
+                                         "eventsBufferSize",
+                                         e.getMessage());
+            _log.error(msg, e);
+            throw new TapisRuntimeException(msg, e);
+          }
+      }
+
+    // Maximum number of event stream subscribers for this instance.
+    parm = inputProperties.getProperty(EnvVar2.TAPIS_EVENTS_MAX_SUBSCRIBERS.getEnvName());
+    if (StringUtils.isBlank(parm)) setEventsMaxSubscribers(DEFAULT_EVENTS_MAX_SUBSCRIBERS);
+      else {
+        try {setEventsMaxSubscribers(Integer.parseInt(parm));}
+          catch (Exception e) {
+            // Stop on bad input.
+            String msg = MsgUtils.getMsg("TAPIS_SERVICE_PARM_INITIALIZATION_FAILED",
+                                         TapisConstants.SERVICE_NAME_SYSTEMS,
+                                         "eventsMaxSubscribers",
+                                         e.getMessage());
+            _log.error(msg, e);
+            throw new TapisRuntimeException(msg, e);
+          }
+      }
+
+    // Seconds between heartbeats sent to event stream subscribers. 0 disables heartbeats.
+    parm = inputProperties.getProperty(EnvVar2.TAPIS_EVENTS_HEARTBEAT.getEnvName());
+    if (StringUtils.isBlank(parm)) setEventsHeartbeatSeconds(DEFAULT_EVENTS_HEARTBEAT_SECONDS);
+      else {
+        try {setEventsHeartbeatSeconds(Integer.parseInt(parm));}
+          catch (Exception e) {
+            // Stop on bad input.
+            String msg = MsgUtils.getMsg("TAPIS_SERVICE_PARM_INITIALIZATION_FAILED",
+                                         TapisConstants.SERVICE_NAME_SYSTEMS,
+                                         "eventsHeartbeatSeconds",
+                                         e.getMessage());
+            _log.error(msg, e);
+            throw new TapisRuntimeException(msg, e);
+          }
+      }
+
+    // Seconds after which an event stream is closed so permissions are re-checked on reconnect. 0 for no limit.
+    parm = inputProperties.getProperty(EnvVar2.TAPIS_EVENTS_MAX_LIFETIME.getEnvName());
+    if (StringUtils.isBlank(parm)) setEventsMaxLifetimeSeconds(DEFAULT_EVENTS_MAX_LIFETIME_SECONDS);
+      else {
+        try {setEventsMaxLifetimeSeconds(Integer.parseInt(parm));}
+          catch (Exception e) {
+            // Stop on bad input.
+            String msg = MsgUtils.getMsg("TAPIS_SERVICE_PARM_INITIALIZATION_FAILED",
+                                         TapisConstants.SERVICE_NAME_SYSTEMS,
+                                         "eventsMaxLifetimeSeconds",
+                                         e.getMessage());
+            _log.error(msg, e);
+            throw new TapisRuntimeException(msg, e);
+          }
+      }
+
+    // Max number of systems to cache
+    parm = inputProperties.getProperty(EnvVar2.TAPIS_SYSTEM_CACHE_SIZE.getEnvName());
+    if (StringUtils.isBlank(parm)) setSystemCacheSize(DEFAULT_SYSTEM_CACHE_SIZE);
+      else {
+        try {setSystemCacheSize(Integer.parseInt(parm));}
+          catch (Exception e) {
+            // Stop on bad input.
+            String msg = MsgUtils.getMsg("TAPIS_SERVICE_PARM_INITIALIZATION_FAILED",
+                                         TapisConstants.SERVICE_NAME_SYSTEMS,
+                                         "systemCacheSize",
+                                         e.getMessage());
+            _log.error(msg, e);
+            throw new TapisRuntimeException(msg, e);
+          }
+      }
+
+    // Seconds a cached system may be used
+    parm = inputProperties.getProperty(EnvVar2.TAPIS_SYSTEM_CACHE_TTL.getEnvName());
+    if (StringUtils.isBlank(parm)) setSystemCacheTtlSeconds(DEFAULT_SYSTEM_CACHE_TTL_SECONDS);
+      else {
+        try {setSystemCacheTtlSeconds(Integer.parseInt(parm));}
+          catch (Exception e) {
+            // Stop on bad input.
+            String msg = MsgUtils.getMsg("TAPIS_SERVICE_PARM_INITIALIZATION_FAILED",
+                                         TapisConstants.SERVICE_NAME_SYSTEMS,
+                                         "systemCacheTtlSeconds",
+                                         e.getMessage());
+            _log.error(msg, e);
+            throw new TapisRuntimeException(msg, e);
+          }
+      }
+
+    // Max number of credentials to cache
+    parm = inputProperties.getProperty(EnvVar2.TAPIS_CRED_CACHE_SIZE.getEnvName());
+    if (StringUtils.isBlank(parm)) setCredCacheSize(DEFAULT_CRED_CACHE_SIZE);
+      else {
+        try {setCredCacheSize(Integer.parseInt(parm));}
+          catch (Exception e) {
+            // Stop on bad input.
+            String msg = MsgUtils.getMsg("TAPIS_SERVICE_PARM_INITIALIZATION_FAILED",
+                                         TapisConstants.SERVICE_NAME_SYSTEMS,
+                                         "credCacheSize",
+                                         e.getMessage());
+            _log.error(msg, e);
+            throw new TapisRuntimeException(msg, e);
+          }
+      }
+
+    // Seconds a cached credential may be used
+    parm = inputProperties.getProperty(EnvVar2.TAPIS_CRED_CACHE_TTL.getEnvName());
+    if (StringUtils.isBlank(parm)) setCredCacheTtlSeconds(DEFAULT_CRED_CACHE_TTL_SECONDS);
+      else {
+        try {setCredCacheTtlSeconds(Integer.parseInt(parm));}
+          catch (Exception e) {
+            // Stop on bad input.
+            String msg = MsgUtils.getMsg("TAPIS_SERVICE_PARM_INITIALIZATION_FAILED",
+                                         TapisConstants.SERVICE_NAME_SYSTEMS,
+                                         "credCacheTtlSeconds",
+                                         e.getMessage());
+            _log.error(msg, e);
+            throw new TapisRuntimeException(msg, e);
+          }
+      }
+
+    // Max number of concurrent Security Kernel calls made for a bulk operation
+    parm = inputProperties.getProperty(EnvVar2.TAPIS_SK_MAX_PARALLEL.getEnvName());
+    if (StringUtils.isBlank(parm)) setSkMaxParallel(DEFAULT_SK_MAX_PARALLEL);
+      else {
+        try {setSkMaxParallel(Integer.parseInt(parm));}
+          catch (Exception e) {
+            // Stop on bad input.
+            String msg = MsgUtils.getMsg("TAPIS_SERVICE_PARM_INITIALIZATION_FAILED",
+                                         TapisConstants.SERVICE_NAME_SYSTEMS,
+                                         "skMaxParallel",
+                                         e.getMessage());
+            _log.error(msg, e);
+            throw new TapisRuntimeException(msg, e);
+          }
+      }
+
+    // Max seconds to wait for the concurrent Security Kernel calls made by a single request
+    parm = inputProperties.getProperty(EnvVar2.TAPIS_SK_TIMEOUT.getEnvName());
+    if (StringUtils.isBlank(parm)) setSkTimeoutSeconds(DEFAULT_SK_TIMEOUT_SECONDS);
+      else {
+        try {setSkTimeoutSeconds(Integer.parseInt(parm));}
+          catch (Exception e) {
+            // Stop on bad input.
+            String msg = MsgUtils.getMsg("TAPIS_SERVICE_PARM_INITIALIZATION_FAILED",
+                                         TapisConstants.SERVICE_NAME_SYSTEMS,
+                                         "skTimeoutSeconds",
+                                         e.getMessage());
+            _log.error(msg, e);
+            throw new TapisRuntimeException(msg, e);
+          }
+      }
+
+    // Max number of threads used to run requests offloaded from server worker threads, if virtual threads are not available.
+    // Up to twice this number of requests are accepted, running or waiting to run. Further requests get a 503.
+    parm = inputProperties.getProperty(EnvVar2.TAPIS_API_MAX_THREADS.getEnvName());
+    if (StringUtils.isBlank(parm)) setApiMaxThreads(DEFAULT_API_MAX_THREADS);
+      else {
+        try {setApiMaxThreads(Integer.parseInt(parm));}
+          catch (Exception e) {
+            // Stop on bad input.
+            String msg = MsgUtils.getMsg("TAPIS_SERVICE_PARM_INITIALIZATION_FAILED",
+                                         TapisConstants.SERVICE_NAME_SYSTEMS,
+                                         "apiMaxThreads",
+                                         e.getMessage());
+            _log.error(msg, e);
+            throw new TapisRuntimeException(msg, e);
+          }
+      }
+
+    // Max seconds to wait for an offloaded GET or DELETE request to complete before responding with 503
+    parm = inputProperties.getProperty(EnvVar2.TAPIS_API_TIMEOUT.getEnvName());
+    if (StringUtils.isBlank(parm)) setApiTimeoutSeconds(DEFAULT_API_TIMEOUT_SECONDS);
+      else {
+        try {setApiTimeoutSeconds(Integer.parseInt(parm));}
+          catch (Exception e) {
+            // Stop on bad input.
+            String msg = MsgUtils.getMsg("TAPIS_SERVICE_PARM_INITIALIZATION_FAILED",
+                                         TapisConstants.SERVICE_NAME_SYSTEMS,
+                                         "apiTimeoutSeconds",
+                                         e.getMessage());
+            _log.error(msg, e);
+            throw new TapisRuntimeException(msg, e);
+          }
+      }
+
+    // Number of HTTP server worker threads. 0 to use the server default, which is based on available processors
+    parm = inputProperties.getProperty(EnvVar2.TAPIS_SERVER_WORKER_THREADS.getEnvName());
+    if (StringUtils.isBlank(parm)) setServerWorkerThreads(DEFAULT_SERVER_WORKER_THREADS);
+      else {
+        try {setServerWorkerThreads(Integer.parseInt(parm));}
+          catch (Exception e) {
+            // Stop on bad input.
+            String msg = MsgUtils.getMsg("TAPIS_SERVICE_PARM_INITIALIZATION_FAILED",
+                                         TapisConstants.SERVICE_NAME_SYSTEMS,
+                                         "serverWorkerThreads",
+                                         e.getMessage());
+            _log.error(msg, e);
+            throw new TapisRuntimeException(msg, e);
+          }
+      }
+
+    // Number of HTTP server selector threads. 0 to use the server default
+    parm = inputProperties.getProperty(EnvVar2.TAPIS_SERVER_SELECTOR_THREADS.getEnvName());
+    if (StringUtils.isBlank(parm)) setServerSelectorThreads(DEFAULT_SERVER_SELECTOR_THREADS);
+      else {
+        try {setServerSelectorThreads(Integer.parseInt(parm));}
+          catch (Exception e) {
+            // Stop on bad input.
+            String msg = MsgUtils.getMsg("TAPIS_SERVICE_PARM_INITIALIZATION_FAILED",
+                                         TapisConstants.SERVICE_NAME_SYSTEMS,
+                                         "serverSelectorThreads",
+                                         e.getMessage());
+            _log.error(msg, e);
+            throw new TapisRuntimeException(msg, e);
+          }
+      }
+
+    // Use a virtual thread per request instead of a worker pool, if supported by the JVM
+    parm = inputProperties.getProperty(EnvVar2.TAPIS_SERVER_VIRTUAL_THREADS.getEnvName());
+    if (StringUtils.isBlank(parm)) setServerVirtualThreads(DEFAULT_SERVER_VIRTUAL_THREADS);
+      else {
+        try {setServerVirtualThreads(Boolean.parseBoolean(parm));}
+          catch (Exception e) {
+            // Stop on bad input.
+            String msg = MsgUtils.getMsg("TAPIS_SERVICE_PARM_INITIALIZATION_FAILED",
+                                         TapisConstants.SERVICE_NAME_SYSTEMS,
+                                         "serverVirtualThreads",
+                                         e.getMessage());
+            _log.error(msg, e);
+            throw new TapisRuntimeException(msg, e);
+          }
+      }
+
+    // Seconds an idle keep-alive connection is kept open
+    parm = inputProperties.getProperty(EnvVar2.TAPIS_SERVER_KEEPALIVE_IDLE.getEnvName());
+    if (StringUtils.isBlank(parm)) setServerKeepAliveIdleSeconds(DEFAULT_SERVER_KEEPALIVE_IDLE_SECONDS);
+      else {
+        try {setServerKeepAliveIdleSeconds(Integer.parseInt(parm));}
+          catch (Exception e) {
+            // Stop on bad input.
+            String msg = MsgUtils.getMsg("TAPIS_SERVICE_PARM_INITIALIZATION_FAILED",
+                                         TapisConstants.SERVICE_NAME_SYSTEMS,
+                                         "serverKeepAliveIdleSeconds",
+                                         e.getMessage());
+            _log.error(msg, e);
+            throw new TapisRuntimeException(msg, e);
+          }
+      }
+
+    // Max requests on a keep-alive connection. -1 for no limit
+    parm = inputProperties.getProperty(EnvVar2.TAPIS_SERVER_KEEPALIVE_MAX_REQUESTS.getEnvName());
+    if (StringUtils.isBlank(parm)) setServerKeepAliveMaxRequests(DEFAULT_SERVER_KEEPALIVE_MAX_REQUESTS);
+      else {
+        try {setServerKeepAliveMaxRequests(Integer.parseInt(parm));}
+          catch (Exception e) {
+            // Stop on bad input.
+            String msg = MsgUtils.getMsg("TAPIS_SERVICE_PARM_INITIALIZATION_FAILED",
+                                         TapisConstants.SERVICE_NAME_SYSTEMS,
+                                         "serverKeepAliveMaxRequests",
+                                         e.getMessage());
+            _log.error(msg, e);
+            throw new TapisRuntimeException(msg, e);
+          }
+      }
+
+    // Max size in bytes of request headers
+    parm = inputProperties.getProperty(EnvVar2.TAPIS_SERVER_MAX_HEADER_SIZE.getEnvName());
+    if (StringUtils.isBlank(parm)) setServerMaxHeaderSize(DEFAULT_SERVER_MAX_HEADER_SIZE);
+      else {
+        try {setServerMaxHeaderSize(Integer.parseInt(parm));}
+          catch (Exception e) {
+            // Stop on bad input.
+            String msg = MsgUtils.getMsg("TAPIS_SERVICE_PARM_INITIALIZATION_FAILED",
+                                         TapisConstants.SERVICE_NAME_SYSTEMS,
+                                         "serverMaxHeaderSize",
+                                         e.getMessage());
+            _log.error(msg, e);
+            throw new TapisRuntimeException(msg, e);
+          }
+      }
+
+    // Compress JSON responses when the client accepts gzip
+    parm = inputProperties.getProperty(EnvVar2.TAPIS_SERVER_COMPRESSION.getEnvName());
+    if (StringUtils.isBlank(parm)) setServerCompression(DEFAULT_SERVER_COMPRESSION);
+      else {
+        try {setServerCompression(Boolean.parseBoolean(parm));}
+          catch (Exception e) {
+            // Stop on bad input.
+            String msg = MsgUtils.getMsg("TAPIS_SERVICE_PARM_INITIALIZATION_FAILED",
+                                         TapisConstants.SERVICE_NAME_SYSTEMS,
+                                         "serverCompression",
+                                         e.getMessage());
+            _log.error(msg, e);
+            throw new TapisRuntimeException(msg, e);
+          }
+      }
+
+    // Min size in bytes of a response before it is compressed
+    parm = inputProperties.getProperty(EnvVar2.TAPIS_SERVER_COMPRESSION_MIN_SIZE.getEnvName());
+    if (StringUtils.isBlank(parm)) setServerCompressionMinSize(DEFAULT_SERVER_COMPRESSION_MIN_SIZE);
+      else {
+        try {setServerCompressionMinSize(Integer.parseInt(parm));}
+          catch (Exception e) {
+            // Stop on bad input.
+            String msg = MsgUtils.getMsg("TAPIS_SERVICE_PARM_INITIALIZATION_FAILED",
+                                         TapisConstants.SERVICE_NAME_SYSTEMS,
+                                         "serverCompressionMinSize",
+                                         e.getMessage());
+            _log.error(msg, e);
+            throw new TapisRuntimeException(msg, e);
+          }
+      }
+
+    // DB statements taking longer than this number of milliseconds are logged. 0 or less to disable.
+    parm = inputProperties.getProperty(EnvVar2.TAPIS_DB_SLOW_QUERY_MILLIS.getEnvName());
+    if (StringUtils.isBlank(parm)) setDbSlowQueryMillis(DEFAULT_DB_SLOW_QUERY_MILLIS);
+      else {
+        try {setDbSlowQueryMillis(Integer.parseInt(parm));}
+          catch (Exception e) {
+            // Stop on bad input.
+            String msg = MsgUtils.getMsg("TAPIS_SERVICE_PARM_INITIALIZATION_FAILED",
+                                         TapisConstants.SERVICE_NAME_SYSTEMS,
+                                         "dbSlowQueryMillis",
+                                         e.getMessage());
+            _log.error(msg, e);
+            throw new TapisRuntimeException(msg, e);
+          }
+      }
+
+    // Max number of distinct statements for which statistics are kept
+    parm = inputProperties.getProperty(EnvVar2.TAPIS_DB_STATEMENT_STATS_MAX.getEnvName());
+    if (StringUtils.isBlank(parm)) setDbStatementStatsMax(DEFAULT_DB_STATEMENT_STATS_MAX);
+      else {
+        try {setDbStatementStatsMax(Integer.parseInt(parm));}
+          catch (Exception e) {
+            // Stop on bad input.
+            String msg = MsgUtils.getMsg("TAPIS_SERVICE_PARM_INITIALIZATION_FAILED",
+                                         TapisConstants.SERVICE_NAME_SYSTEMS,
+                                         "dbStatementStatsMax",
+                                         e.getMessage());
+            _log.error(msg, e);
+            throw new TapisRuntimeException(msg, e);
+          }
+      }
+
+    // Add a Server-Timing header to every response. If false the header is added only when requested by the client.
+    parm = inputProperties.getProperty(EnvVar2.TAPIS_SERVER_TIMING.getEnvName());
+    if (StringUtils.isBlank(parm)) setServerTiming(DEFAULT_SERVER_TIMING);
+      else {
+        try {setServerTiming(Boolean.parseBoolean(parm));}
+          catch (Exception e) {
+            // Stop on bad input.
+            String msg = MsgUtils.getMsg("TAPIS_SERVICE_PARM_INITIALIZATION_FAILED",
+                                         TapisConstants.SERVICE_NAME_SYSTEMS,
+                                         "serverTiming",
+                                         e.getMessage());
+            _log.error(msg, e);
+            throw new TapisRuntimeException(msg, e);
+          }
+      }
+
+    // Use an in-process stand-in for the Security Kernel. For local performance testing only, never in a deployment.
+    parm = inputProperties.getProperty(EnvVar2.TAPIS_SK_FAKE.getEnvName());
+    if (StringUtils.isBlank(parm)) setSkFake(DEFAULT_SK_FAKE);
+      else {
+        try {setSkFake(Boolean.parseBoolean(parm));}
+          catch (Exception e) {
+            // Stop on bad input.
+            String msg = MsgUtils.getMsg("TAPIS_SERVICE_PARM_INITIALIZATION_FAILED",
+                                         TapisConstants.SERVICE_NAME_SYSTEMS,
+                                         "skFake",
+                                         e.getMessage());
+            _log.error(msg, e);
+            throw new TapisRuntimeException(msg, e);
+          }
+      }
+
+    // Profile the service is being run under, e.g. test or bench. Not set for a deployment.
+    parm = inputProperties.getProperty(EnvVar2.TAPIS_RUN_PROFILE.getEnvName());
+    setRunProfile(StringUtils.isBlank(parm) ? "" : parm.trim());
+
+    // The stand-in bypasses all authorization, so refuse to start unless running under a test or bench profile
+    if (isSkFake() && !SK_FAKE_PROFILES.contains(getRunProfile()))
+    {
+      String msg = MsgUtils.getMsg("TAPIS_SERVICE_PARM_INITIALIZATION_FAILED",
+                                   TapisConstants.SERVICE_NAME_SYSTEMS,
+                                   "skFake",
+                                   "tapis.sk.fake requires tapis.run.profile to be one of " + SK_FAKE_PROFILES);
+      _log.error(msg);
+      throw new TapisRuntimeException(msg);
+    }
+
+    // Fixed latency added to each call to the Security Kernel stand-in
+    parm = inputProperties.getProperty(EnvVar2.TAPIS_SK_FAKE_LATENCY_MILLIS.getEnvName());
+    if (StringUtils.isBlank(parm)) setSkFakeLatencyMillis(DEFAULT_SK_FAKE_LATENCY_MILLIS);
+      else {
+        try {setSkFakeLatencyMillis(Integer.parseInt(parm));}
+          catch (Exception e) {
+            // Stop on bad input.
+            String msg = MsgUtils.getMsg("TAPIS_SERVICE_PARM_INITIALIZATION_FAILED",
+                                         TapisConstants.SERVICE_NAME_SYSTEMS,
+                                         "skFakeLatencyMillis",
+                                         e.getMessage());
+            _log.error(msg, e);
+            throw new TapisRuntimeException(msg, e);
+          }
+      }
+
+    // Maximum random latency added to each call to the Security Kernel stand-in, on top of the fixed latency
+    parm = inputProperties.getProperty(EnvVar2.TAPIS_SK_FAKE_JITTER_MILLIS.getEnvName());
+    if (StringUtils.isBlank(parm)) setSkFakeJitterMillis(DEFAULT_SK_FAKE_JITTER_MILLIS);
+      else {
+        try {setSkFakeJitterMillis(Integer.parseInt(parm));}
+          catch (Exception e) {
+            // Stop on bad input.
+            String msg = MsgUtils.getMsg("TAPIS_SERVICE_PARM_INITIALIZATION_FAILED",
+                                         TapisConstants.SERVICE_NAME_SYSTEMS,
+                                         "skFakeJitterMillis",
+                                         e.getMessage());
+            _log.error(msg, e);
+            throw new TapisRuntimeException(msg, e);
+          }
+      }
+
+    // Percentage of calls to the Security Kernel stand-in that fail
+    parm = inputProperties.getProperty(EnvVar2.TAPIS_SK_FAKE_ERROR_PERCENT.getEnvName());
+    if (StringUtils.isBlank(parm)) setSkFakeErrorPercent(DEFAULT_SK_FAKE_ERROR_PERCENT);
+      else {
+        try {setSkFakeErrorPercent(Integer.parseInt(parm));}
+          catch (Exception e) {
+            // Stop on bad input.
+            String msg = MsgUtils.getMsg("TAPIS_SERVICE_PARM_INITIALIZATION_FAILED",
+                                         TapisConstants.SERVICE_NAME_SYSTEMS,
+                                         "skFakeErrorPercent",
+                                         e.getMessage());
+            _log.error(msg, e);
+            throw new TapisRuntimeException(msg, e);
+          }
+      }
+
+    // Local mirror of user permissions
+    parm = inputProperties.getProperty(EnvVar2.TAPIS_PERM_MIRROR.getEnvName());
+    if (StringUtils.isBlank(parm)) setPermMirror(DEFAULT_PERM_MIRROR);
+      else {
+        try {setPermMirror(Boolean.parseBoolean(parm));}
+          catch (Exception e) {
+            // Stop on bad input.
+            String msg = MsgUtils.getMsg("TAPIS_SERVICE_PARM_INITIALIZATION_FAILED",
+                                         TapisConstants.SERVICE_NAME_SYSTEMS,
+                                         "permMirror",
+                                         e.getMessage());
+            _log.error(msg, e);
+            throw new TapisRuntimeException(msg, e);
+          }
+      }
+
+    // Interval between reconciliations of the permission mirror with SK
+    parm = inputProperties.getProperty(EnvVar2.TAPIS_PERM_MIRROR_RECONCILE.getEnvName());
+    if (StringUtils.isBlank(parm)) setPermMirrorReconcileSeconds(DEFAULT_PERM_MIRROR_RECONCILE_SECONDS);
+      else {
+        try {setPermMirrorReconcileSeconds(Integer.parseInt(parm));}
+          catch (Exception e) {
+            // Stop on bad input.
+            String msg = MsgUtils.getMsg("TAPIS_SERVICE_PARM_INITIALIZATION_FAILED",
+                                         TapisConstants.SERVICE_NAME_SYSTEMS,
+                                         "permMirrorReconcileSeconds",
+                                         e.getMessage());
+            _log.error(msg, e);
+            throw new TapisRuntimeException(msg, e);
+          }
+      }
   }
 	
     /* ---------------------------------------------------------------------- */
@@ -469,6 +1107,90 @@ public final class RuntimeParameters
 		buf.append("\ntapis.support.email: ");
 		buf.append(this.getSupportEmail());
 
+		buf.append("\n------- Caching Configuration ---------------------");
+		buf.append("\ntapis.search.cache.size: ");
+		buf.append(this.getSearchCacheSize());
+		buf.append("\ntapis.count.cache.size: ");
+		buf.append(this.getCountCacheSize());
+		buf.append("\ntapis.count.cache.ttl: ");
+		buf.append(this.getCountCacheTtlSeconds());
+		buf.append("\ntapis.system.cache.size: ");
+		buf.append(this.getSystemCacheSize());
+		buf.append("\ntapis.system.cache.ttl: ");
+		buf.append(this.getSystemCacheTtlSeconds());
+		buf.append("\ntapis.cred.cache.size: ");
+		buf.append(this.getCredCacheSize());
+		buf.append("\ntapis.cred.cache.ttl: ");
+		buf.append(this.getCredCacheTtlSeconds());
+
+		buf.append("\n------- Events Configuration ----------------------");
+		buf.append("\ntapis.events.buffer.size: ");
+		buf.append(this.getEventsBufferSize());
+		buf.append("\ntapis.events.max.subscribers: ");
+		buf.append(this.getEventsMaxSubscribers());
+		buf.append("\ntapis.events.heartbeat: ");
+		buf.append(this.getEventsHeartbeatSeconds());
+		buf.append("\ntapis.events.max.lifetime: ");
+		buf.append(this.getEventsMaxLifetimeSeconds());
+
+		buf.append("\n------- Security Kernel Configuration -------------");
+		buf.append("\ntapis.sk.max.parallel: ");
+		buf.append(this.getSkMaxParallel());
+		buf.append("\ntapis.sk.timeout: ");
+		buf.append(this.getSkTimeoutSeconds());
+
+		buf.append("\n------- Request Processing Configuration ----------");
+		buf.append("\ntapis.api.max.threads: ");
+		buf.append(this.getApiMaxThreads());
+		buf.append("\ntapis.api.timeout: ");
+		buf.append(this.getApiTimeoutSeconds());
+
+		buf.append("\n------- Server Configuration ----------------------");
+		buf.append("\ntapis.server.worker.threads: ");
+		buf.append(this.getServerWorkerThreads());
+		buf.append("\ntapis.server.selector.threads: ");
+		buf.append(this.getServerSelectorThreads());
+		buf.append("\ntapis.server.virtual.threads: ");
+		buf.append(this.isServerVirtualThreads());
+		buf.append("\ntapis.server.keepalive.idle: ");
+		buf.append(this.getServerKeepAliveIdleSeconds());
+		buf.append("\ntapis.server.keepalive.max.requests: ");
+		buf.append(this.getServerKeepAliveMaxRequests());
+		buf.append("\ntapis.server.max.header.size: ");
+		buf.append(this.getServerMaxHeaderSize());
+		buf.append("\ntapis.server.compression: ");
+		buf.append(this.isServerCompression());
+		buf.append("\ntapis.server.compression.min.size: ");
+		buf.append(this.getServerCompressionMinSize());
+
+		buf.append("\n------- DB Statement Statistics Configuration -----");
+		buf.append("\ntapis.db.slow.query.millis: ");
+		buf.append(this.getDbSlowQueryMillis());
+		buf.append("\ntapis.db.statement.stats.max: ");
+		buf.append(this.getDbStatementStatsMax());
+
+		buf.append("\n------- Request Timing Configuration --------------");
+		buf.append("\ntapis.server.timing: ");
+		buf.append(this.isServerTiming());
+
+		buf.append("\n------- SK Stand-in Configuration -----------------");
+		buf.append("\ntapis.run.profile: ");
+		buf.append(this.getRunProfile());
+		buf.append("\ntapis.sk.fake: ");
+		buf.append(this.isSkFake());
+		buf.append("\ntapis.sk.fake.latency.millis: ");
+		buf.append(this.getSkFakeLatencyMillis());
+		buf.append("\ntapis.sk.fake.jitter.millis: ");
+		buf.append(this.getSkFakeJitterMillis());
+		buf.append("\ntapis.sk.fake.error.percent: ");
+		buf.append(this.getSkFakeErrorPercent());
+
+		buf.append("\n------- Permission Mirror Configuration -----------");
+		buf.append("\ntapis.perm.mirror: ");
+		buf.append(this.isPermMirror());
+		buf.append("\ntapis.perm.mirror.reconcile: ");
+		buf.append(this.getPermMirrorReconcileSeconds());
+
 		buf.append("\n------- EnvOnly Configuration ---------------------");
 		buf.append("\ntapis.envonly.log.security.info: ");
 		buf.append(RuntimeParameters.getLogSecurityInfo());
@@ -785,12 +1507,144 @@ public final class RuntimeParameters
         this.logFile = logFile;
     }
 
+    public int getSearchCacheSize() { return searchCacheSize; }
+    private void setSearchCacheSize(int i) { searchCacheSize = i; }
+
+    public int getCountCacheSize() { return countCacheSize; }
+    private void setCountCacheSize(int i) { countCacheSize = i; }
+
+    public int getCountCacheTtlSeconds() { return countCacheTtlSeconds; }
+    private void setCountCacheTtlSeconds(int i) { countCacheTtlSeconds = i; }
+
+    public int getEventsBufferSize() { return eventsBufferSize; }
+    private void setEventsBufferSize(int i) { eventsBufferSize = i; }
+
+    public int getEventsMaxSubscribers() { return eventsMaxSubscribers; }
+    private void setEventsMaxSubscribers(int i) { eventsMaxSubscribers = i; }
+
+    public int getEventsHeartbeatSeconds() { return eventsHeartbeatSeconds; }
+    private void setEventsHeartbeatSeconds(int i) { eventsHeartbeatSeconds = i; }
+
+    public int getEventsMaxLifetimeSeconds() { return eventsMaxLifetimeSeconds; }
+    private void setEventsMaxLifetimeSeconds(int i) { eventsMaxLifetimeSeconds = i; }
+
+    public int getSystemCacheSize() { return systemCacheSize; }
+    private void setSystemCacheSize(int i) { systemCacheSize = i; }
+
+    public int getSystemCacheTtlSeconds() { return systemCacheTtlSeconds; }
+    private void setSystemCacheTtlSeconds(int i) { systemCacheTtlSeconds = i; }
+
+    public int getCredCacheSize() { return credCacheSize; }
+    private void setCredCacheSize(int i) { credCacheSize = i; }
+
+    public int getCredCacheTtlSeconds() { return credCacheTtlSeconds; }
+    private void setCredCacheTtlSeconds(int i) { credCacheTtlSeconds = i; }
+
+    public int getSkMaxParallel() { return skMaxParallel; }
+    private void setSkMaxParallel(int i) { skMaxParallel = i; }
+
+    public int getSkTimeoutSeconds() { return skTimeoutSeconds; }
+    private void setSkTimeoutSeconds(int i) { skTimeoutSeconds = i; }
+
+    public int getApiMaxThreads() { return apiMaxThreads; }
+    private void setApiMaxThreads(int i) { apiMaxThreads = i; }
+
+    public int getApiTimeoutSeconds() { return apiTimeoutSeconds; }
+    private void setApiTimeoutSeconds(int i) { apiTimeoutSeconds = i; }
+
+    public int getServerWorkerThreads() { return serverWorkerThreads; }
+    private void setServerWorkerThreads(int i) { serverWorkerThreads = i; }
+
+    public int getServerSelectorThreads() { return serverSelectorThreads; }
+    private void setServerSelectorThreads(int i) { serverSelectorThreads = i; }
+
+    public boolean isServerVirtualThreads() { return serverVirtualThreads; }
+    private void setServerVirtualThreads(boolean b) { serverVirtualThreads = b; }
+
+    public int getServerKeepAliveIdleSeconds() { return serverKeepAliveIdleSeconds; }
+    private void setServerKeepAliveIdleSeconds(int i) { serverKeepAliveIdleSeconds = i; }
+
+    public int getServerKeepAliveMaxRequests() { return serverKeepAliveMaxRequests; }
+    private void setServerKeepAliveMaxRequests(int i) { serverKeepAliveMaxRequests = i; }
+
+    public int getServerMaxHeaderSize() { return serverMaxHeaderSize; }
+    private void setServerMaxHeaderSize(int i) { serverMaxHeaderSize = i; }
+
+    public boolean isServerCompression() { return serverCompression; }
+    private void setServerCompression(boolean b) { serverCompression = b; }
+
+    public int getServerCompressionMinSize() { return serverCompressionMinSize; }
+    private void setServerCompressionMinSize(int i) { serverCompressionMinSize = i; }
+
+    public int getDbSlowQueryMillis() { return dbSlowQueryMillis; }
+    private void setDbSlowQueryMillis(int i) { dbSlowQueryMillis = i; }
+
+    public int getDbStatementStatsMax() { return dbStatementStatsMax; }
+    private void setDbStatementStatsMax(int i) { dbStatementStatsMax = i; }
+
+    public boolean isServerTiming() { return serverTiming; }
+    private void setServerTiming(boolean b) { serverTiming = b; }
+
+    public boolean isSkFake() { return skFake; }
+    private void setSkFake(boolean b) { skFake = b; }
+
+    public String getRunProfile() { return runProfile; }
+    private void setRunProfile(String s) { runProfile = s; }
+
+    public int getSkFakeLatencyMillis() { return skFakeLatencyMillis; }
+    private void setSkFakeLatencyMillis(int i) { skFakeLatencyMillis = i; }
+
+    public int getSkFakeJitterMillis() { return skFakeJitterMillis; }
+    private void setSkFakeJitterMillis(int i) { skFakeJitterMillis = i; }
+
+    public int getSkFakeErrorPercent() { return skFakeErrorPercent; }
+    private void setSkFakeErrorPercent(int i) { skFakeErrorPercent = i; }
+
+    public boolean isPermMirror() { return permMirror; }
+    private void setPermMirror(boolean b) { permMirror = b; }
+
+    public int getPermMirrorReconcileSeconds() { return permMirrorReconcileSeconds; }
+    private void setPermMirrorReconcileSeconds(int i) { permMirrorReconcileSeconds = i; }
+
 
     // TODO/TBD move this to shared TapisEnv?
     // TODO/TBD Remove sk url. Always look up from tenants svc
 	private enum EnvVar2 {
 		TAPIS_SVC_URL_SK("tapis.svc.url.sk"),
-		TAPIS_SVC_ADMIN_TENANT("tapis.svc.admin.tenant");
+		TAPIS_SVC_ADMIN_TENANT("tapis.svc.admin.tenant"),
+		TAPIS_SEARCH_CACHE_SIZE("tapis.search.cache.size"),
+		TAPIS_COUNT_CACHE_SIZE("tapis.count.cache.size"),
+		TAPIS_COUNT_CACHE_TTL("tapis.count.cache.ttl"),
+		TAPIS_EVENTS_BUFFER_SIZE("tapis.events.buffer.size"),
+		TAPIS_EVENTS_MAX_SUBSCRIBERS("tapis.events.max.subscribers"),
+		TAPIS_EVENTS_HEARTBEAT("tapis.events.heartbeat"),
+		TAPIS_EVENTS_MAX_LIFETIME("tapis.events.max.lifetime"),
+		TAPIS_SYSTEM_CACHE_SIZE("tapis.system.cache.size"),
+		TAPIS_SYSTEM_CACHE_TTL("tapis.system.cache.ttl"),
+		TAPIS_CRED_CACHE_SIZE("tapis.cred.cache.size"),
+		TAPIS_CRED_CACHE_TTL("tapis.cred.cache.ttl"),
+		TAPIS_SK_MAX_PARALLEL("tapis.sk.max.parallel"),
+		TAPIS_SK_TIMEOUT("tapis.sk.timeout"),
+		TAPIS_API_MAX_THREADS("tapis.api.max.threads"),
+		TAPIS_API_TIMEOUT("tapis.api.timeout"),
+		TAPIS_SERVER_WORKER_THREADS("tapis.server.worker.threads"),
+		TAPIS_SERVER_SELECTOR_THREADS("tapis.server.selector.threads"),
+		TAPIS_SERVER_VIRTUAL_THREADS("tapis.server.virtual.threads"),
+		TAPIS_SERVER_KEEPALIVE_IDLE("tapis.server.keepalive.idle"),
+		TAPIS_SERVER_KEEPALIVE_MAX_REQUESTS("tapis.server.keepalive.max.requests"),
+		TAPIS_SERVER_MAX_HEADER_SIZE("tapis.server.max.header.size"),
+		TAPIS_SERVER_COMPRESSION("tapis.server.compression"),
+		TAPIS_SERVER_COMPRESSION_MIN_SIZE("tapis.server.compression.min.size"),
+		TAPIS_DB_SLOW_QUERY_MILLIS("tapis.db.slow.query.millis"),
+		TAPIS_DB_STATEMENT_STATS_MAX("tapis.db.statement.stats.max"),
+		TAPIS_SERVER_TIMING("tapis.server.timing"),
+		TAPIS_RUN_PROFILE("tapis.run.profile"),
+		TAPIS_SK_FAKE("tapis.sk.fake"),
+		TAPIS_SK_FAKE_LATENCY_MILLIS("tapis.sk.fake.latency.millis"),
+		TAPIS_SK_FAKE_JITTER_MILLIS("tapis.sk.fake.jitter.millis"),
+		TAPIS_SK_FAKE_ERROR_PERCENT("tapis.sk.fake.error.percent"),
+		TAPIS_PERM_MIRROR("tapis.perm.mirror"),
+		TAPIS_PERM_MIRROR_RECONCILE("tapis.perm.mirror.reconcile");
 
 		private final String _envName;
 
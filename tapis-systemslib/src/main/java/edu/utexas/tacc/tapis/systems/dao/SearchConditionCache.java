@@ -0,0 +1,197 @@
+package edu.utexas.tacc.tapis.systems.dao;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.lang3.StringUtils;
+import org.jooq.Condition;
+
+import edu.utexas.tacc.tapis.search.parser.ASTBinaryExpression;
+import edu.utexas.tacc.tapis.search.parser.ASTLeaf;
+import edu.utexas.tacc.tapis.search.parser.ASTNode;
+import edu.utexas.tacc.tapis.search.parser.ASTUnaryExpression;
+
+/*
+ * Bounded LRU cache of validated jOOQ search conditions.
+ * Keys are a normalized form of either a search list (e.g. from GET /v3/systems?search=...) or
+ *   an abstract syntax tree (e.g. from POST /v3/systems/search).
+ * Values are the condition built by SystemsDaoImpl with all values bound as parameters. jOOQ conditions
+ *   are not modified when combined with other conditions, so a cached entry may be shared across requests.
+ * Only the search portion of a where clause is cached. Tenant, deleted, startAfter and ID list conditions
+ *   vary per request and are always added by the caller.
+ * Only conditions that passed validation are cached. A search that fails validation is re-validated each time.
+ * A capacity of 0 or less disables the cache.
+ */
+public final class SearchConditionCache
+{
+  /* ********************************************************************** */
+  /*                               Constants                                */
+  /* ********************************************************************** */
+  // Default maximum number of entries
+  public static final int DEFAULT_CAPACITY = 500;
+
+  // Prefixes so a search list and an AST can never produce the same key
+  private static final String LIST_KEY_PREFIX = "L:";
+  private static final String AST_KEY_PREFIX = "A:";
+  // Separator between search list items. A NUL character will not appear in a validated search condition.
+  private static final char LIST_SEP = '\u0000';
+
+  /* ********************************************************************** */
+  /*                                 Fields                                 */
+  /* ********************************************************************** */
+  private final int capacity;
+  private final Map<String, Condition> cache;
+
+  // Metrics
+  private final AtomicLong hitCount = new AtomicLong();
+  private final AtomicLong missCount = new AtomicLong();
+  private final AtomicLong evictionCount = new AtomicLong();
+
+  /* ********************************************************************** */
+  /*                             Constructors                               */
+  /* ********************************************************************** */
+  public SearchConditionCache(int capacity1)
+  {
+    capacity = capacity1;
+    // Access ordered map that drops the least recently used entry once capacity is exceeded.
+    cache = new LinkedHashMap<>(16, 0.75f, true)
+    {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, Condition> eldest)
+      {
+        if (size() <= capacity) return false;
+        evictionCount.incrementAndGet();
+        return true;
+      }
+    };
+  }
+
+  /* ********************************************************************** */
+  /*                             Public Methods                             */
+  /* ********************************************************************** */
+
+  /**
+   * Build a cache key for a search list. Conditions in a search list are always joined using AND so the order
+   *   of the items does not matter. Items are trimmed and sorted so equivalent lists share an entry.
+   * @param searchList - list of conditions, already processed by SearchUtils.validateAndProcessSearchCondition
+   * @return cache key, null if list is null
+   */
+  public static String keyForSearchList(List<String> searchList)
+  {
+    if (searchList == null) return null;
+    var items = new ArrayList<String>(searchList.size());
+    for (String item : searchList) { if (!StringUtils.isBlank(item)) items.add(item.trim()); }
+    Collections.sort(items);
+    var sb = new StringBuilder(LIST_KEY_PREFIX);
+    for (String item : items) { sb.append(item).append(LIST_SEP); }
+    return sb.toString();
+  }
+
+  /**
+   * Build a cache key for an abstract syntax tree by walking the tree.
+   * Result is a fully parenthesized form of the tree so that differences in grouping produce different keys.
+   * @param astNode - root of the tree
+   * @return cache key, null if tree is null
+   */
+  public static String keyForAst(ASTNode astNode)
+  {
+    if (astNode == null) return null;
+    var sb = new StringBuilder(AST_KEY_PREFIX);
+    appendAstKey(sb, astNode);
+    return sb.toString();
+  }
+
+  /**
+   * Look up a condition.
+   * @param key - key created using one of the keyFor methods
+   * @return cached condition or null if not found
+   */
+  public Condition get(String key)
+  {
+    if (!isEnabled() || key == null) return null;
+    Condition c;
+    synchronized (cache) { c = cache.get(key); }
+    if (c == null) missCount.incrementAndGet();
+    else hitCount.incrementAndGet();
+    return c;
+  }
+
+  /**
+   * Add a validated condition to the cache.
+   * @param key - key created using one of the keyFor methods
+   * @param condition - condition to cache
+   */
+  public void put(String key, Condition condition)
+  {
+    if (!isEnabled() || key == null || condition == null) return;
+    synchronized (cache) { cache.put(key, condition); }
+  }
+
+  /**
+   * Remove all entries. Metrics are not reset.
+   */
+  public void clear()
+  {
+    synchronized (cache) { cache.clear(); }
+  }
+
+  public boolean isEnabled() { return capacity > 0; }
+  public int getCapacity() { return capacity; }
+  public int size() { synchronized (cache) { return cache.size(); } }
+  public long getHitCount() { return hitCount.get(); }
+  public long getMissCount() { return missCount.get(); }
+  public long getEvictionCount() { return evictionCount.get(); }
+
+  /**
+   * Fraction of lookups that were hits.
+   * @return hit rate in the range 0.0 to 1.0, 0.0 if there have been no lookups.
+   */
+  public double getHitRate()
+  {
+    long hits = hitCount.get();
+    long total = hits + missCount.get();
+    return (total == 0) ? 0.0d : (double) hits / total;
+  }
+
+  @Override
+  public String toString()
+  {
+    return String.format("SearchConditionCache[capacity=%d, size=%d, hits=%d, misses=%d, evictions=%d, hitRate=%.3f]",
+                         capacity, size(), getHitCount(), getMissCount(), getEvictionCount(), getHitRate());
+  }
+
+  /* ********************************************************************** */
+  /*                             Private Methods                            */
+  /* ********************************************************************** */
+
+  /*
+   * Recursively append a representation of an AST node to a key
+   */
+  private static void appendAstKey(StringBuilder sb, ASTNode astNode)
+  {
+    if (astNode == null) sb.append("null");
+    else if (astNode instanceof ASTLeaf) sb.append('[').append(((ASTLeaf) astNode).getValue()).append(']');
+    else if (astNode instanceof ASTUnaryExpression)
+    {
+      ASTUnaryExpression unaryNode = (ASTUnaryExpression) astNode;
+      sb.append('(').append(StringUtils.defaultString(unaryNode.getOp())).append(' ');
+      appendAstKey(sb, unaryNode.getNode());
+      sb.append(')');
+    }
+    else if (astNode instanceof ASTBinaryExpression)
+    {
+      ASTBinaryExpression binaryNode = (ASTBinaryExpression) astNode;
+      sb.append('(');
+      appendAstKey(sb, binaryNode.getLeft());
+      sb.append(' ').append(StringUtils.defaultString(binaryNode.getOp()).toUpperCase()).append(' ');
+      appendAstKey(sb, binaryNode.getRight());
+      sb.append(')');
+    }
+    // Unknown node type. Use class name plus identity so it never matches another tree.
+    else sb.append(astNode.getClass().getName()).append('@').append(System.identityHashCode(astNode));
+  }
+}
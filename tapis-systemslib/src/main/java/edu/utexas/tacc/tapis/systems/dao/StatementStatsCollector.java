@@ -0,0 +1,214 @@
+package edu.utexas.tacc.tapis.systems.dao;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import edu.utexas.tacc.tapis.systems.config.RuntimeParameters;
+import edu.utexas.tacc.tapis.systems.model.StatementStats;
+import edu.utexas.tacc.tapis.systems.utils.LibUtils;
+
+/*
+ * Aggregates execution statistics for DB statements, keyed by a fingerprint of the SQL, and logs statements
+ *   that take longer than a threshold.
+ * The fingerprint is the SQL with literals and bind parameters replaced by ? and lists of parameters collapsed,
+ *   so that executions differing only in their values, or in the length of an IN list, share statistics.
+ * Slow statements are logged with the fingerprint and the types of the bind parameters, never the values.
+ * The number of fingerprints is capped. Once the cap is reached further statements are counted under OTHER.
+ * Recording is lock-free apart from the first execution of a statement.
+ */
+public final class StatementStatsCollector
+{
+  /* ********************************************************************** */
+  /*                               Constants                                */
+  /* ********************************************************************** */
+  // Local logger.
+  private static final Logger _log = LoggerFactory.getLogger(StatementStatsCollector.class);
+
+  // Defaults used if runtime parameters are not available
+  public static final int DEFAULT_SLOW_MILLIS = 500;
+  public static final int DEFAULT_MAX_FINGERPRINTS = 500;
+
+  // Fingerprint used for statements once the cap has been reached
+  public static final String OTHER = "OTHER";
+
+  private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+  private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w\"])\\d+(?:\\.\\d+)?(?![\\w\"])");
+  private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+  private static final Pattern PARAM_LIST = Pattern.compile("\\?(?:\\s*,\\s*\\?)+");
+
+  /* ********************************************************************** */
+  /*                                 Fields                                 */
+  /* ********************************************************************** */
+  private static StatementStatsCollector instance;
+
+  private final long slowNanos;
+  private final int slowMillis;
+  private final int maxFingerprints;
+  private final Map<String, Aggregate> stats = new ConcurrentHashMap<>();
+
+  /* ********************************************************************** */
+  /*                             Constructors                               */
+  /* ********************************************************************** */
+  /**
+   * @param slowMillis1 - statements taking at least this long are logged. 0 or less to disable logging.
+   * @param maxFingerprints1 - max number of distinct statements to keep statistics for
+   */
+  public StatementStatsCollector(int slowMillis1, int maxFingerprints1)
+  {
+    slowMillis = slowMillis1;
+    slowNanos = (slowMillis1 > 0) ? TimeUnit.MILLISECONDS.toNanos(slowMillis1) : Long.MAX_VALUE;
+    maxFingerprints = Math.max(1, maxFingerprints1);
+  }
+
+  /* ********************************************************************** */
+  /*                             Public Methods                             */
+  /* ********************************************************************** */
+
+  /**
+   * Get the collector used by the DAO. Create it on first use with settings from runtime parameters.
+   * @return collector
+   */
+  public static synchronized StatementStatsCollector getInstance()
+  {
+    if (instance == null)
+    {
+      RuntimeParameters parms = RuntimeParameters.getInstance();
+      int slowMillis = (parms == null) ? DEFAULT_SLOW_MILLIS : parms.getDbSlowQueryMillis();
+      int maxFingerprints = (parms == null) ? DEFAULT_MAX_FINGERPRINTS : parms.getDbStatementStatsMax();
+      instance = new StatementStatsCollector(slowMillis, maxFingerprints);
+    }
+    return instance;
+  }
+
+  /**
+   * Record an execution of a statement. If it was slow log it.
+   * @param sql - SQL as sent to the DB, normally with ? for bind parameters
+   * @param nanos - time to execute and fetch results
+   * @param rows - rows fetched or affected, -1 if not known
+   * @param error - true if the statement failed
+   * @param bindTypes - supplies a description of the bind parameter types, only called if the statement was slow
+   */
+  public void record(String sql, long nanos, int rows, boolean error, Supplier<String> bindTypes)
+  {
+    String fingerprint = fingerprint(sql);
+    boolean slow = nanos >= slowNanos;
+    getAggregate(fingerprint).record(nanos, rows, error, slow);
+    if (slow)
+    {
+      _log.warn(LibUtils.getMsg("SYSLIB_DB_SLOW_STMT", TimeUnit.NANOSECONDS.toMillis(nanos), slowMillis, rows,
+                                fingerprint, bindTypes.get()));
+    }
+  }
+
+  /**
+   * Get statistics for all statements recorded, in order of decreasing total time
+   * @return statistics for each statement
+   */
+  public List<StatementStats> getStatementStats()
+  {
+    var statsList = new ArrayList<StatementStats>(stats.size());
+    for (Map.Entry<String, Aggregate> entry : stats.entrySet())
+    {
+      statsList.add(entry.getValue().snapshot(entry.getKey()));
+    }
+    statsList.sort(Comparator.comparingDouble(StatementStats::getTotalMillis).reversed());
+    return statsList;
+  }
+
+  /**
+   * Normalize SQL so that executions differing only in values have the same fingerprint.
+   * String and numeric literals become ?, lists of ? collapse to a single "?, ..." and whitespace is collapsed.
+   * @param sql - SQL text
+   * @return fingerprint
+   */
+  public static String fingerprint(String sql)
+  {
+    if (sql == null) return "";
+    String s = STRING_LITERAL.matcher(sql).replaceAll("?");
+    s = NUMBER_LITERAL.matcher(s).replaceAll("?");
+    s = WHITESPACE.matcher(s).replaceAll(" ").trim();
+    return PARAM_LIST.matcher(s).replaceAll("?, ...");
+  }
+
+  /**
+   * Describe the types of bind parameter values without including the values themselves.
+   * Arrays are described by element type and length, collections by size.
+   * @param values - bind values
+   * @return description such as [String, Integer, String[3], null]
+   */
+  public static String describeBindTypes(List<?> values)
+  {
+    if (values == null) return "[]";
+    var buf = new StringBuilder("[");
+    for (Object value : values)
+    {
+      if (buf.length() > 1) buf.append(", ");
+      if (value == null) buf.append("null");
+      else if (value.getClass().isArray())
+        buf.append(value.getClass().getComponentType().getSimpleName()).append('[')
+           .append(Array.getLength(value)).append(']');
+      else if (value instanceof Collection) buf.append("Collection[").append(((Collection<?>) value).size()).append(']');
+      else buf.append(value.getClass().getSimpleName());
+    }
+    return buf.append(']').toString();
+  }
+
+  /* ********************************************************************** */
+  /*                             Private Methods                            */
+  /* ********************************************************************** */
+
+  private Aggregate getAggregate(String fingerprint)
+  {
+    Aggregate aggregate = stats.get(fingerprint);
+    if (aggregate != null) return aggregate;
+    if (stats.size() >= maxFingerprints) fingerprint = OTHER;
+    return stats.computeIfAbsent(fingerprint, k -> new Aggregate());
+  }
+
+  /* ********************************************************************** */
+  /*                             Nested Classes                             */
+  /* ********************************************************************** */
+
+  /*
+   * Running totals for a single fingerprint
+   */
+  private static final class Aggregate
+  {
+    private final LongAdder count = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder slow = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0L);
+    private final LongAdder rows = new LongAdder();
+
+    private void record(long nanos, int rows1, boolean error, boolean slow1)
+    {
+      count.increment();
+      totalNanos.add(nanos);
+      maxNanos.accumulate(nanos);
+      if (rows1 > 0) rows.add(rows1);
+      if (error) errors.increment();
+      if (slow1) slow.increment();
+    }
+
+    private StatementStats snapshot(String fingerprint)
+    {
+      double nanosPerMilli = TimeUnit.MILLISECONDS.toNanos(1);
+      return new StatementStats(fingerprint, count.sum(), errors.sum(), slow.sum(), totalNanos.sum() / nanosPerMilli,
+                                maxNanos.get() / nanosPerMilli, rows.sum());
+    }
+  }
+}
@@ -0,0 +1,92 @@
+package edu.utexas.tacc.tapis.systems.dao;
+
+import org.jooq.ExecuteContext;
+import org.jooq.ExecuteListenerProvider;
+import org.jooq.Query;
+import org.jooq.impl.DefaultExecuteListener;
+
+import edu.utexas.tacc.tapis.systems.metrics.RequestTiming;
+import edu.utexas.tacc.tapis.systems.metrics.RequestTiming.Phase;
+
+/*
+ * jOOQ listener that records the execution time and row count of each statement in a StatementStatsCollector.
+ * Execution time is also added to the timing of the current request, if any.
+ * Time is measured from the start of execution until the statement is done, including fetching of results.
+ * jOOQ obtains a new listener from the provider for each execution, so state is kept in fields.
+ */
+public final class StatementStatsListener extends DefaultExecuteListener
+{
+  /* ********************************************************************** */
+  /*                                 Fields                                 */
+  /* ********************************************************************** */
+  private final StatementStatsCollector collector;
+  private boolean started;
+  private long startNanos;
+  private int rowsFetched;
+  private boolean fetched;
+  private boolean recorded;
+
+  /* ********************************************************************** */
+  /*                             Constructors                               */
+  /* ********************************************************************** */
+  public StatementStatsListener(StatementStatsCollector collector1) { collector = collector1; }
+
+  /* ********************************************************************** */
+  /*                             Public Methods                             */
+  /* ********************************************************************** */
+
+  /**
+   * Create a provider of listeners that record in the collector
+   */
+  public static ExecuteListenerProvider provider(StatementStatsCollector collector)
+  {
+    return () -> new StatementStatsListener(collector);
+  }
+
+  @Override
+  public void executeStart(ExecuteContext ctx)
+  {
+    started = true;
+    startNanos = System.nanoTime();
+  }
+
+  @Override
+  public void recordEnd(ExecuteContext ctx)
+  {
+    fetched = true;
+    rowsFetched++;
+  }
+
+  @Override
+  public void exception(ExecuteContext ctx)
+  {
+    record(ctx, true);
+  }
+
+  @Override
+  public void end(ExecuteContext ctx)
+  {
+    record(ctx, false);
+  }
+
+  /* ********************************************************************** */
+  /*                             Private Methods                            */
+  /* ********************************************************************** */
+
+  /*
+   * Record the execution once. Statements that failed before being sent to the DB are not recorded.
+   */
+  private void record(ExecuteContext ctx, boolean error)
+  {
+    if (recorded || !started) return;
+    recorded = true;
+    long nanos = System.nanoTime() - startNanos;
+    RequestTiming.record(Phase.DB, nanos);
+    int rows = fetched ? rowsFetched : ctx.rows();
+    String sql = (ctx.sql() != null) ? ctx.sql() : String.join("; ", ctx.batchSQL());
+    Query query = ctx.query();
+    collector.record(sql, nanos, rows, error,
+                     () -> (query != null) ? StatementStatsCollector.describeBindTypes(query.getBindValues())
+                                           : "batch of " + ctx.batchQueries().length);
+  }
+}
@@ -0,0 +1,253 @@
+package edu.utexas.tacc.tapis.systems.dao;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import edu.utexas.tacc.tapis.shared.exceptions.TapisException;
+import edu.utexas.tacc.tapis.systems.model.TSystem;
+
+/*
+ * Bounded LRU read-through cache of fully populated systems, including job runtimes, logical queues and
+ *   capabilities, keyed by (tenant, id). Used by SystemsServiceImpl.getSystem.
+ * Entries are private snapshots. Callers always receive a copy, so per-request attributes such as the resolved
+ *   effectiveUserId and authnCredential may be set on the result without affecting the cached entry.
+ * Deleted systems are never cached and a system that is not found is not cached.
+ *
+ * SystemsDaoImpl removes the entry for a system each time the system is created, updated or deleted, after the
+ *   transaction commits. Writes made by other service instances are applied by SystemsChangeListener.
+ * Each tenant has a write generation that is incremented on every removal. A load records the generation before
+ *   reading from the DB and the result is discarded if the generation changed, so a load that overlaps a write
+ *   can never leave a stale entry behind.
+ * The time to live bounds staleness for changes not seen by this process, for example if the change listener
+ *   is not running.
+ * A capacity of 0 or less disables the cache.
+ */
+public final class SystemsCache
+{
+  /* ********************************************************************** */
+  /*                               Constants                                */
+  /* ********************************************************************** */
+  // Defaults
+  public static final int DEFAULT_CAPACITY = 1000;
+  public static final int DEFAULT_TTL_SECONDS = 300;
+
+  /* ********************************************************************** */
+  /*                                 Fields                                 */
+  /* ********************************************************************** */
+  private final int capacity;
+  private final long ttlMillis;
+  private final Map<SystemKey, SystemEntry> cache;
+
+  // Write generation for each tenant
+  private final Map<String, AtomicLong> tenantGenerations = new ConcurrentHashMap<>();
+
+  // Metrics
+  private final AtomicLong hitCount = new AtomicLong();
+  private final AtomicLong missCount = new AtomicLong();
+  private final AtomicLong evictionCount = new AtomicLong();
+  private final AtomicLong loadCount = new AtomicLong();
+  private final AtomicLong loadNanos = new AtomicLong();
+
+  /* ********************************************************************** */
+  /*                             Constructors                               */
+  /* ********************************************************************** */
+  public SystemsCache(int capacity1, int ttlSeconds)
+  {
+    capacity = capacity1;
+    ttlMillis = ttlSeconds * 1000L;
+    // Access ordered map that drops the least recently used entry once capacity is exceeded.
+    cache = new LinkedHashMap<>(16, 0.75f, true)
+    {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<SystemKey, SystemEntry> eldest)
+      {
+        if (size() <= capacity) return false;
+        evictionCount.incrementAndGet();
+        return true;
+      }
+    };
+  }
+
+  /* ********************************************************************** */
+  /*                             Public Methods                             */
+  /* ********************************************************************** */
+
+  /**
+   * Loads a system from the DB on a cache miss
+   */
+  @FunctionalInterface
+  public interface SystemLoader
+  {
+    /**
+     * @return system, or null if not found
+     */
+    TSystem load() throws TapisException;
+  }
+
+  /**
+   * Get a system, calling the loader on a miss.
+   * @param tenantId - tenant
+   * @param id - system name
+   * @param loader - retrieves the system from the DB. Must not return deleted systems.
+   * @return copy of the system, null if not found
+   * @throws TapisException - if thrown by the loader
+   */
+  public TSystem getSystem(String tenantId, String id, SystemLoader loader) throws TapisException
+  {
+    if (!isEnabled()) return loader.load();
+    var key = new SystemKey(tenantId, id);
+    SystemEntry entry;
+    synchronized (cache) { entry = cache.get(key); }
+    if (entry != null && System.currentTimeMillis() - entry.createdMillis <= ttlMillis)
+    {
+      hitCount.incrementAndGet();
+      return new TSystem(entry.system);
+    }
+    missCount.incrementAndGet();
+
+    // Generation must be read before the load so that a concurrent write prevents the result being cached.
+    long generation = getGeneration(tenantId);
+    long start = System.nanoTime();
+    TSystem system = loader.load();
+    loadNanos.addAndGet(System.nanoTime() - start);
+    loadCount.incrementAndGet();
+    if (system == null || system.isDeleted()) return system;
+
+    // Cache a private copy. If there has been a write since the load started then the result may be out of date.
+    var newEntry = new SystemEntry(new TSystem(system), System.currentTimeMillis());
+    synchronized (cache)
+    {
+      if (generation == getGeneration(tenantId)) cache.put(key, newEntry);
+    }
+    return system;
+  }
+
+  /**
+   * Remove the entry for a system that has been created, updated or deleted.
+   * @param tenantId - tenant
+   * @param id - system name
+   */
+  public void invalidate(String tenantId, String id)
+  {
+    if (tenantId == null) return;
+    synchronized (cache)
+    {
+      tenantGenerations.computeIfAbsent(tenantId, t -> new AtomicLong()).incrementAndGet();
+      cache.remove(new SystemKey(tenantId, id));
+    }
+  }
+
+  /**
+   * Invalidate all entries, for example when writes may have been made without this process being notified.
+   */
+  public void invalidateAll()
+  {
+    synchronized (cache)
+    {
+      for (AtomicLong generation : tenantGenerations.values()) generation.incrementAndGet();
+      cache.clear();
+    }
+  }
+
+  /**
+   * Remove all entries. Metrics and generations are not reset.
+   */
+  public void clear()
+  {
+    synchronized (cache) { cache.clear(); }
+  }
+
+  public boolean isEnabled() { return capacity > 0; }
+  public int getCapacity() { return capacity; }
+  public int size() { synchronized (cache) { return cache.size(); } }
+  public long getHitCount() { return hitCount.get(); }
+  public long getMissCount() { return missCount.get(); }
+  public long getEvictionCount() { return evictionCount.get(); }
+  public long getLoadCount() { return loadCount.get(); }
+
+  /**
+   * Fraction of lookups that were hits.
+   * @return hit rate in the range 0.0 to 1.0, 0.0 if there have been no lookups.
+   */
+  public double getHitRate()
+  {
+    long hits = hitCount.get();
+    long total = hits + missCount.get();
+    return (total == 0) ? 0.0d : (double) hits / total;
+  }
+
+  /**
+   * Average time taken to load a system on a miss.
+   * @return average load time in milliseconds, 0.0 if there have been no loads.
+   */
+  public double getAverageLoadMillis()
+  {
+    long loads = loadCount.get();
+    return (loads == 0) ? 0.0d : loadNanos.get() / 1.0e6d / loads;
+  }
+
+  @Override
+  public String toString()
+  {
+    return String.format("SystemsCache[capacity=%d, size=%d, hits=%d, misses=%d, evictions=%d, hitRate=%.3f, " +
+                         "avgLoadMillis=%.3f]", capacity, size(), getHitCount(), getMissCount(), getEvictionCount(),
+                         getHitRate(), getAverageLoadMillis());
+  }
+
+  /* ********************************************************************** */
+  /*                             Private Methods                            */
+  /* ********************************************************************** */
+
+  private long getGeneration(String tenantId)
+  {
+    return tenantGenerations.computeIfAbsent(tenantId, t -> new AtomicLong()).get();
+  }
+
+  /* ********************************************************************** */
+  /*                            Keys and Entries                            */
+  /* ********************************************************************** */
+  /*
+   * Immutable key for a system
+   */
+  private static final class SystemKey
+  {
+    private final String tenantId;
+    private final String id;
+
+    private SystemKey(String tenantId1, String id1)
+    {
+      tenantId = tenantId1;
+      id = id1;
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+      if (this == o) return true;
+      if (!(o instanceof SystemKey)) return false;
+      SystemKey k = (SystemKey) o;
+      return Objects.equals(tenantId, k.tenantId) && Objects.equals(id, k.id);
+    }
+
+    @Override
+    public int hashCode() { return Objects.hash(tenantId, id); }
+  }
+
+  /*
+   * Cached system along with the time at which it was loaded
+   */
+  private static final class SystemEntry
+  {
+    private final TSystem system;
+    private final long createdMillis;
+
+    private SystemEntry(TSystem system1, long createdMillis1)
+    {
+      system = system1;
+      createdMillis = createdMillis1;
+    }
+  }
+}
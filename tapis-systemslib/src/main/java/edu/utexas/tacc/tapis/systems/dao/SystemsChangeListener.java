@@ -0,0 +1,342 @@
+package edu.utexas.tacc.tapis.systems.dao;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.google.gson.JsonObject;
+import org.jooq.impl.DSL;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import edu.utexas.tacc.tapis.shared.utils.TapisGsonUtils;
+import edu.utexas.tacc.tapis.systems.config.RuntimeParameters;
+import edu.utexas.tacc.tapis.systems.events.SystemEventHub;
+import edu.utexas.tacc.tapis.systems.model.SystemEvent;
+import edu.utexas.tacc.tapis.systems.utils.LibUtils;
+
+import static edu.utexas.tacc.tapis.systems.gen.jooq.Tables.SYSTEM_UPDATES;
+
+/*
+ * Receives notifications of changes made by all service instances using Postgres LISTEN/NOTIFY.
+ *
+ * SystemsDaoImpl queues a single notification on CHANNEL for each system written by a transaction. Postgres only
+ *   delivers it if the transaction commits, and delivers notifications in commit order. The notification contains
+ *   the tenant and id of the system and one or both of:
+ *   version - new change sequence value, for every write to a row in the systems table or removal of a system.
+ *             Used to invalidate local caches.
+ *   event   - the SystemEvent, for every write that records a system_updates row. Used to publish events to the
+ *             local SystemEventHub so that event stream subscribers see changes made through any instance.
+ * Each notification includes the id of the instance that made the change. Changes made by this instance have
+ *   already been applied to local caches so only versions from other instances are processed.
+ *   Events from all instances, including this one, are published from here so subscribers see them in order.
+ * Writes in a tenant run concurrently, so transactions may commit in a different order than their event tokens.
+ *   An event in a notification is therefore only a signal. For a tenant with subscribers the events after the last
+ *   one published are read from the system_updates table, which only returns events once all writes that may
+ *   precede them have completed, and published in order of token.
+ *
+ * A single daemon thread holds a dedicated connection, outside of the connection pool, on which LISTEN has
+ *   been issued. If the connection is lost the thread reconnects with a backoff. While disconnected the listener
+ *   is not active and SystemsDaoImpl publishes events for changes made by this instance directly, as it does
+ *   when the listener is not running. Notifications sent while disconnected are lost, so after reconnecting the
+ *   listener:
+ *   - invalidates all local caches, and
+ *   - replays events from the system_updates table for each tenant that has event stream subscribers, starting
+ *     after the last event seen for the tenant. Subscriptions discard events they have already received.
+ */
+public final class SystemsChangeListener
+{
+  /* ********************************************************************** */
+  /*                               Constants                                */
+  /* ********************************************************************** */
+  // Local logger.
+  private static final Logger _log = LoggerFactory.getLogger(SystemsChangeListener.class);
+
+  // Notification channel. Channels are database wide, so the name is specific to this service.
+  public static final String CHANNEL = "tapis_sys_changes";
+
+  // Identifies notifications sent by this process
+  public static final String INSTANCE_ID = UUID.randomUUID().toString();
+
+  // Notification payload attributes
+  private static final String P_ORIGIN = "origin";
+  private static final String P_TENANT = "tenant";
+  private static final String P_ID = "id";
+  private static final String P_VERSION = "version";
+  private static final String P_TOKEN = "token";
+  private static final String P_UUID = "uuid";
+  private static final String P_OPERATION = "operation";
+  private static final String P_USER = "userName";
+  private static final String P_CREATED = "created";
+
+  // Maximum time to wait for notifications before checking the connection
+  private static final int POLL_MILLIS = 10000;
+  // Delay before reconnecting, doubled after each failure up to the maximum
+  private static final long MIN_RECONNECT_MILLIS = 1000;
+  private static final long MAX_RECONNECT_MILLIS = 60000;
+  // Number of events fetched per query when replaying events after reconnecting
+  private static final int REPLAY_PAGE_SIZE = 500;
+
+  /* ********************************************************************** */
+  /*                                 Fields                                 */
+  /* ********************************************************************** */
+  // Singleton instance
+  private static volatile SystemsChangeListener instance;
+
+  private final SystemsDao dao;
+  private final Thread thread;
+  private volatile boolean stopped;
+  // Set while LISTEN is in effect. Cleared when the connection is lost so that local events are published directly.
+  private volatile boolean active;
+
+  // Token of the last event seen for each tenant
+  private final Map<String, Long> lastEventTokens = new ConcurrentHashMap<>();
+  // Largest event token at the time the last connection was established
+  private long connectToken;
+  // Replay start point for tenants with no events seen, set by connect()
+  private long replayStartToken;
+
+  private Connection conn;
+  private long reconnectMillis = MIN_RECONNECT_MILLIS;
+
+  // Metrics
+  private volatile long notificationCount;
+  private volatile long reconnectCount;
+
+  /* ********************************************************************** */
+  /*                             Constructors                               */
+  /* ********************************************************************** */
+  private SystemsChangeListener(SystemsDao dao1)
+  {
+    dao = dao1;
+    thread = new Thread(this::run, "SystemsChangeListener");
+    thread.setDaemon(true);
+  }
+
+  /* ********************************************************************** */
+  /*                             Public Methods                             */
+  /* ********************************************************************** */
+
+  /**
+   * Start the listener for this process if it is not already running.
+   * Makes the first connection before returning so that changes made after this call are seen.
+   * If the first connection fails the thread keeps trying in the background.
+   * @param dao1 - DAO used to replay events after reconnecting
+   */
+  public static synchronized void start(SystemsDao dao1)
+  {
+    if (instance != null) return;
+    instance = new SystemsChangeListener(dao1);
+    try { instance.connect(); }
+    catch (Exception e)
+    {
+      _log.warn(LibUtils.getMsg("SYSLIB_LISTENER_CONNECT_ERROR", CHANNEL, e.getMessage()));
+      instance.disconnect();
+    }
+    instance.thread.start();
+  }
+
+  /**
+   * Stop the listener, if running.
+   */
+  public static synchronized void stop()
+  {
+    if (instance == null) return;
+    instance.stopped = true;
+    instance.active = false;
+    instance.thread.interrupt();
+    instance = null;
+  }
+
+  /**
+   * @return true if the listener is connected and is responsible for publishing events
+   */
+  public static boolean isActive()
+  {
+    SystemsChangeListener l = instance;
+    return l != null && l.active;
+  }
+
+  public static long getNotificationCount()
+  {
+    SystemsChangeListener l = instance;
+    return (l == null) ? 0 : l.notificationCount;
+  }
+
+  public static long getReconnectCount()
+  {
+    SystemsChangeListener l = instance;
+    return (l == null) ? 0 : l.reconnectCount;
+  }
+
+  /**
+   * Build the payload for the notification of a write to a system
+   * @param tenantId - tenant
+   * @param id - system written
+   * @param version - new change sequence value of the system, 0 if the write did not change the system
+   * @param event - event recorded by the write, null if none
+   */
+  public static String buildPayload(String tenantId, String id, long version, SystemEvent event)
+  {
+    var json = new JsonObject();
+    json.addProperty(P_ORIGIN, INSTANCE_ID);
+    json.addProperty(P_TENANT, tenantId);
+    json.addProperty(P_ID, id);
+    if (version > 0) json.addProperty(P_VERSION, version);
+    if (event != null)
+    {
+      json.addProperty(P_TOKEN, event.getToken());
+      json.addProperty(P_UUID, event.getUuid() == null ? null : event.getUuid().toString());
+      json.addProperty(P_OPERATION, event.getOperation() == null ? null : event.getOperation().name());
+      json.addProperty(P_USER, event.getUserName());
+      json.addProperty(P_CREATED, event.getCreated() == null ? null : event.getCreated().toString());
+    }
+    return json.toString();
+  }
+
+  /* ********************************************************************** */
+  /*                             Private Methods                            */
+  /* ********************************************************************** */
+
+  /*
+   * Main loop. Wait for notifications and reconnect as needed.
+   */
+  private void run()
+  {
+    while (!stopped)
+    {
+      try
+      {
+        if (conn == null)
+        {
+          connect();
+          reconnectCount++;
+          replayMissed();
+        }
+        PGNotification[] notifications = conn.unwrap(PGConnection.class).getNotifications(POLL_MILLIS);
+        if (notifications == null || notifications.length == 0)
+        {
+          // Make sure the connection is still alive. A dead connection may not report an error otherwise.
+          try (Statement stmt = conn.createStatement()) { stmt.execute("SELECT 1"); }
+          continue;
+        }
+        Set<String> subscribedTenants = SystemEventHub.getInstance().getTenants();
+        Set<String> eventTenants = new HashSet<>();
+        for (PGNotification n : notifications) handleNotification(n.getParameter(), subscribedTenants, eventTenants);
+        publishEvents(eventTenants);
+        reconnectMillis = MIN_RECONNECT_MILLIS;
+      }
+      catch (Exception e)
+      {
+        if (stopped) break;
+        _log.warn(LibUtils.getMsg("SYSLIB_LISTENER_CONNECT_ERROR", CHANNEL, e.getMessage()));
+        disconnect();
+        try { Thread.sleep(reconnectMillis); }
+        catch (InterruptedException ie) { break; }
+        reconnectMillis = Math.min(reconnectMillis * 2, MAX_RECONNECT_MILLIS);
+      }
+    }
+    disconnect();
+  }
+
+  /*
+   * Open a dedicated connection and issue LISTEN. Record the largest event token at this point so that events
+   *   missed during a later disconnect can be replayed.
+   */
+  private void connect() throws Exception
+  {
+    RuntimeParameters parms = RuntimeParameters.getInstance();
+    conn = DriverManager.getConnection(parms.getJdbcURL(), parms.getDbUser(), parms.getDbPassword());
+    conn.setAutoCommit(true);
+    try (Statement stmt = conn.createStatement()) { stmt.execute("LISTEN " + CHANNEL); }
+    long prevConnectToken = connectToken;
+    Integer maxToken = DSL.using(conn).select(DSL.max(SYSTEM_UPDATES.SEQ_ID)).from(SYSTEM_UPDATES)
+                          .fetchOne(0, Integer.class);
+    connectToken = (maxToken == null) ? 0 : maxToken;
+    // Tenants with no events seen during the previous connection replay from the start of that connection
+    if (prevConnectToken == 0) prevConnectToken = connectToken;
+    replayStartToken = prevConnectToken;
+    active = true;
+    _log.info(LibUtils.getMsg("SYSLIB_LISTENER_CONNECTED", CHANNEL, INSTANCE_ID));
+  }
+
+  /*
+   * After reconnecting, apply anything that may have been missed while disconnected
+   */
+  private void replayMissed() throws Exception
+  {
+    SystemsDaoImpl.invalidateAllCaches();
+    publishEvents(SystemEventHub.getInstance().getTenants());
+  }
+
+  /*
+   * Publish events recorded after the last event published for each tenant, in order of token.
+   * Only tenants that have event stream subscribers are read from the DB.
+   */
+  private void publishEvents(Set<String> tenants) throws Exception
+  {
+    SystemEventHub hub = SystemEventHub.getInstance();
+    Set<String> subscribedTenants = hub.getTenants();
+    for (String tenant : tenants)
+    {
+      if (!subscribedTenants.contains(tenant)) continue;
+      long afterToken = lastEventTokens.getOrDefault(tenant, replayStartToken);
+      List<SystemEvent> events;
+      do
+      {
+        events = dao.getSystemEvents(tenant, afterToken, REPLAY_PAGE_SIZE);
+        for (SystemEvent event : events)
+        {
+          hub.publish(event);
+          afterToken = event.getToken();
+        }
+      } while (events.size() >= REPLAY_PAGE_SIZE && !stopped);
+      if (afterToken > 0) lastEventTokens.merge(tenant, afterToken, Math::max);
+    }
+  }
+
+  /*
+   * Process a single notification. Errors are logged and the notification skipped.
+   * Tenants of notifications with an event that have subscribers are added to eventTenants so that their events
+   *   can be published.
+   */
+  private void handleNotification(String payload, Set<String> subscribedTenants, Set<String> eventTenants)
+  {
+    notificationCount++;
+    try
+    {
+      JsonObject json = TapisGsonUtils.getGson().fromJson(payload, JsonObject.class);
+      String origin = json.get(P_ORIGIN).getAsString();
+      String tenant = json.get(P_TENANT).getAsString();
+      String id = json.get(P_ID).getAsString();
+      if (json.has(P_VERSION) && !INSTANCE_ID.equals(origin)) SystemsDaoImpl.noteRemoteWrite(tenant, id);
+      if (json.has(P_TOKEN))
+      {
+        // For a tenant without subscribers there is nothing to publish. Track the token so that reading starts
+        //   from here once there are subscribers. A new subscriber replays events up to that point itself.
+        if (subscribedTenants.contains(tenant)) eventTenants.add(tenant);
+        else lastEventTokens.merge(tenant, json.get(P_TOKEN).getAsLong(), Math::max);
+      }
+    }
+    catch (Exception e)
+    {
+      _log.warn(LibUtils.getMsg("SYSLIB_LISTENER_BAD_PAYLOAD", CHANNEL, payload, e.getMessage()));
+    }
+  }
+
+  private void disconnect()
+  {
+    active = false;
+    if (conn == null) return;
+    try { conn.close(); } catch (Exception e) { /* Connection is being discarded */ }
+    conn = null;
+  }
+}
@@ -0,0 +1,163 @@
+package edu.utexas.tacc.tapis.systems.dao;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.lang3.StringUtils;
+import org.jooq.Field;
+import org.jooq.impl.DSL;
+
+import edu.utexas.tacc.tapis.search.SearchUtils;
+import edu.utexas.tacc.tapis.search.SearchUtils.SearchOperator;
+import edu.utexas.tacc.tapis.shared.exceptions.TapisException;
+import edu.utexas.tacc.tapis.systems.utils.LibUtils;
+
+import static edu.utexas.tacc.tapis.systems.gen.jooq.Tables.SYSTEMS;
+import static edu.utexas.tacc.tapis.systems.model.TSystem.FACET_FIELDS;
+
+/*
+ * Registry of metadata for columns in table SYSTEMS, built once at class load.
+ * Maps both the camelCase attribute name used in the API (e.g. systemType) and the snake_case column name
+ *   (e.g. system_type) to a Column containing the jOOQ field, SQL type and allowed search operators.
+ * Used by SystemsDaoImpl to validate search and sort attributes using map lookups, and by both the
+ *   service and SystemsDaoImpl to validate facet attributes.
+ * As before the registry was introduced, any column may be used for sorting.
+ * This class is non-instantiable
+ */
+public final class SystemsColumns
+{
+  // Private constructor to make it non-instantiable
+  private SystemsColumns() { throw new AssertionError(); }
+
+  /* ********************************************************************** */
+  /*                               Constants                                */
+  /* ********************************************************************** */
+  // Map of camelCase attribute names and snake_case column names to column metadata
+  private static final Map<String, Column> COLUMNS;
+  static
+  {
+    var columns = new HashMap<String, Column>();
+    for (Field<?> field : SYSTEMS.fields())
+    {
+      Column c = new Column(field);
+      columns.put(c.getColumnName(), c);
+      columns.put(c.getAttributeName(), c);
+    }
+    COLUMNS = Collections.unmodifiableMap(columns);
+  }
+
+  /* ********************************************************************** */
+  /*                             Public Methods                             */
+  /* ********************************************************************** */
+
+  /**
+   * Look up column metadata given a camelCase attribute name or a snake_case column name.
+   * @param name - attribute or column name
+   * @return column metadata or null if not found
+   */
+  public static Column getColumn(String name)
+  {
+    if (StringUtils.isBlank(name)) return null;
+    Column c = COLUMNS.get(name);
+    // Fall back to the same conversion used for search conditions, e.g. for names with unusual case.
+    if (c == null) c = COLUMNS.get(SearchUtils.camelCaseToSnakeCase(name));
+    return c;
+  }
+
+  /**
+   * Get column metadata for an attribute used in a search condition.
+   * @param name - attribute or column name
+   * @return column metadata
+   * @throws TapisException if column not found
+   */
+  public static Column getSearchColumn(String name) throws TapisException
+  {
+    Column c = getColumn(name);
+    if (c == null) throw new TapisException(LibUtils.getMsg("SYSLIB_DB_NO_COLUMN", SYSTEMS.getName(), DSL.name(name)));
+    return c;
+  }
+
+  /**
+   * Look up column metadata for an attribute that may be used for facet counts, i.e. one of TSystem.FACET_FIELDS.
+   * As for other attributes the name may be given as camelCase or snake_case.
+   * @param name - attribute or column name
+   * @return column metadata or null if not found or not allowed for facets
+   */
+  public static Column getFacetColumn(String name)
+  {
+    Column c = getColumn(name);
+    return (c == null || !FACET_FIELDS.contains(c.getAttributeName())) ? null : c;
+  }
+
+  /**
+   * Get the jOOQ field for an orderBy attribute.
+   * @param orderByAttr - attribute or column name, may be blank
+   * @return field to use for sorting, null if orderByAttr is blank
+   * @throws TapisException if column not found
+   */
+  public static Field<?> getSortField(String orderByAttr) throws TapisException
+  {
+    if (StringUtils.isBlank(orderByAttr)) return null;
+    Column c = getColumn(orderByAttr);
+    if (c == null)
+    {
+      throw new TapisException(LibUtils.getMsg("SYSLIB_DB_NO_COLUMN_SORT", SYSTEMS.getName(), DSL.name(orderByAttr)));
+    }
+    return c.getField();
+  }
+
+  /**
+   * Convert a snake_case column name to the camelCase attribute name used in the API, e.g. is_dtn to isDtn
+   */
+  static String snakeCaseToCamelCase(String snakeStr)
+  {
+    var sb = new StringBuilder(snakeStr.length());
+    boolean upperNext = false;
+    for (char c : snakeStr.toCharArray())
+    {
+      if (c == '_') upperNext = true;
+      else if (upperNext) { sb.append(Character.toUpperCase(c)); upperNext = false; }
+      else sb.append(c);
+    }
+    return sb.toString();
+  }
+
+  /* ********************************************************************** */
+  /*                             Column Metadata                            */
+  /* ********************************************************************** */
+  /*
+   * Immutable metadata for a single column
+   */
+  public static final class Column
+  {
+    private final Field<?> field;
+    private final String columnName;
+    private final String attributeName;
+    private final int sqlType;
+    private final String sqlTypeName;
+    private final Set<SearchOperator> allowedOps; // null if sqlType not supported for searching
+
+    private Column(Field<?> field1)
+    {
+      field = field1;
+      columnName = field1.getName();
+      attributeName = snakeCaseToCamelCase(columnName);
+      sqlType = field1.getDataType().getSQLType();
+      sqlTypeName = field1.getDataType().getTypeName();
+      Set<SearchOperator> ops = SearchUtils.ALLOWED_OPS_BY_TYPE.get(sqlType);
+      allowedOps = (ops == null) ? null : Collections.unmodifiableSet(ops.isEmpty() ? new HashSet<>() : EnumSet.copyOf(ops));
+    }
+
+    public Field<?> getField() { return field; }
+    public String getColumnName() { return columnName; }
+    public String getAttributeName() { return attributeName; }
+    public int getSqlType() { return sqlType; }
+    public String getSqlTypeName() { return sqlTypeName; }
+    public boolean isSearchable() { return allowedOps != null; }
+    public boolean isAllowedOp(SearchOperator op) { return allowedOps != null && allowedOps.contains(op); }
+  }
+}
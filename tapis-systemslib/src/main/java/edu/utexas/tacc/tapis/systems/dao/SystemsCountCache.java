@@ -0,0 +1,239 @@
+package edu.utexas.tacc.tapis.systems.dao;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import edu.utexas.tacc.tapis.shared.threadlocal.OrderBy;
+
+/*
+ * Bounded LRU cache of exact counts of systems matching a query, as computed by SystemsDaoImpl.getSystemsCount.
+ * Each tenant has a write generation that is incremented every time a system in the tenant is created, updated
+ *   or deleted. An entry is only valid if it was computed during the current write generation of its tenant and
+ *   it is not older than the time to live. The time to live bounds staleness for changes not seen by this
+ *   process, such as writes made by another service instance.
+ * Keys include the set of allowed system IDs so changes in permissions result in a new key. For counts restricted
+ *   by the local permission mirror the key includes the user instead, and changes to the mirror for a tenant
+ *   increment the write generation of the tenant.
+ * A capacity of 0 or less disables the cache.
+ */
+public final class SystemsCountCache
+{
+  /* ********************************************************************** */
+  /*                               Constants                                */
+  /* ********************************************************************** */
+  // Defaults
+  public static final int DEFAULT_CAPACITY = 200;
+  public static final int DEFAULT_TTL_SECONDS = 60;
+
+  /* ********************************************************************** */
+  /*                                 Fields                                 */
+  /* ********************************************************************** */
+  private final int capacity;
+  private final long ttlMillis;
+  private final Map<CountKey, CountEntry> cache;
+
+  // Write generation for each tenant
+  private final Map<String, AtomicLong> tenantGenerations = new ConcurrentHashMap<>();
+
+  // Metrics
+  private final AtomicLong hitCount = new AtomicLong();
+  private final AtomicLong missCount = new AtomicLong();
+
+  /* ********************************************************************** */
+  /*                             Constructors                               */
+  /* ********************************************************************** */
+  public SystemsCountCache(int capacity1, int ttlSeconds)
+  {
+    capacity = capacity1;
+    ttlMillis = ttlSeconds * 1000L;
+    // Access ordered map that drops the least recently used entry once capacity is exceeded.
+    cache = new LinkedHashMap<>(16, 0.75f, true)
+    {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<CountKey, CountEntry> eldest) { return size() > capacity; }
+    };
+  }
+
+  /* ********************************************************************** */
+  /*                             Public Methods                             */
+  /* ********************************************************************** */
+
+  /**
+   * Build a key for a count query.
+   * @param tenantId - tenant
+   * @param searchKey - key for search conditions as created by SearchConditionCache, null if no search conditions
+   * @param setOfIDs - allowed IDs, null indicates no restriction
+   * @param orderByList - orderBy entries, only used with startAfter
+   * @param startAfter - where to start when sorting
+   * @param showDeleted - whether deleted systems are included
+   * @return key
+   */
+  public static CountKey buildKey(String tenantId, String searchKey, Set<String> setOfIDs, List<OrderBy> orderByList,
+                                  String startAfter, boolean showDeleted)
+  {
+    return buildKey(tenantId, searchKey, setOfIDs, null, orderByList, startAfter, showDeleted);
+  }
+
+  /**
+   * Build a key for a count query that may be restricted by the permissions of a user in the local permission
+   *   mirror. See buildKey above for description of other parameters.
+   * @param readUser - user whose permissions restrict the count, null indicates no restriction
+   * @return key
+   */
+  public static CountKey buildKey(String tenantId, String searchKey, Set<String> setOfIDs, String readUser,
+                                  List<OrderBy> orderByList, String startAfter, boolean showDeleted)
+  {
+    String orderByStr = null;
+    if (startAfter != null && orderByList != null && !orderByList.isEmpty())
+    {
+      orderByStr = orderByList.get(0).getOrderByAttr() + "(" + orderByList.get(0).getOrderByDir() + ")";
+    }
+    Set<String> ids = (setOfIDs == null) ? null : Set.copyOf(setOfIDs);
+    return new CountKey(tenantId, searchKey, ids, readUser, orderByStr, startAfter, showDeleted);
+  }
+
+  /**
+   * Get the current write generation for a tenant. Must be called before running a count query and the
+   *   result passed to put() so that a write made while the query is running invalidates the result.
+   */
+  public long getGeneration(String tenantId)
+  {
+    return tenantGenerations.computeIfAbsent(tenantId, t -> new AtomicLong()).get();
+  }
+
+  /**
+   * Record that a system in the tenant has been created, updated or deleted.
+   * All cached counts for the tenant become invalid.
+   */
+  public void incrementGeneration(String tenantId)
+  {
+    if (tenantId == null) return;
+    tenantGenerations.computeIfAbsent(tenantId, t -> new AtomicLong()).incrementAndGet();
+  }
+
+  /**
+   * Invalidate all cached counts for all tenants, for example when writes may have been made without this
+   *   process being notified.
+   */
+  public void invalidateAll()
+  {
+    for (AtomicLong generation : tenantGenerations.values()) generation.incrementAndGet();
+    clear();
+  }
+
+  /**
+   * Look up a count
+   * @param key - key for the query
+   * @return count if present and valid, else null
+   */
+  public Integer get(CountKey key)
+  {
+    if (!isEnabled()) return null;
+    CountEntry entry;
+    synchronized (cache) { entry = cache.get(key); }
+    if (entry == null || entry.generation != getGeneration(key.tenantId)
+        || System.currentTimeMillis() - entry.createdMillis > ttlMillis)
+    {
+      missCount.incrementAndGet();
+      return null;
+    }
+    hitCount.incrementAndGet();
+    return entry.count;
+  }
+
+  /**
+   * Add a count
+   * @param key - key for the query
+   * @param generation - tenant write generation obtained before the query was run
+   * @param count - count to cache
+   */
+  public void put(CountKey key, long generation, int count)
+  {
+    if (!isEnabled()) return;
+    // If there has been a write since the query was run then the count may already be out of date.
+    if (generation != getGeneration(key.tenantId)) return;
+    synchronized (cache) { cache.put(key, new CountEntry(count, generation, System.currentTimeMillis())); }
+  }
+
+  /**
+   * Remove all entries. Metrics and generations are not reset.
+   */
+  public void clear()
+  {
+    synchronized (cache) { cache.clear(); }
+  }
+
+  public boolean isEnabled() { return capacity > 0; }
+  public int getCapacity() { return capacity; }
+  public int size() { synchronized (cache) { return cache.size(); } }
+  public long getHitCount() { return hitCount.get(); }
+  public long getMissCount() { return missCount.get(); }
+
+  /* ********************************************************************** */
+  /*                            Keys and Entries                            */
+  /* ********************************************************************** */
+  /*
+   * Immutable key for a count query
+   */
+  public static final class CountKey
+  {
+    private final String tenantId;
+    private final String searchKey;
+    private final Set<String> ids;
+    private final String readUser;
+    private final String orderBy;
+    private final String startAfter;
+    private final boolean showDeleted;
+    private final int hash;
+
+    private CountKey(String tenantId1, String searchKey1, Set<String> ids1, String readUser1, String orderBy1,
+                     String startAfter1, boolean showDeleted1)
+    {
+      tenantId = tenantId1;
+      searchKey = searchKey1;
+      ids = ids1;
+      readUser = readUser1;
+      orderBy = orderBy1;
+      startAfter = startAfter1;
+      showDeleted = showDeleted1;
+      hash = Objects.hash(tenantId, searchKey, ids, readUser, orderBy, startAfter, showDeleted);
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+      if (this == o) return true;
+      if (!(o instanceof CountKey)) return false;
+      CountKey k = (CountKey) o;
+      return hash == k.hash && showDeleted == k.showDeleted && Objects.equals(tenantId, k.tenantId) &&
+             Objects.equals(searchKey, k.searchKey) && Objects.equals(orderBy, k.orderBy) &&
+             Objects.equals(startAfter, k.startAfter) && Objects.equals(ids, k.ids) &&
+             Objects.equals(readUser, k.readUser);
+    }
+
+    @Override
+    public int hashCode() { return hash; }
+  }
+
+  /*
+   * Cached count along with the tenant write generation and time at which it was computed
+   */
+  private static final class CountEntry
+  {
+    private final int count;
+    private final long generation;
+    private final long createdMillis;
+
+    private CountEntry(int count1, long generation1, long createdMillis1)
+    {
+      count = count1;
+      generation = generation1;
+      createdMillis = createdMillis1;
+    }
+  }
+}
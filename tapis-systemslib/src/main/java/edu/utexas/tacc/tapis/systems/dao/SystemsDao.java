@@ -5,11 +5,18 @@ import edu.utexas.tacc.tapis.shared.exceptions.TapisException;
 import edu.utexas.tacc.tapis.shared.threadlocal.OrderBy;
 import edu.utexas.tacc.tapis.systems.model.PatchSystem;
 import edu.utexas.tacc.tapis.systems.model.ResourceRequestUser;
+import edu.utexas.tacc.tapis.systems.model.StatementStats;
+import edu.utexas.tacc.tapis.systems.model.SystemChanges;
+import edu.utexas.tacc.tapis.systems.model.SystemEvent;
+import edu.utexas.tacc.tapis.systems.model.SystemVersionInfo;
 import edu.utexas.tacc.tapis.systems.model.TSystem;
+import edu.utexas.tacc.tapis.systems.model.TotalCount;
 import edu.utexas.tacc.tapis.systems.model.TSystem.AuthnMethod;
 import edu.utexas.tacc.tapis.systems.model.TSystem.SystemOperation;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 public interface SystemsDao
@@ -33,8 +40,16 @@ public interface SystemsDao
   void addUpdateRecord(ResourceRequestUser rUser, String tenantId, String id, SystemOperation op,
                        String upd_json, String upd_text) throws TapisException;
 
+  void addUpdateRecords(ResourceRequestUser rUser, String tenantId, Collection<String> ids, SystemOperation op,
+                        String upd_json, String upd_text) throws TapisException;
+
+  void recordPermissionChange(String tenantId, Collection<String> ids, Collection<String> revokedUsers)
+          throws TapisException;
+
   int hardDeleteSystem(String tenantId, String id) throws TapisException;
 
+  int hardDeleteSystem(String tenantId, String id, Collection<String> readers) throws TapisException;
+
   Exception checkDB();
 
   void migrateDB() throws TapisException;
@@ -47,18 +62,67 @@ public interface SystemsDao
 
   TSystem getSystem(String tenantId, String id, boolean includeDeleted) throws TapisException;
 
+  List<TSystem> getSystemsByIds(String tenantId, Collection<String> ids) throws TapisException;
+
+  SystemVersionInfo getSystemVersionInfo(String tenantId, String id) throws TapisException;
+
+  SystemChanges getSystemChanges(String tenantId, long since, int limit, String readerName) throws TapisException;
+
+  List<SystemEvent> getSystemEvents(String tenantId, long afterToken, int limit) throws TapisException;
+
   int getSystemsCount(String tenantId, List<String> searchList, ASTNode searchAST, Set<String> setOfIDs,
                       List<OrderBy> orderByList, String startAfter, boolean showDeleted) throws TapisException;
 
+  TotalCount getSystemsCountEstimate(String tenantId, List<String> searchList, ASTNode searchAST, Set<String> setOfIDs,
+                                     List<OrderBy> orderByList, String startAfter, boolean showDeleted)
+          throws TapisException;
+
+  Map<String, Map<String, Integer>> getSystemsFacets(String tenantId, List<String> searchList, ASTNode searchAST,
+                                                     Set<String> setOfIDs, List<String> facetList, boolean showDeleted)
+          throws TapisException;
+
   List<TSystem> getSystems(String tenantId, List<String> searchList, ASTNode searchAST, Set<String> setOfIDs, int limit,
                            List<OrderBy> orderByList, int skip, String startAfter, boolean showDeleted)
           throws TapisException;
 
   List<TSystem> getSystemsSatisfyingConstraints(String tenantId, ASTNode matchAST, Set<String> setOfIDs) throws TapisException;
 
+  int getSystemsCountReadableBy(String tenantId, String userName, List<String> searchList, ASTNode searchAST,
+                                List<OrderBy> orderByList, String startAfter, boolean showDeleted)
+          throws TapisException;
+
+  TotalCount getSystemsCountEstimateReadableBy(String tenantId, String userName, List<String> searchList,
+                                               ASTNode searchAST, List<OrderBy> orderByList, String startAfter,
+                                               boolean showDeleted)
+          throws TapisException;
+
+  List<TSystem> getSystemsReadableBy(String tenantId, String userName, List<String> searchList, ASTNode searchAST,
+                                     int limit, List<OrderBy> orderByList, int skip, String startAfter,
+                                     boolean showDeleted)
+          throws TapisException;
+
+  void addUserPerms(String tenantId, Collection<String> ids, Collection<String> userNames, Collection<String> perms)
+          throws TapisException;
+
+  int removeUserPerms(String tenantId, Collection<String> ids, Collection<String> userNames, Collection<String> perms)
+          throws TapisException;
+
+  int removeAllUserPerms(String tenantId, String id) throws TapisException;
+
+  long getUserPermsVersion() throws TapisException;
+
+  void replaceUserPerms(String tenantId, String userName, Map<String, Set<String>> permsById, long fetchedVersion)
+          throws TapisException;
+
+  List<String> getUserPermsUserNames(String tenantId) throws TapisException;
+
+  List<String> getSystemTenants() throws TapisException;
+
   String getSystemOwner(String tenantId, String id) throws TapisException;
 
   String getSystemEffectiveUserId(String tenantId, String id) throws TapisException;
 
   AuthnMethod getSystemDefaultAuthnMethod(String tenantId, String id) throws TapisException;
+
+  List<StatementStats> getStatementStats();
 }
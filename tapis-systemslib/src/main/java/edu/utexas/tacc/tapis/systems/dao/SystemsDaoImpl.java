@@ -2,24 +2,39 @@ package edu.utexas.tacc.tapis.systems.dao;
 
 import java.sql.Connection;
 import java.sql.Types;
+import java.time.Instant;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
-import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
 import java.util.UUID;
+import java.util.function.ToIntFunction;
 import java.util.regex.Pattern;
+import javax.sql.DataSource;
 
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
 import edu.utexas.tacc.tapis.systems.model.ResourceRequestUser;
 import org.flywaydb.core.Flyway;
 import org.jooq.Condition;
 import org.jooq.DSLContext;
+import org.jooq.ExecuteListenerProvider;
 import org.jooq.Field;
 import org.jooq.Record;
+import org.jooq.Record2;
+import org.jooq.Record3;
 import org.jooq.Result;
+import org.jooq.Sequence;
 import org.jooq.impl.DSL;
+import org.jooq.impl.DefaultConfiguration;
+import org.jooq.tools.jdbc.JDBCUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -36,6 +51,8 @@ import edu.utexas.tacc.tapis.shared.threadlocal.OrderBy.OrderByDir;
 
 import static edu.utexas.tacc.tapis.shared.threadlocal.OrderBy.DEFAULT_ORDERBY_DIRECTION;
 
+import edu.utexas.tacc.tapis.systems.gen.jooq.Sequences;
+import edu.utexas.tacc.tapis.systems.gen.jooq.tables.records.SystemTombstonesRecord;
 import edu.utexas.tacc.tapis.systems.gen.jooq.tables.records.SystemsRecord;
 import static edu.utexas.tacc.tapis.systems.gen.jooq.Tables.*;
 import static edu.utexas.tacc.tapis.systems.gen.jooq.Tables.SYSTEMS;
@@ -45,11 +62,20 @@ import edu.utexas.tacc.tapis.search.SearchUtils;
 import edu.utexas.tacc.tapis.search.SearchUtils.SearchOperator;
 import edu.utexas.tacc.tapis.shared.utils.TapisGsonUtils;
 import edu.utexas.tacc.tapis.systems.model.Capability;
+import edu.utexas.tacc.tapis.systems.model.SystemChanges;
+import edu.utexas.tacc.tapis.systems.model.SystemEvent;
+import edu.utexas.tacc.tapis.systems.model.SystemTombstone;
+import edu.utexas.tacc.tapis.systems.model.StatementStats;
+import edu.utexas.tacc.tapis.systems.model.SystemVersionInfo;
 import edu.utexas.tacc.tapis.systems.model.TSystem;
+import edu.utexas.tacc.tapis.systems.model.TotalCount;
 import edu.utexas.tacc.tapis.systems.model.TSystem.AuthnMethod;
 import edu.utexas.tacc.tapis.systems.model.TSystem.SystemOperation;
 import edu.utexas.tacc.tapis.systems.model.LogicalQueue;
 import edu.utexas.tacc.tapis.systems.model.JobRuntime;
+import edu.utexas.tacc.tapis.systems.config.RuntimeParameters;
+import edu.utexas.tacc.tapis.systems.events.SystemEventHub;
+import edu.utexas.tacc.tapis.systems.metrics.SystemsMetrics;
 import edu.utexas.tacc.tapis.systems.utils.LibUtils;
 
 /*
@@ -66,17 +92,34 @@ public class SystemsDaoImpl extends AbstractDao implements SystemsDao
   private static final String EMPTY_JSON = "{}";
   private static final int INVALID_SEQ_ID = -1;
 
-  // Create a static Set of column names for table SYSTEMS
-  private static final Set<String> SYSTEMS_FIELDS = new HashSet<>();
-  static
-  {
-    for (Field<?> field : SYSTEMS.fields()) { SYSTEMS_FIELDS.add(field.getName()); }
-  }
+  // First key for the transaction level advisory lock held in shared mode by writes in progress within a tenant.
+  //   Second key is a hash of the tenant. Readers of changes and events wait for the holders to finish.
+  private static final int CHANGE_SEQ_LOCK_KEY = 0x53595343; // "SYSC"
+  // Interval between checks for writes in progress, doubled after each check up to the maximum, and maximum
+  //   time to wait for them
+  private static final long MIN_WRITES_POLL_MILLIS = 1;
+  private static final long MAX_WRITES_POLL_MILLIS = 100;
+  private static final long WRITES_WAIT_MILLIS = 10000;
 
   // Compiled regexes for splitting around "\." and "\$"
   private static final Pattern DOT_SPLIT = Pattern.compile("\\.");
   private static final Pattern DOLLAR_SPLIT = Pattern.compile("\\$");
 
+  // Values in the system_user_perms table. A system_id or permission of * is a wildcard grant.
+  private static final String PERM_WILDCARD = "*";
+  private static final List<String> READ_PERMS = List.of(TSystem.Permission.READ.name(),
+                                                         TSystem.Permission.MODIFY.name(), PERM_WILDCARD);
+
+  /* ********************************************************************** */
+  /*                                 Fields                                 */
+  /* ********************************************************************** */
+  // Cache of validated search conditions shared by getSystems and getSystemsCount. Created on first use.
+  private static SearchConditionCache searchConditionCache;
+  // Cache of exact counts used by getSystemsCount and getSystemsCountEstimate. Created on first use.
+  private static SystemsCountCache systemsCountCache;
+  // Cache of systems used by the service for getSystem. Created on first use.
+  private static SystemsCache systemsCache;
+
   /* ********************************************************************** */
   /*                             Public Methods                             */
   /* ********************************************************************** */
@@ -117,7 +160,7 @@ public class SystemsDaoImpl extends AbstractDao implements SystemsDao
     {
       // Get a database connection.
       conn = getConnection();
-      DSLContext db = DSL.using(conn);
+      DSLContext db = newDSL(conn);
 
       // Check to see if system exists (even if deleted). If yes then throw IllegalStateException
       boolean doesExist = checkForSystem(db, system.getTenant(), system.getId(), true);
@@ -126,6 +169,7 @@ public class SystemsDaoImpl extends AbstractDao implements SystemsDao
       // Generate uuid for the new resource
       system.setUuid(UUID.randomUUID());
 
+      long changeSeq = nextChangeSeq(db, system.getTenant());
       Record record = db.insertInto(SYSTEMS)
               .set(SYSTEMS.TENANT, system.getTenant())
               .set(SYSTEMS.ID, system.getId())
@@ -157,6 +201,7 @@ public class SystemsDaoImpl extends AbstractDao implements SystemsDao
               .set(SYSTEMS.TAGS, tagsStrArray)
               .set(SYSTEMS.NOTES, notesObj)
               .set(SYSTEMS.UUID, system.getUuid())
+              .set(SYSTEMS.CHANGE_SEQ, changeSeq)
               .returningResult(SYSTEMS.SEQ_ID)
               .fetchOne();
 
@@ -181,11 +226,14 @@ public class SystemsDaoImpl extends AbstractDao implements SystemsDao
       persistJobCapabilities(db, system, seqId);
 
       // Persist update record
-      addUpdate(db, rUser, system.getTenant(), system.getId(), seqId, SystemOperation.create,
+      SystemEvent event = addUpdate(db, rUser, system.getTenant(), system.getId(), seqId, SystemOperation.create,
                 createJsonStr, scrubbedText, system.getUuid());
+      notifyWrite(db, system.getTenant(), system.getId(), changeSeq, event);
 
       // Close out and commit
       LibUtils.closeAndCommitDB(conn, null, null);
+      noteSystemWrite(system.getTenant(), system.getId());
+      publishEvent(event);
     }
     catch (Exception e)
     {
@@ -240,7 +288,7 @@ public class SystemsDaoImpl extends AbstractDao implements SystemsDao
     {
       // Get a database connection.
       conn = getConnection();
-      DSLContext db = DSL.using(conn);
+      DSLContext db = newDSL(conn);
 
       // Make sure system exists and has not been deleted.
       boolean doesExist = checkForSystem(db, tenantId, systemId, false);
@@ -250,6 +298,7 @@ public class SystemsDaoImpl extends AbstractDao implements SystemsDao
       UUID uuid = putSystem.getUuid();
       if (uuid == null) uuid = getUUIDUsingDb(db, tenantId, systemId);
 
+      long changeSeq = nextChangeSeq(db, tenantId);
       var result = db.update(SYSTEMS)
               .set(SYSTEMS.DESCRIPTION, putSystem.getDescription())
               .set(SYSTEMS.HOST, putSystem.getHost())
@@ -272,6 +321,7 @@ public class SystemsDaoImpl extends AbstractDao implements SystemsDao
               .set(SYSTEMS.TAGS, tagsStrArray)
               .set(SYSTEMS.NOTES, notesObj)
               .set(SYSTEMS.UPDATED, TapisUtils.getUTCTimeNow())
+              .set(SYSTEMS.CHANGE_SEQ, changeSeq)
               .where(SYSTEMS.TENANT.eq(tenantId),SYSTEMS.ID.eq(systemId))
               .returningResult(SYSTEMS.SEQ_ID)
               .fetchOne();
@@ -297,11 +347,14 @@ public class SystemsDaoImpl extends AbstractDao implements SystemsDao
       persistJobCapabilities(db, putSystem, seqId);
 
       // Persist update record
-      addUpdate(db, rUser, putSystem.getTenant(), putSystem.getId(), seqId, SystemOperation.modify,
-              updateJsonStr, scrubbedText, uuid);
+      SystemEvent event = addUpdate(db, rUser, putSystem.getTenant(), putSystem.getId(), seqId,
+                                    SystemOperation.modify, updateJsonStr, scrubbedText, uuid);
+      notifyWrite(db, tenantId, systemId, changeSeq, event);
 
       // Close out and commit
       LibUtils.closeAndCommitDB(conn, null, null);
+      noteSystemWrite(tenantId, systemId);
+      publishEvent(event);
     }
     catch (Exception e)
     {
@@ -360,13 +413,14 @@ public class SystemsDaoImpl extends AbstractDao implements SystemsDao
     {
       // Get a database connection.
       conn = getConnection();
-      DSLContext db = DSL.using(conn);
+      DSLContext db = newDSL(conn);
 
       // Make sure system exists and has not been deleted.
       boolean doesExist = checkForSystem(db, tenant, systemId, false);
       if (!doesExist) throw new IllegalStateException(LibUtils.getMsgAuth("SYSLIB_NOT_FOUND", rUser, systemId));
 
 
+      long changeSeq = nextChangeSeq(db, tenant);
       var result = db.update(SYSTEMS)
               .set(SYSTEMS.DESCRIPTION, patchedSystem.getDescription())
               .set(SYSTEMS.HOST, patchedSystem.getHost())
@@ -389,6 +443,7 @@ public class SystemsDaoImpl extends AbstractDao implements SystemsDao
               .set(SYSTEMS.TAGS, tagsStrArray)
               .set(SYSTEMS.NOTES, notesObj)
               .set(SYSTEMS.UPDATED, TapisUtils.getUTCTimeNow())
+              .set(SYSTEMS.CHANGE_SEQ, changeSeq)
               .where(SYSTEMS.TENANT.eq(tenant),SYSTEMS.ID.eq(systemId))
               .returningResult(SYSTEMS.SEQ_ID)
               .fetchOne();
@@ -420,11 +475,14 @@ public class SystemsDaoImpl extends AbstractDao implements SystemsDao
       }
 
       // Persist update record
-      addUpdate(db, rUser, tenant, systemId, seqId, SystemOperation.modify, updateJsonStr, scrubbedText,
-                patchedSystem.getUuid());
+      SystemEvent event = addUpdate(db, rUser, tenant, systemId, seqId, SystemOperation.modify, updateJsonStr,
+                                    scrubbedText, patchedSystem.getUuid());
+      notifyWrite(db, tenant, systemId, changeSeq, event);
 
       // Close out and commit
       LibUtils.closeAndCommitDB(conn, null, null);
+      noteSystemWrite(tenant, systemId);
+      publishEvent(event);
     }
     catch (Exception e)
     {
@@ -458,17 +516,22 @@ public class SystemsDaoImpl extends AbstractDao implements SystemsDao
     {
       // Get a database connection.
       conn = getConnection();
-      DSLContext db = DSL.using(conn);
+      DSLContext db = newDSL(conn);
+      long changeSeq = nextChangeSeq(db, tenantId);
       db.update(SYSTEMS)
               .set(SYSTEMS.ENABLED, enabled)
               .set(SYSTEMS.UPDATED, TapisUtils.getUTCTimeNow())
+              .set(SYSTEMS.CHANGE_SEQ, changeSeq)
               .where(SYSTEMS.TENANT.eq(tenantId),SYSTEMS.ID.eq(id)).execute();
       // Persist update record
       String updateJsonStr = "{\"enabled\":" +  enabled + "}";
-      addUpdate(db, rUser, tenantId, id, INVALID_SEQ_ID, systemOp, updateJsonStr , null,
+      SystemEvent event = addUpdate(db, rUser, tenantId, id, INVALID_SEQ_ID, systemOp, updateJsonStr , null,
                 getUUIDUsingDb(db, tenantId, id));
+      notifyWrite(db, tenantId, id, changeSeq, event);
       // Close out and commit
       LibUtils.closeAndCommitDB(conn, null, null);
+      noteSystemWrite(tenantId, id);
+      publishEvent(event);
     }
     catch (Exception e)
     {
@@ -502,17 +565,22 @@ public class SystemsDaoImpl extends AbstractDao implements SystemsDao
     {
       // Get a database connection.
       conn = getConnection();
-      DSLContext db = DSL.using(conn);
+      DSLContext db = newDSL(conn);
+      long changeSeq = nextChangeSeq(db, tenantId);
       db.update(SYSTEMS)
               .set(SYSTEMS.DELETED, deleted)
               .set(SYSTEMS.UPDATED, TapisUtils.getUTCTimeNow())
+              .set(SYSTEMS.CHANGE_SEQ, changeSeq)
               .where(SYSTEMS.TENANT.eq(tenantId),SYSTEMS.ID.eq(id)).execute();
       // Persist update record
       String updateJsonStr = "{\"deleted\":" +  deleted + "}";
-      addUpdate(db, rUser, tenantId, id, INVALID_SEQ_ID, systemOp, updateJsonStr , null,
+      SystemEvent event = addUpdate(db, rUser, tenantId, id, INVALID_SEQ_ID, systemOp, updateJsonStr , null,
               getUUIDUsingDb(db, tenantId, id));
+      notifyWrite(db, tenantId, id, changeSeq, event);
       // Close out and commit
       LibUtils.closeAndCommitDB(conn, null, null);
+      noteSystemWrite(tenantId, id);
+      publishEvent(event);
     }
     catch (Exception e)
     {
@@ -545,17 +613,22 @@ public class SystemsDaoImpl extends AbstractDao implements SystemsDao
     {
       // Get a database connection.
       conn = getConnection();
-      DSLContext db = DSL.using(conn);
+      DSLContext db = newDSL(conn);
+      long changeSeq = nextChangeSeq(db, tenantId);
       db.update(SYSTEMS)
               .set(SYSTEMS.OWNER, newOwnerName)
               .set(SYSTEMS.UPDATED, TapisUtils.getUTCTimeNow())
+              .set(SYSTEMS.CHANGE_SEQ, changeSeq)
               .where(SYSTEMS.TENANT.eq(tenantId),SYSTEMS.ID.eq(id)).execute();
       // Persist update record
       String updateJsonStr = TapisGsonUtils.getGson().toJson(newOwnerName);
-      addUpdate(db, rUser, tenantId, id, INVALID_SEQ_ID, SystemOperation.changeOwner, updateJsonStr , null,
-                getUUIDUsingDb(db, tenantId, id));
+      SystemEvent event = addUpdate(db, rUser, tenantId, id, INVALID_SEQ_ID, SystemOperation.changeOwner,
+                                    updateJsonStr , null, getUUIDUsingDb(db, tenantId, id));
+      notifyWrite(db, tenantId, id, changeSeq, event);
       // Close out and commit
       LibUtils.closeAndCommitDB(conn, null, null);
+      noteSystemWrite(tenantId, id);
+      publishEvent(event);
     }
     catch (Exception e)
     {
@@ -571,9 +644,25 @@ public class SystemsDaoImpl extends AbstractDao implements SystemsDao
 
   /**
    * Hard delete a system record given the system name.
+   * The tombstone recorded for delta sync lists only the owner as a reader.
    */
   @Override
   public int hardDeleteSystem(String tenantId, String id) throws TapisException
+  {
+    return hardDeleteSystem(tenantId, id, Collections.emptySet());
+  }
+
+  /**
+   * Hard delete a system record given the system name.
+   * Records a tombstone so that clients using delta sync know the system is gone. The tombstone is returned to
+   *   the owner, to the given users and to callers allowed to read all systems.
+   * @param tenantId - tenant
+   * @param id - system
+   * @param readers - users other than the owner who could read the system
+   * @return number of rows deleted
+   */
+  @Override
+  public int hardDeleteSystem(String tenantId, String id, Collection<String> readers) throws TapisException
   {
     String opName = "hardDeleteSystem";
     int rows = -1;
@@ -586,9 +675,28 @@ public class SystemsDaoImpl extends AbstractDao implements SystemsDao
     try
     {
       conn = getConnection();
-      DSLContext db = DSL.using(conn);
-      db.deleteFrom(SYSTEMS).where(SYSTEMS.TENANT.eq(tenantId),SYSTEMS.ID.eq(id)).execute();
+      DSLContext db = newDSL(conn);
+      // Record a tombstone so that clients using delta sync know the system is gone.
+      Record2<UUID, String> r = db.select(SYSTEMS.UUID, SYSTEMS.OWNER).from(SYSTEMS)
+                                  .where(SYSTEMS.TENANT.eq(tenantId),SYSTEMS.ID.eq(id)).fetchOne();
+      rows = db.deleteFrom(SYSTEMS).where(SYSTEMS.TENANT.eq(tenantId),SYSTEMS.ID.eq(id)).execute();
+      if (rows > 0 && r != null)
+      {
+        var readerSet = new TreeSet<String>(readers);
+        readerSet.add(r.value2());
+        long changeSeq = nextChangeSeq(db, tenantId);
+        db.insertInto(SYSTEM_TOMBSTONES)
+                .set(SYSTEM_TOMBSTONES.TENANT, tenantId)
+                .set(SYSTEM_TOMBSTONES.ID, id)
+                .set(SYSTEM_TOMBSTONES.UUID, r.value1())
+                .set(SYSTEM_TOMBSTONES.READERS, readerSet.toArray(new String[0]))
+                .set(SYSTEM_TOMBSTONES.REMOVED, true)
+                .set(SYSTEM_TOMBSTONES.CHANGE_SEQ, changeSeq)
+                .execute();
+        notifyWrite(db, tenantId, id, changeSeq, null);
+      }
       LibUtils.closeAndCommitDB(conn, null, null);
+      noteSystemWrite(tenantId, id);
     }
     catch (Exception e)
     {
@@ -614,7 +722,7 @@ public class SystemsDaoImpl extends AbstractDao implements SystemsDao
     try
     {
       conn = getConnection();
-      DSLContext db = DSL.using(conn);
+      DSLContext db = newDSL(conn);
       // execute SELECT to_regclass('tapis_sys.systems');
       // Build and execute a simple postgresql statement to check for the table
       String sql = "SELECT to_regclass('" + SYSTEMS.getName() + "')";
@@ -672,7 +780,7 @@ public class SystemsDaoImpl extends AbstractDao implements SystemsDao
     {
       // Get a database connection.
       conn = getConnection();
-      DSLContext db = DSL.using(conn);
+      DSLContext db = newDSL(conn);
       // Run the sql
       result = checkForSystem(db, tenantId, id, includeDeleted);
       // Close out and commit
@@ -707,7 +815,7 @@ public class SystemsDaoImpl extends AbstractDao implements SystemsDao
     {
       // Get a database connection.
       conn = getConnection();
-      DSLContext db = DSL.using(conn);
+      DSLContext db = newDSL(conn);
       // Run the sql
       Boolean b = db.selectFrom(SYSTEMS)
               .where(SYSTEMS.TENANT.eq(tenantId),SYSTEMS.ID.eq(sysId),SYSTEMS.DELETED.eq(false))
@@ -759,7 +867,7 @@ public class SystemsDaoImpl extends AbstractDao implements SystemsDao
     {
       // Get a database connection.
       conn = getConnection();
-      DSLContext db = DSL.using(conn);
+      DSLContext db = newDSL(conn);
       SystemsRecord r;
       if (includeDeleted)
         r = db.selectFrom(SYSTEMS).where(SYSTEMS.TENANT.eq(tenantId),SYSTEMS.ID.eq(id)).fetchOne();
@@ -797,106 +905,34 @@ public class SystemsDaoImpl extends AbstractDao implements SystemsDao
   }
 
   /**
-   * getSystemsCount
-   * Count all TSystems matching various search and sort criteria.
-   *     Search conditions given as a list of strings or an abstract syntax tree (AST).
-   * Conditions in searchList must be processed by SearchUtils.validateAndExtractSearchCondition(cond)
-   *   prior to this call for proper validation and treatment of special characters.
-   * WARNING: If both searchList and searchAST provided only searchList is used.
-   * @param tenantId - tenant name
-   * @param searchList - optional list of conditions used for searching
-   * @param searchAST - AST containing search conditions
-   * @param setOfIDs - list of system IDs to consider. null indicates no restriction.
-   * @param orderByList - orderBy entries for sorting, e.g. orderBy=created(desc).
-   * @param startAfter - where to start when sorting, e.g. orderBy=id(asc)&startAfter=101 (may not be used with skip)
-   * @param showDeleted - whether or not to included resources that have been marked as deleted.
-   * @return - count of TSystem objects
+   * getSystemsByIds
+   * Retrieve many systems in a fixed number of queries, one for the systems table and one for each auxiliary
+   *   table, regardless of the number of IDs. Deleted systems are not included.
+   * @param tenantId - name of tenant
+   * @param ids - system names
+   * @return systems found, in no particular order. Empty list if none found.
    * @throws TapisException - on error
    */
   @Override
-  public int getSystemsCount(String tenantId, List<String> searchList, ASTNode searchAST, Set<String> setOfIDs,
-                             List<OrderBy> orderByList, String startAfter, boolean showDeleted)
-          throws TapisException
+  public List<TSystem> getSystemsByIds(String tenantId, Collection<String> ids) throws TapisException
   {
-    // TODO - for now just use the major (i.e. first in list) orderBy item.
-    String majorOrderBy = null;
-    OrderByDir majorSortDirection = DEFAULT_ORDERBY_DIRECTION;
-    if (orderByList != null && !orderByList.isEmpty())
-    {
-      majorOrderBy = orderByList.get(0).getOrderByAttr();
-      majorSortDirection = orderByList.get(0).getOrderByDir();
-    }
-
-    // Convert orderBy column to snake case for checking against column names
-    String majorOrderBySC = SearchUtils.camelCaseToSnakeCase(majorOrderBy);
-
-    // NOTE: Sort matters for the count even though we will not actually need to sort.
-    boolean sortAsc = true;
-    if (majorSortDirection == OrderBy.OrderByDir.DESC) sortAsc = false;
-
-    // If startAfter is given then orderBy is required
-    if (!StringUtils.isBlank(startAfter) && StringUtils.isBlank(majorOrderBy))
-    {
-      throw new TapisException(LibUtils.getMsg("SYSLIB_DB_INVALID_SORT_START", SYSTEMS.getName()));
-    }
-
-    // If no IDs in list then we are done.
-    if (setOfIDs != null && setOfIDs.isEmpty()) return 0;
-
-    // Determine and check orderBy column
-    Field<?> colOrderBy = SYSTEMS.field(DSL.name(SearchUtils.camelCaseToSnakeCase(majorOrderBy)));
-    if (!StringUtils.isBlank(majorOrderBy) && colOrderBy == null)
-    {
-      String msg = LibUtils.getMsg("SYSLIB_DB_NO_COLUMN_SORT", SYSTEMS.getName(), DSL.name(majorOrderBy));
-      throw new TapisException(msg);
-    }
-    // If orderBy column not found then it is an error
-    if (!StringUtils.isBlank(majorOrderBy) && !SYSTEMS_FIELDS.contains(majorOrderBySC))
-    {
-      String msg = LibUtils.getMsg("SYSLIB_DB_NO_COLUMN_SORT", SYSTEMS.getName(), DSL.name(majorOrderBy));
-      throw new TapisException(msg);
-    }
-
-    // Begin where condition for the query
-    Condition whereCondition;
-    if (showDeleted) whereCondition = SYSTEMS.TENANT.eq(tenantId);
-    else whereCondition = (SYSTEMS.TENANT.eq(tenantId)).and(SYSTEMS.DELETED.eq(false));
-
-    // Add searchList or searchAST to where condition
-    if (searchList != null)
-    {
-      whereCondition = addSearchListToWhere(whereCondition, searchList);
-    }
-    else if (searchAST != null)
-    {
-      Condition astCondition = createConditionFromAst(searchAST);
-      if (astCondition != null) whereCondition = whereCondition.and(astCondition);
-    }
-
-    // Add startAfter.
-    if (!StringUtils.isBlank(startAfter))
-    {
-      // Build search string so we can re-use code for checking and adding a condition
-      String searchStr;
-      if (sortAsc) searchStr = majorOrderBy + ".gt." + startAfter;
-      else searchStr = majorOrderBy + ".lt." + startAfter;
-      whereCondition = addSearchCondStrToWhere(whereCondition, searchStr, "AND");
-    }
-
-    // Add IN condition for list of IDs
-    if (setOfIDs != null && !setOfIDs.isEmpty()) whereCondition = whereCondition.and(SYSTEMS.ID.in(setOfIDs));
+    List<TSystem> retList = new ArrayList<>();
+    if (ids == null || ids.isEmpty()) return retList;
 
-    // ------------------------- Build and execute SQL ----------------------------
-    int count = 0;
+    // ------------------------- Call SQL ----------------------------
     Connection conn = null;
     try
     {
       // Get a database connection.
       conn = getConnection();
-      DSLContext db = DSL.using(conn);
+      DSLContext db = newDSL(conn);
+      Result<SystemsRecord> results = db.selectFrom(SYSTEMS)
+                                        .where(SYSTEMS.TENANT.eq(tenantId),SYSTEMS.ID.in(ids),SYSTEMS.DELETED.eq(false))
+                                        .fetch();
+      for (SystemsRecord r : results) { retList.add(r.into(TSystem.class)); }
 
-      // Execute the select including orderByAttrList, startAfter
-      count = db.selectCount().from(SYSTEMS).where(whereCondition).fetchOne(0,int.class);
+      // Fill in job runtimes, logical queues and capabilities from aux tables
+      populateAuxData(db, retList);
 
       // Close out and commit
       LibUtils.closeAndCommitDB(conn, null, null);
@@ -911,155 +947,40 @@ public class SystemsDaoImpl extends AbstractDao implements SystemsDao
       // Always return the connection back to the connection pool.
       LibUtils.finalCloseDB(conn);
     }
-    return count;
+    return retList;
   }
 
   /**
-   * getSystems
-   * Retrieve all TSystems matching various search and sort criteria.
-   *     Search conditions given as a list of strings or an abstract syntax tree (AST).
-   * Conditions in searchList must be processed by SearchUtils.validateAndExtractSearchCondition(cond)
-   *   prior to this call for proper validation and treatment of special characters.
-   * WARNING: If both searchList and searchAST provided only searchList is used.
-   * @param tenantId - tenant name
-   * @param searchList - optional list of conditions used for searching
-   * @param searchAST - AST containing search conditions
-   * @param setOfIDs - list of system IDs to consider. null indicates no restriction.
-   * @param limit - indicates maximum number of results to be included, -1 for unlimited
-   * @param orderByList - orderBy entries for sorting, e.g. orderBy=created(desc).
-   * @param skip - number of results to skip (may not be used with startAfter)
-   * @param startAfter - where to start when sorting, e.g. limit=10&orderBy=id(asc)&startAfter=101 (may not be used with skip)
-   * @param showDeleted - whether or not to included resources that have been marked as deleted.
-   * @return - list of TSystem objects
+   * getSystemVersionInfo
+   * Retrieve only the attributes needed to determine if a system has changed. Aux tables are not read.
+   * Deleted systems are not included.
+   * @param tenantId - name of tenant
+   * @param id - system name
+   * @return version info if found, null if not found
    * @throws TapisException - on error
    */
   @Override
-  public List<TSystem> getSystems(String tenantId, List<String> searchList, ASTNode searchAST, Set<String> setOfIDs,
-                             int limit, List<OrderBy> orderByList, int skip, String startAfter, boolean showDeleted)
-          throws TapisException
+  public SystemVersionInfo getSystemVersionInfo(String tenantId, String id) throws TapisException
   {
-    // TODO - for now just use the major (i.e. first in list) orderBy item.
-    String majorOrderBy = null;
-    OrderByDir majorSortDirection = DEFAULT_ORDERBY_DIRECTION;
-    if (orderByList != null && !orderByList.isEmpty())
-    {
-      majorOrderBy = orderByList.get(0).getOrderByAttr();
-      majorSortDirection = orderByList.get(0).getOrderByDir();
-    }
-
-    // The result list should always be non-null.
-    var retList = new ArrayList<TSystem>();
-
-    // Negative skip indicates no skip
-    if (skip < 0) skip = 0;
-
-    boolean sortAsc = true;
-    if (majorSortDirection == OrderBy.OrderByDir.DESC) sortAsc = false;
-
-    // If startAfter is given then orderBy is required
-    if (!StringUtils.isBlank(startAfter) && StringUtils.isBlank(majorOrderBy))
-    {
-      throw new TapisException(LibUtils.getMsg("SYSLIB_DB_INVALID_SORT_START", SYSTEMS.getName()));
-    }
-
-// DEBUG Iterate over all columns and show the type
-//      Field<?>[] cols = SYSTEMS.fields();
-//      for (Field<?> col : cols) {
-//        var dataType = col.getDataType();
-//        int sqlType = dataType.getSQLType();
-//        String sqlTypeName = dataType.getTypeName();
-//        _log.debug("Column name: " + col.getName() + " type: " + sqlTypeName);
-//      }
-// DEBUG
-
-    // Determine and check orderBy column
-    Field<?> colOrderBy = SYSTEMS.field(DSL.name(SearchUtils.camelCaseToSnakeCase(majorOrderBy)));
-    if (!StringUtils.isBlank(majorOrderBy) && colOrderBy == null)
-    {
-      String msg = LibUtils.getMsg("SYSLIB_DB_NO_COLUMN_SORT", SYSTEMS.getName(), DSL.name(majorOrderBy));
-      throw new TapisException(msg);
-    }
-
-    // If no IDs in list then we are done.
-    if (setOfIDs != null && setOfIDs.isEmpty()) return retList;
-
-    // Begin where condition for the query
-    Condition whereCondition;
-    if (showDeleted) whereCondition = SYSTEMS.TENANT.eq(tenantId);
-    else whereCondition = (SYSTEMS.TENANT.eq(tenantId)).and(SYSTEMS.DELETED.eq(false));
-
-    // Add searchList or searchAST to where condition
-    if (searchList != null)
-    {
-      whereCondition = addSearchListToWhere(whereCondition, searchList);
-    }
-    else if (searchAST != null)
-    {
-      Condition astCondition = createConditionFromAst(searchAST);
-      if (astCondition != null) whereCondition = whereCondition.and(astCondition);
-    }
-
-    // Add startAfter
-    if (!StringUtils.isBlank(startAfter))
-    {
-      // Build search string so we can re-use code for checking and adding a condition
-      String searchStr;
-      if (sortAsc) searchStr = majorOrderBy + ".gt." + startAfter;
-      else searchStr = majorOrderBy + ".lt." + startAfter;
-      whereCondition = addSearchCondStrToWhere(whereCondition, searchStr, "AND");
-    }
-
-    // Add IN condition for list of IDs
-    if (setOfIDs != null && !setOfIDs.isEmpty()) whereCondition = whereCondition.and(SYSTEMS.ID.in(setOfIDs));
-
-    // ------------------------- Build and execute SQL ----------------------------
+    SystemVersionInfo result = null;
+    // ------------------------- Call SQL ----------------------------
     Connection conn = null;
     try
     {
       // Get a database connection.
       conn = getConnection();
-      DSLContext db = DSL.using(conn);
-
-      // Execute the select including limit, orderByAttrList, skip and startAfter
-      // NOTE: LIMIT + OFFSET is not standard among DBs and often very difficult to get right.
-      //       Jooq claims to handle it well.
-      Result<SystemsRecord> results;
-      org.jooq.SelectConditionStep<SystemsRecord> condStep = db.selectFrom(SYSTEMS).where(whereCondition);
-      if (!StringUtils.isBlank(majorOrderBy) &&  limit >= 0)
-      {
-        // We are ordering and limiting
-        if (sortAsc) results = condStep.orderBy(colOrderBy.asc()).limit(limit).offset(skip).fetch();
-        else results = condStep.orderBy(colOrderBy.desc()).limit(limit).offset(skip).fetch();
-      }
-      else if (!StringUtils.isBlank(majorOrderBy))
-      {
-        // We are ordering but not limiting
-        if (sortAsc) results = condStep.orderBy(colOrderBy.asc()).fetch();
-        else results = condStep.orderBy(colOrderBy.desc()).fetch();
-      }
-      else if (limit >= 0)
-      {
-        // We are limiting but not ordering
-        results = condStep.limit(limit).offset(skip).fetch();
-      }
-      else
-      {
-        // We are not limiting and not ordering
-        results = condStep.fetch();
-      }
-
-      if (results == null || results.isEmpty()) return retList;
-
-      // Fill in batch logical queues and job capabilities list from aux tables
-      // TODO: Looks like jOOQ has fetchGroups() which should allow us to retrieve LogicalQueues and Capabilities
-      //       in one call which might improve performance.
-      for (SystemsRecord r : results)
+      DSLContext db = newDSL(conn);
+      Record r = db.select(SYSTEMS.TENANT, SYSTEMS.ID, SYSTEMS.UUID, SYSTEMS.UPDATED, SYSTEMS.OWNER,
+                           SYSTEMS.EFFECTIVE_USER_ID, SYSTEMS.CAN_EXEC)
+                   .from(SYSTEMS).where(SYSTEMS.TENANT.eq(tenantId),SYSTEMS.ID.eq(id),SYSTEMS.DELETED.eq(false))
+                   .fetchOne();
+      // Convert updated using jOOQ conversion, the same as when mapping a record into a TSystem in getSystem,
+      //   so that both give identical values.
+      if (r != null)
       {
-        TSystem s = r.into(TSystem.class);
-        s.setJobRuntimes(retrieveJobRuntimes(db, s.getSeqId()));
-        s.setBatchLogicalQueues(retrieveLogicalQueues(db, s.getSeqId()));
-        s.setJobCapabilities(retrieveJobCaps(db, s.getSeqId()));
-        retList.add(s);
+        result = new SystemVersionInfo(r.get(SYSTEMS.TENANT), r.get(SYSTEMS.ID), r.get(SYSTEMS.UUID),
+                                       r.get(SYSTEMS.UPDATED, Instant.class), r.get(SYSTEMS.OWNER),
+                                       r.get(SYSTEMS.EFFECTIVE_USER_ID), r.get(SYSTEMS.CAN_EXEC));
       }
 
       // Close out and commit
@@ -1068,61 +989,92 @@ public class SystemsDaoImpl extends AbstractDao implements SystemsDao
     catch (Exception e)
     {
       // Rollback transaction and throw an exception
-      LibUtils.rollbackDB(conn, e,"DB_QUERY_ERROR", "systems", e.getMessage());
+      LibUtils.rollbackDB(conn, e,"DB_SELECT_NAME_ERROR", "System", tenantId, id, e.getMessage());
     }
     finally
     {
       // Always return the connection back to the connection pool.
       LibUtils.finalCloseDB(conn);
     }
-    return retList;
+    return result;
   }
 
   /**
-   * getSystemsSatisfyingConstraints
-   * Retrieve all TSystems satisfying capability constraint criteria.
-   *     Constraint criteria conditions provided as an abstract syntax tree (AST).
-   * @param tenantId - tenant name
-   * @param matchAST - AST containing match conditions. If null then nothing matches.
-   * @param setOfIDs - list of system IDs to consider. If null all allowed. If empty none allowed.
-   * @return - list of TSystem objects
+   * getSystemChanges
+   * Retrieve systems in a tenant that have been created, updated or deleted after a given change sequence value.
+   * Soft deleted systems are included. Systems that have been permanently removed, or that users may no longer
+   *   read, are returned as tombstones.
+   * Only changes from writes that have completed are returned. See awaitTenantWrites().
+   * Uses the (tenant, change_seq) indexes so only changed rows are read.
+   * @param tenantId - name of tenant
+   * @param since - change sequence value from a previous request, 0 to start from the beginning
+   * @param limit - maximum number of changes (systems plus tombstones) to return, must be positive
+   * @param readerName - user for whom tombstones are returned. null for a caller allowed to read all systems,
+   *                     in which case only tombstones of systems that have been permanently removed are returned.
+   * @return changes along with the token to use for the next request
    * @throws TapisException - on error
    */
   @Override
-  public List<TSystem> getSystemsSatisfyingConstraints(String tenantId, ASTNode matchAST, Set<String> setOfIDs)
+  public SystemChanges getSystemChanges(String tenantId, long since, int limit, String readerName)
           throws TapisException
   {
-    // TODO: might be possible to optimize this method with a join between systems and capabilities tables.
-    // The result list should always be non-null.
-    var retList = new ArrayList<TSystem>();
-
-    // If no match criteria or IDs list is empty then we are done.
-    if (matchAST == null || (setOfIDs != null && setOfIDs.isEmpty())) return retList;
-
-    // TODO/TBD: For now return all allowed systems. Once a shared util method is available for matching
-    //       as a first pass we can simply iterate through all systems to find matches.
-    //       For performance might need to later do matching with DB queries.
+    String opName = "getSystemChanges";
+    // ------------------------- Check Input -------------------------
+    if (StringUtils.isBlank(tenantId)) LibUtils.logAndThrowNullParmException(opName, "tenant");
 
-    // Get all desired capabilities (category, name) from AST
-    List<Capability> capabilitiesInAST = new ArrayList<>();
-    getCapabilitiesFromAST(matchAST, capabilitiesInAST);
+    var systems = new ArrayList<TSystem>();
+    var tombstones = new ArrayList<SystemTombstone>();
+    long nextToken = since;
+    boolean more = false;
 
-    List<TSystem> systemsList = null;
-    // ------------------------- Build and execute SQL ----------------------------
+    // ------------------------- Call SQL ----------------------------
     Connection conn = null;
     try
     {
       // Get a database connection.
       conn = getConnection();
-      DSLContext db = DSL.using(conn);
-
-      Set<String> allowedIDs = setOfIDs;
-      // If IDs is null then all allowed. Use tenant to get all system IDs
-      // TODO: might be able to optimize with a join somewhere
-      if (setOfIDs == null) allowedIDs = null; //TODO getAllSystemSeqIdsInTenant(db, tenant); still needed?
-
-      // Get all Systems that specify they support the desired Capabilities
-      systemsList = getSystemsHavingCapabilities(db, tenantId, capabilitiesInAST, allowedIDs);
+      DSLContext db = newDSL(conn);
+
+      // Changes up to this value are complete
+      long bound = awaitTenantWrites(db, tenantId, Sequences.SYSTEMS_CHANGE_SEQ);
+
+      // Tombstones for the reader, or only for removed systems if the caller may read all systems
+      Condition tombCondition = (readerName == null) ? SYSTEM_TOMBSTONES.REMOVED.isTrue()
+                                                      : SYSTEM_TOMBSTONES.READERS.contains(new String[] {readerName});
+      // Fetch one more than the limit from each table so we can tell if there are more changes.
+      Result<SystemsRecord> sysResults =
+              db.selectFrom(SYSTEMS)
+                .where(SYSTEMS.TENANT.eq(tenantId),SYSTEMS.CHANGE_SEQ.gt(since),SYSTEMS.CHANGE_SEQ.le(bound))
+                .orderBy(SYSTEMS.CHANGE_SEQ.asc()).limit(limit + 1).fetch();
+      Result<SystemTombstonesRecord> tombResults =
+              db.selectFrom(SYSTEM_TOMBSTONES)
+                .where(SYSTEM_TOMBSTONES.TENANT.eq(tenantId),SYSTEM_TOMBSTONES.CHANGE_SEQ.gt(since),
+                       SYSTEM_TOMBSTONES.CHANGE_SEQ.le(bound),tombCondition)
+                .orderBy(SYSTEM_TOMBSTONES.CHANGE_SEQ.asc()).limit(limit + 1).fetch();
+
+      // Merge the two lists in order of change sequence, stopping at the limit.
+      int i = 0, j = 0;
+      while (i + j < limit && (i < sysResults.size() || j < tombResults.size()))
+      {
+        long sysSeq = (i < sysResults.size()) ? sysResults.get(i).getChangeSeq() : Long.MAX_VALUE;
+        long tombSeq = (j < tombResults.size()) ? tombResults.get(j).getChangeSeq() : Long.MAX_VALUE;
+        if (sysSeq < tombSeq)
+        {
+          systems.add(sysResults.get(i++).into(TSystem.class));
+          nextToken = sysSeq;
+        }
+        else
+        {
+          SystemTombstonesRecord r = tombResults.get(j++);
+          tombstones.add(new SystemTombstone(r.getTenant(), r.getId(), r.getUuid(), r.getChangeSeq(),
+                                             r.get(SYSTEM_TOMBSTONES.CREATED, Instant.class)));
+          nextToken = tombSeq;
+        }
+      }
+      more = (i < sysResults.size() || j < tombResults.size());
+      // All changes up to the bound have been examined, so the next request can skip any gaps before it.
+      if (!more) nextToken = Math.max(nextToken, bound);
+      populateAuxData(db, systems);
 
       // Close out and commit
       LibUtils.closeAndCommitDB(conn, null, null);
@@ -1137,38 +1089,953 @@ public class SystemsDaoImpl extends AbstractDao implements SystemsDao
       // Always return the connection back to the connection pool.
       LibUtils.finalCloseDB(conn);
     }
+    return new SystemChanges(systems, tombstones, nextToken, more);
+  }
 
-    // If there was a problem the list to match against might be null
-    if (systemsList == null) return retList;
-
-    // TODO Select only those systems satisfying the constraints
+  /**
+   * getSystemEvents
+   * Retrieve events for systems in a tenant that were recorded after a given event token.
+   * Used to replay events missed by a client of the event stream. Events are in increasing order of token.
+   * @param tenantId - name of tenant
+   * @param afterToken - token of the last event received by the client, 0 to start from the beginning
+   * @param limit - maximum number of events to return, must be positive
+   * @return list of events
+   * @throws TapisException - on error
+   */
+  @Override
+  public List<SystemEvent> getSystemEvents(String tenantId, long afterToken, int limit) throws TapisException
+  {
+    String opName = "getSystemEvents";
+    // ------------------------- Check Input -------------------------
+    if (StringUtils.isBlank(tenantId)) LibUtils.logAndThrowNullParmException(opName, "tenant");
+
+    var events = new ArrayList<SystemEvent>();
+    // Tokens are sequence ids of the system_updates table which are integers
+    int afterSeqId = (int) Math.min(afterToken, Integer.MAX_VALUE);
+
+    // ------------------------- Call SQL ----------------------------
+    Connection conn = null;
+    try
+    {
+      // Get a database connection.
+      conn = getConnection();
+      DSLContext db = newDSL(conn);
+
+      // Events up to this token are complete
+      long bound = awaitTenantWrites(db, tenantId, Sequences.SYSTEM_UPDATES_SEQ_ID_SEQ);
+      Result<Record> results =
+              db.select(SYSTEM_UPDATES.SEQ_ID, SYSTEM_UPDATES.SYSTEM_TENANT, SYSTEM_UPDATES.SYSTEM_ID,
+                        SYSTEM_UPDATES.UUID, SYSTEM_UPDATES.OPERATION, SYSTEM_UPDATES.USER_NAME,
+                        SYSTEM_UPDATES.CREATED)
+                .from(SYSTEM_UPDATES)
+                .where(SYSTEM_UPDATES.SYSTEM_TENANT.eq(tenantId),SYSTEM_UPDATES.SEQ_ID.gt(afterSeqId),
+                       SYSTEM_UPDATES.SEQ_ID.le((int) Math.min(bound, Integer.MAX_VALUE)))
+                .orderBy(SYSTEM_UPDATES.SEQ_ID.asc()).limit(limit).fetch();
+      for (Record r : results)
+      {
+        events.add(new SystemEvent(r.get(SYSTEM_UPDATES.SEQ_ID), r.get(SYSTEM_UPDATES.SYSTEM_TENANT),
+                                   r.get(SYSTEM_UPDATES.SYSTEM_ID), r.get(SYSTEM_UPDATES.UUID),
+                                   r.get(SYSTEM_UPDATES.OPERATION), r.get(SYSTEM_UPDATES.USER_NAME),
+                                   r.get(SYSTEM_UPDATES.CREATED, Instant.class)));
+      }
+
+      // Close out and commit
+      LibUtils.closeAndCommitDB(conn, null, null);
+    }
+    catch (Exception e)
+    {
+      // Rollback transaction and throw an exception
+      LibUtils.rollbackDB(conn, e,"DB_QUERY_ERROR", "system_updates", e.getMessage());
+    }
+    finally
+    {
+      // Always return the connection back to the connection pool.
+      LibUtils.finalCloseDB(conn);
+    }
+    return events;
+  }
+
+  /**
+   * getSystemsCount
+   * Count all TSystems matching various search and sort criteria.
+   *     Search conditions given as a list of strings or an abstract syntax tree (AST).
+   * Conditions in searchList must be processed by SearchUtils.validateAndExtractSearchCondition(cond)
+   *   prior to this call for proper validation and treatment of special characters.
+   * WARNING: If both searchList and searchAST provided only searchList is used.
+   * @param tenantId - tenant name
+   * @param searchList - optional list of conditions used for searching
+   * @param searchAST - AST containing search conditions
+   * @param setOfIDs - list of system IDs to consider. null indicates no restriction.
+   * @param orderByList - orderBy entries for sorting, e.g. orderBy=created(desc).
+   * @param startAfter - where to start when sorting, e.g. orderBy=id(asc)&startAfter=101 (may not be used with skip)
+   * @param showDeleted - whether or not to included resources that have been marked as deleted.
+   * @return - count of TSystem objects
+   * @throws TapisException - on error
+   */
+  @Override
+  public int getSystemsCount(String tenantId, List<String> searchList, ASTNode searchAST, Set<String> setOfIDs,
+                             List<OrderBy> orderByList, String startAfter, boolean showDeleted)
+          throws TapisException
+  {
+    return countSystems(tenantId, searchList, searchAST, setOfIDs, null, orderByList, startAfter, showDeleted);
+  }
+
+  /**
+   * getSystemsCountReadableBy
+   * Count TSystems matching various search and sort criteria that a user may read according to the local
+   *   permission mirror. Visibility is determined by a join with the system_user_perms table.
+   * See getSystemsCount for description of other parameters.
+   * @param userName - user whose READ or MODIFY permissions restrict the systems counted
+   * @return - count of TSystem objects
+   * @throws TapisException - on error
+   */
+  @Override
+  public int getSystemsCountReadableBy(String tenantId, String userName, List<String> searchList, ASTNode searchAST,
+                                       List<OrderBy> orderByList, String startAfter, boolean showDeleted)
+          throws TapisException
+  {
+    if (StringUtils.isBlank(userName)) LibUtils.logAndThrowNullParmException("getSystemsCountReadableBy", "userName");
+    return countSystems(tenantId, searchList, searchAST, null, userName, orderByList, startAfter, showDeleted);
+  }
+
+  /**
+   * Count systems, restricted by a set of IDs or by the permissions of a user in the local permission mirror.
+   * See getSystemsCount for description of parameters.
+   */
+  private int countSystems(String tenantId, List<String> searchList, ASTNode searchAST, Set<String> setOfIDs,
+                           String readUser, List<OrderBy> orderByList, String startAfter, boolean showDeleted)
+          throws TapisException
+  {
+    // If no IDs in list then we are done.
+    if (setOfIDs != null && setOfIDs.isEmpty())
+    {
+      checkSortAndStart(orderByList, startAfter);
+      return 0;
+    }
+
+    // Build the where condition. This also validates search and sort criteria.
+    Condition whereCondition = buildCountCondition(tenantId, searchList, searchAST, setOfIDs, readUser, orderByList,
+                                                   startAfter, showDeleted);
+
+    // Check for a count computed since the last write to the tenant.
+    // Generation must be determined before the query is run so a concurrent write invalidates the result.
+    SystemsCountCache countCache = getSystemsCountCache();
+    SystemsCountCache.CountKey key = SystemsCountCache.buildKey(tenantId, getSearchKey(searchList, searchAST),
+                                                                setOfIDs, readUser, orderByList, startAfter,
+                                                                showDeleted);
+    Integer cachedCount = countCache.get(key);
+    if (cachedCount != null) return cachedCount;
+    long generation = countCache.getGeneration(tenantId);
+
+    // ------------------------- Build and execute SQL ----------------------------
+    int count = 0;
+    Connection conn = null;
+    try
+    {
+      // Get a database connection.
+      conn = getConnection();
+      DSLContext db = newDSL(conn);
+
+      // Execute the select including orderByAttrList, startAfter
+      count = db.selectCount().from(SYSTEMS).where(whereCondition).fetchOne(0,int.class);
+
+      // Close out and commit
+      LibUtils.closeAndCommitDB(conn, null, null);
+    }
+    catch (Exception e)
+    {
+      // Rollback transaction and throw an exception
+      LibUtils.rollbackDB(conn, e,"DB_QUERY_ERROR", "systems", e.getMessage());
+    }
+    finally
+    {
+      // Always return the connection back to the connection pool.
+      LibUtils.finalCloseDB(conn);
+    }
+    countCache.put(key, generation, count);
+    return count;
+  }
+
+  /**
+   * getSystemsCountEstimate
+   * Estimate the number of TSystems matching various search and sort criteria.
+   * If an exact count for the same criteria has been computed since the last write to the tenant then it is returned.
+   * Otherwise the row estimate from the Postgres query planner is returned. No rows are counted.
+   * See getSystemsCount for description of parameters.
+   * @return - count of TSystem objects and an indication of whether it is exact
+   * @throws TapisException - on error
+   */
+  @Override
+  public TotalCount getSystemsCountEstimate(String tenantId, List<String> searchList, ASTNode searchAST,
+                                            Set<String> setOfIDs, List<OrderBy> orderByList, String startAfter,
+                                            boolean showDeleted)
+          throws TapisException
+  {
+    return estimateSystemsCount(tenantId, searchList, searchAST, setOfIDs, null, orderByList, startAfter,
+                                showDeleted);
+  }
+
+  /**
+   * getSystemsCountEstimateReadableBy
+   * Estimate the number of TSystems matching various search and sort criteria that a user may read according to
+   *   the local permission mirror.
+   * See getSystemsCountEstimate and getSystemsCountReadableBy for description of parameters.
+   * @return - count of TSystem objects and an indication of whether it is exact
+   * @throws TapisException - on error
+   */
+  @Override
+  public TotalCount getSystemsCountEstimateReadableBy(String tenantId, String userName, List<String> searchList,
+                                                      ASTNode searchAST, List<OrderBy> orderByList, String startAfter,
+                                                      boolean showDeleted)
+          throws TapisException
+  {
+    if (StringUtils.isBlank(userName))
+      LibUtils.logAndThrowNullParmException("getSystemsCountEstimateReadableBy", "userName");
+    return estimateSystemsCount(tenantId, searchList, searchAST, null, userName, orderByList, startAfter,
+                                showDeleted);
+  }
+
+  /**
+   * Estimate a count of systems, restricted by a set of IDs or by the permissions of a user in the local
+   *   permission mirror. See getSystemsCountEstimate for description of parameters.
+   */
+  private TotalCount estimateSystemsCount(String tenantId, List<String> searchList, ASTNode searchAST,
+                                          Set<String> setOfIDs, String readUser, List<OrderBy> orderByList,
+                                          String startAfter, boolean showDeleted)
+          throws TapisException
+  {
+    // If no IDs in list then we are done.
+    if (setOfIDs != null && setOfIDs.isEmpty())
+    {
+      checkSortAndStart(orderByList, startAfter);
+      return new TotalCount(0, true);
+    }
+
+    // Build the where condition. This also validates search and sort criteria.
+    Condition whereCondition = buildCountCondition(tenantId, searchList, searchAST, setOfIDs, readUser, orderByList,
+                                                   startAfter, showDeleted);
+
+    // Use an exact count if we have one
+    SystemsCountCache.CountKey key = SystemsCountCache.buildKey(tenantId, getSearchKey(searchList, searchAST),
+                                                                setOfIDs, readUser, orderByList, startAfter,
+                                                                showDeleted);
+    Integer cachedCount = getSystemsCountCache().get(key);
+    if (cachedCount != null) return new TotalCount(cachedCount, true);
+
+    // ------------------------- Build and execute SQL ----------------------------
+    double estimate = 0;
+    Connection conn = null;
+    try
+    {
+      // Get a database connection.
+      conn = getConnection();
+      DSLContext db = newDSL(conn);
+
+      // Ask the planner for the estimated number of rows. The query is not executed.
+      estimate = db.explain(db.selectFrom(SYSTEMS).where(whereCondition)).rows();
+
+      // Close out and commit
+      LibUtils.closeAndCommitDB(conn, null, null);
+    }
+    catch (Exception e)
+    {
+      // Rollback transaction and throw an exception
+      LibUtils.rollbackDB(conn, e,"DB_QUERY_ERROR", "systems", e.getMessage());
+    }
+    finally
+    {
+      // Always return the connection back to the connection pool.
+      LibUtils.finalCloseDB(conn);
+    }
+    // Planner estimates may be fractional and are never exact
+    int count = (int) Math.min(Integer.MAX_VALUE, Math.max(0L, Math.round(estimate)));
+    return new TotalCount(count, false);
+  }
+
+  /**
+   * getSystemsFacets
+   * Count TSystems matching search criteria grouped by the value of each requested attribute.
+   * One GROUP BY query is run for each attribute. No TSystem objects are created.
+   * Conditions in searchList must be processed by SearchUtils.validateAndExtractSearchCondition(cond)
+   *   prior to this call for proper validation and treatment of special characters.
+   * WARNING: If both searchList and searchAST provided only searchList is used.
+   * @param tenantId - tenant name
+   * @param searchList - optional list of conditions used for searching
+   * @param searchAST - AST containing search conditions
+   * @param setOfIDs - list of system IDs to consider. null indicates no restriction.
+   * @param facetList - attributes for which to compute counts, must be in TSystem.FACET_FIELDS as camelCase or snake_case
+   * @param showDeleted - whether or not to included resources that have been marked as deleted.
+   * @return - map of attribute name to map of value to count. A null value is reported as "null".
+   * @throws TapisException - on error
+   */
+  @Override
+  public Map<String, Map<String, Integer>> getSystemsFacets(String tenantId, List<String> searchList,
+                                                            ASTNode searchAST, Set<String> setOfIDs,
+                                                            List<String> facetList, boolean showDeleted)
+          throws TapisException
+  {
+    // The result should always be non-null and have an entry for each requested attribute.
+    var facetMap = new LinkedHashMap<String, Map<String, Integer>>();
+    var facetFields = new LinkedHashMap<String, Field<?>>();
+    if (facetList == null) return facetMap;
+    for (String facet : facetList)
+    {
+      SystemsColumns.Column colInfo = SystemsColumns.getFacetColumn(facet);
+      if (colInfo == null)
+      {
+        throw new TapisException(LibUtils.getMsg("SYSLIB_DB_INVALID_FACET", SYSTEMS.getName(), facet));
+      }
+      facetFields.put(colInfo.getAttributeName(), colInfo.getField());
+      facetMap.put(colInfo.getAttributeName(), new LinkedHashMap<>());
+    }
+
+    // If no IDs in list then we are done.
+    if (facetFields.isEmpty() || (setOfIDs != null && setOfIDs.isEmpty())) return facetMap;
+
+    // Build the where condition. This also validates search criteria.
+    Condition whereCondition = buildCountCondition(tenantId, searchList, searchAST, setOfIDs, null, null, null,
+                                                   showDeleted);
+
+    // ------------------------- Build and execute SQL ----------------------------
+    Connection conn = null;
+    try
+    {
+      // Get a database connection.
+      conn = getConnection();
+      DSLContext db = newDSL(conn);
+
+      // Count by value for each attribute, largest buckets first
+      for (var entry : facetFields.entrySet())
+      {
+        Field<?> col = entry.getValue();
+        Field<Integer> cnt = DSL.count();
+        Result<? extends Record> results = db.select(col, cnt).from(SYSTEMS).where(whereCondition)
+                                             .groupBy(col).orderBy(cnt.desc(), col.asc()).fetch();
+        Map<String, Integer> buckets = facetMap.get(entry.getKey());
+        for (Record r : results) { buckets.put(String.valueOf(r.get(col)), r.get(cnt)); }
+      }
+
+      // Close out and commit
+      LibUtils.closeAndCommitDB(conn, null, null);
+    }
+    catch (Exception e)
+    {
+      // Rollback transaction and throw an exception
+      LibUtils.rollbackDB(conn, e,"DB_QUERY_ERROR", "systems", e.getMessage());
+    }
+    finally
+    {
+      // Always return the connection back to the connection pool.
+      LibUtils.finalCloseDB(conn);
+    }
+    return facetMap;
+  }
+
+  /**
+   * getSystems
+   * Retrieve all TSystems matching various search and sort criteria.
+   *     Search conditions given as a list of strings or an abstract syntax tree (AST).
+   * Conditions in searchList must be processed by SearchUtils.validateAndExtractSearchCondition(cond)
+   *   prior to this call for proper validation and treatment of special characters.
+   * WARNING: If both searchList and searchAST provided only searchList is used.
+   * @param tenantId - tenant name
+   * @param searchList - optional list of conditions used for searching
+   * @param searchAST - AST containing search conditions
+   * @param setOfIDs - list of system IDs to consider. null indicates no restriction.
+   * @param limit - indicates maximum number of results to be included, -1 for unlimited
+   * @param orderByList - orderBy entries for sorting, e.g. orderBy=created(desc).
+   * @param skip - number of results to skip (may not be used with startAfter)
+   * @param startAfter - where to start when sorting, e.g. limit=10&orderBy=id(asc)&startAfter=101 (may not be used with skip)
+   * @param showDeleted - whether or not to included resources that have been marked as deleted.
+   * @return - list of TSystem objects
+   * @throws TapisException - on error
+   */
+  @Override
+  public List<TSystem> getSystems(String tenantId, List<String> searchList, ASTNode searchAST, Set<String> setOfIDs,
+                             int limit, List<OrderBy> orderByList, int skip, String startAfter, boolean showDeleted)
+          throws TapisException
+  {
+    return retrieveSystems(tenantId, searchList, searchAST, setOfIDs, null, limit, orderByList, skip, startAfter,
+                           showDeleted);
+  }
+
+  /**
+   * getSystemsReadableBy
+   * Retrieve all TSystems matching various search and sort criteria that a user may read according to the local
+   *   permission mirror. Visibility is determined by a join with the system_user_perms table.
+   * See getSystems for description of other parameters.
+   * @param userName - user whose READ or MODIFY permissions restrict the systems returned
+   * @return - list of TSystem objects
+   * @throws TapisException - on error
+   */
+  @Override
+  public List<TSystem> getSystemsReadableBy(String tenantId, String userName, List<String> searchList,
+                                            ASTNode searchAST, int limit, List<OrderBy> orderByList, int skip,
+                                            String startAfter, boolean showDeleted)
+          throws TapisException
+  {
+    if (StringUtils.isBlank(userName)) LibUtils.logAndThrowNullParmException("getSystemsReadableBy", "userName");
+    return retrieveSystems(tenantId, searchList, searchAST, null, userName, limit, orderByList, skip, startAfter,
+                           showDeleted);
+  }
+
+  /**
+   * Retrieve systems, restricted by a set of IDs or by the permissions of a user in the local permission mirror.
+   * See getSystems for description of parameters.
+   */
+  private List<TSystem> retrieveSystems(String tenantId, List<String> searchList, ASTNode searchAST,
+                                        Set<String> setOfIDs, String readUser, int limit, List<OrderBy> orderByList,
+                                        int skip, String startAfter, boolean showDeleted)
+          throws TapisException
+  {
+    // TODO - for now just use the major (i.e. first in list) orderBy item.
+    String majorOrderBy = null;
+    OrderByDir majorSortDirection = DEFAULT_ORDERBY_DIRECTION;
+    if (orderByList != null && !orderByList.isEmpty())
+    {
+      majorOrderBy = orderByList.get(0).getOrderByAttr();
+      majorSortDirection = orderByList.get(0).getOrderByDir();
+    }
+
+    // The result list should always be non-null.
+    var retList = new ArrayList<TSystem>();
+
+    // Negative skip indicates no skip
+    if (skip < 0) skip = 0;
+
+    boolean sortAsc = true;
+    if (majorSortDirection == OrderBy.OrderByDir.DESC) sortAsc = false;
+
+    // If startAfter is given then orderBy is required
+    if (!StringUtils.isBlank(startAfter) && StringUtils.isBlank(majorOrderBy))
+    {
+      throw new TapisException(LibUtils.getMsg("SYSLIB_DB_INVALID_SORT_START", SYSTEMS.getName()));
+    }
+
+// DEBUG Iterate over all columns and show the type
+//      Field<?>[] cols = SYSTEMS.fields();
+//      for (Field<?> col : cols) {
+//        var dataType = col.getDataType();
+//        int sqlType = dataType.getSQLType();
+//        String sqlTypeName = dataType.getTypeName();
+//        _log.debug("Column name: " + col.getName() + " type: " + sqlTypeName);
+//      }
+// DEBUG
+
+    // Determine and check orderBy column. If orderBy column not found then it is an error
+    Field<?> colOrderBy = SystemsColumns.getSortField(majorOrderBy);
+
+    // If no IDs in list then we are done.
+    if (setOfIDs != null && setOfIDs.isEmpty()) return retList;
+
+    // Begin where condition for the query
+    Condition whereCondition;
+    if (showDeleted) whereCondition = SYSTEMS.TENANT.eq(tenantId);
+    else whereCondition = (SYSTEMS.TENANT.eq(tenantId)).and(SYSTEMS.DELETED.eq(false));
+
+    // Add searchList or searchAST to where condition
+    Condition searchCondition = getSearchCondition(searchList, searchAST);
+    if (searchCondition != null) whereCondition = whereCondition.and(searchCondition);
+
+    // Add startAfter
+    if (!StringUtils.isBlank(startAfter))
+    {
+      // Build search string so we can re-use code for checking and adding a condition
+      String searchStr;
+      if (sortAsc) searchStr = majorOrderBy + ".gt." + startAfter;
+      else searchStr = majorOrderBy + ".lt." + startAfter;
+      whereCondition = addSearchCondStrToWhere(whereCondition, searchStr, "AND");
+    }
+
+    // Add IN condition for list of IDs
+    if (setOfIDs != null && !setOfIDs.isEmpty()) whereCondition = whereCondition.and(SYSTEMS.ID.in(setOfIDs));
+    // Add condition for systems the user may read
+    if (readUser != null) whereCondition = whereCondition.and(readableByCondition(tenantId, readUser));
+
+    // ------------------------- Build and execute SQL ----------------------------
+    Connection conn = null;
+    try
+    {
+      // Get a database connection.
+      conn = getConnection();
+      DSLContext db = newDSL(conn);
+
+      // Execute the select including limit, orderByAttrList, skip and startAfter
+      // NOTE: LIMIT + OFFSET is not standard among DBs and often very difficult to get right.
+      //       Jooq claims to handle it well.
+      Result<SystemsRecord> results;
+      org.jooq.SelectConditionStep<SystemsRecord> condStep = db.selectFrom(SYSTEMS).where(whereCondition);
+      if (!StringUtils.isBlank(majorOrderBy) &&  limit >= 0)
+      {
+        // We are ordering and limiting
+        if (sortAsc) results = condStep.orderBy(colOrderBy.asc()).limit(limit).offset(skip).fetch();
+        else results = condStep.orderBy(colOrderBy.desc()).limit(limit).offset(skip).fetch();
+      }
+      else if (!StringUtils.isBlank(majorOrderBy))
+      {
+        // We are ordering but not limiting
+        if (sortAsc) results = condStep.orderBy(colOrderBy.asc()).fetch();
+        else results = condStep.orderBy(colOrderBy.desc()).fetch();
+      }
+      else if (limit >= 0)
+      {
+        // We are limiting but not ordering
+        results = condStep.limit(limit).offset(skip).fetch();
+      }
+      else
+      {
+        // We are not limiting and not ordering
+        results = condStep.fetch();
+      }
+
+      if (results == null || results.isEmpty()) return retList;
+
+      // Fill in job runtimes, batch logical queues and job capabilities from aux tables, one query per table
+      for (SystemsRecord r : results) { retList.add(r.into(TSystem.class)); }
+      populateAuxData(db, retList);
+
+      // Close out and commit
+      LibUtils.closeAndCommitDB(conn, null, null);
+    }
+    catch (Exception e)
+    {
+      // Rollback transaction and throw an exception
+      LibUtils.rollbackDB(conn, e,"DB_QUERY_ERROR", "systems", e.getMessage());
+    }
+    finally
+    {
+      // Always return the connection back to the connection pool.
+      LibUtils.finalCloseDB(conn);
+    }
+    return retList;
+  }
+
+  /**
+   * getSystemsSatisfyingConstraints
+   * Retrieve all TSystems satisfying capability constraint criteria.
+   *     Constraint criteria conditions provided as an abstract syntax tree (AST).
+   * @param tenantId - tenant name
+   * @param matchAST - AST containing match conditions. If null then nothing matches.
+   * @param setOfIDs - list of system IDs to consider. If null all allowed. If empty none allowed.
+   * @return - list of TSystem objects
+   * @throws TapisException - on error
+   */
+  @Override
+  public List<TSystem> getSystemsSatisfyingConstraints(String tenantId, ASTNode matchAST, Set<String> setOfIDs)
+          throws TapisException
+  {
+    // TODO: might be possible to optimize this method with a join between systems and capabilities tables.
+    // The result list should always be non-null.
+    var retList = new ArrayList<TSystem>();
+
+    // If no match criteria or IDs list is empty then we are done.
+    if (matchAST == null || (setOfIDs != null && setOfIDs.isEmpty())) return retList;
+
+    // TODO/TBD: For now return all allowed systems. Once a shared util method is available for matching
+    //       as a first pass we can simply iterate through all systems to find matches.
+    //       For performance might need to later do matching with DB queries.
+
+    // Get all desired capabilities (category, name) from AST
+    List<Capability> capabilitiesInAST = new ArrayList<>();
+    getCapabilitiesFromAST(matchAST, capabilitiesInAST);
+
+    List<TSystem> systemsList = null;
+    // ------------------------- Build and execute SQL ----------------------------
+    Connection conn = null;
+    try
+    {
+      // Get a database connection.
+      conn = getConnection();
+      DSLContext db = newDSL(conn);
+
+      // Get all Systems that specify they support the desired Capabilities
+      // If IDs is null then all systems in the tenant are allowed and no ID restriction is applied.
+      systemsList = getSystemsHavingCapabilities(db, tenantId, capabilitiesInAST, setOfIDs);
+
+      // Close out and commit
+      LibUtils.closeAndCommitDB(conn, null, null);
+    }
+    catch (Exception e)
+    {
+      // Rollback transaction and throw an exception
+      LibUtils.rollbackDB(conn, e,"DB_QUERY_ERROR", "systems", e.getMessage());
+    }
+    finally
+    {
+      // Always return the connection back to the connection pool.
+      LibUtils.finalCloseDB(conn);
+    }
+
+    // If there was a problem the list to match against might be null
+    if (systemsList == null) return retList;
+
+    // TODO Select only those systems satisfying the constraints
     for (TSystem sys : systemsList)
     {
-// TODO      if (systemMatchesConstraints(sys, matchAST)) retList.add(sys);
-      retList.add(sys);
+// TODO      if (systemMatchesConstraints(sys, matchAST)) retList.add(sys);
+      retList.add(sys);
+    }
+    return retList;
+  }
+
+  /**
+   * getSystemOwner
+   * @param tenantId - name of tenant
+   * @param id - name of system
+   * @return Owner or null if no system found
+   * @throws TapisException - on error
+   */
+  @Override
+  public String getSystemOwner(String tenantId, String id) throws TapisException
+  {
+    String owner = null;
+    // ------------------------- Call SQL ----------------------------
+    Connection conn = null;
+    try
+    {
+      // Get a database connection.
+      conn = getConnection();
+      DSLContext db = newDSL(conn);
+      owner = db.selectFrom(SYSTEMS).where(SYSTEMS.TENANT.eq(tenantId),SYSTEMS.ID.eq(id)).fetchOne(SYSTEMS.OWNER);
+
+      // Close out and commit
+      LibUtils.closeAndCommitDB(conn, null, null);
+    }
+    catch (Exception e)
+    {
+      // Rollback transaction and throw an exception
+      LibUtils.rollbackDB(conn, e,"DB_QUERY_ERROR", "systems", e.getMessage());
+    }
+    finally
+    {
+      // Always return the connection back to the connection pool.
+      LibUtils.finalCloseDB(conn);
+    }
+    return owner;
+  }
+
+  /**
+   * getSystemEffectiveUserId
+   * @param tenantId - name of tenant
+   * @param id - name of system
+   * @return EffectiveUserId or null if no system found
+   * @throws TapisException - on error
+   */
+  @Override
+  public String getSystemEffectiveUserId(String tenantId, String id) throws TapisException
+  {
+    String effectiveUserId = null;
+
+    // ------------------------- Call SQL ----------------------------
+    Connection conn = null;
+    try
+    {
+      // Get a database connection.
+      conn = getConnection();
+      DSLContext db = newDSL(conn);
+      effectiveUserId = db.selectFrom(SYSTEMS).where(SYSTEMS.TENANT.eq(tenantId),SYSTEMS.ID.eq(id)).fetchOne(SYSTEMS.EFFECTIVE_USER_ID);
+
+      // Close out and commit
+      LibUtils.closeAndCommitDB(conn, null, null);
+    }
+    catch (Exception e)
+    {
+      // Rollback transaction and throw an exception
+      LibUtils.rollbackDB(conn, e,"DB_QUERY_ERROR", "systems", e.getMessage());
+    }
+    finally
+    {
+      // Always return the connection back to the connection pool.
+      LibUtils.finalCloseDB(conn);
+    }
+    return effectiveUserId;
+  }
+
+  /**
+   * getSystemDefaultAuthnMethod
+   * @param tenantId - name of tenant
+   * @param id - name of system
+   * @return Default AuthnMethod or null if no system found
+   * @throws TapisException - on error
+   */
+  @Override
+  public AuthnMethod getSystemDefaultAuthnMethod(String tenantId, String id) throws TapisException
+  {
+    AuthnMethod authnMethod = null;
+    // ------------------------- Call SQL ----------------------------
+    Connection conn = null;
+    try
+    {
+      // Get a database connection.
+      conn = getConnection();
+      DSLContext db = newDSL(conn);
+      authnMethod = db.selectFrom(SYSTEMS).where(SYSTEMS.TENANT.eq(tenantId),SYSTEMS.ID.eq(id)).fetchOne(SYSTEMS.DEFAULT_AUTHN_METHOD);
+
+      // Close out and commit
+      LibUtils.closeAndCommitDB(conn, null, null);
+    }
+    catch (Exception e)
+    {
+      // Rollback transaction and throw an exception
+      LibUtils.rollbackDB(conn, e,"DB_QUERY_ERROR", "systems", e.getMessage());
+    }
+    finally
+    {
+      // Always return the connection back to the connection pool.
+      LibUtils.finalCloseDB(conn);
+    }
+    return authnMethod;
+  }
+
+  /**
+   * Add an update record given the system Id and operation type
+   *
+   */
+  @Override
+  public void addUpdateRecord(ResourceRequestUser rUser, String tenant, String id, SystemOperation op,
+                              String upd_json, String upd_text) throws TapisException
+  {
+    // ------------------------- Call SQL ----------------------------
+    Connection conn = null;
+    try
+    {
+      // Get a database connection.
+      conn = getConnection();
+      DSLContext db = newDSL(conn);
+      // Register the write so that readers of events wait for it to complete
+      lockTenantWrites(db, tenant);
+      SystemEvent event = addUpdate(db, rUser, tenant, id, INVALID_SEQ_ID, op, upd_json, upd_text,
+                getUUIDUsingDb(db, tenant, id));
+      notifyWrite(db, tenant, id, 0L, event);
+
+      // Close out and commit
+      LibUtils.closeAndCommitDB(conn, null, null);
+      publishEvent(event);
+    }
+    catch (Exception e)
+    {
+      // Rollback transaction and throw an exception
+      LibUtils.rollbackDB(conn, e,"DB_INSERT_FAILURE", "systems");
+    }
+    finally
+    {
+      // Always return the connection back to the connection pool.
+      LibUtils.finalCloseDB(conn);
+    }
+  }
+
+  /**
+   * Add an update record for each of a set of systems, all with the same operation and update content.
+   * All records are written in a single transaction. Systems that do not exist are skipped.
+   */
+  @Override
+  public void addUpdateRecords(ResourceRequestUser rUser, String tenant, Collection<String> ids, SystemOperation op,
+                               String upd_json, String upd_text) throws TapisException
+  {
+    if (ids == null || ids.isEmpty()) return;
+    var events = new ArrayList<SystemEvent>();
+    // ------------------------- Call SQL ----------------------------
+    Connection conn = null;
+    try
+    {
+      // Get a database connection.
+      conn = getConnection();
+      DSLContext db = newDSL(conn);
+      // Register the write so that readers of events wait for it to complete
+      lockTenantWrites(db, tenant);
+      // Look up seqId and uuid for all systems at once
+      Result<Record3<String, Integer, UUID>> results =
+              db.select(SYSTEMS.ID, SYSTEMS.SEQ_ID, SYSTEMS.UUID).from(SYSTEMS)
+                .where(SYSTEMS.TENANT.eq(tenant), SYSTEMS.ID.in(ids)).fetch();
+      for (Record3<String, Integer, UUID> r : results)
+      {
+        SystemEvent event = addUpdate(db, rUser, tenant, r.value1(), r.value2(), op, upd_json, upd_text, r.value3());
+        notifyWrite(db, tenant, r.value1(), 0L, event);
+        events.add(event);
+      }
+
+      // Close out and commit
+      LibUtils.closeAndCommitDB(conn, null, null);
+      for (SystemEvent event : events) publishEvent(event);
+    }
+    catch (Exception e)
+    {
+      // Rollback transaction and throw an exception
+      LibUtils.rollbackDB(conn, e,"DB_INSERT_FAILURE", "systems");
+    }
+    finally
+    {
+      // Always return the connection back to the connection pool.
+      LibUtils.finalCloseDB(conn);
+    }
+  }
+  /**
+   * Record a change to the permissions users hold for systems so that clients using delta sync see it.
+   * Each system is given a new change sequence value so that users who may now read it receive it.
+   * If users may have lost access then a tombstone listing them is recorded for each system. The service only
+   *   returns it to those users that may no longer read the system.
+   * All changes are made in a single transaction. Systems that do not exist are skipped.
+   * @param tenantId - tenant
+   * @param ids - systems for which permissions changed
+   * @param revokedUsers - users who may have lost access, empty if permissions were only granted
+   */
+  @Override
+  public void recordPermissionChange(String tenantId, Collection<String> ids, Collection<String> revokedUsers)
+          throws TapisException
+  {
+    if (ids == null || ids.isEmpty()) return;
+    var changedIds = new ArrayList<String>();
+    // ------------------------- Call SQL ----------------------------
+    Connection conn = null;
+    try
+    {
+      // Get a database connection.
+      conn = getConnection();
+      DSLContext db = newDSL(conn);
+      Result<Record2<String, UUID>> results =
+              db.select(SYSTEMS.ID, SYSTEMS.UUID).from(SYSTEMS)
+                .where(SYSTEMS.TENANT.eq(tenantId), SYSTEMS.ID.in(ids)).fetch();
+      String[] readers = (revokedUsers == null) ? new String[0] : revokedUsers.toArray(new String[0]);
+      for (Record2<String, UUID> r : results)
+      {
+        String id = r.value1();
+        long changeSeq = nextChangeSeq(db, tenantId);
+        db.update(SYSTEMS).set(SYSTEMS.CHANGE_SEQ, changeSeq)
+                .where(SYSTEMS.TENANT.eq(tenantId),SYSTEMS.ID.eq(id)).execute();
+        if (readers.length > 0)
+        {
+          changeSeq = nextChangeSeq(db, tenantId);
+          db.insertInto(SYSTEM_TOMBSTONES)
+                  .set(SYSTEM_TOMBSTONES.TENANT, tenantId)
+                  .set(SYSTEM_TOMBSTONES.ID, id)
+                  .set(SYSTEM_TOMBSTONES.UUID, r.value2())
+                  .set(SYSTEM_TOMBSTONES.READERS, readers)
+                  .set(SYSTEM_TOMBSTONES.REMOVED, false)
+                  .set(SYSTEM_TOMBSTONES.CHANGE_SEQ, changeSeq)
+                  .execute();
+        }
+        // One notification covers both changes
+        notifyWrite(db, tenantId, id, changeSeq, null);
+        changedIds.add(id);
+      }
+
+      // Close out and commit
+      LibUtils.closeAndCommitDB(conn, null, null);
+      for (String id : changedIds) noteSystemWrite(tenantId, id);
+    }
+    catch (Exception e)
+    {
+      // Rollback transaction and throw an exception
+      LibUtils.rollbackDB(conn, e,"DB_UPDATE_FAILURE", "systems");
+    }
+    finally
+    {
+      // Always return the connection back to the connection pool.
+      LibUtils.finalCloseDB(conn);
+    }
+  }
+
+
+  /**
+   * Add rows to the local permission mirror for all combinations of systems, users and permissions.
+   * Rows already present, including rows marked as revoked, are marked as granted and given a new version.
+   * @param tenantId - tenant
+   * @param ids - systems, or * for all systems
+   * @param userNames - users holding the permissions
+   * @param perms - permission names, or * for all permissions
+   * @throws TapisException - on error
+   */
+  @Override
+  public void addUserPerms(String tenantId, Collection<String> ids, Collection<String> userNames,
+                           Collection<String> perms) throws TapisException
+  {
+    if (ids == null || ids.isEmpty() || userNames == null || userNames.isEmpty() || perms == null || perms.isEmpty())
+      return;
+    upsertUserPerms(tenantId, ids, userNames, perms, false);
+  }
+
+  /**
+   * Mark rows in the local permission mirror as revoked for all combinations of systems, users and permissions.
+   * Only exact matches are revoked, as for a revoke in SK. Revoked rows are given a new version so that a
+   *   reconciliation using permissions fetched from SK before the revoke does not grant them again. Revoked rows
+   *   are removed by the next reconciliation for the user.
+   * @param tenantId - tenant
+   * @param ids - systems
+   * @param userNames - users holding the permissions
+   * @param perms - permission names
+   * @return number of rows revoked
+   * @throws TapisException - on error
+   */
+  @Override
+  public int removeUserPerms(String tenantId, Collection<String> ids, Collection<String> userNames,
+                             Collection<String> perms) throws TapisException
+  {
+    if (ids == null || ids.isEmpty() || userNames == null || userNames.isEmpty() || perms == null || perms.isEmpty())
+      return 0;
+    return upsertUserPerms(tenantId, ids, userNames, perms, true);
+  }
+
+  /**
+   * Mark all rows for a system in the local permission mirror as revoked
+   * @param tenantId - tenant
+   * @param id - system
+   * @return number of rows revoked
+   * @throws TapisException - on error
+   */
+  @Override
+  public int removeAllUserPerms(String tenantId, String id) throws TapisException
+  {
+    int rows = 0;
+    // ------------------------- Call SQL ----------------------------
+    Connection conn = null;
+    try
+    {
+      // Get a database connection.
+      conn = getConnection();
+      DSLContext db = newDSL(conn);
+      rows = db.update(SYSTEM_USER_PERMS)
+               .set(SYSTEM_USER_PERMS.REVOKED, true)
+               .set(SYSTEM_USER_PERMS.VERSION, Sequences.SYSTEM_USER_PERMS_VERSION_SEQ.nextval())
+               .where(SYSTEM_USER_PERMS.TENANT.eq(tenantId), SYSTEM_USER_PERMS.SYSTEM_ID.eq(id),
+                      SYSTEM_USER_PERMS.REVOKED.isFalse()).execute();
+
+      // Close out and commit
+      LibUtils.closeAndCommitDB(conn, null, null);
+      getSystemsCountCache().incrementGeneration(tenantId);
+    }
+    catch (Exception e)
+    {
+      // Rollback transaction and throw an exception
+      LibUtils.rollbackDB(conn, e,"DB_UPDATE_FAILURE", "system_user_perms", id);
     }
-    return retList;
+    finally
+    {
+      // Always return the connection back to the connection pool.
+      LibUtils.finalCloseDB(conn);
+    }
+    return rows;
   }
 
   /**
-   * getSystemOwner
-   * @param tenantId - name of tenant
-   * @param id - name of system
-   * @return Owner or null if no system found
+   * Get a new version for the local permission mirror. Versions are taken from a DB sequence, so they are
+   *   ordered across all instances of the service.
+   * Reconciliation gets a version before fetching the permissions of a user from SK and passes it to
+   *   replaceUserPerms. Any grant or revoke written to the mirror after that has a higher version.
+   * @return new version
    * @throws TapisException - on error
    */
   @Override
-  public String getSystemOwner(String tenantId, String id) throws TapisException
+  public long getUserPermsVersion() throws TapisException
   {
-    String owner = null;
+    long version = -1L;
     // ------------------------- Call SQL ----------------------------
     Connection conn = null;
     try
     {
       // Get a database connection.
       conn = getConnection();
-      DSLContext db = DSL.using(conn);
-      owner = db.selectFrom(SYSTEMS).where(SYSTEMS.TENANT.eq(tenantId),SYSTEMS.ID.eq(id)).fetchOne(SYSTEMS.OWNER);
+      DSLContext db = newDSL(conn);
+      version = db.nextval(Sequences.SYSTEM_USER_PERMS_VERSION_SEQ);
 
       // Close out and commit
       LibUtils.closeAndCommitDB(conn, null, null);
@@ -1176,72 +2043,97 @@ public class SystemsDaoImpl extends AbstractDao implements SystemsDao
     catch (Exception e)
     {
       // Rollback transaction and throw an exception
-      LibUtils.rollbackDB(conn, e,"DB_QUERY_ERROR", "systems", e.getMessage());
+      LibUtils.rollbackDB(conn, e,"DB_QUERY_ERROR", "system_user_perms_version_seq", e.getMessage());
     }
     finally
     {
       // Always return the connection back to the connection pool.
       LibUtils.finalCloseDB(conn);
     }
-    return owner;
+    return version;
   }
 
   /**
-   * getSystemEffectiveUserId
-   * @param tenantId - name of tenant
-   * @param id - name of system
-   * @return EffectiveUserId or null if no system found
+   * Replace all rows for a user in the local permission mirror with permissions fetched from SK.
+   * Rows granted or revoked after the version was taken, for example by a concurrent grant or revoke, are kept
+   *   unchanged. All other rows for the user are removed, including rows marked as revoked.
+   * @param tenantId - tenant
+   * @param userName - user
+   * @param permsById - map of system, or * for all systems, to permission names, or * for all permissions
+   * @param fetchedVersion - version from getUserPermsVersion, taken before the permissions were fetched from SK
    * @throws TapisException - on error
    */
   @Override
-  public String getSystemEffectiveUserId(String tenantId, String id) throws TapisException
+  public void replaceUserPerms(String tenantId, String userName, Map<String, Set<String>> permsById,
+                               long fetchedVersion) throws TapisException
   {
-    String effectiveUserId = null;
-
     // ------------------------- Call SQL ----------------------------
     Connection conn = null;
     try
     {
       // Get a database connection.
       conn = getConnection();
-      DSLContext db = DSL.using(conn);
-      effectiveUserId = db.selectFrom(SYSTEMS).where(SYSTEMS.TENANT.eq(tenantId),SYSTEMS.ID.eq(id)).fetchOne(SYSTEMS.EFFECTIVE_USER_ID);
+      DSLContext db = newDSL(conn);
+      // Upsert rows for the fetched permissions first. An upsert waits for a concurrent grant or revoke of the
+      //   same row, so a later revoke is never overwritten.
+      if (permsById != null && !permsById.isEmpty())
+      {
+        var insert = db.insertInto(SYSTEM_USER_PERMS, SYSTEM_USER_PERMS.TENANT, SYSTEM_USER_PERMS.USER_NAME,
+                                   SYSTEM_USER_PERMS.SYSTEM_ID, SYSTEM_USER_PERMS.PERMISSION,
+                                   SYSTEM_USER_PERMS.VERSION, SYSTEM_USER_PERMS.REVOKED);
+        for (Map.Entry<String, Set<String>> entry : permsById.entrySet())
+        {
+          for (String perm : entry.getValue())
+            insert = insert.values(tenantId, userName, entry.getKey(), perm, fetchedVersion, false);
+        }
+        insert.onConflict(SYSTEM_USER_PERMS.TENANT, SYSTEM_USER_PERMS.USER_NAME, SYSTEM_USER_PERMS.SYSTEM_ID,
+                          SYSTEM_USER_PERMS.PERMISSION)
+              .doUpdate()
+              .set(SYSTEM_USER_PERMS.REVOKED, false)
+              .set(SYSTEM_USER_PERMS.VERSION, fetchedVersion)
+              .where(SYSTEM_USER_PERMS.VERSION.lt(fetchedVersion))
+              .execute();
+      }
+      // Remove rows not held in SK at the time of the fetch
+      db.deleteFrom(SYSTEM_USER_PERMS)
+        .where(SYSTEM_USER_PERMS.TENANT.eq(tenantId), SYSTEM_USER_PERMS.USER_NAME.eq(userName),
+               SYSTEM_USER_PERMS.VERSION.lt(fetchedVersion)).execute();
 
       // Close out and commit
       LibUtils.closeAndCommitDB(conn, null, null);
+      getSystemsCountCache().incrementGeneration(tenantId);
     }
     catch (Exception e)
     {
       // Rollback transaction and throw an exception
-      LibUtils.rollbackDB(conn, e,"DB_QUERY_ERROR", "systems", e.getMessage());
+      LibUtils.rollbackDB(conn, e,"DB_INSERT_FAILURE", "system_user_perms");
     }
     finally
     {
       // Always return the connection back to the connection pool.
       LibUtils.finalCloseDB(conn);
     }
-    return effectiveUserId;
   }
 
   /**
-   * getSystemDefaultAuthnMethod
-   * @param tenantId - name of tenant
-   * @param id - name of system
-   * @return Default AuthnMethod or null if no system found
+   * Get the users that have rows in the local permission mirror for a tenant
+   * @param tenantId - tenant
+   * @return list of user names
    * @throws TapisException - on error
    */
   @Override
-  public AuthnMethod getSystemDefaultAuthnMethod(String tenantId, String id) throws TapisException
+  public List<String> getUserPermsUserNames(String tenantId) throws TapisException
   {
-    AuthnMethod authnMethod = null;
+    List<String> userNames = new ArrayList<>();
     // ------------------------- Call SQL ----------------------------
     Connection conn = null;
     try
     {
       // Get a database connection.
       conn = getConnection();
-      DSLContext db = DSL.using(conn);
-      authnMethod = db.selectFrom(SYSTEMS).where(SYSTEMS.TENANT.eq(tenantId),SYSTEMS.ID.eq(id)).fetchOne(SYSTEMS.DEFAULT_AUTHN_METHOD);
+      DSLContext db = newDSL(conn);
+      userNames = db.selectDistinct(SYSTEM_USER_PERMS.USER_NAME).from(SYSTEM_USER_PERMS)
+                    .where(SYSTEM_USER_PERMS.TENANT.eq(tenantId)).fetch(SYSTEM_USER_PERMS.USER_NAME);
 
       // Close out and commit
       LibUtils.closeAndCommitDB(conn, null, null);
@@ -1249,33 +2141,33 @@ public class SystemsDaoImpl extends AbstractDao implements SystemsDao
     catch (Exception e)
     {
       // Rollback transaction and throw an exception
-      LibUtils.rollbackDB(conn, e,"DB_QUERY_ERROR", "systems", e.getMessage());
+      LibUtils.rollbackDB(conn, e,"DB_QUERY_ERROR", "system_user_perms", e.getMessage());
     }
     finally
     {
       // Always return the connection back to the connection pool.
       LibUtils.finalCloseDB(conn);
     }
-    return authnMethod;
+    return userNames;
   }
 
   /**
-   * Add an update record given the system Id and operation type
-   *
+   * Get the tenants that have at least one system, including deleted systems
+   * @return list of tenants
+   * @throws TapisException - on error
    */
   @Override
-  public void addUpdateRecord(ResourceRequestUser rUser, String tenant, String id, SystemOperation op,
-                              String upd_json, String upd_text) throws TapisException
+  public List<String> getSystemTenants() throws TapisException
   {
+    List<String> tenants = new ArrayList<>();
     // ------------------------- Call SQL ----------------------------
     Connection conn = null;
     try
     {
       // Get a database connection.
       conn = getConnection();
-      DSLContext db = DSL.using(conn);
-      addUpdate(db, rUser, tenant, id, INVALID_SEQ_ID, op, upd_json, upd_text,
-                getUUIDUsingDb(db, tenant, id));
+      DSLContext db = newDSL(conn);
+      tenants = db.selectDistinct(SYSTEMS.TENANT).from(SYSTEMS).fetch(SYSTEMS.TENANT);
 
       // Close out and commit
       LibUtils.closeAndCommitDB(conn, null, null);
@@ -1283,19 +2175,135 @@ public class SystemsDaoImpl extends AbstractDao implements SystemsDao
     catch (Exception e)
     {
       // Rollback transaction and throw an exception
-      LibUtils.rollbackDB(conn, e,"DB_INSERT_FAILURE", "systems");
+      LibUtils.rollbackDB(conn, e,"DB_QUERY_ERROR", "systems", e.getMessage());
     }
     finally
     {
       // Always return the connection back to the connection pool.
       LibUtils.finalCloseDB(conn);
     }
+    return tenants;
+  }
+
+  /**
+   * Get the cache of validated search conditions. Create it on first use with capacity from runtime parameters.
+   * @return search condition cache
+   */
+  public static synchronized SearchConditionCache getSearchConditionCache()
+  {
+    if (searchConditionCache == null)
+    {
+      RuntimeParameters parms = RuntimeParameters.getInstance();
+      int capacity = (parms == null) ? SearchConditionCache.DEFAULT_CAPACITY : parms.getSearchCacheSize();
+      searchConditionCache = new SearchConditionCache(capacity);
+      _log.debug(LibUtils.getMsg("SYSLIB_DB_SEARCH_CACHE_INIT", capacity));
+    }
+    return searchConditionCache;
+  }
+
+  /**
+   * Get the cache of exact counts. Create it on first use with settings from runtime parameters.
+   * @return count cache
+   */
+  public static synchronized SystemsCountCache getSystemsCountCache()
+  {
+    if (systemsCountCache == null)
+    {
+      RuntimeParameters parms = RuntimeParameters.getInstance();
+      int capacity = (parms == null) ? SystemsCountCache.DEFAULT_CAPACITY : parms.getCountCacheSize();
+      int ttl = (parms == null) ? SystemsCountCache.DEFAULT_TTL_SECONDS : parms.getCountCacheTtlSeconds();
+      systemsCountCache = new SystemsCountCache(capacity, ttl);
+      _log.debug(LibUtils.getMsg("SYSLIB_DB_COUNT_CACHE_INIT", capacity, ttl));
+    }
+    return systemsCountCache;
+  }
+
+  /**
+   * Get the cache of systems used by getSystem in the service. Create it on first use with settings from
+   *   runtime parameters.
+   * @return systems cache
+   */
+  public static synchronized SystemsCache getSystemsCache()
+  {
+    if (systemsCache == null)
+    {
+      RuntimeParameters parms = RuntimeParameters.getInstance();
+      int capacity = (parms == null) ? SystemsCache.DEFAULT_CAPACITY : parms.getSystemCacheSize();
+      int ttl = (parms == null) ? SystemsCache.DEFAULT_TTL_SECONDS : parms.getSystemCacheTtlSeconds();
+      systemsCache = new SystemsCache(capacity, ttl);
+      _log.debug(LibUtils.getMsg("SYSLIB_DB_SYSTEM_CACHE_INIT", capacity, ttl));
+    }
+    return systemsCache;
+  }
+
+  /**
+   * Register gauges and counters for the DB connection pool and the DAO caches.
+   */
+  public static void registerMetrics()
+  {
+    SystemsCache sysCache = getSystemsCache();
+    SystemsMetrics.registerGauge("systems_cache_size", "Systems in the systems cache", sysCache::size);
+    SystemsMetrics.registerCounter("systems_cache_hits_total", "Systems cache hits", sysCache::getHitCount);
+    SystemsMetrics.registerCounter("systems_cache_misses_total", "Systems cache misses", sysCache::getMissCount);
+    SystemsMetrics.registerCounter("systems_cache_evictions_total", "Systems cache evictions", sysCache::getEvictionCount);
+    SystemsCountCache countCache = getSystemsCountCache();
+    SystemsMetrics.registerGauge("count_cache_size", "Entries in the systems count cache", countCache::size);
+    SystemsMetrics.registerCounter("count_cache_hits_total", "Systems count cache hits", countCache::getHitCount);
+    SystemsMetrics.registerCounter("count_cache_misses_total", "Systems count cache misses", countCache::getMissCount);
+
+    DataSource ds;
+    try { ds = getDataSource(); }
+    catch (TapisException e)
+    {
+      _log.warn(LibUtils.getMsg("SYSLIB_METRICS_DB_POOL_ERROR", e.getMessage()));
+      return;
+    }
+    if (!(ds instanceof HikariDataSource)) return;
+    HikariDataSource hds = (HikariDataSource) ds;
+    SystemsMetrics.registerGauge("db_pool_max_connections", "Max DB connections in the pool", hds::getMaximumPoolSize);
+    SystemsMetrics.registerGauge("db_pool_active_connections", "DB connections in use",
+                                 () -> getPoolStat(hds, HikariPoolMXBean::getActiveConnections));
+    SystemsMetrics.registerGauge("db_pool_idle_connections", "Idle DB connections",
+                                 () -> getPoolStat(hds, HikariPoolMXBean::getIdleConnections));
+    SystemsMetrics.registerGauge("db_pool_total_connections", "Open DB connections",
+                                 () -> getPoolStat(hds, HikariPoolMXBean::getTotalConnections));
+    SystemsMetrics.registerGauge("db_pool_pending_threads", "Threads waiting for a DB connection",
+                                 () -> getPoolStat(hds, HikariPoolMXBean::getThreadsAwaitingConnection));
+  }
+
+  /**
+   * Get execution statistics for DB statements, in order of decreasing total time.
+   * Statistics are for all tenants and are not persisted.
+   * @return statistics for each distinct statement
+   */
+  @Override
+  public List<StatementStats> getStatementStats()
+  {
+    return StatementStatsCollector.getInstance().getStatementStats();
   }
 
   /* ********************************************************************** */
   /*                             Private Methods                            */
   /* ********************************************************************** */
 
+  /*
+   * Create a DSLContext for a connection. Each statement executed is recorded in the statement statistics.
+   */
+  private static DSLContext newDSL(Connection conn)
+  {
+    return DSL.using(new DefaultConfiguration().set(conn).set(JDBCUtils.dialect(conn))
+                                               .set(StatementStatsHolder.PROVIDER));
+  }
+
+  /*
+   * Get a statistic from a connection pool. NaN if the pool has not been started.
+   */
+  private static double getPoolStat(HikariDataSource ds, ToIntFunction<HikariPoolMXBean> stat)
+  {
+    HikariPoolMXBean pool = ds.getHikariPoolMXBean();
+    return (pool == null) ? Double.NaN : stat.applyAsInt(pool);
+  }
+
   /**
    * Given an sql connection and basic info add an update record
    * If seqId <= 0 then seqId is fetched.
@@ -1310,9 +2318,11 @@ public class SystemsDaoImpl extends AbstractDao implements SystemsDao
    * @param op - Operation, such as create, modify, etc.
    * @param upd_json - JSON representing the update - with secrets scrubbed
    * @param upd_text - Text data supplied by client - secrets should be scrubbed
+   * @return event describing the update, to be included in the notification for the write, see notifyWrite(),
+   *         and published once the transaction has been committed
    */
-  private void addUpdate(DSLContext db, ResourceRequestUser rUser, String tenantId, String id, int seqId,
-                         SystemOperation op, String upd_json, String upd_text, UUID uuid)
+  private SystemEvent addUpdate(DSLContext db, ResourceRequestUser rUser, String tenantId, String id, int seqId,
+                                SystemOperation op, String upd_json, String upd_text, UUID uuid)
   {
     String updJsonStr = (StringUtils.isBlank(upd_json)) ? EMPTY_JSON : upd_json;
     if (seqId < 1)
@@ -1320,7 +2330,7 @@ public class SystemsDaoImpl extends AbstractDao implements SystemsDao
       seqId = db.selectFrom(SYSTEMS).where(SYSTEMS.TENANT.eq(tenantId),SYSTEMS.ID.eq(id)).fetchOne(SYSTEMS.SEQ_ID);
     }
     // Persist update record
-    db.insertInto(SYSTEM_UPDATES)
+    Record record = db.insertInto(SYSTEM_UPDATES)
             .set(SYSTEM_UPDATES.SYSTEM_SEQ_ID, seqId)
             .set(SYSTEM_UPDATES.SYSTEM_TENANT, tenantId)
             .set(SYSTEM_UPDATES.SYSTEM_ID, id)
@@ -1330,7 +2340,10 @@ public class SystemsDaoImpl extends AbstractDao implements SystemsDao
             .set(SYSTEM_UPDATES.UPD_JSON, TapisGsonUtils.getGson().fromJson(updJsonStr, JsonElement.class))
             .set(SYSTEM_UPDATES.UPD_TEXT, upd_text)
             .set(SYSTEM_UPDATES.UUID, uuid)
-            .execute();
+            .returningResult(SYSTEM_UPDATES.SEQ_ID, SYSTEM_UPDATES.CREATED)
+            .fetchOne();
+    return new SystemEvent(record.get(SYSTEM_UPDATES.SEQ_ID), tenantId, id, uuid, op, rUser.getApiUserId(),
+                           record.get(SYSTEM_UPDATES.CREATED, Instant.class));
   }
 
   /**
@@ -1447,6 +2460,37 @@ public class SystemsDaoImpl extends AbstractDao implements SystemsDao
     return jobRuntimes;
   }
 
+  /**
+   * Fill in job runtimes, logical queues and capabilities for a list of systems using one query per aux table.
+   * Results are the same as calling retrieveJobRuntimes, retrieveLogicalQueues and retrieveJobCaps for
+   *   each system.
+   * @param db - DB connection
+   * @param systems - systems to update
+   */
+  private static void populateAuxData(DSLContext db, List<TSystem> systems)
+  {
+    if (systems.isEmpty()) return;
+    List<Integer> seqIds = new ArrayList<>(systems.size());
+    for (TSystem s : systems) { seqIds.add(s.getSeqId()); }
+    Map<Integer, List<JobRuntime>> runtimeMap =
+            db.selectFrom(JOB_RUNTIMES).where(JOB_RUNTIMES.SYSTEM_SEQ_ID.in(seqIds))
+              .fetchGroups(JOB_RUNTIMES.SYSTEM_SEQ_ID, JobRuntime.class);
+    Map<Integer, List<LogicalQueue>> queueMap =
+            db.selectFrom(LOGICAL_QUEUES).where(LOGICAL_QUEUES.SYSTEM_SEQ_ID.in(seqIds))
+              .fetchGroups(LOGICAL_QUEUES.SYSTEM_SEQ_ID, LogicalQueue.class);
+    Map<Integer, List<Capability>> capMap =
+            db.selectFrom(CAPABILITIES).where(CAPABILITIES.SYSTEM_SEQ_ID.in(seqIds))
+              .fetchGroups(CAPABILITIES.SYSTEM_SEQ_ID, Capability.class);
+    for (TSystem s : systems)
+    {
+      // No runtimes is represented as null, no queues or capabilities as an empty list.
+      s.setJobRuntimes(runtimeMap.get(s.getSeqId()));
+      // Lists are modifiable, as are those returned by fetchInto(), since callers may update them.
+      s.setBatchLogicalQueues(queueMap.getOrDefault(s.getSeqId(), new ArrayList<>()));
+      s.setJobCapabilities(capMap.getOrDefault(s.getSeqId(), new ArrayList<>()));
+    }
+  }
+
   /**
    * Get all system sequence IDs for specified tenant
    * @param db - DB connection
@@ -1461,6 +2505,318 @@ public class SystemsDaoImpl extends AbstractDao implements SystemsDao
     return retList;
   }
 
+  /**
+   * Record that a system has been created, updated or deleted.
+   * Must be called after the transaction has been committed.
+   * @param tenantId - tenant
+   * @param id - system that was changed
+   */
+  private static void noteSystemWrite(String tenantId, String id)
+  {
+    getSystemsCountCache().incrementGeneration(tenantId);
+    getSystemsCache().invalidate(tenantId, id);
+  }
+
+  /**
+   * Invalidate cached data for a system that was changed by another service instance.
+   * Called by SystemsChangeListener.
+   * @param tenantId - tenant
+   * @param id - system that was changed
+   */
+  static void noteRemoteWrite(String tenantId, String id)
+  {
+    noteSystemWrite(tenantId, id);
+  }
+
+  /**
+   * Invalidate all cached data. Called by SystemsChangeListener when notifications may have been missed.
+   */
+  static void invalidateAllCaches()
+  {
+    getSystemsCountCache().invalidateAll();
+    getSystemsCache().invalidateAll();
+  }
+
+  /**
+   * Get the next change sequence value for a write to a system in a tenant.
+   * First registers the write as in progress for the tenant. See lockTenantWrites().
+   * The caller queues the notification for the write using notifyWrite().
+   * @param db - jooq context, must be part of a transaction
+   * @param tenantId - tenant
+   * @return next value of the change sequence
+   */
+  private static long nextChangeSeq(DSLContext db, String tenantId)
+  {
+    lockTenantWrites(db, tenantId);
+    return db.nextval(Sequences.SYSTEMS_CHANGE_SEQ);
+  }
+
+  /**
+   * Queue the notification for a write to a system, for other service instances and for event stream subscribers.
+   * Each write sends a single notification per system, covering both the change and any event recorded.
+   *   See SystemsChangeListener. Postgres only delivers the notification if and when the transaction commits.
+   * @param db - jooq context, must be part of a transaction
+   * @param tenantId - tenant
+   * @param id - system written
+   * @param changeSeq - new change sequence value of the system, 0 if the write did not change the system
+   * @param event - event recorded by the write, null if none
+   */
+  private static void notifyWrite(DSLContext db, String tenantId, String id, long changeSeq, SystemEvent event)
+  {
+    db.fetch("SELECT pg_notify(?, ?)", SystemsChangeListener.CHANNEL,
+             SystemsChangeListener.buildPayload(tenantId, id, changeSeq, event));
+  }
+
+  /**
+   * Register a write in progress within a tenant by acquiring the transaction level advisory lock for the tenant
+   *   in shared mode. Writes do not block each other. The lock is held until the transaction commits or rolls back.
+   * Must be called before a value is drawn from the change sequence or a system_updates row is inserted, so that
+   *   awaitTenantWrites() can tell when all values drawn up to a given point have been committed or discarded.
+   * The lock is re-entrant within a transaction so it may be acquired more than once.
+   * @param db - jooq context, must be part of a transaction
+   * @param tenantId - tenant
+   */
+  private static void lockTenantWrites(DSLContext db, String tenantId)
+  {
+    db.fetch("SELECT pg_advisory_xact_lock_shared(?, hashtext(?))", CHANGE_SEQ_LOCK_KEY, tenantId);
+  }
+
+  /**
+   * Determine the largest value of a sequence for which all writes within a tenant are complete.
+   * Sequence values are not committed in the order they are drawn, so a reader that returns a change with a given
+   *   value could otherwise miss a change with a smaller value that commits later.
+   * The current value of the sequence is read and then the writes in progress in the tenant are found. Any
+   *   write that drew a value up to the current one still holds the shared lock. Once those writes have finished,
+   *   every row with a value up to the current one is visible to a new statement, and gaps are values that were
+   *   discarded. Writes that start after the check do not block the reader.
+   * When no writes are in progress, the usual case, this returns after a single check. Otherwise the writes
+   *   found are checked again with an increasing interval until they have all finished.
+   * Must be called in a transaction using read committed isolation so that later statements see the writes.
+   * @param db - jooq context
+   * @param tenantId - tenant
+   * @param sequence - sequence used for the values of interest
+   * @return largest value of the sequence for which all writes are complete, 0 if no values have been drawn
+   * @throws TapisException - if writes in progress do not complete in time
+   */
+  private static long awaitTenantWrites(DSLContext db, String tenantId, Sequence<? extends Number> sequence)
+          throws TapisException
+  {
+    Record seqRec = db.fetchOne("SELECT last_value, is_called FROM {0}", sequence.getQualifiedName());
+    long bound = seqRec.get(1, Boolean.class) ? seqRec.get(0, Long.class) : 0L;
+    String lockCondition = "locktype = 'advisory' AND mode = 'ShareLock' AND granted AND classid = ?::oid" +
+                           " AND objid = hashtext(?)::oid AND objsubid = 2";
+    List<String> inProgress = db.fetch("SELECT virtualtransaction FROM pg_locks WHERE " + lockCondition,
+                                       CHANGE_SEQ_LOCK_KEY, tenantId).getValues(0, String.class);
+    if (inProgress.isEmpty()) return bound;
+    long deadline = System.currentTimeMillis() + WRITES_WAIT_MILLIS;
+    long pollMillis = MIN_WRITES_POLL_MILLIS;
+    while (!inProgress.isEmpty())
+    {
+      if (System.currentTimeMillis() > deadline)
+      {
+        throw new TapisException(LibUtils.getMsg("SYSLIB_DB_WRITES_TIMEOUT", tenantId, inProgress.size()));
+      }
+      try { Thread.sleep(pollMillis); }
+      catch (InterruptedException e)
+      {
+        Thread.currentThread().interrupt();
+        throw new TapisException(LibUtils.getMsg("SYSLIB_DB_WRITES_TIMEOUT", tenantId, inProgress.size()), e);
+      }
+      inProgress = db.fetch("SELECT virtualtransaction FROM pg_locks WHERE " + lockCondition +
+                            " AND virtualtransaction = ANY(?)", CHANGE_SEQ_LOCK_KEY, tenantId,
+                            inProgress.toArray(new String[0])).getValues(0, String.class);
+      pollMillis = Math.min(pollMillis * 2, MAX_WRITES_POLL_MILLIS);
+    }
+    return bound;
+  }
+
+  /**
+   * Publish an event to subscribers of the event stream.
+   * Must be called after the transaction has been committed.
+   * When the change listener is connected it publishes all events, including those from this instance, in the
+   *   order they were committed. Otherwise, including while the listener is reconnecting, the event is published
+   *   directly. Events published again by replay after the listener reconnects are discarded by subscriptions.
+   * @param event - event to publish
+   */
+  private static void publishEvent(SystemEvent event)
+  {
+    if (!SystemsChangeListener.isActive()) SystemEventHub.getInstance().publish(event);
+  }
+
+  /**
+   * Check that startAfter is only given when there is an orderBy and that the orderBy column is valid.
+   * @param orderByList - orderBy entries for sorting. Only the major (i.e. first in list) orderBy item is used.
+   * @param startAfter - where to start when sorting
+   * @throws TapisException on error
+   */
+  private static void checkSortAndStart(List<OrderBy> orderByList, String startAfter) throws TapisException
+  {
+    String majorOrderBy = null;
+    if (orderByList != null && !orderByList.isEmpty()) majorOrderBy = orderByList.get(0).getOrderByAttr();
+    // If startAfter is given then orderBy is required
+    if (!StringUtils.isBlank(startAfter) && StringUtils.isBlank(majorOrderBy))
+    {
+      throw new TapisException(LibUtils.getMsg("SYSLIB_DB_INVALID_SORT_START", SYSTEMS.getName()));
+    }
+    // Check orderBy column. If orderBy column not found then it is an error
+    SystemsColumns.getSortField(majorOrderBy);
+  }
+
+  /**
+   * Build the where condition used when counting systems. Validates search and sort criteria.
+   * See getSystemsCount for description of parameters.
+   * @return resulting where condition
+   * @throws TapisException on error
+   */
+  private static Condition buildCountCondition(String tenantId, List<String> searchList, ASTNode searchAST,
+                                               Set<String> setOfIDs, String readUser, List<OrderBy> orderByList,
+                                               String startAfter, boolean showDeleted)
+          throws TapisException
+  {
+    checkSortAndStart(orderByList, startAfter);
+
+    // TODO - for now just use the major (i.e. first in list) orderBy item.
+    String majorOrderBy = null;
+    OrderByDir majorSortDirection = DEFAULT_ORDERBY_DIRECTION;
+    if (orderByList != null && !orderByList.isEmpty())
+    {
+      majorOrderBy = orderByList.get(0).getOrderByAttr();
+      majorSortDirection = orderByList.get(0).getOrderByDir();
+    }
+
+    // NOTE: Sort matters for the count even though we will not actually need to sort.
+    boolean sortAsc = true;
+    if (majorSortDirection == OrderBy.OrderByDir.DESC) sortAsc = false;
+
+    // Begin where condition for the query
+    Condition whereCondition;
+    if (showDeleted) whereCondition = SYSTEMS.TENANT.eq(tenantId);
+    else whereCondition = (SYSTEMS.TENANT.eq(tenantId)).and(SYSTEMS.DELETED.eq(false));
+
+    // Add searchList or searchAST to where condition
+    Condition searchCondition = getSearchCondition(searchList, searchAST);
+    if (searchCondition != null) whereCondition = whereCondition.and(searchCondition);
+
+    // Add startAfter.
+    if (!StringUtils.isBlank(startAfter))
+    {
+      // Build search string so we can re-use code for checking and adding a condition
+      String searchStr;
+      if (sortAsc) searchStr = majorOrderBy + ".gt." + startAfter;
+      else searchStr = majorOrderBy + ".lt." + startAfter;
+      whereCondition = addSearchCondStrToWhere(whereCondition, searchStr, "AND");
+    }
+
+    // Add IN condition for list of IDs
+    if (setOfIDs != null && !setOfIDs.isEmpty()) whereCondition = whereCondition.and(SYSTEMS.ID.in(setOfIDs));
+    // Add condition for systems the user may read
+    if (readUser != null) whereCondition = whereCondition.and(readableByCondition(tenantId, readUser));
+    return whereCondition;
+  }
+
+  /**
+   * Build the condition for systems that a user may read according to the local permission mirror.
+   * A system may be read if the user holds READ, MODIFY or all permissions on the system or on all systems.
+   * Uses the primary key of system_user_perms, which starts with (tenant, user_name).
+   * @param tenantId - tenant
+   * @param userName - user
+   * @return condition to be added to a query on the systems table
+   */
+  private static Condition readableByCondition(String tenantId, String userName)
+  {
+    return DSL.exists(DSL.selectOne().from(SYSTEM_USER_PERMS)
+                         .where(SYSTEM_USER_PERMS.TENANT.eq(tenantId), SYSTEM_USER_PERMS.USER_NAME.eq(userName),
+                                SYSTEM_USER_PERMS.SYSTEM_ID.in(SYSTEMS.ID, DSL.inline(PERM_WILDCARD)),
+                                SYSTEM_USER_PERMS.PERMISSION.in(READ_PERMS), SYSTEM_USER_PERMS.REVOKED.isFalse()));
+  }
+
+  /**
+   * Insert or update rows in the local permission mirror for all combinations of systems, users and permissions.
+   * Each row written is given a new version from the DB sequence. Rows not already present get the default
+   *   version, which is also taken from the sequence.
+   * @param tenantId - tenant
+   * @param ids - systems
+   * @param userNames - users
+   * @param perms - permission names
+   * @param revoked - true if the rows are being revoked, false if granted
+   * @return number of rows inserted or updated
+   * @throws TapisException - on error
+   */
+  private static int upsertUserPerms(String tenantId, Collection<String> ids, Collection<String> userNames,
+                                     Collection<String> perms, boolean revoked) throws TapisException
+  {
+    int rows = 0;
+    // ------------------------- Call SQL ----------------------------
+    Connection conn = null;
+    try
+    {
+      conn = getConnection();
+      DSLContext db = newDSL(conn);
+      var insert = db.insertInto(SYSTEM_USER_PERMS, SYSTEM_USER_PERMS.TENANT, SYSTEM_USER_PERMS.USER_NAME,
+                                 SYSTEM_USER_PERMS.SYSTEM_ID, SYSTEM_USER_PERMS.PERMISSION,
+                                 SYSTEM_USER_PERMS.REVOKED);
+      for (String id : ids)
+      {
+        for (String userName : userNames)
+        {
+          for (String perm : perms) insert = insert.values(tenantId, userName, id, perm, revoked);
+        }
+      }
+      rows = insert.onConflict(SYSTEM_USER_PERMS.TENANT, SYSTEM_USER_PERMS.USER_NAME, SYSTEM_USER_PERMS.SYSTEM_ID,
+                               SYSTEM_USER_PERMS.PERMISSION)
+                   .doUpdate()
+                   .set(SYSTEM_USER_PERMS.REVOKED, revoked)
+                   .set(SYSTEM_USER_PERMS.VERSION, Sequences.SYSTEM_USER_PERMS_VERSION_SEQ.nextval())
+                   .execute();
+      LibUtils.closeAndCommitDB(conn, null, null);
+      getSystemsCountCache().incrementGeneration(tenantId);
+    }
+    catch (Exception e)
+    {
+      LibUtils.rollbackDB(conn, e, revoked ? "DB_DELETE_FAILURE" : "DB_INSERT_FAILURE", "system_user_perms");
+    }
+    finally
+    {
+      LibUtils.finalCloseDB(conn);
+    }
+    return rows;
+  }
+
+  /**
+   * Get the cache key for a searchList or searchAST. If searchList is not null it is used and searchAST is ignored.
+   * @return cache key, null if there are no search conditions
+   */
+  private static String getSearchKey(List<String> searchList, ASTNode searchAST)
+  {
+    if (searchList == null && searchAST == null) return null;
+    if (searchList != null && searchList.isEmpty()) return null;
+    return (searchList != null) ? SearchConditionCache.keyForSearchList(searchList)
+                                : SearchConditionCache.keyForAst(searchAST);
+  }
+
+  /**
+   * Get the condition for a searchList or searchAST, using the search condition cache when possible.
+   * If searchList is not null it is used and searchAST is ignored.
+   * Conditions are validated when first built. Only valid conditions are cached.
+   * @param searchList - optional list of conditions, joined using AND
+   * @param searchAST - optional AST containing search conditions
+   * @return resulting condition, null if there are no search conditions
+   * @throws TapisException on error
+   */
+  private static Condition getSearchCondition(List<String> searchList, ASTNode searchAST) throws TapisException
+  {
+    String key = getSearchKey(searchList, searchAST);
+    if (key == null) return null;
+    SearchConditionCache cache = getSearchConditionCache();
+    Condition searchCondition = cache.get(key);
+    if (searchCondition != null) return searchCondition;
+    // Not in cache. Validate and build the condition.
+    if (searchList != null) searchCondition = addSearchListToWhere(null, searchList);
+    else searchCondition = createConditionFromAst(searchAST);
+    cache.put(key, searchCondition);
+    return searchCondition;
+  }
+
   /**
    * Add searchList to where condition. All conditions are joined using AND
    * Validate column name, search comparison operator
@@ -1469,8 +2825,9 @@ public class SystemsDaoImpl extends AbstractDao implements SystemsDao
    * @param searchList List of conditions to add to the base condition
    * @return resulting where condition
    * @throws TapisException on error
+   * NOTE: Package-private so that benchmarks can build conditions without going through the cache.
    */
-  private static Condition addSearchListToWhere(Condition whereCondition, List<String> searchList)
+  static Condition addSearchListToWhere(Condition whereCondition, List<String> searchList)
           throws TapisException
   {
     if (searchList == null || searchList.isEmpty()) return whereCondition;
@@ -1487,8 +2844,9 @@ public class SystemsDaoImpl extends AbstractDao implements SystemsDao
    * @param astNode Abstract syntax tree node to add to the base condition
    * @return resulting condition
    * @throws TapisException on error
+   * NOTE: Package-private so that benchmarks can build conditions without going through the cache.
    */
-  private static Condition createConditionFromAst(ASTNode astNode) throws TapisException
+  static Condition createConditionFromAst(ASTNode astNode) throws TapisException
   {
     if (astNode == null || astNode instanceof ASTLeaf)
     {
@@ -1616,19 +2974,10 @@ public class SystemsDaoImpl extends AbstractDao implements SystemsDao
     // Parse search value into column name, operator and value
     // Format must be column_name.op.value
     String[] parsedStrArray = DOT_SPLIT.split(searchStr, 3);
-    // Validate column name
+    // Validate column name. Column may be given as snake_case or camelCase. If column not found then it is an error
     String column = parsedStrArray[0];
-    Field<?> col = SYSTEMS.field(DSL.name(column));
-    // Check for column name passed in as camelcase
-    if (col == null)
-    {
-      col = SYSTEMS.field(DSL.name(SearchUtils.camelCaseToSnakeCase(column)));
-    }
-    // If column not found then it is an error
-    if (col == null)
-    {
-      throw new TapisException(LibUtils.getMsg("SYSLIB_DB_NO_COLUMN", SYSTEMS.getName(), DSL.name(column)));
-    }
+    SystemsColumns.Column colInfo = SystemsColumns.getSearchColumn(column);
+    Field<?> col = colInfo.getField();
     // Validate and convert operator string
     String opStr = parsedStrArray[1].toUpperCase();
     SearchOperator op = SearchUtils.getSearchOperator(opStr);
@@ -1640,11 +2989,11 @@ public class SystemsDaoImpl extends AbstractDao implements SystemsDao
 
     // Check that column value is compatible for column type and search operator
     String val = parsedStrArray[2];
-    checkConditionValidity(col, op, val);
+    checkConditionValidity(colInfo, op, val);
 
      // If val is a timestamp then convert the string(s) to a form suitable for SQL
     // Use a utility method since val may be a single item or a list of items, e.g. for the BETWEEN operator
-    if (col.getDataType().getSQLType() == Types.TIMESTAMP)
+    if (colInfo.getSqlType() == Types.TIMESTAMP)
     {
       val = SearchUtils.convertValuesToTimestamps(op, val);
     }
@@ -1661,38 +3010,35 @@ public class SystemsDaoImpl extends AbstractDao implements SystemsDao
   /**
    * Validate condition expression based on column type, search operator and column string value.
    * Use java.sql.Types for validation.
-   * @param col jOOQ column
+   * @param colInfo column metadata
    * @param op Operator
    * @param valStr Column value as string
    * @throws TapisException on error
    */
-  private static void checkConditionValidity(Field<?> col, SearchOperator op, String valStr) throws TapisException
+  private static void checkConditionValidity(SystemsColumns.Column colInfo, SearchOperator op, String valStr)
+          throws TapisException
   {
-    var dataType = col.getDataType();
-    int sqlType = dataType.getSQLType();
-    String sqlTypeName = dataType.getTypeName();
-//    var t2 = dataType.getSQLDataType();
-//    var t3 = dataType.getCastTypeName();
-//    var t4 = dataType.getSQLType();
-//    var t5 = dataType.getType();
+    int sqlType = colInfo.getSqlType();
+    String sqlTypeName = colInfo.getSqlTypeName();
+    String colName = colInfo.getColumnName();
 
     // Make sure we support the sqlType
-    if (SearchUtils.ALLOWED_OPS_BY_TYPE.get(sqlType) == null)
+    if (!colInfo.isSearchable())
     {
-      String msg = LibUtils.getMsg("SYSLIB_DB_UNSUPPORTED_SQLTYPE", SYSTEMS.getName(), col.getName(), op.name(), sqlTypeName);
+      String msg = LibUtils.getMsg("SYSLIB_DB_UNSUPPORTED_SQLTYPE", SYSTEMS.getName(), colName, op.name(), sqlTypeName);
       throw new TapisException(msg);
     }
     // Check that operation is allowed for column data type
-    if (!SearchUtils.ALLOWED_OPS_BY_TYPE.get(sqlType).contains(op))
+    if (!colInfo.isAllowedOp(op))
     {
-      String msg = LibUtils.getMsg("SYSLIB_DB_INVALID_SEARCH_TYPE", SYSTEMS.getName(), col.getName(), op.name(), sqlTypeName);
+      String msg = LibUtils.getMsg("SYSLIB_DB_INVALID_SEARCH_TYPE", SYSTEMS.getName(), colName, op.name(), sqlTypeName);
       throw new TapisException(msg);
     }
 
     // Check that value (or values for op that takes a list) are compatible with sqlType
-    if (!SearchUtils.validateTypeAndValueList(sqlType, op, valStr, sqlTypeName, SYSTEMS.getName(), col.getName()))
+    if (!SearchUtils.validateTypeAndValueList(sqlType, op, valStr, sqlTypeName, SYSTEMS.getName(), colName))
     {
-      String msg = LibUtils.getMsg("SYSLIB_DB_INVALID_SEARCH_VALUE", op.name(), sqlTypeName, valStr, SYSTEMS.getName(), col.getName());
+      String msg = LibUtils.getMsg("SYSLIB_DB_INVALID_SEARCH_VALUE", op.name(), sqlTypeName, valStr, SYSTEMS.getName(), colName);
       throw new TapisException(msg);
     }
   }
@@ -1877,14 +3223,14 @@ public class SystemsDaoImpl extends AbstractDao implements SystemsDao
    * @param db - jooq context
    * @param tenantId - name of tenant
    * @param capabilityList - list of Capabilities from AST (category, name)
-   * @param allowedIDs - list of system IDs to consider.
+   * @param allowedIDs - list of system IDs to consider. If null all allowed. If empty none allowed.
    * @return - true if system exists, else false
    */
   private static List<TSystem> getSystemsHavingCapabilities(DSLContext db, String tenantId, List<Capability> capabilityList,
                                                             Set<String> allowedIDs)
   {
     List<TSystem> retList = new ArrayList<>();
-    if (allowedIDs == null || allowedIDs.isEmpty()) return retList;
+    if (allowedIDs != null && allowedIDs.isEmpty()) return retList;
 
     // Begin where condition for the query
     Condition whereCondition = (SYSTEMS.TENANT.eq(tenantId)).and(SYSTEMS.DELETED.eq(false));
@@ -1919,7 +3265,7 @@ public class SystemsDaoImpl extends AbstractDao implements SystemsDao
      */
 
     // Add IN condition for list of IDs
-    whereCondition = whereCondition.and(SYSTEMS.ID.in(allowedIDs));
+    if (allowedIDs != null) whereCondition = whereCondition.and(SYSTEMS.ID.in(allowedIDs));
 
     // Inner join on capabilities table
     // Execute the select
@@ -1932,33 +3278,22 @@ public class SystemsDaoImpl extends AbstractDao implements SystemsDao
 
     if (results == null || results.isEmpty()) return retList;
 
-    // Fill in batch logical queues and job capabilities list from aux tables
-    // TODO might be able to use fetchGroups to populate these.
-    for (SystemsRecord r : results)
-    {
-      TSystem s = r.into(TSystem.class);
-      s.setJobRuntimes(retrieveJobRuntimes(db, s.getSeqId()));
-      s.setBatchLogicalQueues(retrieveLogicalQueues(db, s.getSeqId()));
-      s.setJobCapabilities(retrieveJobCaps(db, s.getSeqId()));
-      retList.add(s);
-    }
+    // Fill in job runtimes, batch logical queues and job capabilities from aux tables, one query per table
+    for (SystemsRecord r : results) { retList.add(r.into(TSystem.class)); }
+    populateAuxData(db, retList);
     return retList;
   }
 
-  /**
-   * Check items in select list against DB field names
-   * @param selectList - list of items to check
+  /* ********************************************************************** */
+  /*                             Nested Classes                             */
+  /* ********************************************************************** */
+
+  /*
+   * Holds the statement statistics listener provider so it is created on first use without locking on each use
    */
-  private static void checkSelectListAgainstColumnNames(List<String> selectList) throws TapisException
+  private static final class StatementStatsHolder
   {
-    for (String selectItem : selectList)
-    {
-      Field<?> colSelectItem = SYSTEMS.field(DSL.name(SearchUtils.camelCaseToSnakeCase(selectItem)));
-      if (!StringUtils.isBlank(selectItem) && colSelectItem == null)
-      {
-        String msg = LibUtils.getMsg("SYSLIB_DB_NO_COLUMN_SELECT", SYSTEMS.getName(), DSL.name(selectItem));
-        throw new TapisException(msg);
-      }
-    }
+    private static final ExecuteListenerProvider PROVIDER =
+            StatementStatsListener.provider(StatementStatsCollector.getInstance());
   }
 }
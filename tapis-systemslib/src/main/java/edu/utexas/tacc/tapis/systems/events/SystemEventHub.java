@@ -0,0 +1,418 @@
+package edu.utexas.tacc.tapis.systems.events;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import edu.utexas.tacc.tapis.systems.config.RuntimeParameters;
+import edu.utexas.tacc.tapis.systems.model.SystemEvent;
+import edu.utexas.tacc.tapis.systems.utils.LibUtils;
+import edu.utexas.tacc.tapis.systems.utils.ThreadUtils;
+
+/*
+ * In-process fan-out of system change events to subscribers, such as server-sent event connections.
+ * Events are published by SystemsChangeListener, or by SystemsDaoImpl when the listener is not running, after the
+ *   transaction recording the change has been committed.
+ *
+ * Each subscription belongs to a single tenant and has a filter, typically based on the systems the subscriber
+ *   is allowed to see, and a bounded buffer of events waiting to be sent. Publishing never blocks. Events are
+ *   delivered to the sink by a small shared pool of threads, so an idle subscriber does not use a thread.
+ *   The filter is applied by the delivery thread just before an event is sent, so it may make remote calls,
+ *   for example to check permission for a system the subscriber has not seen before.
+ *   A subscriber that falls so far behind that its buffer fills is sent an overflow notice containing the token
+ *   of the last event delivered and is then closed. The subscriber may reconnect and resume from that token.
+ *
+ * A subscription starts out paused so that the caller can first replay events from the database, typically
+ *   in a task run with execute() so that the request thread is not held up. Events published while paused are
+ *   buffered. When the subscription is started with the token of the last replayed
+ *   event any buffered events already covered by the replay are discarded.
+ * Within a tenant events must be published in increasing order of token. An event with a token at or below the
+ *   last one buffered or delivered is ignored, so the same event may safely be published more than once.
+ *
+ * Each subscription is sent a heartbeat at a fixed interval. This keeps idle connections open through proxies
+ *   and is how connections closed by the client are detected and removed. Subscriptions may also be given a
+ *   maximum lifetime after which they are closed.
+ */
+public final class SystemEventHub
+{
+  /* ********************************************************************** */
+  /*                               Constants                                */
+  /* ********************************************************************** */
+  // Local logger.
+  private static final Logger _log = LoggerFactory.getLogger(SystemEventHub.class);
+
+  // Defaults
+  public static final int DEFAULT_BUFFER_SIZE = 256;
+  public static final int DEFAULT_MAX_SUBSCRIBERS = 10000;
+  public static final int DEFAULT_HEARTBEAT_SECONDS = 30;
+  public static final int DEFAULT_MAX_LIFETIME_SECONDS = 3600;
+
+  // Number of threads used to deliver events to sinks
+  private static final int DELIVERY_THREADS = 4;
+
+  /* ********************************************************************** */
+  /*                                 Fields                                 */
+  /* ********************************************************************** */
+  // Singleton instance, created on first use with settings from runtime parameters.
+  private static SystemEventHub instance;
+
+  private final int bufferSize;
+  private final int maxSubscribers;
+  private final long maxLifetimeMillis;
+
+  // Subscriptions for each tenant
+  private final Map<String, Set<Subscription>> subscriptions = new ConcurrentHashMap<>();
+  private final AtomicInteger subscriberCount = new AtomicInteger();
+
+  private final ExecutorService deliveryPool;
+  private final ScheduledExecutorService heartbeatTimer;
+
+  // Metrics
+  private final AtomicLong publishedCount = new AtomicLong();
+  private final AtomicLong overflowCount = new AtomicLong();
+
+  /* ********************************************************************** */
+  /*                             Constructors                               */
+  /* ********************************************************************** */
+  /**
+   * Create a hub. Most callers should use getInstance().
+   * @param bufferSize1 - maximum number of undelivered events for a subscriber
+   * @param maxSubscribers1 - maximum number of subscribers across all tenants
+   * @param heartbeatSeconds - seconds between heartbeats, 0 or less disables heartbeats
+   * @param maxLifetimeSeconds - seconds after which a subscription is closed, 0 or less for no limit
+   */
+  public SystemEventHub(int bufferSize1, int maxSubscribers1, int heartbeatSeconds, int maxLifetimeSeconds)
+  {
+    bufferSize = Math.max(1, bufferSize1);
+    maxSubscribers = maxSubscribers1;
+    maxLifetimeMillis = (maxLifetimeSeconds > 0) ? maxLifetimeSeconds * 1000L : Long.MAX_VALUE;
+    deliveryPool = Executors.newFixedThreadPool(DELIVERY_THREADS, ThreadUtils.daemonThreadFactory("SystemEventDelivery"));
+    heartbeatTimer = Executors.newSingleThreadScheduledExecutor(ThreadUtils.daemonThreadFactory("SystemEventHeartbeat"));
+    if (heartbeatSeconds > 0)
+    {
+      heartbeatTimer.scheduleAtFixedRate(this::heartbeat, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+    }
+  }
+
+  /* ********************************************************************** */
+  /*                             Public Methods                             */
+  /* ********************************************************************** */
+
+  /**
+   * Get the hub for this process. Create it on first use with settings from runtime parameters.
+   * @return event hub
+   */
+  public static synchronized SystemEventHub getInstance()
+  {
+    if (instance == null)
+    {
+      RuntimeParameters parms = RuntimeParameters.getInstance();
+      int bufSize = (parms == null) ? DEFAULT_BUFFER_SIZE : parms.getEventsBufferSize();
+      int maxSubs = (parms == null) ? DEFAULT_MAX_SUBSCRIBERS : parms.getEventsMaxSubscribers();
+      int heartbeat = (parms == null) ? DEFAULT_HEARTBEAT_SECONDS : parms.getEventsHeartbeatSeconds();
+      int lifetime = (parms == null) ? DEFAULT_MAX_LIFETIME_SECONDS : parms.getEventsMaxLifetimeSeconds();
+      instance = new SystemEventHub(bufSize, maxSubs, heartbeat, lifetime);
+      _log.debug(LibUtils.getMsg("SYSLIB_EVENTS_HUB_INIT", bufSize, maxSubs, heartbeat, lifetime));
+    }
+    return instance;
+  }
+
+  /**
+   * Register a subscriber. The subscription is paused until start() is called.
+   * @param tenantId - tenant whose events are to be delivered
+   * @param filter - events for which the filter returns false are not delivered, null for no filtering.
+   *                 Called from a delivery thread, one event at a time for a given subscription.
+   * @param sink - destination for events
+   * @return subscription or null if the maximum number of subscribers has been reached
+   */
+  public Subscription subscribe(String tenantId, Predicate<SystemEvent> filter, EventSink sink)
+  {
+    if (subscriberCount.incrementAndGet() > maxSubscribers)
+    {
+      subscriberCount.decrementAndGet();
+      _log.warn(LibUtils.getMsg("SYSLIB_EVENTS_MAX_SUBSCRIBERS", tenantId, maxSubscribers));
+      return null;
+    }
+    var sub = new Subscription(tenantId, filter, sink);
+    subscriptions.computeIfAbsent(tenantId, t -> ConcurrentHashMap.newKeySet()).add(sub);
+    return sub;
+  }
+
+  /**
+   * Deliver an event to all matching subscribers in the event tenant. Never blocks.
+   * @param event - event to publish
+   */
+  public void publish(SystemEvent event)
+  {
+    if (event == null) return;
+    publishedCount.incrementAndGet();
+    Set<Subscription> subs = subscriptions.get(event.getTenant());
+    if (subs == null) return;
+    for (Subscription sub : subs) sub.offer(event);
+  }
+
+  /**
+   * Run a task on the delivery pool, e.g. replay of events to a paused subscription.
+   * @param task - task to run
+   * @throws java.util.concurrent.RejectedExecutionException if the hub has been shut down
+   */
+  public void execute(Runnable task)
+  {
+    deliveryPool.execute(task);
+  }
+
+  /**
+   * @return tenants that currently have at least one subscriber
+   */
+  public Set<String> getTenants()
+  {
+    Set<String> tenants = new HashSet<>();
+    subscriptions.forEach((tenant, subs) -> { if (!subs.isEmpty()) tenants.add(tenant); });
+    return tenants;
+  }
+
+  /**
+   * Stop delivering events. Subscriptions are not closed.
+   */
+  public void shutdown()
+  {
+    heartbeatTimer.shutdownNow();
+    deliveryPool.shutdownNow();
+  }
+
+  public int getSubscriberCount() { return subscriberCount.get(); }
+  public int getBufferSize() { return bufferSize; }
+  public int getMaxSubscribers() { return maxSubscribers; }
+  public long getPublishedCount() { return publishedCount.get(); }
+  public long getOverflowCount() { return overflowCount.get(); }
+
+  /* ********************************************************************** */
+  /*                             Private Methods                            */
+  /* ********************************************************************** */
+
+  /*
+   * Queue a heartbeat for every subscription and close those that have reached their maximum lifetime.
+   */
+  private void heartbeat()
+  {
+    long now = System.currentTimeMillis();
+    for (Set<Subscription> subs : subscriptions.values())
+    {
+      for (Subscription sub : subs)
+      {
+        if (now - sub.createdMillis >= maxLifetimeMillis) sub.expire();
+        else sub.requestHeartbeat();
+      }
+    }
+  }
+
+  /*
+   * Remove a subscription from the hub
+   */
+  private void remove(Subscription sub)
+  {
+    Set<Subscription> subs = subscriptions.get(sub.tenantId);
+    if (subs != null && subs.remove(sub)) subscriberCount.decrementAndGet();
+  }
+
+  /* ********************************************************************** */
+  /*                           Sinks and Subscriptions                      */
+  /* ********************************************************************** */
+  /*
+   * Destination for events, such as a server-sent events connection.
+   * Methods are only called from one thread at a time for a given sink.
+   * An exception thrown by any method closes the subscription.
+   */
+  public interface EventSink
+  {
+    void send(SystemEvent event) throws Exception;
+    void sendHeartbeat() throws Exception;
+    // Sent before closing when events have been dropped. Client should resume from lastToken.
+    void sendOverflow(long lastToken) throws Exception;
+    void close();
+    boolean isClosed();
+  }
+
+  /*
+   * A single subscriber. All buffer state is guarded by the subscription monitor. Delivery to the sink is
+   *   done outside the monitor by at most one pool thread at a time.
+   */
+  public final class Subscription
+  {
+    private final String tenantId;
+    private final Predicate<SystemEvent> filter;
+    private final EventSink sink;
+    private final long createdMillis = System.currentTimeMillis();
+    private final ArrayDeque<SystemEvent> buffer = new ArrayDeque<>();
+    private final AtomicBoolean delivering = new AtomicBoolean();
+
+    private boolean started;
+    private boolean heartbeatPending;
+    private boolean overflowed;
+    private boolean expired;
+    private boolean closed;
+    // Token of the last event replayed or delivered. Events with a token at or below this are not sent.
+    private long lastToken;
+    // Token of the last event added to the buffer. Within a tenant events are published in increasing order of
+    //   token, so an event at or below this is a duplicate, for example from replay after a reconnect.
+    private long lastQueuedToken;
+
+    private Subscription(String tenantId1, Predicate<SystemEvent> filter1, EventSink sink1)
+    {
+      tenantId = tenantId1;
+      filter = filter1;
+      sink = sink1;
+    }
+
+    /**
+     * Begin delivery of events published after the given token.
+     * @param afterToken - token of the last event already sent to the subscriber, e.g. by replay
+     */
+    public void start(long afterToken)
+    {
+      synchronized (this)
+      {
+        started = true;
+        lastToken = Math.max(lastToken, afterToken);
+        buffer.removeIf(e -> e.getToken() <= lastToken);
+      }
+      scheduleDelivery();
+    }
+
+    /**
+     * Stop delivery and remove the subscription from the hub. The sink is closed.
+     */
+    public void close()
+    {
+      synchronized (this)
+      {
+        if (closed) return;
+        closed = true;
+        buffer.clear();
+      }
+      remove(this);
+      sink.close();
+    }
+
+    public String getTenantId() { return tenantId; }
+    public synchronized boolean isClosed() { return closed; }
+    public synchronized long getLastToken() { return lastToken; }
+    public synchronized int getBufferedCount() { return buffer.size(); }
+
+    /*
+     * Add an event to the buffer. On overflow the buffer is dropped and the subscriber is told to resume.
+     */
+    private void offer(SystemEvent event)
+    {
+      synchronized (this)
+      {
+        if (closed || overflowed || event.getToken() <= Math.max(lastToken, lastQueuedToken)) return;
+        lastQueuedToken = event.getToken();
+        if (buffer.size() >= bufferSize)
+        {
+          buffer.clear();
+          overflowed = true;
+          overflowCount.incrementAndGet();
+        }
+        else buffer.add(event);
+        if (!started) return;
+      }
+      scheduleDelivery();
+    }
+
+    private void requestHeartbeat()
+    {
+      synchronized (this) { heartbeatPending = true; }
+      scheduleDelivery();
+    }
+
+    private void expire()
+    {
+      synchronized (this) { expired = true; }
+      scheduleDelivery();
+    }
+
+    /*
+     * Hand the subscription to the delivery pool unless a pool thread is already working on it.
+     */
+    private void scheduleDelivery()
+    {
+      if (!delivering.compareAndSet(false, true)) return;
+      try { deliveryPool.execute(this::deliver); }
+      catch (Exception e) { delivering.set(false); }
+    }
+
+    /*
+     * Send everything that is pending. Runs on a pool thread.
+     */
+    private void deliver()
+    {
+      try
+      {
+        while (true)
+        {
+          List<SystemEvent> events;
+          boolean sendHeartbeat, sendOverflow, closeNow;
+          long overflowToken;
+          synchronized (this)
+          {
+            // Nothing is sent while paused since the caller may be using the sink for replay
+            if (closed || !started) return;
+            sendOverflow = overflowed;
+            overflowToken = lastToken;
+            closeNow = overflowed || expired || sink.isClosed();
+            events = closeNow ? List.of() : new ArrayList<>(buffer);
+            if (!events.isEmpty()) buffer.clear();
+            sendHeartbeat = heartbeatPending && !closeNow;
+            heartbeatPending = false;
+            if (events.isEmpty() && !sendHeartbeat && !closeNow) return;
+          }
+          if (closeNow)
+          {
+            if (sendOverflow && !sink.isClosed()) sink.sendOverflow(overflowToken);
+            close();
+            return;
+          }
+          for (SystemEvent e : events)
+          {
+            if (filter == null || filter.test(e)) sink.send(e);
+            synchronized (this) { lastToken = Math.max(lastToken, e.getToken()); }
+          }
+          if (sendHeartbeat) sink.sendHeartbeat();
+        }
+      }
+      catch (Exception e)
+      {
+        // Most likely the client has gone away
+        _log.debug(LibUtils.getMsg("SYSLIB_EVENTS_SEND_ERROR", tenantId, e.getMessage()));
+        close();
+      }
+      finally
+      {
+        delivering.set(false);
+        // Work may have arrived after the last check but before the flag was cleared
+        if (hasPendingWork()) scheduleDelivery();
+      }
+    }
+
+    private synchronized boolean hasPendingWork()
+    {
+      return !closed && started && (!buffer.isEmpty() || heartbeatPending || overflowed || expired);
+    }
+  }
+}
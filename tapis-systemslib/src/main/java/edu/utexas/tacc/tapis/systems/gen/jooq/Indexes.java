@@ -5,6 +5,9 @@ package edu.utexas.tacc.tapis.systems.gen.jooq;
 
 
 import edu.utexas.tacc.tapis.systems.gen.jooq.tables.FlywaySchemaHistory;
+import edu.utexas.tacc.tapis.systems.gen.jooq.tables.SystemTombstones;
+import edu.utexas.tacc.tapis.systems.gen.jooq.tables.SystemUserPerms;
+import edu.utexas.tacc.tapis.systems.gen.jooq.tables.SystemUpdates;
 import edu.utexas.tacc.tapis.systems.gen.jooq.tables.Systems;
 
 import org.jooq.Index;
@@ -26,6 +29,10 @@ public class Indexes {
     public static final Index FLYWAY_SCHEMA_HISTORY_S_IDX = Internal.createIndex(DSL.name("flyway_schema_history_s_idx"), FlywaySchemaHistory.FLYWAY_SCHEMA_HISTORY, new OrderField[] { FlywaySchemaHistory.FLYWAY_SCHEMA_HISTORY.SUCCESS }, false);
     public static final Index SYS_HOST_IDX = Internal.createIndex(DSL.name("sys_host_idx"), Systems.SYSTEMS, new OrderField[] { Systems.SYSTEMS.HOST }, false);
     public static final Index SYS_OWNER_IDX = Internal.createIndex(DSL.name("sys_owner_idx"), Systems.SYSTEMS, new OrderField[] { Systems.SYSTEMS.OWNER }, false);
+    public static final Index SYS_PERM_TENANT_SYSTEM_ID_IDX = Internal.createIndex(DSL.name("sys_perm_tenant_system_id_idx"), SystemUserPerms.SYSTEM_USER_PERMS, new OrderField[] { SystemUserPerms.SYSTEM_USER_PERMS.TENANT, SystemUserPerms.SYSTEM_USER_PERMS.SYSTEM_ID }, false);
     public static final Index SYS_TAGS_IDX = Internal.createIndex(DSL.name("sys_tags_idx"), Systems.SYSTEMS, new OrderField[] { Systems.SYSTEMS.TAGS }, false);
+    public static final Index SYS_TENANT_CHANGE_SEQ_IDX = Internal.createIndex(DSL.name("sys_tenant_change_seq_idx"), Systems.SYSTEMS, new OrderField[] { Systems.SYSTEMS.TENANT, Systems.SYSTEMS.CHANGE_SEQ }, false);
     public static final Index SYS_TENANT_NAME_IDX = Internal.createIndex(DSL.name("sys_tenant_name_idx"), Systems.SYSTEMS, new OrderField[] { Systems.SYSTEMS.TENANT, Systems.SYSTEMS.ID }, false);
+    public static final Index SYS_TOMB_TENANT_CHANGE_SEQ_IDX = Internal.createIndex(DSL.name("sys_tomb_tenant_change_seq_idx"), SystemTombstones.SYSTEM_TOMBSTONES, new OrderField[] { SystemTombstones.SYSTEM_TOMBSTONES.TENANT, SystemTombstones.SYSTEM_TOMBSTONES.CHANGE_SEQ }, false);
+    public static final Index SYS_UPD_TENANT_SEQ_ID_IDX = Internal.createIndex(DSL.name("sys_upd_tenant_seq_id_idx"), SystemUpdates.SYSTEM_UPDATES, new OrderField[] { SystemUpdates.SYSTEM_UPDATES.SYSTEM_TENANT, SystemUpdates.SYSTEM_UPDATES.SEQ_ID }, false);
 }
@@ -8,12 +8,16 @@ import edu.utexas.tacc.tapis.systems.gen.jooq.tables.Capabilities;
 import edu.utexas.tacc.tapis.systems.gen.jooq.tables.FlywaySchemaHistory;
 import edu.utexas.tacc.tapis.systems.gen.jooq.tables.JobRuntimes;
 import edu.utexas.tacc.tapis.systems.gen.jooq.tables.LogicalQueues;
+import edu.utexas.tacc.tapis.systems.gen.jooq.tables.SystemTombstones;
+import edu.utexas.tacc.tapis.systems.gen.jooq.tables.SystemUserPerms;
 import edu.utexas.tacc.tapis.systems.gen.jooq.tables.SystemUpdates;
 import edu.utexas.tacc.tapis.systems.gen.jooq.tables.Systems;
 import edu.utexas.tacc.tapis.systems.gen.jooq.tables.records.CapabilitiesRecord;
 import edu.utexas.tacc.tapis.systems.gen.jooq.tables.records.FlywaySchemaHistoryRecord;
 import edu.utexas.tacc.tapis.systems.gen.jooq.tables.records.JobRuntimesRecord;
 import edu.utexas.tacc.tapis.systems.gen.jooq.tables.records.LogicalQueuesRecord;
+import edu.utexas.tacc.tapis.systems.gen.jooq.tables.records.SystemTombstonesRecord;
+import edu.utexas.tacc.tapis.systems.gen.jooq.tables.records.SystemUserPermsRecord;
 import edu.utexas.tacc.tapis.systems.gen.jooq.tables.records.SystemUpdatesRecord;
 import edu.utexas.tacc.tapis.systems.gen.jooq.tables.records.SystemsRecord;
 
@@ -41,7 +45,9 @@ public class Keys {
     public static final UniqueKey<JobRuntimesRecord> JOB_RUNTIMES_PKEY = Internal.createUniqueKey(JobRuntimes.JOB_RUNTIMES, DSL.name("job_runtimes_pkey"), new TableField[] { JobRuntimes.JOB_RUNTIMES.SEQ_ID }, true);
     public static final UniqueKey<LogicalQueuesRecord> LOGICAL_QUEUES_PKEY = Internal.createUniqueKey(LogicalQueues.LOGICAL_QUEUES, DSL.name("logical_queues_pkey"), new TableField[] { LogicalQueues.LOGICAL_QUEUES.SEQ_ID }, true);
     public static final UniqueKey<LogicalQueuesRecord> LOGICAL_QUEUES_SYSTEM_SEQ_ID_NAME_KEY = Internal.createUniqueKey(LogicalQueues.LOGICAL_QUEUES, DSL.name("logical_queues_system_seq_id_name_key"), new TableField[] { LogicalQueues.LOGICAL_QUEUES.SYSTEM_SEQ_ID, LogicalQueues.LOGICAL_QUEUES.NAME }, true);
+    public static final UniqueKey<SystemTombstonesRecord> SYSTEM_TOMBSTONES_PKEY = Internal.createUniqueKey(SystemTombstones.SYSTEM_TOMBSTONES, DSL.name("system_tombstones_pkey"), new TableField[] { SystemTombstones.SYSTEM_TOMBSTONES.SEQ_ID }, true);
     public static final UniqueKey<SystemUpdatesRecord> SYSTEM_UPDATES_PKEY = Internal.createUniqueKey(SystemUpdates.SYSTEM_UPDATES, DSL.name("system_updates_pkey"), new TableField[] { SystemUpdates.SYSTEM_UPDATES.SEQ_ID }, true);
+    public static final UniqueKey<SystemUserPermsRecord> SYSTEM_USER_PERMS_PKEY = Internal.createUniqueKey(SystemUserPerms.SYSTEM_USER_PERMS, DSL.name("system_user_perms_pkey"), new TableField[] { SystemUserPerms.SYSTEM_USER_PERMS.TENANT, SystemUserPerms.SYSTEM_USER_PERMS.USER_NAME, SystemUserPerms.SYSTEM_USER_PERMS.SYSTEM_ID, SystemUserPerms.SYSTEM_USER_PERMS.PERMISSION }, true);
     public static final UniqueKey<SystemsRecord> SYSTEMS_PKEY = Internal.createUniqueKey(Systems.SYSTEMS, DSL.name("systems_pkey"), new TableField[] { Systems.SYSTEMS.SEQ_ID }, true);
     public static final UniqueKey<SystemsRecord> SYSTEMS_TENANT_ID_KEY = Internal.createUniqueKey(Systems.SYSTEMS, DSL.name("systems_tenant_id_key"), new TableField[] { Systems.SYSTEMS.TENANT, Systems.SYSTEMS.ID }, true);
 
@@ -30,11 +30,26 @@ public class Sequences {
      */
     public static final Sequence<Integer> LOGICAL_QUEUES_SEQ_ID_SEQ = Internal.createSequence("logical_queues_seq_id_seq", TapisSys.TAPIS_SYS, SQLDataType.INTEGER.nullable(false), null, null, null, null, false, null);
 
+    /**
+     * The sequence <code>tapis_sys.system_tombstones_seq_id_seq</code>
+     */
+    public static final Sequence<Integer> SYSTEM_TOMBSTONES_SEQ_ID_SEQ = Internal.createSequence("system_tombstones_seq_id_seq", TapisSys.TAPIS_SYS, SQLDataType.INTEGER.nullable(false), null, null, null, null, false, null);
+
+    /**
+     * The sequence <code>tapis_sys.system_user_perms_version_seq</code>
+     */
+    public static final Sequence<Long> SYSTEM_USER_PERMS_VERSION_SEQ = Internal.createSequence("system_user_perms_version_seq", TapisSys.TAPIS_SYS, SQLDataType.BIGINT.nullable(false), null, null, null, null, false, null);
+
     /**
      * The sequence <code>tapis_sys.system_updates_seq_id_seq</code>
      */
     public static final Sequence<Integer> SYSTEM_UPDATES_SEQ_ID_SEQ = Internal.createSequence("system_updates_seq_id_seq", TapisSys.TAPIS_SYS, SQLDataType.INTEGER.nullable(false), null, null, null, null, false, null);
 
+    /**
+     * The sequence <code>tapis_sys.systems_change_seq</code>
+     */
+    public static final Sequence<Long> SYSTEMS_CHANGE_SEQ = Internal.createSequence("systems_change_seq", TapisSys.TAPIS_SYS, SQLDataType.BIGINT.nullable(false), null, null, null, null, false, null);
+
     /**
      * The sequence <code>tapis_sys.systems_seq_id_seq</code>
      */
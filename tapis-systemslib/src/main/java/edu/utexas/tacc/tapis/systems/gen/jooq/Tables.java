@@ -8,6 +8,8 @@ import edu.utexas.tacc.tapis.systems.gen.jooq.tables.Capabilities;
 import edu.utexas.tacc.tapis.systems.gen.jooq.tables.FlywaySchemaHistory;
 import edu.utexas.tacc.tapis.systems.gen.jooq.tables.JobRuntimes;
 import edu.utexas.tacc.tapis.systems.gen.jooq.tables.LogicalQueues;
+import edu.utexas.tacc.tapis.systems.gen.jooq.tables.SystemTombstones;
+import edu.utexas.tacc.tapis.systems.gen.jooq.tables.SystemUserPerms;
 import edu.utexas.tacc.tapis.systems.gen.jooq.tables.SystemUpdates;
 import edu.utexas.tacc.tapis.systems.gen.jooq.tables.Systems;
 
@@ -38,11 +40,21 @@ public class Tables {
      */
     public static final LogicalQueues LOGICAL_QUEUES = LogicalQueues.LOGICAL_QUEUES;
 
+    /**
+     * The table <code>tapis_sys.system_tombstones</code>.
+     */
+    public static final SystemTombstones SYSTEM_TOMBSTONES = SystemTombstones.SYSTEM_TOMBSTONES;
+
     /**
      * The table <code>tapis_sys.system_updates</code>.
      */
     public static final SystemUpdates SYSTEM_UPDATES = SystemUpdates.SYSTEM_UPDATES;
 
+    /**
+     * The table <code>tapis_sys.system_user_perms</code>.
+     */
+    public static final SystemUserPerms SYSTEM_USER_PERMS = SystemUserPerms.SYSTEM_USER_PERMS;
+
     /**
      * The table <code>tapis_sys.systems</code>.
      */
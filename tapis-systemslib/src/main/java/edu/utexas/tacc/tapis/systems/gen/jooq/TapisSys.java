@@ -8,6 +8,8 @@ import edu.utexas.tacc.tapis.systems.gen.jooq.tables.Capabilities;
 import edu.utexas.tacc.tapis.systems.gen.jooq.tables.FlywaySchemaHistory;
 import edu.utexas.tacc.tapis.systems.gen.jooq.tables.JobRuntimes;
 import edu.utexas.tacc.tapis.systems.gen.jooq.tables.LogicalQueues;
+import edu.utexas.tacc.tapis.systems.gen.jooq.tables.SystemTombstones;
+import edu.utexas.tacc.tapis.systems.gen.jooq.tables.SystemUserPerms;
 import edu.utexas.tacc.tapis.systems.gen.jooq.tables.SystemUpdates;
 import edu.utexas.tacc.tapis.systems.gen.jooq.tables.Systems;
 
@@ -53,11 +55,21 @@ public class TapisSys extends SchemaImpl {
      */
     public final LogicalQueues LOGICAL_QUEUES = LogicalQueues.LOGICAL_QUEUES;
 
+    /**
+     * The table <code>tapis_sys.system_tombstones</code>.
+     */
+    public final SystemTombstones SYSTEM_TOMBSTONES = SystemTombstones.SYSTEM_TOMBSTONES;
+
     /**
      * The table <code>tapis_sys.system_updates</code>.
      */
     public final SystemUpdates SYSTEM_UPDATES = SystemUpdates.SYSTEM_UPDATES;
 
+    /**
+     * The table <code>tapis_sys.system_user_perms</code>.
+     */
+    public final SystemUserPerms SYSTEM_USER_PERMS = SystemUserPerms.SYSTEM_USER_PERMS;
+
     /**
      * The table <code>tapis_sys.systems</code>.
      */
@@ -82,7 +94,9 @@ public class TapisSys extends SchemaImpl {
             Sequences.CAPABILITIES_SEQ_ID_SEQ,
             Sequences.JOB_RUNTIMES_SEQ_ID_SEQ,
             Sequences.LOGICAL_QUEUES_SEQ_ID_SEQ,
+            Sequences.SYSTEM_TOMBSTONES_SEQ_ID_SEQ,
             Sequences.SYSTEM_UPDATES_SEQ_ID_SEQ,
+            Sequences.SYSTEMS_CHANGE_SEQ,
             Sequences.SYSTEMS_SEQ_ID_SEQ);
     }
 
@@ -93,7 +107,9 @@ public class TapisSys extends SchemaImpl {
             FlywaySchemaHistory.FLYWAY_SCHEMA_HISTORY,
             JobRuntimes.JOB_RUNTIMES,
             LogicalQueues.LOGICAL_QUEUES,
+            SystemTombstones.SYSTEM_TOMBSTONES,
             SystemUpdates.SYSTEM_UPDATES,
+            SystemUserPerms.SYSTEM_USER_PERMS,
             Systems.SYSTEMS);
     }
 }
@@ -7,6 +7,7 @@ package edu.utexas.tacc.tapis.systems.gen.jooq.tables;
 import com.google.gson.JsonElement;
 
 import edu.utexas.tacc.tapis.systems.dao.JSONBToJsonElementBinding;
+import edu.utexas.tacc.tapis.systems.gen.jooq.Indexes;
 import edu.utexas.tacc.tapis.systems.gen.jooq.Keys;
 import edu.utexas.tacc.tapis.systems.gen.jooq.TapisSys;
 import edu.utexas.tacc.tapis.systems.gen.jooq.tables.records.SystemUpdatesRecord;
@@ -19,6 +20,7 @@ import java.util.List;
 import org.jooq.Field;
 import org.jooq.ForeignKey;
 import org.jooq.Identity;
+import org.jooq.Index;
 import org.jooq.Name;
 import org.jooq.Record;
 import org.jooq.Row11;
@@ -147,6 +149,11 @@ public class SystemUpdates extends TableImpl<SystemUpdatesRecord> {
         return TapisSys.TAPIS_SYS;
     }
 
+    @Override
+    public List<Index> getIndexes() {
+        return Arrays.<Index>asList(Indexes.SYS_UPD_TENANT_SEQ_ID_IDX);
+    }
+
     @Override
     public Identity<SystemUpdatesRecord, Integer> getIdentity() {
         return (Identity<SystemUpdatesRecord, Integer>) super.getIdentity();
@@ -227,6 +227,11 @@ public class Systems extends TableImpl<SystemsRecord> {
      */
     public final TableField<SystemsRecord, LocalDateTime> UPDATED = createField(DSL.name("updated"), SQLDataType.LOCALDATETIME(6).nullable(false).defaultValue(DSL.field("timezone('utc'::text, now())", SQLDataType.LOCALDATETIME)), this, "UTC time for when record was last updated");
 
+    /**
+     * The column <code>tapis_sys.systems.change_seq</code>. Value of systems_change_seq at time of last create, update or delete
+     */
+    public final TableField<SystemsRecord, Long> CHANGE_SEQ = createField(DSL.name("change_seq"), SQLDataType.BIGINT.nullable(false).defaultValue(DSL.field("nextval('systems_change_seq'::regclass)", SQLDataType.BIGINT)), this, "Value of systems_change_seq at time of last create, update or delete");
+
     private Systems(Name alias, Table<SystemsRecord> aliased) {
         this(alias, aliased, null);
     }
@@ -267,7 +272,7 @@ public class Systems extends TableImpl<SystemsRecord> {
 
     @Override
     public List<Index> getIndexes() {
-        return Arrays.<Index>asList(Indexes.SYS_HOST_IDX, Indexes.SYS_OWNER_IDX, Indexes.SYS_TAGS_IDX, Indexes.SYS_TENANT_NAME_IDX);
+        return Arrays.<Index>asList(Indexes.SYS_HOST_IDX, Indexes.SYS_OWNER_IDX, Indexes.SYS_TAGS_IDX, Indexes.SYS_TENANT_CHANGE_SEQ_IDX, Indexes.SYS_TENANT_NAME_IDX);
     }
 
     @Override
@@ -502,6 +502,20 @@ public class SystemsRecord extends UpdatableRecordImpl<SystemsRecord> {
         return (LocalDateTime) get(33);
     }
 
+    /**
+     * Setter for <code>tapis_sys.systems.change_seq</code>. Value of systems_change_seq at time of last create, update or delete
+     */
+    public void setChangeSeq(Long value) {
+        set(34, value);
+    }
+
+    /**
+     * Getter for <code>tapis_sys.systems.change_seq</code>. Value of systems_change_seq at time of last create, update or delete
+     */
+    public Long getChangeSeq() {
+        return (Long) get(34);
+    }
+
     // -------------------------------------------------------------------------
     // Primary key information
     // -------------------------------------------------------------------------
@@ -525,7 +539,7 @@ public class SystemsRecord extends UpdatableRecordImpl<SystemsRecord> {
     /**
      * Create a detached, initialised SystemsRecord
      */
-    public SystemsRecord(Integer seqId, String tenant, String id, String description, SystemType systemType, String owner, String host, Boolean enabled, String effectiveUserId, AuthnMethod defaultAuthnMethod, String bucketName, String rootDir, Integer port, Boolean useProxy, String proxyHost, Integer proxyPort, String dtnSystemId, String dtnMountPoint, String dtnMountSourcePath, Boolean isDtn, Boolean canExec, String jobWorkingDir, String[] jobEnvVariables, Integer jobMaxJobs, Integer jobMaxJobsPerUser, Boolean jobIsBatch, SchedulerType batchScheduler, String batchDefaultLogicalQueue, String[] tags, JsonElement notes, UUID uuid, Boolean deleted, LocalDateTime created, LocalDateTime updated) {
+    public SystemsRecord(Integer seqId, String tenant, String id, String description, SystemType systemType, String owner, String host, Boolean enabled, String effectiveUserId, AuthnMethod defaultAuthnMethod, String bucketName, String rootDir, Integer port, Boolean useProxy, String proxyHost, Integer proxyPort, String dtnSystemId, String dtnMountPoint, String dtnMountSourcePath, Boolean isDtn, Boolean canExec, String jobWorkingDir, String[] jobEnvVariables, Integer jobMaxJobs, Integer jobMaxJobsPerUser, Boolean jobIsBatch, SchedulerType batchScheduler, String batchDefaultLogicalQueue, String[] tags, JsonElement notes, UUID uuid, Boolean deleted, LocalDateTime created, LocalDateTime updated, Long changeSeq) {
         super(Systems.SYSTEMS);
 
         setSeqId(seqId);
@@ -562,5 +576,6 @@ public class SystemsRecord extends UpdatableRecordImpl<SystemsRecord> {
         setDeleted(deleted);
         setCreated(created);
         setUpdated(updated);
+        setChangeSeq(changeSeq);
     }
 }
@@ -0,0 +1,87 @@
+package edu.utexas.tacc.tapis.systems.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * Latency histogram with fixed buckets and an error count.
+ * Recording is lock-free: each bucket is a LongAdder, so concurrent threads recording on the request path do not
+ *   contend with each other or with a scrape.
+ * Bucket counts are kept per bucket and made cumulative when read, as expected by Prometheus.
+ * A scrape taken while calls are being recorded may see the count and sum from slightly different moments.
+ */
+public final class LatencyHistogram
+{
+  /* ********************************************************************** */
+  /*                               Constants                                */
+  /* ********************************************************************** */
+  // Upper bounds of the buckets in seconds. A final +Inf bucket is implied.
+  public static final double[] BUCKET_BOUNDS_SECONDS =
+          {0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1.0, 2.5, 5.0, 10.0};
+
+  private static final long[] BUCKET_BOUNDS_NANOS = new long[BUCKET_BOUNDS_SECONDS.length];
+  static
+  {
+    for (int i = 0; i < BUCKET_BOUNDS_SECONDS.length; i++)
+      BUCKET_BOUNDS_NANOS[i] = (long) (BUCKET_BOUNDS_SECONDS[i] * TimeUnit.SECONDS.toNanos(1));
+  }
+
+  /* ********************************************************************** */
+  /*                                 Fields                                 */
+  /* ********************************************************************** */
+  // One more than the number of bounds for the +Inf bucket
+  private final LongAdder[] buckets = new LongAdder[BUCKET_BOUNDS_NANOS.length + 1];
+  private final LongAdder sumNanos = new LongAdder();
+  private final LongAdder errors = new LongAdder();
+
+  /* ********************************************************************** */
+  /*                             Constructors                               */
+  /* ********************************************************************** */
+  public LatencyHistogram()
+  {
+    for (int i = 0; i < buckets.length; i++) buckets[i] = new LongAdder();
+  }
+
+  /* ********************************************************************** */
+  /*                             Public Methods                             */
+  /* ********************************************************************** */
+
+  /**
+   * Record a call
+   * @param nanos - duration of the call
+   * @param error - true if the call failed
+   */
+  public void record(long nanos, boolean error)
+  {
+    int i = 0;
+    while (i < BUCKET_BOUNDS_NANOS.length && nanos > BUCKET_BOUNDS_NANOS[i]) i++;
+    buckets[i].increment();
+    sumNanos.add(Math.max(0L, nanos));
+    if (error) errors.increment();
+  }
+
+  /**
+   * @return cumulative count for each bucket in BUCKET_BOUNDS_SECONDS order followed by the +Inf bucket
+   */
+  public long[] getCumulativeCounts()
+  {
+    long[] counts = new long[buckets.length];
+    long total = 0L;
+    for (int i = 0; i < buckets.length; i++)
+    {
+      total += buckets[i].sum();
+      counts[i] = total;
+    }
+    return counts;
+  }
+
+  public long getCount()
+  {
+    long total = 0L;
+    for (LongAdder bucket : buckets) total += bucket.sum();
+    return total;
+  }
+
+  public double getSumSeconds() { return sumNanos.sum() / (double) TimeUnit.SECONDS.toNanos(1); }
+  public long getErrorCount() { return errors.sum(); }
+}
@@ -0,0 +1,129 @@
+package edu.utexas.tacc.tapis.systems.metrics;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/*
+ * Time spent by a single request in each phase of processing, reported to the client in a Server-Timing header.
+ * A timing context is created only for requests that asked for it, or for all requests if so configured, and
+ *   is made current for the threads doing the work. Code recording a phase calls the static record method,
+ *   which does nothing when there is no current context, so the cost for other requests is a thread local lookup.
+ * Phases may be recorded concurrently, for example by Security Kernel calls made in parallel, in which case the
+ *   duration for a phase is the sum over all calls and may exceed the total.
+ */
+public final class RequestTiming
+{
+  /* ********************************************************************** */
+  /*                               Constants                                */
+  /* ********************************************************************** */
+  // Name of the response header
+  public static final String HEADER_NAME = "Server-Timing";
+
+  /*
+   * Phases of request processing, in the order written to the header
+   */
+  public enum Phase
+  {
+    FILTERS("filters", false),  // Request filters including JWT validation
+    DB("db", true),             // DB statements
+    SK("sk", true),             // Security Kernel calls
+    CRED("cred", true),         // Credential retrieval, from the cache or Security Kernel
+    SER("ser", true);           // JSON serialization of the response
+
+    private final String metricName;
+    private final boolean counted;
+    Phase(String name1, boolean counted1) { metricName = name1; counted = counted1; }
+    public String getMetricName() { return metricName; }
+  }
+
+  private static final Phase[] PHASES = Phase.values();
+
+  /* ********************************************************************** */
+  /*                                 Fields                                 */
+  /* ********************************************************************** */
+  private static final ThreadLocal<RequestTiming> current = new ThreadLocal<>();
+
+  private final long startNanos;
+  private final AtomicLongArray nanos = new AtomicLongArray(PHASES.length);
+  private final AtomicLongArray counts = new AtomicLongArray(PHASES.length);
+
+  /* ********************************************************************** */
+  /*                             Constructors                               */
+  /* ********************************************************************** */
+  /**
+   * @param startNanos1 - System.nanoTime() when the request was received
+   */
+  public RequestTiming(long startNanos1) { startNanos = startNanos1; }
+
+  /* ********************************************************************** */
+  /*                             Public Methods                             */
+  /* ********************************************************************** */
+
+  /**
+   * @return timing context for the current thread, null if none
+   */
+  public static RequestTiming current() { return current.get(); }
+
+  /**
+   * Make a timing context current for this thread. Null to clear.
+   */
+  public static void setCurrent(RequestTiming timing)
+  {
+    if (timing == null) current.remove();
+    else current.set(timing);
+  }
+
+  /**
+   * Add time to a phase of the current request, if there is a timing context
+   * @param phase - phase of processing
+   * @param elapsedNanos - time spent
+   */
+  public static void record(Phase phase, long elapsedNanos)
+  {
+    RequestTiming timing = current.get();
+    if (timing != null) timing.add(phase, elapsedNanos);
+  }
+
+  /**
+   * Add time to a phase
+   */
+  public void add(Phase phase, long elapsedNanos)
+  {
+    nanos.addAndGet(phase.ordinal(), elapsedNanos);
+    counts.incrementAndGet(phase.ordinal());
+  }
+
+  public long getStartNanos() { return startNanos; }
+  public long getNanos(Phase phase) { return nanos.get(phase.ordinal()); }
+  public long getCount(Phase phase) { return counts.get(phase.ordinal()); }
+
+  /**
+   * Build the Server-Timing header value. Phases not recorded are left out.
+   * For example: filters;dur=2.1, db;dur=4.3;count=3, sk;dur=40.2;count=2, ser;dur=0.4;count=1, total;dur=51.0
+   * @param endNanos - System.nanoTime() when the response was ready
+   * @return header value
+   */
+  public String toHeaderValue(long endNanos)
+  {
+    var buf = new StringBuilder();
+    for (Phase phase : PHASES)
+    {
+      long count = counts.get(phase.ordinal());
+      if (count == 0) continue;
+      buf.append(phase.metricName).append(";dur=").append(formatMillis(nanos.get(phase.ordinal())));
+      if (phase.counted) buf.append(";count=").append(count);
+      buf.append(", ");
+    }
+    return buf.append("total;dur=").append(formatMillis(endNanos - startNanos)).toString();
+  }
+
+  /* ********************************************************************** */
+  /*                             Private Methods                            */
+  /* ********************************************************************** */
+
+  private static String formatMillis(long elapsedNanos)
+  {
+    return String.format(Locale.ROOT, "%.1f", elapsedNanos / (double) TimeUnit.MILLISECONDS.toNanos(1));
+  }
+}
@@ -0,0 +1,239 @@
+package edu.utexas.tacc.tapis.systems.metrics;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.DoubleSupplier;
+
+/*
+ * Process wide registry of service metrics, written out in the Prometheus text exposition format.
+ * Latency histograms are grouped into families, one per kind of call, with a single label distinguishing the
+ *   calls within a family, for example the resource method or DAO method name.
+ * Gauges and counters maintained elsewhere, such as cache statistics and DB connection pool state, are
+ *   registered as suppliers and read only when metrics are written.
+ * The registry is static so that code without access to injected objects, such as static caches, can register.
+ */
+public final class SystemsMetrics
+{
+  /* ********************************************************************** */
+  /*                               Constants                                */
+  /* ********************************************************************** */
+  // Content type of the Prometheus text format
+  public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+  private static final String METRIC_PREFIX = "tapis_systems_";
+
+  // Families of latency histograms
+  public static final Family HTTP = new Family("http_request", "REST requests by resource method", "method");
+  public static final Family DAO = new Family("dao_call", "DAO calls by method", "method");
+  public static final Family SK = new Family("sk_call", "Security Kernel calls by operation", "operation");
+  public static final Family JSON = new Family("json_serialization", "JSON serialization of responses by type", "type");
+  private static final Family[] FAMILIES = {HTTP, DAO, SK, JSON};
+
+  /* ********************************************************************** */
+  /*                                 Fields                                 */
+  /* ********************************************************************** */
+  // Gauges and counters keyed by metric name, sorted so output is stable
+  private static final Map<String, Supplied> supplied = new ConcurrentSkipListMap<>();
+
+  /* ********************************************************************** */
+  /*                             Constructors                               */
+  /* ********************************************************************** */
+  private SystemsMetrics() { }
+
+  /* ********************************************************************** */
+  /*                             Public Methods                             */
+  /* ********************************************************************** */
+
+  /**
+   * Register a gauge. Replaces any metric previously registered with the same name.
+   * @param name - metric name without the service prefix
+   * @param help - description of the metric
+   * @param supplier - supplies the current value
+   */
+  public static void registerGauge(String name, String help, DoubleSupplier supplier)
+  {
+    supplied.put(METRIC_PREFIX + name, new Supplied(help, "gauge", supplier));
+  }
+
+  /**
+   * Register a counter, a value that only increases. Replaces any metric previously registered with the same name.
+   * @param name - metric name without the service prefix, normally ending in _total
+   * @param help - description of the metric
+   * @param supplier - supplies the current value
+   */
+  public static void registerCounter(String name, String help, DoubleSupplier supplier)
+  {
+    supplied.put(METRIC_PREFIX + name, new Supplied(help, "counter", supplier));
+  }
+
+  /**
+   * Wrap an object so that each call of a method of the interface is recorded in a family, labeled with the
+   *   method name. A call that throws is recorded as an error.
+   * @param iface - interface to record calls for
+   * @param target - object implementing the interface
+   * @param family - family in which to record calls
+   * @return object implementing the interface that records each call and then delegates to target
+   */
+  public static <T> T timed(Class<T> iface, T target, Family family)
+  {
+    InvocationHandler handler = (proxy, method, args) ->
+    {
+      long start = System.nanoTime();
+      boolean error = true;
+      try
+      {
+        Object result = method.invoke(target, args);
+        error = false;
+        return result;
+      }
+      catch (InvocationTargetException e) { throw e.getCause(); }
+      finally
+      {
+        if (method.getDeclaringClass() != Object.class) family.record(method.getName(), System.nanoTime() - start, error);
+      }
+    };
+    return iface.cast(Proxy.newProxyInstance(iface.getClassLoader(), new Class<?>[] {iface}, handler));
+  }
+
+  /**
+   * Write all metrics in the Prometheus text exposition format.
+   * @return metrics text
+   */
+  public static String scrape()
+  {
+    var buf = new StringBuilder(8192);
+    for (Family family : FAMILIES) family.write(buf);
+    for (Map.Entry<String, Supplied> entry : supplied.entrySet())
+    {
+      String name = entry.getKey();
+      Supplied metric = entry.getValue();
+      double value;
+      try { value = metric.supplier.getAsDouble(); }
+      catch (RuntimeException e) { value = Double.NaN; }
+      writeHeader(buf, name, metric.help, metric.type);
+      buf.append(name).append(' ').append(formatValue(value)).append('\n');
+    }
+    return buf.toString();
+  }
+
+  /* ********************************************************************** */
+  /*                             Private Methods                            */
+  /* ********************************************************************** */
+
+  private static void writeHeader(StringBuilder buf, String name, String help, String type)
+  {
+    buf.append("# HELP ").append(name).append(' ').append(help).append('\n');
+    buf.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+  }
+
+  private static String formatValue(double value)
+  {
+    if (Double.isNaN(value)) return "NaN";
+    if (Double.isInfinite(value)) return (value > 0) ? "+Inf" : "-Inf";
+    if (value == Math.rint(value) && Math.abs(value) < 1.0e15) return Long.toString((long) value);
+    return Double.toString(value);
+  }
+
+  private static String escapeLabel(String value)
+  {
+    return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+  }
+
+  /* ********************************************************************** */
+  /*                             Nested Classes                             */
+  /* ********************************************************************** */
+
+  /**
+   * Group of latency histograms, one per label value, written as a single histogram metric and a single
+   *   error counter.
+   */
+  public static final class Family
+  {
+    private final String durationName;
+    private final String errorsName;
+    private final String help;
+    private final String labelName;
+    private final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+    private Family(String baseName, String help1, String labelName1)
+    {
+      durationName = METRIC_PREFIX + baseName + "_duration_seconds";
+      errorsName = METRIC_PREFIX + baseName + "_errors_total";
+      help = help1;
+      labelName = labelName1;
+    }
+
+    /**
+     * Get the histogram for a label value, creating it on first use
+     */
+    public LatencyHistogram histogram(String labelValue)
+    {
+      // Plain get first since computeIfAbsent may lock even when the value is present
+      LatencyHistogram histogram = histograms.get(labelValue);
+      return (histogram != null) ? histogram : histograms.computeIfAbsent(labelValue, k -> new LatencyHistogram());
+    }
+
+    /**
+     * Record a call
+     * @param labelValue - label value, such as method name
+     * @param nanos - duration of the call
+     * @param error - true if the call failed
+     */
+    public void record(String labelValue, long nanos, boolean error)
+    {
+      histogram(labelValue).record(nanos, error);
+    }
+
+    private void write(StringBuilder buf)
+    {
+      if (histograms.isEmpty()) return;
+      var sorted = new TreeMap<>(histograms);
+      writeHeader(buf, durationName, "Latency of " + help, "histogram");
+      for (Map.Entry<String, LatencyHistogram> entry : sorted.entrySet())
+      {
+        String label = labelName + "=\"" + escapeLabel(entry.getKey()) + "\"";
+        LatencyHistogram histogram = entry.getValue();
+        long[] counts = histogram.getCumulativeCounts();
+        for (int i = 0; i < counts.length; i++)
+        {
+          String le = (i < LatencyHistogram.BUCKET_BOUNDS_SECONDS.length)
+                      ? Double.toString(LatencyHistogram.BUCKET_BOUNDS_SECONDS[i]) : "+Inf";
+          buf.append(durationName).append("_bucket{").append(label).append(",le=\"").append(le).append("\"} ")
+             .append(counts[i]).append('\n');
+        }
+        buf.append(durationName).append("_sum{").append(label).append("} ")
+           .append(formatValue(histogram.getSumSeconds())).append('\n');
+        buf.append(durationName).append("_count{").append(label).append("} ")
+           .append(counts[counts.length - 1]).append('\n');
+      }
+      writeHeader(buf, errorsName, "Failed " + help, "counter");
+      for (Map.Entry<String, LatencyHistogram> entry : sorted.entrySet())
+      {
+        buf.append(errorsName).append('{').append(labelName).append("=\"").append(escapeLabel(entry.getKey()))
+           .append("\"} ").append(entry.getValue().getErrorCount()).append('\n');
+      }
+    }
+  }
+
+  /*
+   * Gauge or counter whose value is supplied when metrics are written
+   */
+  private static final class Supplied
+  {
+    private final String help;
+    private final String type;
+    private final DoubleSupplier supplier;
+
+    private Supplied(String help1, String type1, DoubleSupplier supplier1)
+    {
+      help = help1;
+      type = type1;
+      supplier = supplier1;
+    }
+  }
+}
@@ -0,0 +1,53 @@
+package edu.utexas.tacc.tapis.systems.model;
+
+/*
+ * Aggregated execution statistics for a DB statement, identified by its normalized SQL.
+ * The normalized SQL (fingerprint) has literals and bind parameters replaced by ? and lists of
+ *   parameters collapsed, so it never contains values from a request.
+ *
+ * This class is intended to represent an immutable object.
+ * Please keep it immutable.
+ */
+public final class StatementStats
+{
+  /* ********************************************************************** */
+  /*                                 Fields                                 */
+  /* ********************************************************************** */
+  private final String fingerprint;
+  private final long count;
+  private final long errorCount;
+  private final long slowCount;
+  private final double totalMillis;
+  private final double meanMillis;
+  private final double maxMillis;
+  private final long rows;
+
+  /* ********************************************************************** */
+  /*                           Constructors                                 */
+  /* ********************************************************************** */
+  public StatementStats(String fingerprint1, long count1, long errorCount1, long slowCount1, double totalMillis1,
+                        double maxMillis1, long rows1)
+  {
+    fingerprint = fingerprint1;
+    count = count1;
+    errorCount = errorCount1;
+    slowCount = slowCount1;
+    totalMillis = totalMillis1;
+    meanMillis = (count1 == 0) ? 0.0 : totalMillis1 / count1;
+    maxMillis = maxMillis1;
+    rows = rows1;
+  }
+
+  /* ********************************************************************** */
+  /*                               Accessors                                */
+  /* ********************************************************************** */
+  public String getFingerprint() { return fingerprint; }
+  public long getCount() { return count; }
+  public long getErrorCount() { return errorCount; }
+  public long getSlowCount() { return slowCount; }
+  public double getTotalMillis() { return totalMillis; }
+  public double getMaxMillis() { return maxMillis; }
+  public double getMeanMillis() { return meanMillis; }
+  // Rows fetched by queries or affected by updates
+  public long getRows() { return rows; }
+}
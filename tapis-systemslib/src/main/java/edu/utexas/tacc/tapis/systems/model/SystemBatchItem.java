@@ -0,0 +1,40 @@
+package edu.utexas.tacc.tapis.systems.model;
+
+/*
+ * Result for a single system in a request to retrieve many systems at once.
+ * If status is FOUND then system is set. Otherwise system is null and message describes the problem.
+ *
+ * This class is intended to represent an immutable object.
+ * Please keep it immutable.
+ */
+public final class SystemBatchItem
+{
+  public enum ItemStatus {FOUND, NOT_FOUND, NOT_AUTHORIZED}
+
+  /* ********************************************************************** */
+  /*                                 Fields                                 */
+  /* ********************************************************************** */
+  private final String id;
+  private final ItemStatus status;
+  private final TSystem system;
+  private final String message;
+
+  /* ********************************************************************** */
+  /*                           Constructors                                 */
+  /* ********************************************************************** */
+  public SystemBatchItem(String id1, ItemStatus status1, TSystem system1, String message1)
+  {
+    id = id1;
+    status = status1;
+    system = (system1 == null) ? null : new TSystem(system1);
+    message = message1;
+  }
+
+  /* ********************************************************************** */
+  /*                               Accessors                                */
+  /* ********************************************************************** */
+  public String getId() { return id; }
+  public ItemStatus getStatus() { return status; }
+  public TSystem getSystem() { return (system == null) ? null : new TSystem(system); }
+  public String getMessage() { return message; }
+}
@@ -0,0 +1,49 @@
+package edu.utexas.tacc.tapis.systems.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/*
+ * Result of a delta sync request: systems created, updated or soft deleted after a given change sequence value
+ *   along with tombstones for systems that have been permanently removed or may no longer be read.
+ * Systems and tombstones are each in ascending order of change sequence.
+ * nextToken is the change sequence value to pass as the starting point of the next request. It accounts for all
+ *   changes examined, including any filtered out based on permissions, so it may be greater than the
+ *   change sequence of the last item returned. If no changes were found it is the value from the request.
+ * If more is true then the number of changes exceeded the limit and the client should request again
+ *   right away using nextToken.
+ *
+ * This class is intended to represent an immutable object.
+ * Please keep it immutable.
+ */
+public final class SystemChanges
+{
+  /* ********************************************************************** */
+  /*                                 Fields                                 */
+  /* ********************************************************************** */
+  private final List<TSystem> systems;
+  private final List<SystemTombstone> tombstones;
+  private final long nextToken;
+  private final boolean more;
+
+  /* ********************************************************************** */
+  /*                           Constructors                                 */
+  /* ********************************************************************** */
+  public SystemChanges(List<TSystem> systems1, List<SystemTombstone> tombstones1, long nextToken1, boolean more1)
+  {
+    systems = (systems1 == null) ? Collections.emptyList() : Collections.unmodifiableList(new ArrayList<>(systems1));
+    tombstones = (tombstones1 == null) ? Collections.emptyList()
+                                       : Collections.unmodifiableList(new ArrayList<>(tombstones1));
+    nextToken = nextToken1;
+    more = more1;
+  }
+
+  /* ********************************************************************** */
+  /*                               Accessors                                */
+  /* ********************************************************************** */
+  public List<TSystem> getSystems() { return systems; }
+  public List<SystemTombstone> getTombstones() { return tombstones; }
+  public long getNextToken() { return nextToken; }
+  public boolean isMore() { return more; }
+}
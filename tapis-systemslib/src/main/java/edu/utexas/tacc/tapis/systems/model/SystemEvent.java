@@ -0,0 +1,56 @@
+package edu.utexas.tacc.tapis.systems.model;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import edu.utexas.tacc.tapis.systems.model.TSystem.SystemOperation;
+
+/*
+ * Notification that a system has been changed. Each event corresponds to a row in the system_updates table and
+ *   the token is the sequence id of that row. Within a tenant tokens increase in the order changes are committed,
+ *   so a client may resume a stream of events by supplying the token of the last event it received.
+ * The JSON and text describing the update are not included since they may be large and are only available
+ *   to users with permission to read the system.
+ *
+ * This class is intended to represent an immutable object.
+ * Please keep it immutable.
+ */
+public final class SystemEvent
+{
+  /* ********************************************************************** */
+  /*                                 Fields                                 */
+  /* ********************************************************************** */
+  private final long token;
+  private final String tenant;
+  private final String systemId;
+  private final UUID uuid;
+  private final SystemOperation operation;
+  private final String userName; // User who requested the update
+  private final Instant created; // UTC time for when update was made
+
+  /* ********************************************************************** */
+  /*                           Constructors                                 */
+  /* ********************************************************************** */
+  public SystemEvent(long token1, String tenant1, String systemId1, UUID uuid1, SystemOperation operation1,
+                     String userName1, Instant created1)
+  {
+    token = token1;
+    tenant = tenant1;
+    systemId = systemId1;
+    uuid = uuid1;
+    operation = operation1;
+    userName = userName1;
+    created = created1;
+  }
+
+  /* ********************************************************************** */
+  /*                               Accessors                                */
+  /* ********************************************************************** */
+  public long getToken() { return token; }
+  public String getTenant() { return tenant; }
+  public String getSystemId() { return systemId; }
+  public UUID getUuid() { return uuid; }
+  public SystemOperation getOperation() { return operation; }
+  public String getUserName() { return userName; }
+  public Instant getCreated() { return created; }
+}
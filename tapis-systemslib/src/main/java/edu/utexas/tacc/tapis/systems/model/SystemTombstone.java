@@ -0,0 +1,44 @@
+package edu.utexas.tacc.tapis.systems.model;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/*
+ * Record of a system that has been permanently removed or that a user may no longer read. Returned by delta sync
+ *   requests so that clients holding a local copy know to drop the system.
+ *
+ * This class is intended to represent an immutable object.
+ * Please keep it immutable.
+ */
+public final class SystemTombstone
+{
+  /* ********************************************************************** */
+  /*                                 Fields                                 */
+  /* ********************************************************************** */
+  private final String tenant;
+  private final String id;
+  private final UUID uuid;
+  private final long changeSeq;
+  private final Instant created; // UTC time for when system was removed
+
+  /* ********************************************************************** */
+  /*                           Constructors                                 */
+  /* ********************************************************************** */
+  public SystemTombstone(String tenant1, String id1, UUID uuid1, long changeSeq1, Instant created1)
+  {
+    tenant = tenant1;
+    id = id1;
+    uuid = uuid1;
+    changeSeq = changeSeq1;
+    created = created1;
+  }
+
+  /* ********************************************************************** */
+  /*                               Accessors                                */
+  /* ********************************************************************** */
+  public String getTenant() { return tenant; }
+  public String getId() { return id; }
+  public UUID getUuid() { return uuid; }
+  public long getChangeSeq() { return changeSeq; }
+  public Instant getCreated() { return created; }
+}
@@ -0,0 +1,59 @@
+package edu.utexas.tacc.tapis.systems.model;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/*
+ * Minimal set of system attributes needed to determine if a system has changed without retrieving the full
+ *   system definition. Used for conditional GET requests.
+ *
+ * This class is intended to represent an immutable object.
+ * Please keep it immutable.
+ */
+public final class SystemVersionInfo
+{
+  /* ********************************************************************** */
+  /*                                 Fields                                 */
+  /* ********************************************************************** */
+  private final String tenant;
+  private final String id;
+  private final UUID uuid;
+  private final Instant updated;
+  private final String owner;
+  private final String effectiveUserId;
+  private final boolean canExec;
+
+  /* ********************************************************************** */
+  /*                           Constructors                                 */
+  /* ********************************************************************** */
+  public SystemVersionInfo(String tenant1, String id1, UUID uuid1, Instant updated1, String owner1,
+                           String effectiveUserId1, boolean canExec1)
+  {
+    tenant = tenant1;
+    id = id1;
+    uuid = uuid1;
+    updated = updated1;
+    owner = owner1;
+    effectiveUserId = effectiveUserId1;
+    canExec = canExec1;
+  }
+
+  /**
+   * Copy constructor replacing effectiveUserId, e.g. with the resolved value.
+   */
+  public SystemVersionInfo(SystemVersionInfo v, String effectiveUserId1)
+  {
+    this(v.tenant, v.id, v.uuid, v.updated, v.owner, effectiveUserId1, v.canExec);
+  }
+
+  /* ********************************************************************** */
+  /*                               Accessors                                */
+  /* ********************************************************************** */
+  public String getTenant() { return tenant; }
+  public String getId() { return id; }
+  public UUID getUuid() { return uuid; }
+  public Instant getUpdated() { return updated; }
+  public String getOwner() { return owner; }
+  public String getEffectiveUserId() { return effectiveUserId; }
+  public boolean getCanExec() { return canExec; }
+}
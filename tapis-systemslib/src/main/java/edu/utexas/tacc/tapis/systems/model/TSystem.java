@@ -8,6 +8,7 @@ import java.util.List;
 import java.util.Set;
 import java.util.UUID;
 
+import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import io.swagger.v3.oas.annotations.media.Schema;
 import org.apache.commons.lang3.StringUtils;
@@ -37,7 +38,8 @@ public final class TSystem
   // ************************************************************************
 
   // Set of reserved system names
-  public static final Set<String> RESERVED_ID_SET = new HashSet<>(Set.of("HEALTHCHECK", "READYCHECK", "SEARCH"));
+  public static final Set<String> RESERVED_ID_SET = new HashSet<>(Set.of("HEALTHCHECK", "READYCHECK", "SEARCH", "FACETS", "CHANGES",
+                                                                          "EVENTS", "BATCHGET", "METRICS"));
 
   public static final String PERMISSION_WILDCARD = "*";
   // Allowed substitution variables
@@ -85,6 +87,11 @@ public final class TSystem
   public static final String UUID_FIELD = "uuid";
   public static final String CREATED_FIELD = "created";
   public static final String UPDATED_FIELD = "updated";
+  public static final String CHANGE_SEQ_FIELD = "changeSeq";
+
+  // Attributes for which counts by value may be requested, e.g. GET /v3/systems/facets
+  public static final List<String> FACET_FIELDS = List.of(SYSTEM_TYPE_FIELD, ENABLED_FIELD, CAN_EXEC_FIELD,
+                                                          BATCH_SCHEDULER_FIELD, OWNER_FIELD, DEFAULT_AUTHN_METHOD_FIELD);
 
   // Default values
   public static final String[] EMPTY_STR_ARRAY = new String[0];
@@ -175,6 +182,7 @@ public final class TSystem
 
   private Instant created; // UTC time for when record was created
   private Instant updated; // UTC time for when record was last updated
+  private long changeSeq; // Value of the change sequence at time of last create, update or delete
 
   // ************************************************************************
   // *********************** Constructors ***********************************
@@ -209,6 +217,7 @@ public final class TSystem
     seqId = t.getSeqId();
     created = t.getCreated();
     updated = t.getUpdated();
+    changeSeq = t.getChangeSeq();
     description = t.getDescription();
     owner = t.getOwner();
     host = t.getHost();
@@ -225,25 +234,25 @@ public final class TSystem
     dtnSystemId = t.getDtnSystemId();
     dtnMountPoint = t.getDtnMountPoint();
     dtnMountSourcePath = t.dtnMountSourcePath;
-    jobRuntimes = t.getJobRuntimes();
+    jobRuntimes = (t.jobRuntimes == null) ? null : new ArrayList<>(t.jobRuntimes);
     jobWorkingDir = t.getJobWorkingDir();
     jobEnvVariables = t.getJobEnvVariables();
     jobMaxJobs = t.getJobMaxJobs();
     jobMaxJobsPerUser = t.getJobMaxJobsPerUser();
     jobIsBatch = t.getJobIsBatch();
     batchScheduler = t.getBatchScheduler();
-    batchLogicalQueues = t.getBatchLogicalQueues();
+    batchLogicalQueues = (t.batchLogicalQueues == null) ? null : new ArrayList<>(t.batchLogicalQueues);
     batchDefaultLogicalQueue = t.getBatchDefaultLogicalQueue();
-    jobCapabilities = t.getJobCapabilities();
+    jobCapabilities = (t.jobCapabilities == null) ? null : new ArrayList<>(t.jobCapabilities);
     tags = (t.getTags() == null) ? EMPTY_STR_ARRAY : t.getTags().clone();
-    notes = t.getNotes();
+    notes = copyNotes(t.notes);
     uuid = t.getUuid();
     deleted = t.isDeleted();
   }
 
   /**
-   * Constructor for jOOQ with input parameter matching order of columns in DB
-   * Also useful for testing
+   * Constructor using all DB attributes except changeSeq, which is assigned by the DAO on every write.
+   * Useful for testing and for building a system from a request.
    * Note that jobRuntimes, batchLogicalQueues and jobCapabilities must be set separately.
    */
   public TSystem(int seqId1, String tenant1, String id1, String description1, SystemType systemType1,
@@ -255,6 +264,27 @@ public final class TSystem
                  int jobMaxJobsPerUser1, boolean jobIsBatch1, SchedulerType batchScheduler1, String batchDefaultLogicalQueue1,
                  String[] tags1, Object notes1, UUID uuid1, boolean deleted1,
                  Instant created1, Instant updated1)
+  {
+    this(seqId1, tenant1, id1, description1, systemType1, owner1, host1, enabled1, effectiveUserId1,
+         defaultAuthnMethod1, bucketName1, rootDir1, port1, useProxy1, proxyHost1, proxyPort1, dtnSystemId1,
+         dtnMountPoint1, dtnMountSourcePath1, isDtn1, canExec1, jobWorkingDir1, jobEnvVariables1, jobMaxJobs1,
+         jobMaxJobsPerUser1, jobIsBatch1, batchScheduler1, batchDefaultLogicalQueue1, tags1, notes1, uuid1, deleted1,
+         created1, updated1, 0L);
+  }
+
+  /**
+   * Constructor for jOOQ with input parameter matching order of columns in DB
+   * Note that jobRuntimes, batchLogicalQueues and jobCapabilities must be set separately.
+   */
+  public TSystem(int seqId1, String tenant1, String id1, String description1, SystemType systemType1,
+                 String owner1, String host1, boolean enabled1, String effectiveUserId1, AuthnMethod defaultAuthnMethod1,
+                 String bucketName1, String rootDir1,
+                 int port1, boolean useProxy1, String proxyHost1, int proxyPort1,
+                 String dtnSystemId1, String dtnMountPoint1, String dtnMountSourcePath1, boolean isDtn1,
+                 boolean canExec1, String jobWorkingDir1, String[] jobEnvVariables1, int jobMaxJobs1,
+                 int jobMaxJobsPerUser1, boolean jobIsBatch1, SchedulerType batchScheduler1, String batchDefaultLogicalQueue1,
+                 String[] tags1, Object notes1, UUID uuid1, boolean deleted1,
+                 Instant created1, Instant updated1, long changeSeq1)
   {
     seqId = seqId1;
     tenant = tenant1;
@@ -290,11 +320,13 @@ public final class TSystem
     deleted = deleted1;
     created = created1;
     updated = updated1;
+    changeSeq = changeSeq1;
   }
 
   /**
    * Copy constructor. Returns a deep copy of a TSystem object.
-   * The getters make defensive copies as needed. Note Credential is immutable so no need for copy.
+   * Lists and arrays are copied. Their elements (JobRuntime, LogicalQueue, Capability, String) are immutable so
+   *   are shared. Notes are copied when they are JSON. Note Credential is immutable so no need for copy.
    */
   public TSystem(TSystem t)
   {
@@ -302,6 +334,7 @@ public final class TSystem
     seqId = t.getSeqId();
     created = t.getCreated();
     updated = t.getUpdated();
+    changeSeq = t.getChangeSeq();
     uuid = t.getUuid();
     deleted = t.isDeleted();
     tenant = t.getTenant();
@@ -325,18 +358,18 @@ public final class TSystem
     dtnMountSourcePath = t.dtnMountSourcePath;
     isDtn = t.isDtn();
     canExec = t.getCanExec();
-    jobRuntimes = t.getJobRuntimes();
+    jobRuntimes = (t.jobRuntimes == null) ? null : new ArrayList<>(t.jobRuntimes);
     jobWorkingDir = t.getJobWorkingDir();
     jobEnvVariables = t.getJobEnvVariables();
     jobMaxJobs = t.getJobMaxJobs();
     jobMaxJobsPerUser = t.getJobMaxJobsPerUser();
     jobIsBatch = t.getJobIsBatch();
     batchScheduler = t.getBatchScheduler();
-    batchLogicalQueues = t.getBatchLogicalQueues();
+    batchLogicalQueues = (t.batchLogicalQueues == null) ? null : new ArrayList<>(t.batchLogicalQueues);
     batchDefaultLogicalQueue = t.getBatchDefaultLogicalQueue();
-    jobCapabilities = t.getJobCapabilities();
+    jobCapabilities = (t.jobCapabilities == null) ? null : new ArrayList<>(t.jobCapabilities);
     tags = (t.getTags() == null) ? EMPTY_STR_ARRAY : t.getTags().clone();
-    notes = t.getNotes();
+    notes = copyNotes(t.notes);
   }
 
   // ************************************************************************
@@ -400,6 +433,14 @@ public final class TSystem
   // *********************** Private methods *********************************
   // ************************************************************************
 
+  /**
+   * Copy notes so that a copy of a system does not share a mutable JSON object with the original.
+   */
+  private static Object copyNotes(Object n)
+  {
+    return (n instanceof JsonElement) ? ((JsonElement) n).deepCopy() : n;
+  }
+
   /**
    * Check for missing required attributes
    *   systemId, systemType, host, authnMethod.
@@ -645,6 +686,8 @@ public final class TSystem
   @Schema(type = "string")
   public Instant getUpdated() { return updated; }
 
+  public long getChangeSeq() { return changeSeq; }
+
   public String getTenant() { return tenant; }
 
   public SystemType getSystemType() { return systemType; }
@@ -0,0 +1,32 @@
+package edu.utexas.tacc.tapis.systems.model;
+
+/*
+ * Total number of systems matching a query along with an indication of whether the total is exact
+ *   or an estimate.
+ *
+ * This class is intended to represent an immutable object.
+ * Please keep it immutable.
+ */
+public final class TotalCount
+{
+  /* ********************************************************************** */
+  /*                                 Fields                                 */
+  /* ********************************************************************** */
+  private final int count;
+  private final boolean exact;
+
+  /* ********************************************************************** */
+  /*                           Constructors                                 */
+  /* ********************************************************************** */
+  public TotalCount(int count1, boolean exact1)
+  {
+    count = count1;
+    exact = exact1;
+  }
+
+  /* ********************************************************************** */
+  /*                               Accessors                                */
+  /* ********************************************************************** */
+  public int getCount() { return count; }
+  public boolean isExact() { return exact; }
+}
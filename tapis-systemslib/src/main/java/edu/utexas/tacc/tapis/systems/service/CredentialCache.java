@@ -0,0 +1,360 @@
+package edu.utexas.tacc.tapis.systems.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.crypto.Cipher;
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+
+import edu.utexas.tacc.tapis.systems.model.Credential;
+import edu.utexas.tacc.tapis.systems.model.TSystem.AuthnMethod;
+
+/*
+ * Bounded LRU cache of credentials read from the Security Kernel, keyed by (tenant, systemId, targetUser,
+ *   authnMethod). Used by SystemsServiceImpl.getUserCredential to avoid a Security Kernel round trip for
+ *   services that request the same credential repeatedly.
+ *
+ * Secrets are never held in the cache in plaintext. Each entry is encrypted using AES-GCM under a key generated
+ *   when the cache is created. The key is never persisted, so entries cannot be decrypted by another process.
+ *   The cache key is bound to each entry as additional authenticated data so an entry cannot be returned for a
+ *   different key. Plaintext only exists in the Credential returned to the caller.
+ * No method of this class logs or returns a string containing secrets.
+ *
+ * SystemsServiceImpl invalidates entries when a credential is created or deleted and when a system is deleted.
+ * Each invalidation increments a generation. A load records the generation before calling the Security Kernel
+ *   and the result is discarded if the generation changed, so a load that overlaps an update can never leave
+ *   a stale entry behind.
+ * Changes made through other service instances are not seen, so the time to live should be kept short.
+ * Credentials that are not found are not cached.
+ * A capacity of 0 or less disables the cache. The cache is disabled by default.
+ */
+public final class CredentialCache
+{
+  /* ********************************************************************** */
+  /*                               Constants                                */
+  /* ********************************************************************** */
+  // Defaults
+  public static final int DEFAULT_CAPACITY = 0;
+  public static final int DEFAULT_TTL_SECONDS = 30;
+
+  private static final String KEY_ALGORITHM = "AES";
+  private static final int KEY_BITS = 256;
+  private static final String CIPHER_TRANSFORMATION = "AES/GCM/NoPadding";
+  private static final int IV_BYTES = 12;
+  private static final int TAG_BITS = 128;
+
+  /* ********************************************************************** */
+  /*                                 Fields                                 */
+  /* ********************************************************************** */
+  private final int capacity;
+  private final long ttlMillis;
+  private final Map<CredKey, CredEntry> cache;
+  private final SecretKey secretKey;
+  private final SecureRandom random = new SecureRandom();
+
+  // Incremented on every invalidation
+  private final AtomicLong generation = new AtomicLong();
+
+  // Metrics
+  private final AtomicLong hitCount = new AtomicLong();
+  private final AtomicLong missCount = new AtomicLong();
+
+  /* ********************************************************************** */
+  /*                             Constructors                               */
+  /* ********************************************************************** */
+  public CredentialCache(int capacity1, int ttlSeconds)
+  {
+    capacity = capacity1;
+    ttlMillis = ttlSeconds * 1000L;
+    // Access ordered map that drops the least recently used entry once capacity is exceeded.
+    cache = new LinkedHashMap<>(16, 0.75f, true)
+    {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<CredKey, CredEntry> eldest) { return size() > capacity; }
+    };
+    // Per-process key, only needed if the cache is enabled
+    SecretKey key = null;
+    if (isEnabled())
+    {
+      try
+      {
+        KeyGenerator keyGen = KeyGenerator.getInstance(KEY_ALGORITHM);
+        keyGen.init(KEY_BITS, random);
+        key = keyGen.generateKey();
+      }
+      catch (GeneralSecurityException e) { throw new IllegalStateException(e.getMessage(), e); }
+    }
+    secretKey = key;
+  }
+
+  /* ********************************************************************** */
+  /*                             Public Methods                             */
+  /* ********************************************************************** */
+
+  /**
+   * Look up a credential
+   * @param tenantId - tenant
+   * @param systemId - system
+   * @param userName - target user
+   * @param authnMethod - authn method
+   * @return credential if present and valid, else null
+   */
+  public Credential get(String tenantId, String systemId, String userName, AuthnMethod authnMethod)
+  {
+    if (!isEnabled()) return null;
+    var key = new CredKey(tenantId, systemId, userName, authnMethod);
+    CredEntry entry;
+    synchronized (cache) { entry = cache.get(key); }
+    if (entry == null || System.currentTimeMillis() - entry.createdMillis > ttlMillis)
+    {
+      missCount.incrementAndGet();
+      return null;
+    }
+    Credential credential = decrypt(key, entry);
+    if (credential == null)
+    {
+      missCount.incrementAndGet();
+      return null;
+    }
+    hitCount.incrementAndGet();
+    return credential;
+  }
+
+  /**
+   * Get the current generation. Must be called before reading a credential from the Security Kernel and the
+   *   result passed to put() so that an update made while the read is in progress prevents caching.
+   */
+  public long getGeneration() { return generation.get(); }
+
+  /**
+   * Add a credential
+   * @param tenantId - tenant
+   * @param systemId - system
+   * @param userName - target user
+   * @param authnMethod - authn method
+   * @param gen - generation obtained before the credential was read
+   * @param credential - credential to cache
+   */
+  public void put(String tenantId, String systemId, String userName, AuthnMethod authnMethod, long gen,
+                  Credential credential)
+  {
+    if (!isEnabled() || credential == null) return;
+    var key = new CredKey(tenantId, systemId, userName, authnMethod);
+    CredEntry entry = encrypt(key, credential);
+    if (entry == null) return;
+    synchronized (cache)
+    {
+      if (gen == generation.get()) cache.put(key, entry);
+    }
+  }
+
+  /**
+   * Remove all entries for a user on a system, for example when a credential is created or deleted.
+   * @param tenantId - tenant
+   * @param systemId - system
+   * @param userName - target user
+   */
+  public void invalidateUser(String tenantId, String systemId, String userName)
+  {
+    synchronized (cache)
+    {
+      generation.incrementAndGet();
+      cache.keySet().removeIf(k -> k.matches(tenantId, systemId) && Objects.equals(k.userName, userName));
+    }
+  }
+
+  /**
+   * Remove all entries for a system, for example when the system is deleted.
+   * @param tenantId - tenant
+   * @param systemId - system
+   */
+  public void invalidateSystem(String tenantId, String systemId)
+  {
+    synchronized (cache)
+    {
+      generation.incrementAndGet();
+      cache.keySet().removeIf(k -> k.matches(tenantId, systemId));
+    }
+  }
+
+  /**
+   * Remove all entries. Metrics are not reset.
+   */
+  public void clear()
+  {
+    synchronized (cache)
+    {
+      generation.incrementAndGet();
+      cache.clear();
+    }
+  }
+
+  public boolean isEnabled() { return capacity > 0; }
+  public int getCapacity() { return capacity; }
+  public int size() { synchronized (cache) { return cache.size(); } }
+  public long getHitCount() { return hitCount.get(); }
+  public long getMissCount() { return missCount.get(); }
+
+  @Override
+  public String toString()
+  {
+    return String.format("CredentialCache[capacity=%d, ttlSeconds=%d, size=%d, hits=%d, misses=%d]",
+                         capacity, ttlMillis / 1000L, size(), getHitCount(), getMissCount());
+  }
+
+  /* ********************************************************************** */
+  /*                             Private Methods                            */
+  /* ********************************************************************** */
+
+  /*
+   * Serialize and encrypt a credential. Returns null on failure, in which case the credential is not cached.
+   */
+  private CredEntry encrypt(CredKey key, Credential credential)
+  {
+    byte[] plain = null;
+    try
+    {
+      var bos = new ByteArrayOutputStream();
+      var out = new DataOutputStream(bos);
+      writeString(out, credential.getAuthnMethod() == null ? null : credential.getAuthnMethod().name());
+      writeString(out, credential.getPassword());
+      writeString(out, credential.getPrivateKey());
+      writeString(out, credential.getPublicKey());
+      writeString(out, credential.getAccessKey());
+      writeString(out, credential.getAccessSecret());
+      writeString(out, credential.getCertificate());
+      out.flush();
+      plain = bos.toByteArray();
+      byte[] iv = new byte[IV_BYTES];
+      random.nextBytes(iv);
+      Cipher cipher = Cipher.getInstance(CIPHER_TRANSFORMATION);
+      cipher.init(Cipher.ENCRYPT_MODE, secretKey, new GCMParameterSpec(TAG_BITS, iv));
+      cipher.updateAAD(key.getAad());
+      return new CredEntry(iv, cipher.doFinal(plain), System.currentTimeMillis());
+    }
+    catch (IOException | GeneralSecurityException e) { return null; }
+    finally { if (plain != null) Arrays.fill(plain, (byte) 0); }
+  }
+
+  /*
+   * Decrypt and deserialize a credential. Returns null on failure.
+   */
+  private Credential decrypt(CredKey key, CredEntry entry)
+  {
+    byte[] plain = null;
+    try
+    {
+      Cipher cipher = Cipher.getInstance(CIPHER_TRANSFORMATION);
+      cipher.init(Cipher.DECRYPT_MODE, secretKey, new GCMParameterSpec(TAG_BITS, entry.iv));
+      cipher.updateAAD(key.getAad());
+      plain = cipher.doFinal(entry.cipherText);
+      var in = new DataInputStream(new ByteArrayInputStream(plain));
+      String authnMethodStr = readString(in);
+      AuthnMethod authnMethod = (authnMethodStr == null) ? null : AuthnMethod.valueOf(authnMethodStr);
+      return new Credential(authnMethod, readString(in), readString(in), readString(in), readString(in),
+                            readString(in), readString(in));
+    }
+    catch (IOException | GeneralSecurityException | IllegalArgumentException e) { return null; }
+    finally { if (plain != null) Arrays.fill(plain, (byte) 0); }
+  }
+
+  /*
+   * Write a string as a length followed by UTF-8 bytes. Length of -1 indicates null.
+   */
+  private static void writeString(DataOutputStream out, String s) throws IOException
+  {
+    if (s == null) { out.writeInt(-1); return; }
+    byte[] b = s.getBytes(StandardCharsets.UTF_8);
+    out.writeInt(b.length);
+    out.write(b);
+    Arrays.fill(b, (byte) 0);
+  }
+
+  private static String readString(DataInputStream in) throws IOException
+  {
+    int len = in.readInt();
+    if (len < 0) return null;
+    byte[] b = new byte[len];
+    in.readFully(b);
+    String s = new String(b, StandardCharsets.UTF_8);
+    Arrays.fill(b, (byte) 0);
+    return s;
+  }
+
+  /* ********************************************************************** */
+  /*                            Keys and Entries                            */
+  /* ********************************************************************** */
+  /*
+   * Immutable key for a credential
+   */
+  private static final class CredKey
+  {
+    private final String tenantId;
+    private final String systemId;
+    private final String userName;
+    private final AuthnMethod authnMethod;
+
+    private CredKey(String tenantId1, String systemId1, String userName1, AuthnMethod authnMethod1)
+    {
+      tenantId = tenantId1;
+      systemId = systemId1;
+      userName = userName1;
+      authnMethod = authnMethod1;
+    }
+
+    private boolean matches(String tenantId1, String systemId1)
+    {
+      return Objects.equals(tenantId, tenantId1) && Objects.equals(systemId, systemId1);
+    }
+
+    // Additional authenticated data binding an entry to its key. NUL will not appear in any of the values.
+    private byte[] getAad()
+    {
+      return String.join("\u0000", tenantId, systemId, userName, String.valueOf(authnMethod))
+                   .getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+      if (this == o) return true;
+      if (!(o instanceof CredKey)) return false;
+      CredKey k = (CredKey) o;
+      return Objects.equals(tenantId, k.tenantId) && Objects.equals(systemId, k.systemId) &&
+             Objects.equals(userName, k.userName) && authnMethod == k.authnMethod;
+    }
+
+    @Override
+    public int hashCode() { return Objects.hash(tenantId, systemId, userName, authnMethod); }
+  }
+
+  /*
+   * Encrypted credential along with the time at which it was read
+   */
+  private static final class CredEntry
+  {
+    private final byte[] iv;
+    private final byte[] cipherText;
+    private final long createdMillis;
+
+    private CredEntry(byte[] iv1, byte[] cipherText1, long createdMillis1)
+    {
+      iv = iv1;
+      cipherText = cipherText1;
+      createdMillis = createdMillis1;
+    }
+  }
+}
@@ -0,0 +1,296 @@
+package edu.utexas.tacc.tapis.systems.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import edu.utexas.tacc.tapis.client.shared.exceptions.TapisClientException;
+import edu.utexas.tacc.tapis.security.client.gen.model.SkSecret;
+import edu.utexas.tacc.tapis.security.client.gen.model.SkSecretMetadata;
+import edu.utexas.tacc.tapis.security.client.gen.model.SkSecretVersionMetadata;
+import edu.utexas.tacc.tapis.security.client.model.SKSecretMetaParms;
+import edu.utexas.tacc.tapis.security.client.model.SKSecretReadParms;
+import edu.utexas.tacc.tapis.security.client.model.SKSecretWriteParms;
+import edu.utexas.tacc.tapis.systems.config.RuntimeParameters;
+import edu.utexas.tacc.tapis.systems.utils.LibUtils;
+
+/*
+ * In-process stand-in for the Security Kernel, for profiling and load testing the service without network access.
+ * NOT FOR PRODUCTION USE. Nothing is persisted and there is no authentication.
+ *
+ * Permissions and secrets are kept in concurrent maps. Permission checks use the same wildcard rules as SK,
+ *   see PermSpecMatcher.
+ * Each call may be delayed by a fixed latency plus a random jitter, and may fail at a configured rate, so that
+ *   caching, concurrency and timeouts can be exercised as if SK were remote.
+ */
+public final class FakeSKProvider implements SKProvider
+{
+  /* ********************************************************************** */
+  /*                               Constants                                */
+  /* ********************************************************************** */
+  // Local logger.
+  private static final Logger _log = LoggerFactory.getLogger(FakeSKProvider.class);
+
+  /* ********************************************************************** */
+  /*                                 Fields                                 */
+  /* ********************************************************************** */
+  private static FakeSKProvider instance;
+
+  private final int latencyMillis;
+  private final int jitterMillis;
+  private final int errorPercent;
+
+  // Permissions for each user, keyed by tenant and user
+  private final Map<String, Set<String>> userPerms = new ConcurrentHashMap<>();
+  // Admins, keyed by tenant and user
+  private final Set<String> admins = ConcurrentHashMap.newKeySet();
+  // Secrets keyed by path
+  private final Map<String, Map<String, String>> secrets = new ConcurrentHashMap<>();
+
+  /* ********************************************************************** */
+  /*                             Constructors                               */
+  /* ********************************************************************** */
+  /**
+   * @param latencyMillis1 - fixed delay for each call
+   * @param jitterMillis1 - max random delay for each call, added to the fixed delay
+   * @param errorPercent1 - percentage of calls that fail, 0 to 100
+   */
+  public FakeSKProvider(int latencyMillis1, int jitterMillis1, int errorPercent1)
+  {
+    latencyMillis = Math.max(0, latencyMillis1);
+    jitterMillis = Math.max(0, jitterMillis1);
+    errorPercent = Math.min(100, Math.max(0, errorPercent1));
+  }
+
+  /* ********************************************************************** */
+  /*                             Public Methods                             */
+  /* ********************************************************************** */
+
+  /**
+   * Get the stand-in used by the service. Create it on first use with settings from runtime parameters.
+   * @return stand-in
+   */
+  public static synchronized FakeSKProvider getInstance()
+  {
+    if (instance == null)
+    {
+      RuntimeParameters parms = RuntimeParameters.getInstance();
+      int latency = (parms == null) ? 0 : parms.getSkFakeLatencyMillis();
+      int jitter = (parms == null) ? 0 : parms.getSkFakeJitterMillis();
+      int errors = (parms == null) ? 0 : parms.getSkFakeErrorPercent();
+      instance = new FakeSKProvider(latency, jitter, errors);
+      _log.warn(LibUtils.getMsg("SYSLIB_SK_FAKE_INIT", instance.latencyMillis, instance.jitterMillis,
+                                instance.errorPercent));
+    }
+    return instance;
+  }
+
+  /**
+   * Give a user the admin role. Not part of SKProvider since the service never grants roles.
+   * No latency or errors are injected.
+   */
+  public void grantAdmin(String tenant, String user) { admins.add(userKey(tenant, user)); }
+
+  // ----------------------------- Permissions -----------------------------
+  @Override
+  public int grantUserPermission(String tenant, String user, String permSpec) throws TapisClientException
+  {
+    simulateCall();
+    return userPerms.computeIfAbsent(userKey(tenant, user), k -> ConcurrentHashMap.newKeySet()).add(permSpec) ? 1 : 0;
+  }
+
+  /**
+   * Only an exact match is revoked, as in SK
+   */
+  @Override
+  public int revokeUserPermission(String tenant, String user, String permSpec) throws TapisClientException
+  {
+    simulateCall();
+    Set<String> perms = userPerms.get(userKey(tenant, user));
+    return (perms != null && perms.remove(permSpec)) ? 1 : 0;
+  }
+
+  @Override
+  public List<String> getUserPerms(String tenant, String user) throws TapisClientException
+  {
+    simulateCall();
+    Set<String> perms = userPerms.get(userKey(tenant, user));
+    return (perms == null) ? new ArrayList<>() : new ArrayList<>(perms);
+  }
+
+  @Override
+  public List<String> getUsersWithPermission(String tenant, String permSpec) throws TapisClientException
+  {
+    simulateCall();
+    Pattern pattern = likeToPattern(permSpec);
+    String prefix = userKey(tenant, "");
+    var users = new ArrayList<String>();
+    for (Map.Entry<String, Set<String>> entry : userPerms.entrySet())
+    {
+      if (!entry.getKey().startsWith(prefix)) continue;
+      for (String perm : entry.getValue())
+      {
+        if (pattern.matcher(perm).matches())
+        {
+          users.add(entry.getKey().substring(prefix.length()));
+          break;
+        }
+      }
+    }
+    return users;
+  }
+
+  @Override
+  public boolean isPermitted(String tenant, String user, String permSpec) throws TapisClientException
+  {
+    simulateCall();
+    return isPermittedNoDelay(tenant, user, permSpec);
+  }
+
+  @Override
+  public boolean isPermittedAny(String tenant, String user, String[] permSpecs) throws TapisClientException
+  {
+    simulateCall();
+    for (String permSpec : permSpecs)
+    {
+      if (isPermittedNoDelay(tenant, user, permSpec)) return true;
+    }
+    return false;
+  }
+
+  // ----------------------------- Roles -----------------------------------
+  @Override
+  public boolean isAdmin(String tenant, String user) throws TapisClientException
+  {
+    simulateCall();
+    return admins.contains(userKey(tenant, user));
+  }
+
+  // ----------------------------- Secrets ---------------------------------
+  @Override
+  public SkSecret readSecret(SKSecretReadParms parms) throws TapisClientException
+  {
+    simulateCall();
+    String path = secretPath(parms.getTenant(), parms.getSysId(), parms.getSysUser(), parms.getKeyType(),
+                             parms.getSecretName());
+    Map<String, String> data = secrets.get(path);
+    if (data == null) throw new TapisClientException(LibUtils.getMsg("SYSLIB_SK_FAKE_NO_SECRET", path));
+    var skSecret = new SkSecret();
+    skSecret.setSecretMap(new HashMap<>(data));
+    return skSecret;
+  }
+
+  /**
+   * As in SK the tenant from the arguments is used and the tenant in the parameters is ignored
+   */
+  @Override
+  public SkSecretMetadata writeSecret(String tenant, String user, SKSecretWriteParms parms)
+          throws TapisClientException
+  {
+    simulateCall();
+    String path = secretPath(tenant, parms.getSysId(), parms.getSysUser(), parms.getKeyType(), parms.getSecretName());
+    secrets.put(path, new HashMap<>(parms.getData()));
+    return new SkSecretMetadata();
+  }
+
+  @Override
+  public SkSecretVersionMetadata readSecretMeta(SKSecretMetaParms parms) throws TapisClientException
+  {
+    simulateCall();
+    String path = secretPath(parms.getTenant(), parms.getSysId(), parms.getSysUser(), parms.getKeyType(),
+                             parms.getSecretName());
+    if (!secrets.containsKey(path)) throw new TapisClientException(LibUtils.getMsg("SYSLIB_SK_FAKE_NO_SECRET", path));
+    return new SkSecretVersionMetadata();
+  }
+
+  /**
+   * Secrets are not versioned. The single version is destroyed, if present.
+   */
+  @Override
+  public List<Integer> destroySecretMeta(SKSecretMetaParms parms) throws TapisClientException
+  {
+    simulateCall();
+    String path = secretPath(parms.getTenant(), parms.getSysId(), parms.getSysUser(), parms.getKeyType(),
+                             parms.getSecretName());
+    var versions = new ArrayList<Integer>();
+    if (secrets.remove(path) != null) versions.add(1);
+    return versions;
+  }
+
+  /**
+   * Check if a held permSpec implies a requested one
+   * @param heldPerm - permSpec held by a user, possibly containing wildcards
+   * @param requestedPerm - permSpec being checked
+   * @return true if the held permSpec allows the requested one
+   */
+  static boolean implies(String heldPerm, String requestedPerm)
+  {
+    return PermSpecMatcher.implies(heldPerm, requestedPerm);
+  }
+
+  /* ********************************************************************** */
+  /*                             Private Methods                            */
+  /* ********************************************************************** */
+
+  /*
+   * Delay for the configured latency plus jitter, then fail if chosen for an injected error
+   */
+  private void simulateCall() throws TapisClientException
+  {
+    long delay = latencyMillis + ((jitterMillis > 0) ? ThreadLocalRandom.current().nextInt(jitterMillis + 1) : 0);
+    if (delay > 0)
+    {
+      try { Thread.sleep(delay); }
+      catch (InterruptedException e)
+      {
+        Thread.currentThread().interrupt();
+        throw new TapisClientException(LibUtils.getMsg("SYSLIB_SK_FAKE_INTERRUPTED"));
+      }
+    }
+    if (errorPercent > 0 && ThreadLocalRandom.current().nextInt(100) < errorPercent)
+    {
+      throw new TapisClientException(LibUtils.getMsg("SYSLIB_SK_FAKE_ERROR", errorPercent));
+    }
+  }
+
+  private boolean isPermittedNoDelay(String tenant, String user, String permSpec)
+  {
+    Set<String> perms = userPerms.get(userKey(tenant, user));
+    if (perms == null) return false;
+    for (String perm : perms)
+    {
+      if (implies(perm, permSpec)) return true;
+    }
+    return false;
+  }
+
+  private static String userKey(String tenant, String user) { return tenant + "/" + user; }
+
+  private static String secretPath(String tenant, String sysId, String sysUser, Object keyType, String secretName)
+  {
+    return String.join("/", tenant, sysId, sysUser, String.valueOf(keyType), secretName);
+  }
+
+  /*
+   * Convert a permSpec in which % matches any characters into a regular expression
+   */
+  private static Pattern likeToPattern(String permSpec)
+  {
+    var regex = new StringBuilder();
+    String[] literals = permSpec.split("%", -1);
+    for (int i = 0; i < literals.length; i++)
+    {
+      if (i > 0) regex.append(".*");
+      if (!literals[i].isEmpty()) regex.append(Pattern.quote(literals[i]));
+    }
+    return Pattern.compile(regex.toString());
+  }
+}
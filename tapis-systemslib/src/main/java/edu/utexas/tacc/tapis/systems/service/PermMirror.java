@@ -0,0 +1,183 @@
+package edu.utexas.tacc.tapis.systems.service;
+
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import edu.utexas.tacc.tapis.shared.exceptions.TapisException;
+import edu.utexas.tacc.tapis.systems.config.RuntimeParameters;
+import edu.utexas.tacc.tapis.systems.dao.SystemsDao;
+import edu.utexas.tacc.tapis.systems.utils.LibUtils;
+import edu.utexas.tacc.tapis.systems.utils.ThreadUtils;
+
+/*
+ * Maintains an optional local copy of the system permissions held by users in the Security Kernel, stored in the
+ *   system_user_perms table. Lists and counts of systems may then be filtered by READ access with a join in the DB
+ *   instead of fetching the permissions of the requester from SK and passing the allowed IDs to the query.
+ * Enabled by runtime parameter TAPIS_PERM_MIRROR. SK remains the source of truth and all other authorization
+ *   checks continue to call SK.
+ *
+ * The service updates the mirror whenever it grants or revokes permissions. Permissions may also be changed by
+ *   other means, so a single daemon thread periodically reconciles the mirror with SK for each tenant that has
+ *   systems. For each user holding system permissions the rows for the user are replaced with the permissions
+ *   returned by SK.
+ * Every grant and revoke written to the mirror is given a version from a DB sequence, and a revoke marks the row
+ *   as revoked rather than removing it. Reconciliation takes a version before fetching the permissions of a user
+ *   from SK, and rows granted or revoked with a later version are kept as they are. So a revoke made while the
+ *   permissions are being fetched is not undone by the reconciliation.
+ * A tenant is only used for filtering once it has been reconciled by this process. Until then, or if the mirror
+ *   is not enabled, requests use SK.
+ */
+public final class PermMirror
+{
+  /* ********************************************************************** */
+  /*                               Constants                                */
+  /* ********************************************************************** */
+  // Local logger.
+  private static final Logger _log = LoggerFactory.getLogger(PermMirror.class);
+
+  // Matches the permSpecs of all systems in all tenants. Tenants and wildcards are sorted out by PermSpecMatcher.
+  private static final String ALL_SYSTEMS_PERM_SPEC = SystemsServiceImpl.PERM_SPEC_PREFIX + ":%";
+
+  /* ********************************************************************** */
+  /*                                 Fields                                 */
+  /* ********************************************************************** */
+  // Singleton instance
+  private static volatile PermMirror instance;
+
+  private final SystemsDao dao;
+  private final SKSource skSource;
+  private final ScheduledExecutorService executor;
+
+  // Tenants reconciled at least once by this process
+  private final Set<String> readyTenants = ConcurrentHashMap.newKeySet();
+
+  /* ********************************************************************** */
+  /*                             Constructors                               */
+  /* ********************************************************************** */
+  private PermMirror(SystemsDao dao1, SKSource skSource1)
+  {
+    dao = dao1;
+    skSource = skSource1;
+    executor = Executors.newSingleThreadScheduledExecutor(ThreadUtils.daemonThreadFactory("PermMirror"));
+  }
+
+  /* ********************************************************************** */
+  /*                             Public Methods                             */
+  /* ********************************************************************** */
+
+  /**
+   * Source of the SK client used for reconciliation
+   */
+  @FunctionalInterface
+  public interface SKSource
+  {
+    SKProvider get() throws TapisException;
+  }
+
+  /**
+   * Start reconciliation for this process if it is not already running. The first run starts immediately.
+   * @param dao1 - DAO used to update the mirror
+   * @param skSource1 - source of the SK client
+   * @param intervalSeconds - delay between the end of one reconciliation and the start of the next
+   */
+  public static synchronized void start(SystemsDao dao1, SKSource skSource1, int intervalSeconds)
+  {
+    if (instance != null) return;
+    int interval = Math.max(1, intervalSeconds);
+    instance = new PermMirror(dao1, skSource1);
+    instance.executor.scheduleWithFixedDelay(instance::reconcileAll, 0, interval, TimeUnit.SECONDS);
+    _log.info(LibUtils.getMsg("SYSLIB_PERM_MIRROR_INIT", interval));
+  }
+
+  /**
+   * Stop reconciliation, if running. Requests go back to using SK.
+   */
+  public static synchronized void stop()
+  {
+    if (instance == null) return;
+    instance.executor.shutdownNow();
+    instance = null;
+  }
+
+  /**
+   * @return true if the mirror is enabled and must be updated when permissions change
+   */
+  public static boolean isEnabled()
+  {
+    RuntimeParameters parms = RuntimeParameters.getInstance();
+    return parms != null && parms.isPermMirror();
+  }
+
+  /**
+   * @param tenantId - tenant
+   * @return true if the mirror may be used to filter systems in the tenant
+   */
+  public static boolean isReady(String tenantId)
+  {
+    PermMirror m = instance;
+    return m != null && m.readyTenants.contains(tenantId);
+  }
+
+  /* ********************************************************************** */
+  /*                             Private Methods                            */
+  /* ********************************************************************** */
+
+  /*
+   * Reconcile all tenants that have systems. Errors are logged and the tenant retried on the next run.
+   */
+  private void reconcileAll()
+  {
+    List<String> tenants;
+    try { tenants = dao.getSystemTenants(); }
+    catch (Exception e)
+    {
+      _log.warn(LibUtils.getMsg("SYSLIB_PERM_MIRROR_RECONCILE_ERROR", "*", e.getMessage()));
+      return;
+    }
+    for (String tenant : tenants)
+    {
+      if (Thread.currentThread().isInterrupted()) return;
+      long start = System.currentTimeMillis();
+      try
+      {
+        int numUsers = reconcileTenant(tenant);
+        readyTenants.add(tenant);
+        _log.debug(LibUtils.getMsg("SYSLIB_PERM_MIRROR_RECONCILED", tenant, numUsers,
+                                   System.currentTimeMillis() - start));
+      }
+      catch (Exception e)
+      {
+        _log.warn(LibUtils.getMsg("SYSLIB_PERM_MIRROR_RECONCILE_ERROR", tenant, e.getMessage()));
+      }
+    }
+  }
+
+  /*
+   * Replace the mirror rows of every user that holds system permissions in SK or has rows in the mirror.
+   * Users no longer holding any permissions get their rows removed. The version is taken before each fetch.
+   */
+  private int reconcileTenant(String tenant) throws Exception
+  {
+    SKProvider skClient = skSource.get();
+    var userNames = new TreeSet<String>(dao.getUserPermsUserNames(tenant));
+    userNames.addAll(SystemsServiceImpl.callSK("getUsersWithPermission",
+                                               () -> skClient.getUsersWithPermission(tenant, ALL_SYSTEMS_PERM_SPEC)));
+    for (String userName : userNames)
+    {
+      long fetchedVersion = dao.getUserPermsVersion();
+      List<String> heldPerms = SystemsServiceImpl.callSK("getUserPerms",
+                                                         () -> skClient.getUserPerms(tenant, userName));
+      dao.replaceUserPerms(tenant, userName, PermSpecMatcher.getSystemPermissions(heldPerms, tenant),
+                           fetchedVersion);
+    }
+    return userNames.size();
+  }
+}
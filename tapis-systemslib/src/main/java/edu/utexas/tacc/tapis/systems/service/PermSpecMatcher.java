@@ -0,0 +1,178 @@
+package edu.utexas.tacc.tapis.systems.service;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.apache.commons.lang3.StringUtils;
+
+import edu.utexas.tacc.tapis.systems.model.TSystem.Permission;
+
+/*
+ * Evaluate permSpecs held by a user locally, using the same wildcard rules as the Security Kernel, so that
+ *   questions about several permissions can be answered from a single fetch of the user's permSpecs.
+ * A permSpec is a list of parts separated by ":", each part is a list of values separated by "," and "*" matches
+ *   any value. A held permSpec with fewer parts matches any values for the remaining parts.
+ * For systems a permSpec has the format system:<tenant>:<perms>:<system_id>
+ */
+public final class PermSpecMatcher
+{
+  /* ********************************************************************** */
+  /*                               Constants                                */
+  /* ********************************************************************** */
+  private static final String WILDCARD = "*";
+  private static final Pattern COLON_SPLIT = Pattern.compile(":");
+  private static final Pattern COMMA_SPLIT = Pattern.compile(",");
+  private static final Permission[] PERMISSIONS = Permission.values();
+  private static final Set<String> PERMISSION_NAMES =
+          Arrays.stream(PERMISSIONS).map(Permission::name).collect(Collectors.toUnmodifiableSet());
+
+  private PermSpecMatcher() { }
+
+  /* ********************************************************************** */
+  /*                             Public Methods                             */
+  /* ********************************************************************** */
+
+  /**
+   * Check if a held permSpec implies a requested one
+   * @param heldPerm - permSpec held by a user, possibly containing wildcards
+   * @param requestedPerm - permSpec being checked
+   * @return true if the held permSpec allows the requested one
+   */
+  public static boolean implies(String heldPerm, String requestedPerm)
+  {
+    return implies(COLON_SPLIT.split(heldPerm, -1), COLON_SPLIT.split(requestedPerm, -1));
+  }
+
+  /**
+   * Determine the permissions on a system that are allowed by a list of held permSpecs.
+   * Gives the same result as checking each permission with a separate isPermitted call.
+   * @param heldPerms - permSpecs held by a user, for example from getUserPerms
+   * @param tenantId - tenant of the system
+   * @param systemId - system
+   * @return permissions allowed, empty if none
+   */
+  public static Set<Permission> getPermissions(List<String> heldPerms, String tenantId, String systemId)
+  {
+    EnumSet<Permission> perms = EnumSet.noneOf(Permission.class);
+    if (heldPerms == null) return perms;
+    String[] requestedParts = {SystemsServiceImpl.PERM_SPEC_PREFIX, tenantId, null, systemId};
+    for (String heldPerm : heldPerms)
+    {
+      if (StringUtils.isBlank(heldPerm)) continue;
+      String[] heldParts = COLON_SPLIT.split(heldPerm, -1);
+      for (Permission perm : PERMISSIONS)
+      {
+        if (perms.contains(perm)) continue;
+        requestedParts[2] = perm.name();
+        if (implies(heldParts, requestedParts)) perms.add(perm);
+      }
+      if (perms.size() == PERMISSIONS.length) break;
+    }
+    return perms;
+  }
+
+  /**
+   * Compile the permSpecs held by a user into the systems of a tenant that the user may read.
+   * A permSpec allows read if its permission part allows READ or MODIFY. It allows all systems if its system part
+   *   is a wildcard or is missing, otherwise only the systems listed. PermSpecs for other resource types or
+   *   tenants are ignored.
+   * @param heldPerms - permSpecs held by a user, for example from getUserPerms
+   * @param tenantId - tenant of the systems
+   * @return null if all systems in the tenant may be read, otherwise the IDs of the systems that may be read
+   */
+  public static Set<String> getReadableSystemIds(List<String> heldPerms, String tenantId)
+  {
+    var sysIds = new HashSet<String>();
+    if (heldPerms == null) return sysIds;
+    for (String heldPerm : heldPerms)
+    {
+      if (StringUtils.isBlank(heldPerm)) continue;
+      String[] parts = COLON_SPLIT.split(heldPerm, -1);
+      if (!partAllows(parts, 0, SystemsServiceImpl.PERM_SPEC_PREFIX) || !partAllows(parts, 1, tenantId)) continue;
+      if (!partAllows(parts, 2, Permission.READ.name()) && !partAllows(parts, 2, Permission.MODIFY.name())) continue;
+      // Any parts after the system part must be wildcards
+      boolean extraPartsOk = true;
+      for (int i = 4; i < parts.length; i++) { if (!WILDCARD.equals(parts[i])) extraPartsOk = false; }
+      if (!extraPartsOk) continue;
+      // Missing or wildcard system part allows all systems
+      if (parts.length < 4 || WILDCARD.equals(parts[3])) return null;
+      for (String sysId : COMMA_SPLIT.split(parts[3])) { if (!sysId.isEmpty()) sysIds.add(sysId); }
+    }
+    return sysIds;
+  }
+
+  /**
+   * Expand the permSpecs held by a user into the permissions held on each system of a tenant, as stored in the
+   *   local permission mirror. A wildcard or missing permission or system part is recorded as "*".
+   * PermSpecs for other resource types or tenants, or with additional parts that are not wildcards, are ignored.
+   * @param heldPerms - permSpecs held by a user, for example from getUserPerms
+   * @param tenantId - tenant of the systems
+   * @return map of system ID, or "*" for all systems, to permission names or "*" for all permissions
+   */
+  public static Map<String, Set<String>> getSystemPermissions(List<String> heldPerms, String tenantId)
+  {
+    var permMap = new HashMap<String, Set<String>>();
+    if (heldPerms == null) return permMap;
+    for (String heldPerm : heldPerms)
+    {
+      if (StringUtils.isBlank(heldPerm)) continue;
+      String[] parts = COLON_SPLIT.split(heldPerm, -1);
+      if (!partAllows(parts, 0, SystemsServiceImpl.PERM_SPEC_PREFIX) || !partAllows(parts, 1, tenantId)) continue;
+      boolean extraPartsOk = true;
+      for (int i = 4; i < parts.length; i++) { if (!WILDCARD.equals(parts[i])) extraPartsOk = false; }
+      if (!extraPartsOk) continue;
+      String[] perms = (parts.length < 3 || WILDCARD.equals(parts[2])) ? new String[] {WILDCARD} : COMMA_SPLIT.split(parts[2]);
+      String[] sysIds = (parts.length < 4 || WILDCARD.equals(parts[3])) ? new String[] {WILDCARD} : COMMA_SPLIT.split(parts[3]);
+      for (String sysId : sysIds)
+      {
+        if (sysId.isEmpty()) continue;
+        for (String perm : perms)
+        {
+          if (WILDCARD.equals(perm) || PERMISSION_NAMES.contains(perm))
+            permMap.computeIfAbsent(sysId, k -> new HashSet<>()).add(perm);
+        }
+      }
+    }
+    return permMap;
+  }
+
+  /* ********************************************************************** */
+  /*                             Private Methods                            */
+  /* ********************************************************************** */
+
+  /*
+   * Check if part i of a held permSpec allows a value. A missing part allows any value.
+   */
+  private static boolean partAllows(String[] heldParts, int i, String value)
+  {
+    if (i >= heldParts.length || WILDCARD.equals(heldParts[i]) || heldParts[i].equals(value)) return true;
+    for (String heldValue : COMMA_SPLIT.split(heldParts[i])) { if (heldValue.equals(value)) return true; }
+    return false;
+  }
+
+  private static boolean implies(String[] heldParts, String[] requestedParts)
+  {
+    for (int i = 0; i < requestedParts.length; i++)
+    {
+      // A held permSpec with fewer parts implies all values for the remaining parts
+      if (i >= heldParts.length) return true;
+      if (WILDCARD.equals(heldParts[i])) continue;
+      if (heldParts[i].equals(requestedParts[i])) continue;
+      var heldValues = new HashSet<>(Arrays.asList(COMMA_SPLIT.split(heldParts[i])));
+      if (!heldValues.containsAll(Arrays.asList(COMMA_SPLIT.split(requestedParts[i])))) return false;
+    }
+    // Any additional held parts must be wildcards
+    for (int i = requestedParts.length; i < heldParts.length; i++)
+    {
+      if (!WILDCARD.equals(heldParts[i])) return false;
+    }
+    return true;
+  }
+}
@@ -0,0 +1,272 @@
+package edu.utexas.tacc.tapis.systems.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import edu.utexas.tacc.tapis.client.shared.exceptions.TapisClientException;
+import edu.utexas.tacc.tapis.shared.exceptions.TapisException;
+import edu.utexas.tacc.tapis.systems.metrics.RequestTiming;
+import edu.utexas.tacc.tapis.systems.utils.LibUtils;
+import edu.utexas.tacc.tapis.systems.utils.ThreadUtils;
+
+/*
+ * Runs independent Security Kernel calls concurrently, so that the number of calls in flight from this process
+ *   never exceeds the configured parallelism.
+ * Used for operations that fan out to many SK calls, such as system creation and bulk permission updates.
+ * When running on a JVM that supports virtual threads each call gets its own virtual thread and the limit is
+ *   enforced with a semaphore. Otherwise a fixed size pool of daemon threads is used.
+ *
+ * runAll(calls) always waits for every call that was started to finish before returning, so a caller that records
+ *   what each call changed has a complete picture when deciding what to roll back.
+ * runAll(calls, timeout) returns once the timeout has passed, even if calls are still in progress. Callers must
+ *   be prepared for a call to complete after return, see SKCompensations.
+ * After the first failure calls that have not yet started are skipped.
+ * A caller making many calls, such as a bulk permission update, may limit how many of its calls are submitted at
+ *   once with runAll(calls, timeout, maxInFlight). The remaining calls are submitted as earlier ones finish, so
+ *   calls for other requests are not queued behind all of them.
+ * runAllOrUndo(calls, maxInFlight, undo) also runs undo calls if any call fails, whether with a checked or an
+ *   unchecked exception, before the failure is re-thrown.
+ * A parallelism of 1 or less runs all calls in the calling thread and the timeout is not applied.
+ */
+public final class SKCallRunner
+{
+  /* ********************************************************************** */
+  /*                               Constants                                */
+  /* ********************************************************************** */
+  // Defaults
+  public static final int DEFAULT_MAX_PARALLEL = 8;
+  public static final int DEFAULT_TIMEOUT_SECONDS = 30;
+
+  /* ********************************************************************** */
+  /*                                 Fields                                 */
+  /* ********************************************************************** */
+  private final int maxParallel;
+  private final ExecutorService pool;
+  // Only used with virtual threads
+  private final Semaphore permits;
+
+  /* ********************************************************************** */
+  /*                             Constructors                               */
+  /* ********************************************************************** */
+  public SKCallRunner(int maxParallel1)
+  {
+    maxParallel = maxParallel1;
+    ExecutorService virtualPool = (maxParallel > 1) ? ThreadUtils.newVirtualThreadExecutor() : null;
+    if (virtualPool != null)
+    {
+      pool = virtualPool;
+      permits = new Semaphore(maxParallel);
+    }
+    else
+    {
+      pool = (maxParallel > 1) ? Executors.newFixedThreadPool(maxParallel, ThreadUtils.daemonThreadFactory("SKCall")) : null;
+      permits = null;
+    }
+  }
+
+  /* ********************************************************************** */
+  /*                             Public Methods                             */
+  /* ********************************************************************** */
+
+  /**
+   * A single call to the Security Kernel
+   */
+  @FunctionalInterface
+  public interface SKCall
+  {
+    void run() throws TapisException, TapisClientException;
+  }
+
+  /**
+   * Run calls concurrently and wait for all of them to finish.
+   * @param calls - calls to run, in the order in which they should be started
+   * @throws TapisException - first failure, if it was a TapisException, or if waiting was interrupted
+   * @throws TapisClientException - first failure, if it was a TapisClientException
+   */
+  public void runAll(List<SKCall> calls) throws TapisException, TapisClientException
+  {
+    runAll(calls, 0L);
+  }
+
+  /**
+   * Run calls concurrently and wait for all of them to finish or for the timeout to pass.
+   * If the timeout passes calls that have not started are skipped and calls in progress are left to finish
+   *   in the background.
+   * @param calls - calls to run, in the order in which they should be started
+   * @param timeoutMillis - max time to wait for all calls to finish. 0 or less to wait indefinitely.
+   * @throws TapisException - first failure, if it was a TapisException, if the timeout passed or if waiting
+   *                          was interrupted
+   * @throws TapisClientException - first failure, if it was a TapisClientException
+   */
+  public void runAll(List<SKCall> calls, long timeoutMillis) throws TapisException, TapisClientException
+  {
+    runAll(calls, timeoutMillis, 0);
+  }
+
+  /**
+   * Run calls as for runAll(calls, 0, maxInFlight). If any call fails, including with an unchecked exception,
+   *   get the calls needed to undo what was attempted and run them, then re-throw the failure.
+   * Undo calls are expected to handle their own failures. A failure while undoing is added to the original
+   *   failure as suppressed.
+   * @param calls - calls to run, in the order in which they should be started
+   * @param maxInFlight - max calls submitted and not yet finished. 0 or less for no limit.
+   * @param undo - given the failure, returns the calls that undo what was attempted
+   * @throws TapisException - first failure, if it was a TapisException, or if waiting was interrupted
+   * @throws TapisClientException - first failure, if it was a TapisClientException
+   */
+  public void runAllOrUndo(List<SKCall> calls, int maxInFlight, Function<Exception, List<SKCall>> undo)
+          throws TapisException, TapisClientException
+  {
+    try { runAll(calls, 0L, maxInFlight); }
+    catch (TapisException | TapisClientException | RuntimeException e)
+    {
+      try { runAll(undo.apply(e), 0L, maxInFlight); }
+      catch (TapisException | TapisClientException | RuntimeException e2) { e.addSuppressed(e2); }
+      throw e;
+    }
+  }
+
+  /**
+   * Run calls concurrently, with at most maxInFlight of them submitted at any time, and wait for all of them to
+   *   finish or for the timeout to pass.
+   * The calling thread submits further calls as earlier ones finish. If the timeout passes calls that have not
+   *   been submitted are skipped and calls in progress are left to finish in the background.
+   * @param calls - calls to run, in the order in which they should be started
+   * @param timeoutMillis - max time to wait for all calls to finish. 0 or less to wait indefinitely.
+   * @param maxInFlight - max calls submitted and not yet finished. 0 or less for no limit.
+   * @throws TapisException - first failure, if it was a TapisException, if the timeout passed or if waiting
+   *                          was interrupted
+   * @throws TapisClientException - first failure, if it was a TapisClientException
+   */
+  public void runAll(List<SKCall> calls, long timeoutMillis, int maxInFlight)
+          throws TapisException, TapisClientException
+  {
+    if (calls == null || calls.isEmpty()) return;
+    var failure = new AtomicReference<Exception>();
+    if (pool == null)
+    {
+      for (SKCall call : calls)
+      {
+        try { call.run(); }
+        catch (Exception e) { failure.set(e); break; }
+      }
+      rethrow(failure.get());
+      return;
+    }
+
+    var futures = new ArrayList<Future<?>>(calls.size());
+    // Calls made on behalf of a request are included in its timing
+    RequestTiming timing = RequestTiming.current();
+    long deadline = (timeoutMillis > 0) ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis) : 0L;
+    // Limits calls submitted for this caller
+    Semaphore window = (maxInFlight > 0 && maxInFlight < calls.size()) ? new Semaphore(maxInFlight) : null;
+    boolean interrupted = false;
+    for (SKCall call : calls)
+    {
+      if (window != null && !acquireWindow(window, deadline, timeoutMillis, failure))
+      {
+        if (Thread.interrupted()) interrupted = true;
+        break;
+      }
+      if (failure.get() != null) { if (window != null) window.release(); break; }
+      futures.add(pool.submit(() ->
+      {
+        try
+        {
+          if (failure.get() != null) return;
+          RequestTiming.setCurrent(timing);
+          if (permits != null) permits.acquire();
+          try
+          {
+            // Check again since a failure may have happened while waiting for a permit
+            if (failure.get() == null) call.run();
+          }
+          finally { if (permits != null) permits.release(); }
+        }
+        catch (Exception e) { failure.compareAndSet(null, e); }
+        finally
+        {
+          RequestTiming.setCurrent(null);
+          if (window != null) window.release();
+        }
+      }));
+    }
+    // Wait for everything, even if interrupted, since the caller may need to roll back what was done.
+    for (Future<?> future : futures)
+    {
+      while (true)
+      {
+        try
+        {
+          if (deadline == 0L) future.get();
+          else future.get(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+          break;
+        }
+        catch (InterruptedException e) { interrupted = true; failure.compareAndSet(null, e); }
+        catch (ExecutionException e) { failure.compareAndSet(null, e); break; }
+        catch (TimeoutException e)
+        {
+          failure.compareAndSet(null, new TapisException(LibUtils.getMsg("SYSLIB_SK_TIMEOUT", timeoutMillis)));
+          break;
+        }
+      }
+    }
+    if (interrupted) Thread.currentThread().interrupt();
+    rethrow(failure.get());
+  }
+
+  public int getMaxParallel() { return maxParallel; }
+  public boolean isUsingVirtualThreads() { return permits != null; }
+
+  /**
+   * Stop the pool. Calls in progress are allowed to finish.
+   */
+  public void shutdown()
+  {
+    if (pool != null) pool.shutdown();
+  }
+
+  /* ********************************************************************** */
+  /*                             Private Methods                            */
+  /* ********************************************************************** */
+
+  /*
+   * Wait until another call may be submitted. Return false and record the failure if the timeout passes or the
+   *   thread is interrupted. The interrupt status is left set.
+   */
+  private static boolean acquireWindow(Semaphore window, long deadline, long timeoutMillis,
+                                       AtomicReference<Exception> failure)
+  {
+    try
+    {
+      if (deadline == 0L) { window.acquire(); return true; }
+      if (window.tryAcquire(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) return true;
+      failure.compareAndSet(null, new TapisException(LibUtils.getMsg("SYSLIB_SK_TIMEOUT", timeoutMillis)));
+    }
+    catch (InterruptedException e)
+    {
+      failure.compareAndSet(null, e);
+      Thread.currentThread().interrupt();
+    }
+    return false;
+  }
+
+  private static void rethrow(Exception e) throws TapisException, TapisClientException
+  {
+    if (e == null) return;
+    if (e instanceof ExecutionException && e.getCause() instanceof Exception) e = (Exception) e.getCause();
+    if (e instanceof TapisClientException) throw (TapisClientException) e;
+    if (e instanceof TapisException) throw (TapisException) e;
+    if (e instanceof RuntimeException) throw (RuntimeException) e;
+    throw new TapisException(e.getMessage(), e);
+  }
+}
@@ -0,0 +1,88 @@
+package edu.utexas.tacc.tapis.systems.service;
+
+import java.util.List;
+
+import edu.utexas.tacc.tapis.client.shared.exceptions.TapisClientException;
+import edu.utexas.tacc.tapis.security.client.SKClient;
+import edu.utexas.tacc.tapis.security.client.gen.model.SkSecret;
+import edu.utexas.tacc.tapis.security.client.gen.model.SkSecretMetadata;
+import edu.utexas.tacc.tapis.security.client.gen.model.SkSecretVersionMetadata;
+import edu.utexas.tacc.tapis.security.client.model.SKSecretMetaParms;
+import edu.utexas.tacc.tapis.security.client.model.SKSecretReadParms;
+import edu.utexas.tacc.tapis.security.client.model.SKSecretWriteParms;
+
+/*
+ * Provider that calls the Security Kernel using an SKClient.
+ */
+public final class SKClientProvider implements SKProvider
+{
+  private final SKClient skClient;
+
+  public SKClientProvider(SKClient skClient1) { skClient = skClient1; }
+
+  @Override
+  public int grantUserPermission(String tenant, String user, String permSpec) throws TapisClientException
+  {
+    return skClient.grantUserPermission(tenant, user, permSpec);
+  }
+
+  @Override
+  public int revokeUserPermission(String tenant, String user, String permSpec) throws TapisClientException
+  {
+    return skClient.revokeUserPermission(tenant, user, permSpec);
+  }
+
+  @Override
+  public List<String> getUserPerms(String tenant, String user) throws TapisClientException
+  {
+    return skClient.getUserPerms(tenant, user);
+  }
+
+  @Override
+  public List<String> getUsersWithPermission(String tenant, String permSpec) throws TapisClientException
+  {
+    return skClient.getUsersWithPermission(tenant, permSpec);
+  }
+
+  @Override
+  public boolean isPermitted(String tenant, String user, String permSpec) throws TapisClientException
+  {
+    return skClient.isPermitted(tenant, user, permSpec);
+  }
+
+  @Override
+  public boolean isPermittedAny(String tenant, String user, String[] permSpecs) throws TapisClientException
+  {
+    return skClient.isPermittedAny(tenant, user, permSpecs);
+  }
+
+  @Override
+  public boolean isAdmin(String tenant, String user) throws TapisClientException
+  {
+    return skClient.isAdmin(tenant, user);
+  }
+
+  @Override
+  public SkSecret readSecret(SKSecretReadParms parms) throws TapisClientException
+  {
+    return skClient.readSecret(parms);
+  }
+
+  @Override
+  public SkSecretMetadata writeSecret(String tenant, String user, SKSecretWriteParms parms) throws TapisClientException
+  {
+    return skClient.writeSecret(tenant, user, parms);
+  }
+
+  @Override
+  public SkSecretVersionMetadata readSecretMeta(SKSecretMetaParms parms) throws TapisClientException
+  {
+    return skClient.readSecretMeta(parms);
+  }
+
+  @Override
+  public List<Integer> destroySecretMeta(SKSecretMetaParms parms) throws TapisClientException
+  {
+    return skClient.destroySecretMeta(parms);
+  }
+}
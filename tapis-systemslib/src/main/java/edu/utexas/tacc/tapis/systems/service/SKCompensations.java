@@ -0,0 +1,153 @@
+package edu.utexas.tacc.tapis.systems.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+import edu.utexas.tacc.tapis.client.shared.exceptions.TapisClientException;
+import edu.utexas.tacc.tapis.shared.exceptions.TapisException;
+
+/*
+ * Record of the compensating actions needed to undo the steps of a multi-step operation, such as creating a
+ *   system, that cannot be done in a single transaction.
+ * A step whose effect is known only once it succeeds registers its compensation after the step, using add().
+ *   A step that may take effect even when it fails, such as an SK call that times out, uses attempt() so that
+ *   its compensation is registered before the step runs. Rollback undoes the registered steps in reverse order.
+ * Steps may run concurrently and may complete after rollback has started, for example when SKCallRunner returns
+ *   on a timeout while calls are still in progress. A compensation registered after rollback has started is run
+ *   immediately by the thread that registers it.
+ * Compensations never throw. Failures are passed to the error handler, typically to be logged.
+ */
+public final class SKCompensations
+{
+  /* ********************************************************************** */
+  /*                                 Fields                                 */
+  /* ********************************************************************** */
+  private final Deque<Compensation> compensations = new ArrayDeque<>();
+  private final BiConsumer<String, Exception> errorHandler;
+  private boolean rolledBack;
+
+  /* ********************************************************************** */
+  /*                             Constructors                               */
+  /* ********************************************************************** */
+  /**
+   * @param errorHandler1 - called with the name of the compensation and the exception when a compensation fails
+   */
+  public SKCompensations(BiConsumer<String, Exception> errorHandler1)
+  {
+    errorHandler = errorHandler1;
+  }
+
+  /* ********************************************************************** */
+  /*                             Public Methods                             */
+  /* ********************************************************************** */
+
+  /**
+   * Action that undoes a step, or the step itself. Throws the same exceptions as an SK call so that attempt()
+   *   may be used within an SKCallRunner.SKCall.
+   */
+  @FunctionalInterface
+  public interface CompensationAction
+  {
+    void run() throws TapisException, TapisClientException;
+  }
+
+  /**
+   * Register the compensation for a step that has succeeded. If rollback has already started then the
+   *   compensation is run immediately.
+   * @param name - name of the compensation, used when reporting errors
+   * @param action - action that undoes the step
+   */
+  public void add(String name, CompensationAction action)
+  {
+    var compensation = new Compensation(name, action);
+    synchronized (compensations)
+    {
+      if (!rolledBack)
+      {
+        compensations.push(compensation);
+        return;
+      }
+    }
+    run(compensation);
+  }
+
+  /**
+   * Run a step that may take effect even if it fails, for example an SK call that times out after the change
+   *   was applied. The compensation is registered before the step runs. If rollback starts while the step is
+   *   running then the compensation is run again once the step completes, so that a change applied after the
+   *   first run is also undone. If rollback has already started the step is not run.
+   * @param name - name of the compensation, used when reporting errors
+   * @param action - action that undoes the step
+   * @param step - the step
+   * @throws TapisException - exception thrown by the step
+   * @throws TapisClientException - exception thrown by the step
+   */
+  public void attempt(String name, CompensationAction action, CompensationAction step)
+          throws TapisException, TapisClientException
+  {
+    var compensation = new Compensation(name, action);
+    synchronized (compensations)
+    {
+      if (rolledBack) return;
+      compensations.push(compensation);
+    }
+    try { step.run(); }
+    finally
+    {
+      boolean lateCompletion;
+      synchronized (compensations) { lateCompletion = rolledBack; }
+      if (lateCompletion) run(compensation);
+    }
+  }
+
+  /**
+   * Undo all registered steps, most recent first.
+   */
+  public void rollback()
+  {
+    List<Compensation> toRun;
+    synchronized (compensations)
+    {
+      rolledBack = true;
+      toRun = new ArrayList<>(compensations);
+      compensations.clear();
+    }
+    for (Compensation compensation : toRun) run(compensation);
+  }
+
+  /**
+   * @return number of compensations waiting to be run
+   */
+  public int size()
+  {
+    synchronized (compensations) { return compensations.size(); }
+  }
+
+  /* ********************************************************************** */
+  /*                             Private Methods                            */
+  /* ********************************************************************** */
+
+  private void run(Compensation compensation)
+  {
+    try { compensation.action.run(); }
+    catch (Exception e) { if (errorHandler != null) errorHandler.accept(compensation.name, e); }
+  }
+
+  /*
+   * Named compensating action
+   */
+  private static final class Compensation
+  {
+    private final String name;
+    private final CompensationAction action;
+
+    private Compensation(String name1, CompensationAction action1)
+    {
+      name = name1;
+      action = action1;
+    }
+  }
+}
@@ -0,0 +1,48 @@
+package edu.utexas.tacc.tapis.systems.service;
+
+import java.util.List;
+
+import edu.utexas.tacc.tapis.client.shared.exceptions.TapisClientException;
+import edu.utexas.tacc.tapis.security.client.gen.model.SkSecret;
+import edu.utexas.tacc.tapis.security.client.gen.model.SkSecretMetadata;
+import edu.utexas.tacc.tapis.security.client.gen.model.SkSecretVersionMetadata;
+import edu.utexas.tacc.tapis.security.client.model.SKSecretMetaParms;
+import edu.utexas.tacc.tapis.security.client.model.SKSecretReadParms;
+import edu.utexas.tacc.tapis.security.client.model.SKSecretWriteParms;
+
+/*
+ * Authorization and secret operations used by the service.
+ * Normally these are calls to the Security Kernel, see SKClientProvider. For local performance testing an
+ *   in-process stand-in may be used instead, see FakeSKProvider.
+ * Methods have the same signatures and semantics as the corresponding methods of SKClient.
+ */
+public interface SKProvider
+{
+  // ----------------------------- Permissions -----------------------------
+  int grantUserPermission(String tenant, String user, String permSpec) throws TapisClientException;
+
+  int revokeUserPermission(String tenant, String user, String permSpec) throws TapisClientException;
+
+  List<String> getUserPerms(String tenant, String user) throws TapisClientException;
+
+  /**
+   * @param permSpec - may contain % to match any characters, as in an SQL LIKE
+   */
+  List<String> getUsersWithPermission(String tenant, String permSpec) throws TapisClientException;
+
+  boolean isPermitted(String tenant, String user, String permSpec) throws TapisClientException;
+
+  boolean isPermittedAny(String tenant, String user, String[] permSpecs) throws TapisClientException;
+
+  // ----------------------------- Roles -----------------------------------
+  boolean isAdmin(String tenant, String user) throws TapisClientException;
+
+  // ----------------------------- Secrets ---------------------------------
+  SkSecret readSecret(SKSecretReadParms parms) throws TapisClientException;
+
+  SkSecretMetadata writeSecret(String tenant, String user, SKSecretWriteParms parms) throws TapisClientException;
+
+  SkSecretVersionMetadata readSecretMeta(SKSecretMetaParms parms) throws TapisClientException;
+
+  List<Integer> destroySecretMeta(SKSecretMetaParms parms) throws TapisClientException;
+}
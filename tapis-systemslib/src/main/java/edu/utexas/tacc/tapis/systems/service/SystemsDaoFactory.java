@@ -0,0 +1,22 @@
+package edu.utexas.tacc.tapis.systems.service;
+
+import org.glassfish.hk2.api.Factory;
+
+import edu.utexas.tacc.tapis.systems.dao.SystemsDao;
+import edu.utexas.tacc.tapis.systems.dao.SystemsDaoImpl;
+import edu.utexas.tacc.tapis.systems.metrics.SystemsMetrics;
+
+/**
+ * HK2 Factory class providing a SystemsDao that records the latency of each call in the DAO metrics.
+ * Binding happens in SystemsApplication.java
+ */
+public class SystemsDaoFactory implements Factory<SystemsDao>
+{
+  @Override
+  public SystemsDao provide()
+  {
+    return SystemsMetrics.timed(SystemsDao.class, new SystemsDaoImpl(), SystemsMetrics.DAO);
+  }
+  @Override
+  public void dispose(SystemsDao dao) {}
+}
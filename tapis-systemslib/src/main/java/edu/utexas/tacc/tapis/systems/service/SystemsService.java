@@ -4,17 +4,24 @@ import edu.utexas.tacc.tapis.client.shared.exceptions.TapisClientException;
 import edu.utexas.tacc.tapis.shared.exceptions.TapisException;
 import edu.utexas.tacc.tapis.shared.threadlocal.OrderBy;
 import edu.utexas.tacc.tapis.sharedapi.security.AuthenticatedUser;
+import edu.utexas.tacc.tapis.systems.events.SystemEventHub;
 import edu.utexas.tacc.tapis.systems.model.Credential;
 import edu.utexas.tacc.tapis.systems.model.PatchSystem;
 import edu.utexas.tacc.tapis.systems.model.ResourceRequestUser;
+import edu.utexas.tacc.tapis.systems.model.SystemBatchItem;
+import edu.utexas.tacc.tapis.systems.model.StatementStats;
+import edu.utexas.tacc.tapis.systems.model.SystemChanges;
+import edu.utexas.tacc.tapis.systems.model.SystemVersionInfo;
 import edu.utexas.tacc.tapis.systems.model.TSystem;
 import edu.utexas.tacc.tapis.systems.model.TSystem.AuthnMethod;
 import edu.utexas.tacc.tapis.systems.model.TSystem.Permission;
+import edu.utexas.tacc.tapis.systems.model.TotalCount;
 import org.jvnet.hk2.annotations.Contract;
 
 import javax.ws.rs.NotAuthorizedException;
 import javax.ws.rs.NotFoundException;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /*
@@ -57,6 +64,9 @@ public interface SystemsService
   boolean isEnabled(ResourceRequestUser rUser, String systemId)
           throws TapisException, TapisClientException, NotAuthorizedException;
 
+  SystemVersionInfo getSystemVersionInfo(ResourceRequestUser rUser, String systemId, boolean requireExecPerm)
+          throws TapisException, NotAuthorizedException, TapisClientException;
+
   TSystem getSystem(ResourceRequestUser rUser, String systemId, boolean getCreds, AuthnMethod authnMethod,
                     boolean requireExecPerm)
           throws TapisException, TapisClientException, NotAuthorizedException;
@@ -64,10 +74,31 @@ public interface SystemsService
   int getSystemsTotalCount(ResourceRequestUser rUser, List<String> searchList, List<OrderBy> orderByList,
                            String startAfter, boolean showDeleted) throws TapisException, TapisClientException;
 
+  TotalCount getSystemsTotalCount(ResourceRequestUser rUser, List<String> searchList, List<OrderBy> orderByList,
+                                  String startAfter, boolean showDeleted, boolean approximate)
+          throws TapisException, TapisClientException;
+
   List<TSystem> getSystems(ResourceRequestUser rUser, List<String> searchList, int limit,
                            List<OrderBy> orderByList, int skip, String startAfter, boolean showDeleted)
           throws TapisException, TapisClientException;
 
+  Map<String, Map<String, Integer>> getSystemsFacets(ResourceRequestUser rUser, List<String> searchList,
+                                                     List<String> facetList, boolean showDeleted)
+          throws TapisException, TapisClientException;
+
+  List<SystemBatchItem> getSystemsBatch(ResourceRequestUser rUser, List<String> systemIds)
+          throws TapisException, TapisClientException;
+
+  SystemChanges getSystemChanges(ResourceRequestUser rUser, long since, int limit)
+          throws TapisException, TapisClientException;
+
+  List<StatementStats> getStatementStats(ResourceRequestUser rUser)
+          throws TapisException, TapisClientException, NotAuthorizedException;
+
+  SystemEventHub.Subscription subscribeSystemEvents(ResourceRequestUser rUser, long afterToken,
+                                                    SystemEventHub.EventSink sink)
+          throws TapisException, TapisClientException;
+
   List<TSystem> getSystemsUsingSqlSearchStr(ResourceRequestUser rUser, String searchStr, int limit,
                                         List<OrderBy> orderByList, int skip, String startAfter, boolean showDeleted)
           throws TapisException, TapisClientException;
@@ -84,6 +115,14 @@ public interface SystemsService
   int revokeUserPermissions(ResourceRequestUser rUser, String systemId, String userName, Set<Permission> permissions, String updateText)
           throws TapisException, TapisClientException, NotAuthorizedException;
 
+  int grantUserPermissionsBulk(ResourceRequestUser rUser, Set<String> systemIds, Set<String> userNames,
+                               Set<Permission> permissions, String updateText)
+          throws TapisException, TapisClientException, NotAuthorizedException;
+
+  int revokeUserPermissionsBulk(ResourceRequestUser rUser, Set<String> systemIds, Set<String> userNames,
+                                Set<Permission> permissions, String updateText)
+          throws TapisException, TapisClientException, NotAuthorizedException;
+
   Set<Permission> getUserPermissions(ResourceRequestUser rUser, String systemId, String userName)
           throws TapisException, TapisClientException, NotAuthorizedException;
 
@@ -12,12 +12,17 @@ import static edu.utexas.tacc.tapis.systems.model.TSystem.DEFAULT_EFFECTIVEUSERI
 import static edu.utexas.tacc.tapis.systems.model.TSystem.OWNER_VAR;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
-import java.util.regex.Pattern;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
 
 import javax.inject.Inject;
 import javax.ws.rs.NotAuthorizedException;
@@ -48,13 +53,29 @@ import edu.utexas.tacc.tapis.security.client.model.SKSecretWriteParms;
 import edu.utexas.tacc.tapis.security.client.model.SecretType;
 import edu.utexas.tacc.tapis.shared.exceptions.TapisException;
 import edu.utexas.tacc.tapis.shared.utils.TapisGsonUtils;
+import edu.utexas.tacc.tapis.systems.config.RuntimeParameters;
+import edu.utexas.tacc.tapis.systems.dao.SystemsChangeListener;
+import edu.utexas.tacc.tapis.systems.dao.SystemsColumns;
 import edu.utexas.tacc.tapis.systems.dao.SystemsDao;
+import edu.utexas.tacc.tapis.systems.dao.SystemsDaoImpl;
+import edu.utexas.tacc.tapis.systems.events.SystemEventHub;
+import edu.utexas.tacc.tapis.systems.metrics.RequestTiming;
+import edu.utexas.tacc.tapis.systems.metrics.RequestTiming.Phase;
+import edu.utexas.tacc.tapis.systems.metrics.SystemsMetrics;
 import edu.utexas.tacc.tapis.systems.model.Credential;
 import edu.utexas.tacc.tapis.systems.model.PatchSystem;
+import edu.utexas.tacc.tapis.systems.model.SystemBatchItem;
+import edu.utexas.tacc.tapis.systems.model.SystemBatchItem.ItemStatus;
+import edu.utexas.tacc.tapis.systems.model.StatementStats;
+import edu.utexas.tacc.tapis.systems.model.SystemChanges;
+import edu.utexas.tacc.tapis.systems.model.SystemEvent;
+import edu.utexas.tacc.tapis.systems.model.SystemTombstone;
+import edu.utexas.tacc.tapis.systems.model.SystemVersionInfo;
 import edu.utexas.tacc.tapis.systems.model.TSystem;
 import edu.utexas.tacc.tapis.systems.model.TSystem.AuthnMethod;
 import edu.utexas.tacc.tapis.systems.model.TSystem.Permission;
 import edu.utexas.tacc.tapis.systems.model.TSystem.SystemOperation;
+import edu.utexas.tacc.tapis.systems.model.TotalCount;
 import edu.utexas.tacc.tapis.systems.utils.LibUtils;
 
 /*
@@ -75,8 +96,10 @@ public class SystemsServiceImpl implements SystemsService
   private static final Set<Permission> ALL_PERMS = new HashSet<>(Set.of(Permission.READ, Permission.MODIFY, Permission.EXECUTE));
   private static final Set<Permission> READMODIFY_PERMS = new HashSet<>(Set.of(Permission.READ, Permission.MODIFY));
   // Permspec format for systems is "system:<tenant>:<perm_list>:<system_id>"
-  private static final String PERM_SPEC_PREFIX = "system";
+  static final String PERM_SPEC_PREFIX = "system";
   private static final String PERM_SPEC_TEMPLATE = "system:%s:%s:%s";
+  // Recorded in the local permission mirror for a grant of all permissions
+  private static final String PERM_WILDCARD = "*";
 
   private static final String SERVICE_NAME = TapisConstants.SERVICE_NAME_SYSTEMS;
   private static final String FILES_SERVICE = TapisConstants.SERVICE_NAME_FILES;
@@ -92,8 +115,19 @@ public class SystemsServiceImpl implements SystemsService
   // NotAuthorizedException requires a Challenge, although it serves no purpose here.
   private static final String NO_CHALLENGE = "NoChallenge";
 
-  // Compiled regex for splitting around ":"
-  private static final Pattern COLON_SPLIT = Pattern.compile(":");
+  // Default and maximum number of changes returned by a single delta sync request
+  public static final int DEFAULT_CHANGES_LIMIT = 100;
+  public static final int MAX_CHANGES_LIMIT = 1000;
+
+  // Maximum number of events replayed when a client resumes the event stream
+  public static final int MAX_EVENTS_REPLAY = 1000;
+
+  // Maximum number of systems that may be retrieved in a single batch request
+  public static final int MAX_BATCH_GET_IDS = 100;
+
+  // Maximum number of systems and users in a single bulk permissions request
+  public static final int MAX_BULK_PERM_SYSTEMS = 100;
+  public static final int MAX_BULK_PERM_USERS = 1000;
 
   // ************************************************************************
   // *********************** Enums ******************************************
@@ -121,6 +155,12 @@ public class SystemsServiceImpl implements SystemsService
   public static String getServiceTenantId() {return siteAdminTenantId;}
   public static String getServiceUserId() {return SERVICE_NAME;}
 
+  // Cache of credentials read from SK. Created on first use.
+  private static CredentialCache credentialCache;
+
+  // Runs SK calls concurrently for bulk operations. Created on first use.
+  private static SKCallRunner skCallRunner;
+
   // ************************************************************************
   // *********************** Public Methods *********************************
   // ************************************************************************
@@ -129,6 +169,7 @@ public class SystemsServiceImpl implements SystemsService
    * Initialize the service:
    *   init service context
    *   migrate DB
+   *   start listening for changes and, if enabled, reconciliation of the local permission mirror
    */
   public void initService(String siteId1, String siteAdminTenantId1, String svcPassword) throws TapisException, TapisClientException
   {
@@ -138,6 +179,73 @@ public class SystemsServiceImpl implements SystemsService
     serviceContext.initServiceJWT(siteId, SYSTEMS_SERVICE, svcPassword);
     // Make sure DB is present and updated to latest version using flyway
     dao.migrateDB();
+    // Listen for changes made by other service instances
+    SystemsChangeListener.start(dao);
+    // Keep the optional local copy of SK permissions in step with SK
+    if (PermMirror.isEnabled())
+      PermMirror.start(dao, this::getSKClient, RuntimeParameters.getInstance().getPermMirrorReconcileSeconds());
+    // Expose cache and connection pool statistics in the service metrics
+    registerMetrics();
+  }
+
+  /**
+   * Get the cache of credentials used by getUserCredential. Create it on first use with settings from
+   *   runtime parameters.
+   * @return credential cache
+   */
+  public static synchronized CredentialCache getCredentialCache()
+  {
+    if (credentialCache == null)
+    {
+      RuntimeParameters parms = RuntimeParameters.getInstance();
+      int capacity = (parms == null) ? CredentialCache.DEFAULT_CAPACITY : parms.getCredCacheSize();
+      int ttl = (parms == null) ? CredentialCache.DEFAULT_TTL_SECONDS : parms.getCredCacheTtlSeconds();
+      credentialCache = new CredentialCache(capacity, ttl);
+      _log.debug(LibUtils.getMsg("SYSLIB_CRED_CACHE_INIT", capacity, ttl));
+    }
+    return credentialCache;
+  }
+
+  /**
+   * Register gauges and counters for the DB connection pool and service caches.
+   */
+  public static void registerMetrics()
+  {
+    SystemsDaoImpl.registerMetrics();
+    CredentialCache credCache = getCredentialCache();
+    SystemsMetrics.registerGauge("credential_cache_size", "Credentials in the credential cache", credCache::size);
+    SystemsMetrics.registerCounter("credential_cache_hits_total", "Credential cache hits", credCache::getHitCount);
+    SystemsMetrics.registerCounter("credential_cache_misses_total", "Credential cache misses", credCache::getMissCount);
+    SystemsMetrics.registerGauge("sk_max_parallel", "Max concurrent Security Kernel calls per operation",
+                                 getSKCallRunner()::getMaxParallel);
+  }
+
+  /**
+   * Get the runner used to make SK calls concurrently. Create it on first use with settings from
+   *   runtime parameters.
+   * @return SK call runner
+   */
+  public static synchronized SKCallRunner getSKCallRunner()
+  {
+    if (skCallRunner == null)
+    {
+      RuntimeParameters parms = RuntimeParameters.getInstance();
+      int maxParallel = (parms == null) ? SKCallRunner.DEFAULT_MAX_PARALLEL : parms.getSkMaxParallel();
+      skCallRunner = new SKCallRunner(maxParallel);
+      _log.debug(LibUtils.getMsg("SYSLIB_SK_RUNNER_INIT", maxParallel));
+    }
+    return skCallRunner;
+  }
+
+  /**
+   * Get the max time to wait for the concurrent SK calls made by a single request.
+   * @return timeout in milliseconds
+   */
+  private static long getSKTimeoutMillis()
+  {
+    RuntimeParameters parms = RuntimeParameters.getInstance();
+    int timeoutSeconds = (parms == null) ? SKCallRunner.DEFAULT_TIMEOUT_SECONDS : parms.getSkTimeoutSeconds();
+    return timeoutSeconds * 1000L;
   }
 
   /**
@@ -215,38 +323,60 @@ public class SystemsServiceImpl implements SystemsService
     // ----------------- Create all artifacts --------------------
     // Creation of system, perms and creds not in single DB transaction.
     // Use try/catch to rollback any writes in case of failure.
-    boolean itemCreated = false;
     String systemsPermSpecALL = getPermSpecAllStr(resourceTenantId, resourceId);
     // TODO remove filesPermSpec related code (jira cic-3071)
     String filesPermSpec = "files:" + resourceTenantId + ":*:" + resourceId;
 
     // Get SK client now. If we cannot get this rollback not needed.
     var skClient = getSKClient();
+    // Each step registers how to undo it. SK calls register before they are attempted, since a call that fails
+    //   may still have been applied. See SKCompensations. Failures during rollback are logged.
+    var compensations = new SKCompensations((name, e) ->
+            _log.warn(LibUtils.getMsgAuth(ERROR_ROLLBACK, rUser, resourceId, name, e.getMessage())));
     try {
       // ------------------- Make Dao call to persist the system -----------------------------------
-      itemCreated = dao.createSystem(rUser, system, createJsonStr, scrubbedText);
+      if (dao.createSystem(rUser, system, createJsonStr, scrubbedText))
+        compensations.add("hardDelete", () -> dao.hardDeleteSystem(resourceTenantId, resourceId));
 
+      // The remaining steps are independent SK calls, so run them concurrently.
+      var skCalls = new ArrayList<SKCallRunner.SKCall>();
       // ------------------- Add permissions -----------------------------
       // Give owner and possibly effectiveUser full access to the system
-      skClient.grantUserPermission(resourceTenantId, system.getOwner(), systemsPermSpecALL);
-      if (!effectiveUserId.equals(APIUSERID_VAR) && !effectiveUserId.equals(OWNER_VAR)) {
-        skClient.grantUserPermission(resourceTenantId, effectiveUserId, systemsPermSpecALL);
-      }
       // TODO remove filesPermSpec related code (jira cic-3071)
       // Give owner/effectiveUser files service related permission for root directory
-      skClient.grantUserPermission(resourceTenantId, system.getOwner(), filesPermSpec);
-      if (!effectiveUserId.equals(APIUSERID_VAR) && !effectiveUserId.equals(OWNER_VAR))
-        skClient.grantUserPermission(resourceTenantId, effectiveUserId, filesPermSpec);
+      var permUsers = new LinkedHashSet<String>();
+      permUsers.add(system.getOwner());
+      if (!effectiveUserId.equals(APIUSERID_VAR) && !effectiveUserId.equals(OWNER_VAR)) permUsers.add(effectiveUserId);
+      for (String permUser : permUsers)
+      {
+        for (String permSpec : List.of(systemsPermSpecALL, filesPermSpec))
+        {
+          // A grant that times out may still have been applied by SK, so register the revoke before the call.
+          skCalls.add(() -> compensations.attempt("revokePerm",
+                  () -> callSK("revokeUserPermission", () -> skClient.revokeUserPermission(resourceTenantId, permUser, permSpec)),
+                  () -> callSK("grantUserPermission", () -> skClient.grantUserPermission(resourceTenantId, permUser, permSpec))));
+        }
+      }
 
       // ------------------- Store credentials -----------------------------------
       // Store credentials in Security Kernel if cred provided and effectiveUser is static
       if (system.getAuthnCredential() != null && !effectiveUserId.equals(APIUSERID_VAR)) {
-        String accessUser = effectiveUserId;
         // If effectiveUser is owner resolve to static string.
-        if (effectiveUserId.equals(OWNER_VAR)) accessUser = system.getOwner();
+        String accessUser = effectiveUserId.equals(OWNER_VAR) ? system.getOwner() : effectiveUserId;
         // Use private internal method instead of public API to skip auth and other checks not needed here.
-        // Create credential
-        createCredential(skClient, rUser, system.getAuthnCredential(), resourceId, accessUser);
+        // A credential may have several secrets, so if the write fails part way some may have been stored.
+        // Register the compensation before the write so the credential is removed on rollback.
+        skCalls.add(() -> compensations.attempt("deleteCred",
+                () -> deleteCredential(skClient, rUser, resourceId, accessUser),
+                () -> createCredential(skClient, rUser, system.getAuthnCredential(), resourceId, accessUser)));
+      }
+      getSKCallRunner().runAll(skCalls, getSKTimeoutMillis());
+
+      // ------------------- Update local permission mirror -----------------------------
+      if (PermMirror.isEnabled())
+      {
+        compensations.add("removeMirrorPerms", () -> dao.removeAllUserPerms(resourceTenantId, resourceId));
+        dao.addUserPerms(resourceTenantId, List.of(resourceId), permUsers, List.of(PERM_WILDCARD));
       }
     }
     catch (Exception e0)
@@ -257,27 +387,8 @@ public class SystemsServiceImpl implements SystemsService
       _log.error(msg);
 
       // Rollback
-      // Remove system from DB
-      if (itemCreated) try {dao.hardDeleteSystem(resourceTenantId, resourceId); }
-      catch (Exception e) {_log.warn(LibUtils.getMsgAuth(ERROR_ROLLBACK, rUser, resourceId, "hardDelete", e.getMessage()));}
-      // Remove perms
-      try { skClient.revokeUserPermission(resourceTenantId, system.getOwner(), systemsPermSpecALL); }
-      catch (Exception e) {_log.warn(LibUtils.getMsgAuth(ERROR_ROLLBACK, rUser, resourceId, "revokePermOwner", e.getMessage()));}
-      try { skClient.revokeUserPermission(resourceTenantId, effectiveUserId, systemsPermSpecALL); }
-      catch (Exception e) {_log.warn(LibUtils.getMsgAuth(ERROR_ROLLBACK, rUser, resourceId, "revokePermEffUsr", e.getMessage()));}
-      // TODO remove filesPermSpec related code (jira cic-3071)
-      try { skClient.revokeUserPermission(resourceTenantId, system.getOwner(), filesPermSpec);  }
-      catch (Exception e) {_log.warn(LibUtils.getMsgAuth(ERROR_ROLLBACK, rUser, resourceId, "revokePermF1", e.getMessage()));}
-      try { skClient.revokeUserPermission(resourceTenantId, effectiveUserId, filesPermSpec);  }
-      catch (Exception e) {_log.warn(LibUtils.getMsgAuth(ERROR_ROLLBACK, rUser, resourceId, "revokePermF2", e.getMessage()));}
-      // Remove creds
-      if (system.getAuthnCredential() != null && !effectiveUserId.equals(APIUSERID_VAR)) {
-        String accessUser = effectiveUserId;
-        if (effectiveUserId.equals(OWNER_VAR)) accessUser = system.getOwner();
-        // Use private internal method instead of public API to skip auth and other checks not needed here.
-        try { deleteCredential(skClient, rUser, resourceId, accessUser); }
-        catch (Exception e) {_log.warn(LibUtils.getMsgAuth(ERROR_ROLLBACK, rUser, resourceId, "deleteCred", e.getMessage()));}
-      }
+      // Undo the steps that were attempted, most recent first. SK calls still in progress undo themselves.
+      compensations.rollback();
       throw e0;
     }
   }
@@ -524,26 +635,43 @@ public class SystemsServiceImpl implements SystemsService
       // ------------------- Make Dao call to update the system owner -----------------------------------
       dao.updateSystemOwner(rUser, resourceTenantId, systemId, newOwnerName);
       // Add permissions for new owner
-      skClient.grantUserPermission(resourceTenantId, newOwnerName, systemsPermSpec);
+      callSK("grantUserPermission", () -> skClient.grantUserPermission(resourceTenantId, newOwnerName, systemsPermSpec));
       // TODO remove addition of files related permSpec (jira cic-3071)
       // Give owner files service related permission for root directory
-      skClient.grantUserPermission(resourceTenantId, newOwnerName, filesPermSpec);
+      callSK("grantUserPermission", () -> skClient.grantUserPermission(resourceTenantId, newOwnerName, filesPermSpec));
       // Remove permissions from old owner
-      skClient.revokeUserPermission(resourceTenantId, oldOwnerName, systemsPermSpec);
+      callSK("revokeUserPermission", () -> skClient.revokeUserPermission(resourceTenantId, oldOwnerName, systemsPermSpec));
+      // Update local permission mirror
+      updatePermMirror(rUser, SystemOperation.grantPerms, resourceTenantId, List.of(systemId), List.of(newOwnerName),
+                       List.of(PERM_WILDCARD));
+      updatePermMirror(rUser, SystemOperation.revokePerms, resourceTenantId, List.of(systemId), List.of(oldOwnerName),
+                       List.of(PERM_WILDCARD));
+      // Make the change visible to clients using delta sync. The old owner may have lost access.
+      recordPermissionChange(rUser, SystemOperation.revokePerms, resourceTenantId, List.of(systemId),
+                             List.of(oldOwnerName));
       // TODO: Notify files service of the change (jira cic-3071)
     }
     catch (Exception e0)
     {
       // Something went wrong. Attempt to undo all changes and then re-throw the exception
       try { dao.updateSystemOwner(rUser, resourceTenantId, systemId, oldOwnerName); } catch (Exception e) {_log.warn(LibUtils.getMsgAuth(ERROR_ROLLBACK, rUser, systemId, "updateOwner", e.getMessage()));}
+      if (PermMirror.isEnabled())
+      {
+        try
+        {
+          dao.removeUserPerms(resourceTenantId, List.of(systemId), List.of(newOwnerName), List.of(PERM_WILDCARD));
+          dao.addUserPerms(resourceTenantId, List.of(systemId), List.of(oldOwnerName), List.of(PERM_WILDCARD));
+        }
+        catch (Exception e) {_log.warn(LibUtils.getMsgAuth(ERROR_ROLLBACK, rUser, systemId, "mirrorPerms", e.getMessage()));}
+      }
       // TODO remove filesPermSpec related code (jira cic-3071)
-      try { skClient.revokeUserPermission(resourceTenantId, newOwnerName, filesPermSpec); }
+      try { callSK("revokeUserPermission", () -> skClient.revokeUserPermission(resourceTenantId, newOwnerName, filesPermSpec)); }
       catch (Exception e) {_log.warn(LibUtils.getMsgAuth(ERROR_ROLLBACK, rUser, systemId, "revokePermNewOwner", e.getMessage()));}
-      try { skClient.revokeUserPermission(resourceTenantId, newOwnerName, filesPermSpec); }
+      try { callSK("revokeUserPermission", () -> skClient.revokeUserPermission(resourceTenantId, newOwnerName, filesPermSpec)); }
       catch (Exception e) {_log.warn(LibUtils.getMsgAuth(ERROR_ROLLBACK, rUser, systemId, "revokePermF1", e.getMessage()));}
-      try { skClient.grantUserPermission(resourceTenantId, oldOwnerName, systemsPermSpec); }
+      try { callSK("grantUserPermission", () -> skClient.grantUserPermission(resourceTenantId, oldOwnerName, systemsPermSpec)); }
       catch (Exception e) {_log.warn(LibUtils.getMsgAuth(ERROR_ROLLBACK, rUser, systemId, "grantPermOldOwner", e.getMessage()));}
-      try { skClient.grantUserPermission(resourceTenantId, oldOwnerName, filesPermSpec); }
+      try { callSK("grantUserPermission", () -> skClient.grantUserPermission(resourceTenantId, oldOwnerName, filesPermSpec)); }
       catch (Exception e) {_log.warn(LibUtils.getMsgAuth(ERROR_ROLLBACK, rUser, systemId, "grantPermF1", e.getMessage()));}
       throw e0;
     }
@@ -578,10 +706,12 @@ public class SystemsServiceImpl implements SystemsService
     checkAuth(rUser, op, systemId, null, null, null);
 
     // Remove SK artifacts
-    removeSKArtifacts(rUser, resourceTenantId, systemId);
+    List<String> readers;
+    try { readers = removeSKArtifacts(rUser, resourceTenantId, systemId); }
+    finally { getCredentialCache().invalidateSystem(resourceTenantId, systemId); }
 
-    // Delete the system
-    return dao.hardDeleteSystem(resourceTenantId, systemId);
+    // Delete the system. Users who held permissions are recorded as readers on the tombstone.
+    return dao.hardDeleteSystem(resourceTenantId, systemId, readers);
   }
 
   /**
@@ -678,20 +808,21 @@ public class SystemsServiceImpl implements SystemsService
     String resourceTenantId = rUser.getApiTenantId();
 
     // We need owner to check auth and if system not there cannot find owner, so return null if no system.
-    if (!dao.checkForSystem(resourceTenantId, systemId, false)) return null;
+    // Result comes from the systems cache when possible. It is always a copy, so per-request attributes such as
+    //   effectiveUserId and authnCredential may be set on it.
+    TSystem result = SystemsDaoImpl.getSystemsCache().getSystem(resourceTenantId, systemId,
+                                                                () -> dao.getSystem(resourceTenantId, systemId));
+    if (result == null) return null;
 
     // ------------------------- Check service level authorization -------------------------
-    checkAuth(rUser, op, systemId, null, null, null);
+    checkAuth(rUser, op, systemId, result.getOwner(), null, null);
     // If flag is set to also require EXECUTE perm then make a special auth call
     if (requireExecPerm)
     {
       checkAuthUser(rUser, SystemOperation.execute, resourceTenantId, rUser.getApiUserId(),
-                    systemId, null, null, null);
+                    systemId, result.getOwner(), null, null);
     }
 
-    TSystem result = dao.getSystem(resourceTenantId, systemId);
-    if (result == null) return null;
-
     // If flag is set to also require EXECUTE perm then system must support execute
     if (requireExecPerm && !result.getCanExec())
     {
@@ -714,6 +845,114 @@ public class SystemsServiceImpl implements SystemsService
     return result;
   }
 
+  /**
+   * getSystemVersionInfo
+   * Lightweight version of getSystem used to check if a system has changed, for example when responding to a
+   *   conditional GET. Authorization checks are the same as for getSystem.
+   * Returned effectiveUserId is resolved as in getSystem.
+   * @param rUser - ResourceRequestUser containing tenant, user and request info
+   * @param systemId - Name of the system
+   * @param requireExecPerm - check for EXECUTE permission as well as READ permission
+   * @return version info or null if not found or system does not support execute
+   *         when requireExecPerm is set. In the latter case getSystem should be called to produce the error.
+   * @throws TapisException - for Tapis related exceptions
+   * @throws NotAuthorizedException - unauthorized
+   */
+  @Override
+  public SystemVersionInfo getSystemVersionInfo(ResourceRequestUser rUser, String systemId, boolean requireExecPerm)
+          throws TapisException, NotAuthorizedException, TapisClientException
+  {
+    SystemOperation op = SystemOperation.read;
+    if (rUser == null) throw new IllegalArgumentException(LibUtils.getMsg("SYSLIB_NULL_INPUT_AUTHUSR"));
+    if (StringUtils.isBlank(systemId))
+      throw new IllegalArgumentException(LibUtils.getMsgAuth("SYSLIB_NULL_INPUT_SYSTEM", rUser));
+
+    String resourceTenantId = rUser.getApiTenantId();
+
+    SystemVersionInfo result = dao.getSystemVersionInfo(resourceTenantId, systemId);
+    if (result == null) return null;
+
+    // ------------------------- Check service level authorization -------------------------
+    checkAuth(rUser, op, systemId, null, null, null);
+    // If flag is set to also require EXECUTE perm then make a special auth call
+    if (requireExecPerm)
+    {
+      checkAuthUser(rUser, SystemOperation.execute, resourceTenantId, rUser.getApiUserId(),
+                    systemId, null, null, null);
+      if (!result.getCanExec()) return null;
+    }
+
+    // Resolve effectiveUserId
+    return new SystemVersionInfo(result, resolveEffectiveUserId(result.getEffectiveUserId(), result.getOwner(), rUser));
+  }
+
+  /**
+   * getSystemsBatch
+   * Retrieve many systems in a single request. Each system is checked for READ access as in getSystem, but
+   *   authorization is resolved for all systems at once using a single fetch of the requester's permissions.
+   * Systems are retrieved using a fixed number of queries. Credentials are not included.
+   * Each ID gets its own result, so a missing or unauthorized system does not cause the request to fail.
+   * Duplicate IDs are ignored.
+   * @param rUser - ResourceRequestUser containing tenant, user and request info
+   * @param systemIds - names of systems, at most MAX_BATCH_GET_IDS
+   * @return results in the same order as the IDs
+   * @throws TapisException - for Tapis related exceptions
+   */
+  @Override
+  public List<SystemBatchItem> getSystemsBatch(ResourceRequestUser rUser, List<String> systemIds)
+          throws TapisException, TapisClientException
+  {
+    if (rUser == null) throw new IllegalArgumentException(LibUtils.getMsg("SYSLIB_NULL_INPUT_AUTHUSR"));
+    if (systemIds == null || systemIds.isEmpty())
+      throw new IllegalArgumentException(LibUtils.getMsgAuth("SYSLIB_NULL_INPUT_SYSTEM", rUser));
+    var idSet = new LinkedHashSet<String>();
+    for (String id : systemIds)
+    {
+      if (StringUtils.isBlank(id)) throw new IllegalArgumentException(LibUtils.getMsgAuth("SYSLIB_NULL_INPUT_SYSTEM", rUser));
+      idSet.add(id);
+    }
+    if (idSet.size() > MAX_BATCH_GET_IDS)
+      throw new IllegalArgumentException(LibUtils.getMsgAuth("SYSLIB_BATCH_TOO_MANY", rUser, idSet.size(),
+                                                             MAX_BATCH_GET_IDS));
+
+    String resourceTenantId = rUser.getApiTenantId();
+    SystemOperation op = SystemOperation.read;
+
+    // ------------------------- Check service level authorization -------------------------
+    // Same rules as checkAuth for the read operation. Services are allowed all or nothing. For a user
+    //   null means all systems allowed, otherwise the user must own the system or be in the set.
+    boolean svcAllowed = false;
+    Set<String> allowedSysIDs = null;
+    if (rUser.isServiceRequest()) svcAllowed = SVCLIST_READ.contains(rUser.getJwtUserId());
+    else allowedSysIDs = getAllowedSysIDs(rUser);
+
+    // ------------------------- Retrieve records -----------------------------
+    var systemMap = new HashMap<String, TSystem>();
+    for (TSystem sys : dao.getSystemsByIds(resourceTenantId, idSet)) { systemMap.put(sys.getId(), sys); }
+
+    var results = new ArrayList<SystemBatchItem>(idSet.size());
+    for (String id : idSet)
+    {
+      TSystem sys = systemMap.get(id);
+      if (sys == null)
+      {
+        results.add(new SystemBatchItem(id, ItemStatus.NOT_FOUND, null, LibUtils.getMsgAuth(NOT_FOUND, rUser, id)));
+        continue;
+      }
+      boolean allowed = rUser.isServiceRequest() ? svcAllowed :
+                        (allowedSysIDs == null || allowedSysIDs.contains(id) || sys.getOwner().equals(rUser.getJwtUserId()));
+      if (!allowed)
+      {
+        results.add(new SystemBatchItem(id, ItemStatus.NOT_AUTHORIZED, null,
+                                        LibUtils.getMsgAuth("SYSLIB_UNAUTH", rUser, id, op.name())));
+        continue;
+      }
+      sys.setEffectiveUserId(resolveEffectiveUserId(sys.getEffectiveUserId(), sys.getOwner(), rUser));
+      results.add(new SystemBatchItem(id, ItemStatus.FOUND, sys, null));
+    }
+    return results;
+  }
+
   /**
    * Get count of all systems matching certain criteria and for which user has READ permission
    * @param rUser - ResourceRequestUser containing tenant, user and request info
@@ -728,6 +967,27 @@ public class SystemsServiceImpl implements SystemsService
   public int getSystemsTotalCount(ResourceRequestUser rUser, List<String> searchList,
                                   List<OrderBy> orderByList, String startAfter, boolean showDeleted)
           throws TapisException, TapisClientException
+  {
+    return getSystemsTotalCount(rUser, searchList, orderByList, startAfter, showDeleted, false).getCount();
+  }
+
+  /**
+   * Get count of all systems matching certain criteria and for which user has READ permission
+   * If approximate is true the count may be an estimate from the DB query planner. Otherwise the count is exact.
+   * @param rUser - ResourceRequestUser containing tenant, user and request info
+   * @param searchList - optional list of conditions used for searching
+   * @param orderByList - orderBy entries for sorting, e.g. orderBy=created(desc).
+   * @param startAfter - where to start when sorting, e.g. orderBy=id(asc)&startAfter=101 (may not be used with skip)
+   * @param showDeleted - whether or not to included resources that have been marked as deleted.
+   * @param approximate - whether or not an estimate is acceptable
+   * @return Count of TSystem objects and an indication of whether it is exact
+   * @throws TapisException - for Tapis related exceptions
+   */
+  @Override
+  public TotalCount getSystemsTotalCount(ResourceRequestUser rUser, List<String> searchList,
+                                         List<OrderBy> orderByList, String startAfter, boolean showDeleted,
+                                         boolean approximate)
+          throws TapisException, TapisClientException
   {
     if (rUser == null) throw new IllegalArgumentException(LibUtils.getMsg("SYSLIB_NULL_INPUT_AUTHUSR"));
 
@@ -752,16 +1012,37 @@ public class SystemsServiceImpl implements SystemsService
       }
     }
 
+    // If the requester may not see all systems and the local permission mirror is available then count allowed
+    //   systems using a join with the mirror.
+    boolean allSystemsAllowed = isAllSystemsAllowed(rUser);
+    if (!allSystemsAllowed && PermMirror.isReady(rUser.getApiTenantId()))
+    {
+      if (approximate)
+      {
+        return dao.getSystemsCountEstimateReadableBy(rUser.getApiTenantId(), rUser.getApiUserId(), verifiedSearchList,
+                                                     null, orderByList, startAfter, showDeleted);
+      }
+      int count = dao.getSystemsCountReadableBy(rUser.getApiTenantId(), rUser.getApiUserId(), verifiedSearchList,
+                                                null, orderByList, startAfter, showDeleted);
+      return new TotalCount(count, true);
+    }
+
     // Get list of IDs of systems for which requester has view permission.
     // This is either all systems (null) or a list of IDs.
-    Set<String> allowedSysIDs = getAllowedSysIDs(rUser);
+    Set<String> allowedSysIDs = allSystemsAllowed ? null : getReadableSysIDsFromSK(rUser);
 
     // If none are allowed we know count is 0
-    if (allowedSysIDs != null && allowedSysIDs.isEmpty()) return 0;
+    if (allowedSysIDs != null && allowedSysIDs.isEmpty()) return new TotalCount(0, true);
 
-    // Count all allowed systems matching the search conditions
-    return dao.getSystemsCount(rUser.getApiTenantId(), verifiedSearchList, null, allowedSysIDs, orderByList, startAfter,
-                               showDeleted);
+    // Estimate the count or count all allowed systems matching the search conditions
+    if (approximate)
+    {
+      return dao.getSystemsCountEstimate(rUser.getApiTenantId(), verifiedSearchList, null, allowedSysIDs, orderByList,
+                                         startAfter, showDeleted);
+    }
+    int count = dao.getSystemsCount(rUser.getApiTenantId(), verifiedSearchList, null, allowedSysIDs, orderByList,
+                                    startAfter, showDeleted);
+    return new TotalCount(count, true);
   }
 
   /**
@@ -804,19 +1085,211 @@ public class SystemsServiceImpl implements SystemsService
       }
     }
 
+    // Get all allowed systems matching the search conditions.
+    // If the requester may not see all systems and the local permission mirror is available then use a join with
+    //   the mirror, otherwise get list of IDs of systems for which requester has READ permission.
+    //   This is either all systems (null) or a list of IDs.
+    List<TSystem> systems;
+    boolean allSystemsAllowed = isAllSystemsAllowed(rUser);
+    if (!allSystemsAllowed && PermMirror.isReady(rUser.getApiTenantId()))
+    {
+      systems = dao.getSystemsReadableBy(rUser.getApiTenantId(), rUser.getApiUserId(), verifiedSearchList, null,
+                                         limit, orderByList, skip, startAfter, showDeleted);
+    }
+    else
+    {
+      Set<String> allowedSysIDs = allSystemsAllowed ? null : getReadableSysIDsFromSK(rUser);
+      systems = dao.getSystems(rUser.getApiTenantId(), verifiedSearchList, null, allowedSysIDs,
+                               limit, orderByList, skip, startAfter, showDeleted);
+    }
+
+    for (TSystem system : systems)
+    {
+      system.setEffectiveUserId(resolveEffectiveUserId(system.getEffectiveUserId(), system.getOwner(), rUser));
+    }
+    return systems;
+  }
+
+  /**
+   * Get counts grouped by attribute value for all systems matching certain criteria and for which user has
+   *   READ permission. Used for dashboards so that clients do not need to retrieve all systems.
+   * @param rUser - ResourceRequestUser containing tenant, user and request info
+   * @param searchList - optional list of conditions used for searching
+   * @param facetList - attributes for which to compute counts. If null or empty then all of TSystem.FACET_FIELDS
+   * @param showDeleted - whether or not to included resources that have been marked as deleted.
+   * @return map of attribute name to map of value to count
+   * @throws TapisException - for Tapis related exceptions
+   */
+  @Override
+  public Map<String, Map<String, Integer>> getSystemsFacets(ResourceRequestUser rUser, List<String> searchList,
+                                                            List<String> facetList, boolean showDeleted)
+          throws TapisException, TapisClientException
+  {
+    if (rUser == null) throw new IllegalArgumentException(LibUtils.getMsg("SYSLIB_NULL_INPUT_AUTHUSR"));
+
+    // Check the list of attributes. Names are checked the same way as in the Dao, so camelCase and snake_case
+    //   are both accepted.
+    if (facetList == null || facetList.isEmpty()) facetList = TSystem.FACET_FIELDS;
+    for (String facet : facetList)
+    {
+      if (SystemsColumns.getFacetColumn(facet) == null)
+      {
+        String msg = LibUtils.getMsgAuth("SYSLIB_FACET_ERROR", rUser, facet, TSystem.FACET_FIELDS);
+        throw new IllegalArgumentException(msg);
+      }
+    }
+
+    // Build verified list of search conditions
+    var verifiedSearchList = new ArrayList<String>();
+    if (searchList != null && !searchList.isEmpty())
+    {
+      try
+      {
+        for (String cond : searchList)
+        {
+          // Use SearchUtils to validate condition
+          String verifiedCondStr = SearchUtils.validateAndProcessSearchCondition(cond);
+          verifiedSearchList.add(verifiedCondStr);
+        }
+      }
+      catch (Exception e)
+      {
+        String msg = LibUtils.getMsgAuth("SYSLIB_SEARCH_ERROR", rUser, e.getMessage());
+        _log.error(msg, e);
+        throw new IllegalArgumentException(msg);
+      }
+    }
+
     // Get list of IDs of systems for which requester has READ permission.
     // This is either all systems (null) or a list of IDs.
     Set<String> allowedSysIDs = getAllowedSysIDs(rUser);
 
-    // Get all allowed systems matching the search conditions
-    List<TSystem> systems = dao.getSystems(rUser.getApiTenantId(), verifiedSearchList, null, allowedSysIDs,
-                                            limit, orderByList, skip, startAfter, showDeleted);
+    // Count all allowed systems matching the search conditions
+    return dao.getSystemsFacets(rUser.getApiTenantId(), verifiedSearchList, null, allowedSysIDs, facetList,
+                                showDeleted);
+  }
 
-    for (TSystem system : systems)
+  /**
+   * Get systems for which user has READ permission that have been created, updated or deleted after a given
+   *   change sequence value, along with tombstones for systems that have been permanently removed or that the
+   *   user may no longer read.
+   * Soft deleted systems are included so that clients can remove them from any local copy.
+   * Granting or revoking permissions for a system counts as a change to the system.
+   * The token returned accounts for all changes examined, including those for systems the user may not read,
+   *   so a client polling with it will not see the same changes again.
+   * @param rUser - ResourceRequestUser containing tenant, user and request info
+   * @param since - change sequence value returned by a previous request, 0 to start from the beginning
+   * @param limit - maximum number of changes to return. Default used if less than 1, capped at MAX_CHANGES_LIMIT
+   * @return changes along with the token to use for the next request
+   * @throws TapisException - for Tapis related exceptions
+   */
+  @Override
+  public SystemChanges getSystemChanges(ResourceRequestUser rUser, long since, int limit)
+          throws TapisException, TapisClientException
+  {
+    if (rUser == null) throw new IllegalArgumentException(LibUtils.getMsg("SYSLIB_NULL_INPUT_AUTHUSR"));
+    if (since < 0)
     {
-      system.setEffectiveUserId(resolveEffectiveUserId(system.getEffectiveUserId(), system.getOwner(), rUser));
+      throw new IllegalArgumentException(LibUtils.getMsgAuth("SYSLIB_CHANGES_SINCE_ERROR", rUser, since));
     }
-    return systems;
+    if (limit < 1) limit = DEFAULT_CHANGES_LIMIT;
+    else if (limit > MAX_CHANGES_LIMIT) limit = MAX_CHANGES_LIMIT;
+
+    // Get list of IDs of systems for which requester has READ permission.
+    // This is either all systems (null) or a list of IDs.
+    Set<String> allowedSysIDs = getAllowedSysIDs(rUser);
+    // A requester who may read all systems gets tombstones for systems that have been removed. Otherwise the
+    //   requester only gets tombstones that list them as a reader.
+    String readerName = (allowedSysIDs == null) ? null : rUser.getApiUserId();
+    SystemChanges changes = dao.getSystemChanges(rUser.getApiTenantId(), since, limit, readerName);
+    if (allowedSysIDs == null) return changes;
+
+    // Filter out systems the user may not read, and tombstones for systems the user may still read.
+    var allowedSystems = new ArrayList<TSystem>();
+    for (TSystem system : changes.getSystems())
+    {
+      if (allowedSysIDs.contains(system.getId())) allowedSystems.add(system);
+    }
+    var tombstones = new ArrayList<SystemTombstone>();
+    for (SystemTombstone tombstone : changes.getTombstones())
+    {
+      if (!allowedSysIDs.contains(tombstone.getId())) tombstones.add(tombstone);
+    }
+    return new SystemChanges(allowedSystems, tombstones, changes.getNextToken(), changes.isMore());
+  }
+
+  /**
+   * Get execution statistics for DB statements run by this service instance.
+   * Statistics cover all tenants so only services and administrators in the site admin tenant are allowed.
+   * @param rUser - ResourceRequestUser containing tenant, user and request info
+   * @return statistics for each distinct statement, in order of decreasing total time
+   * @throws NotAuthorizedException - unauthorized
+   */
+  @Override
+  public List<StatementStats> getStatementStats(ResourceRequestUser rUser)
+          throws TapisException, TapisClientException, NotAuthorizedException
+  {
+    if (rUser == null) throw new IllegalArgumentException(LibUtils.getMsg("SYSLIB_NULL_INPUT_AUTHUSR"));
+    // Services and administrators must both be authenticated in the site admin tenant
+    boolean allowed = rUser.getJwtTenantId().equals(siteAdminTenantId) &&
+                      (rUser.isServiceRequest() || hasAdminRole(rUser, null, null));
+    if (!allowed)
+    {
+      throw new NotAuthorizedException(LibUtils.getMsgAuth("SYSLIB_AUTH_STMT_STATS", rUser, siteAdminTenantId),
+                                       NO_CHALLENGE);
+    }
+    return dao.getStatementStats();
+  }
+
+  /**
+   * Subscribe to the stream of events for systems in the user's tenant.
+   * Only events for systems the user may READ are delivered. The systems readable at the time of subscription
+   *   are fetched up front. Permission for any other system is checked when its first event is delivered, and
+   *   checked again after an event for a change in the owner or permissions of a system. See ReadableSystemFilter.
+   * If afterToken is greater than 0 then events recorded after that token are first replayed from the database.
+   *   Replay runs on a hub delivery thread after this method returns. If there are more than MAX_EVENTS_REPLAY
+   *   such events then the sink is sent an overflow notice with the token of the last event replayed and the
+   *   subscription is closed. The client may reconnect to continue the replay.
+   * @param rUser - ResourceRequestUser containing tenant, user and request info
+   * @param afterToken - token of the last event received by the client, 0 for only new events
+   * @param sink - destination for events
+   * @return subscription or null if the maximum number of subscribers has been reached
+   * @throws TapisException - for Tapis related exceptions
+   */
+  @Override
+  public SystemEventHub.Subscription subscribeSystemEvents(ResourceRequestUser rUser, long afterToken,
+                                                           SystemEventHub.EventSink sink)
+          throws TapisException, TapisClientException
+  {
+    if (rUser == null) throw new IllegalArgumentException(LibUtils.getMsg("SYSLIB_NULL_INPUT_AUTHUSR"));
+    if (afterToken < 0)
+    {
+      throw new IllegalArgumentException(LibUtils.getMsgAuth("SYSLIB_EVENTS_TOKEN_ERROR", rUser, afterToken));
+    }
+    String tenant = rUser.getApiTenantId();
+
+    // Get list of IDs of systems for which requester has READ permission.
+    // This is either all systems (null) or a list of IDs.
+    Set<String> allowedSysIDs = getAllowedSysIDs(rUser);
+    Predicate<SystemEvent> filter = (allowedSysIDs == null) ? null : new ReadableSystemFilter(rUser, allowedSysIDs);
+
+    // Subscribe before replaying so that events committed during the replay are not missed.
+    // Any that are also replayed are discarded when the subscription is started.
+    SystemEventHub hub = SystemEventHub.getInstance();
+    SystemEventHub.Subscription sub = hub.subscribe(tenant, filter, sink);
+    if (sub == null) return null;
+    if (afterToken <= 0)
+    {
+      sub.start(afterToken);
+      return sub;
+    }
+    try { hub.execute(() -> replaySystemEvents(sub, tenant, afterToken, filter, sink)); }
+    catch (Exception e)
+    {
+      sub.close();
+      throw new TapisException(LibUtils.getMsg("SYSLIB_EVENTS_SEND_ERROR", tenant, e.getMessage()), e);
+    }
+    return sub;
   }
 
   /**
@@ -863,13 +1336,23 @@ public class SystemsServiceImpl implements SystemsService
       throw new IllegalArgumentException(msg);
     }
 
-    // Get list of IDs of systems for which requester has READ permission.
-    // This is either all systems (null) or a list of IDs.
-    Set<String> allowedSysIDs = getAllowedSysIDs(rUser);
-
-    // Get all allowed systems matching the search conditions
-    List<TSystem> systems = dao.getSystems(rUser.getApiTenantId(), null, searchAST, allowedSysIDs,
-                                           limit, orderByList, skip, startAfter, showDeleted);
+    // Get all allowed systems matching the search conditions.
+    // If the requester may not see all systems and the local permission mirror is available then use a join with
+    //   the mirror, otherwise get list of IDs of systems for which requester has READ permission.
+    //   This is either all systems (null) or a list of IDs.
+    List<TSystem> systems;
+    boolean allSystemsAllowed = isAllSystemsAllowed(rUser);
+    if (!allSystemsAllowed && PermMirror.isReady(rUser.getApiTenantId()))
+    {
+      systems = dao.getSystemsReadableBy(rUser.getApiTenantId(), rUser.getApiUserId(), null, searchAST,
+                                         limit, orderByList, skip, startAfter, showDeleted);
+    }
+    else
+    {
+      Set<String> allowedSysIDs = allSystemsAllowed ? null : getReadableSysIDsFromSK(rUser);
+      systems = dao.getSystems(rUser.getApiTenantId(), null, searchAST, allowedSysIDs,
+                               limit, orderByList, skip, startAfter, showDeleted);
+    }
 
     for (TSystem system : systems)
     {
@@ -1006,7 +1489,7 @@ public class SystemsServiceImpl implements SystemsService
       // Assign perms to user. SK creates a default role for the user
       for (String permSpec : permSpecSet)
       {
-        skClient.grantUserPermission(resourceTenantId, userName, permSpec);
+        callSK("grantUserPermission", () -> skClient.grantUserPermission(resourceTenantId, userName, permSpec));
       }
     }
     catch (TapisClientException tce)
@@ -1019,7 +1502,7 @@ public class SystemsServiceImpl implements SystemsService
       // Revoke permissions that may have been granted.
       for (String permSpec : permSpecSet)
       {
-        try { skClient.revokeUserPermission(resourceTenantId, userName, permSpec); }
+        try { callSK("revokeUserPermission", () -> skClient.revokeUserPermission(resourceTenantId, userName, permSpec)); }
         catch (Exception e) {_log.warn(LibUtils.getMsgAuth(ERROR_ROLLBACK, rUser, systemId, "revokePerm", e.getMessage()));}
       }
 
@@ -1027,6 +1510,11 @@ public class SystemsServiceImpl implements SystemsService
       throw new TapisException(LibUtils.getMsgAuth("SYSLIB_PERM_SK_ERROR", rUser, systemId, op.name()), tce);
     }
 
+    // Update local permission mirror
+    updatePermMirror(rUser, op, resourceTenantId, List.of(systemId), List.of(userName), toPermNames(permissions));
+    // Make the change visible to clients using delta sync
+    recordPermissionChange(rUser, op, resourceTenantId, List.of(systemId), List.of(userName));
+
     // Construct Json string representing the update
     String updateJsonStr = TapisGsonUtils.getGson().toJson(permissions);
     // Create a record of the update
@@ -1102,7 +1590,7 @@ public class SystemsServiceImpl implements SystemsService
         if (userPermSet.contains(perm))
         {
           String permSpec = getPermSpecStr(resourceTenantId, systemId, perm);
-          try { skClient.grantUserPermission(resourceTenantId, userName, permSpec); }
+          try { callSK("grantUserPermission", () -> skClient.grantUserPermission(resourceTenantId, userName, permSpec)); }
           catch (Exception e) {_log.warn(LibUtils.getMsgAuth(ERROR_ROLLBACK, rUser, systemId, "grantPerm", e.getMessage()));}
         }
       }
@@ -1111,6 +1599,11 @@ public class SystemsServiceImpl implements SystemsService
       throw new TapisException(LibUtils.getMsgAuth("SYSLIB_PERM_SK_ERROR", rUser, systemId, op.name()), tce);
     }
 
+    // Update local permission mirror
+    updatePermMirror(rUser, op, resourceTenantId, List.of(systemId), List.of(userName), toPermNames(permissions));
+    // Make the change visible to clients using delta sync
+    recordPermissionChange(rUser, op, resourceTenantId, List.of(systemId), List.of(userName));
+
     // Construct Json string representing the update
     String updateJsonStr = TapisGsonUtils.getGson().toJson(permissions);
     // Create a record of the update
@@ -1118,6 +1611,56 @@ public class SystemsServiceImpl implements SystemsService
     return changeCount;
   }
 
+  /**
+   * Grant permissions to many users for many systems.
+   * Grant of MODIFY implies grant of READ
+   * Existence, ownership and authorization are checked once for each system before any changes are made.
+   * SK calls are made concurrently. If any call fails then all grants are revoked, as for a single system.
+   * One update record is created for each system.
+   * NOTE: Permissions only impact the default user role
+   * @param rUser - ResourceRequestUser containing tenant, user and request info
+   * @param systemIds - names of systems
+   * @param userNames - Target users for operation
+   * @param permissions - list of permissions to be granted
+   * @param updateText - Client provided text used to create the request. Saved in update records.
+   * @return Number of system and user combinations updated
+   * @throws TapisException - for Tapis related exceptions
+   * @throws NotAuthorizedException - unauthorized
+   */
+  @Override
+  public int grantUserPermissionsBulk(ResourceRequestUser rUser, Set<String> systemIds, Set<String> userNames,
+                                      Set<Permission> permissions, String updateText)
+          throws TapisException, NotAuthorizedException, TapisClientException
+  {
+    return updateUserPermissionsBulk(rUser, SystemOperation.grantPerms, systemIds, userNames, permissions, updateText);
+  }
+
+  /**
+   * Revoke permissions from many users for many systems.
+   * Revoke of READ implies revoke of MODIFY
+   * Systems that do not exist are skipped. Ownership and authorization are checked once for each system
+   *   before any changes are made.
+   * SK calls are made concurrently. If any call fails then permissions previously held are granted again,
+   *   as for a single system.
+   * One update record is created for each system.
+   * NOTE: Permissions only impact the default user role
+   * @param rUser - ResourceRequestUser containing tenant, user and request info
+   * @param systemIds - names of systems
+   * @param userNames - Target users for operation
+   * @param permissions - list of permissions to be revoked
+   * @param updateText - Client provided text used to create the request. Saved in update records.
+   * @return Number of system and user combinations updated
+   * @throws TapisException - for Tapis related exceptions
+   * @throws NotAuthorizedException - unauthorized
+   */
+  @Override
+  public int revokeUserPermissionsBulk(ResourceRequestUser rUser, Set<String> systemIds, Set<String> userNames,
+                                       Set<Permission> permissions, String updateText)
+          throws TapisException, NotAuthorizedException, TapisClientException
+  {
+    return updateUserPermissionsBulk(rUser, SystemOperation.revokePerms, systemIds, userNames, permissions, updateText);
+  }
+
   /**
    * Get list of system permissions for a user
    * NOTE: This retrieves permissions from all roles.
@@ -1144,7 +1687,7 @@ public class SystemsServiceImpl implements SystemsService
     // ------------------------- Check service level authorization -------------------------
     checkAuth(rUser, op, systemId, null, userName, null);
 
-    // Use Security Kernel client to check for each permission in the enum list
+    // Determine permissions from a single fetch of the permSpecs held by the user
     var skClient = getSKClient();
     return getUserPermSet(skClient, userName, rUser.getApiTenantId(), systemId);
   }
@@ -1206,6 +1749,11 @@ public class SystemsServiceImpl implements SystemsService
       _log.error(tce.toString());
       throw new TapisException(LibUtils.getMsgAuth("SYSLIB_CRED_SK_ERROR", rUser, systemId, op.name()), tce);
     }
+    // Some secrets may have been changed even if there was an error
+    finally
+    {
+      getCredentialCache().invalidateUser(resourceTenantId, systemId, userName);
+    }
 
     // Construct Json string representing the update, with actual secrets masked out
     Credential maskedCredential = Credential.createMaskedCredential(credential);
@@ -1258,6 +1806,11 @@ public class SystemsServiceImpl implements SystemsService
       _log.error(tce.toString());
       throw new TapisException(LibUtils.getMsgAuth("SYSLIB_CRED_SK_ERROR", rUser, systemId, op.name()), tce);
     }
+    // Some secrets may have been removed even if there was an error
+    finally
+    {
+      getCredentialCache().invalidateUser(resourceTenantId, systemId, userName);
+    }
 
     // Construct Json string representing the update
     String updateJsonStr = TapisGsonUtils.getGson().toJson(userName);
@@ -1283,6 +1836,22 @@ public class SystemsServiceImpl implements SystemsService
   public Credential getUserCredential(ResourceRequestUser rUser, String systemId,
                                       String targetUserId, AuthnMethod authnMethod)
           throws TapisException, TapisClientException, NotAuthorizedException, NotFoundException
+  {
+    long start = System.nanoTime();
+    try { return retrieveUserCredential(rUser, systemId, targetUserId, authnMethod); }
+    finally { RequestTiming.record(Phase.CRED, System.nanoTime() - start); }
+  }
+
+  // ************************************************************************
+  // **************************  Private Methods  ***************************
+  // ************************************************************************
+
+  /**
+   * Retrieve credential for given system, target user and authn method. See getUserCredential.
+   */
+  private Credential retrieveUserCredential(ResourceRequestUser rUser, String systemId,
+                                            String targetUserId, AuthnMethod authnMethod)
+          throws TapisException, TapisClientException, NotAuthorizedException, NotFoundException
   {
     SystemOperation op = SystemOperation.getCred;
     if (rUser == null) throw new IllegalArgumentException(LibUtils.getMsg("SYSLIB_NULL_INPUT_AUTHUSR"));
@@ -1306,6 +1875,12 @@ public class SystemsServiceImpl implements SystemsService
       authnMethod = defaultAuthnMethod;
     }
 
+    // Use cached credential if available. Generation must be read before calling SK.
+    CredentialCache credCache = getCredentialCache();
+    Credential credential = credCache.get(resourceTenantId, systemId, targetUserId, authnMethod);
+    if (credential != null) return credential;
+    long credGeneration = credCache.getGeneration();
+
     /*
      * When the Systems services calls SK to read secrets it calls with a JWT as itself,
      *   jwtTenantId = admin tenant (Site Tenant Admin)
@@ -1323,7 +1898,6 @@ public class SystemsServiceImpl implements SystemsService
      *     sParms.setTenant(rUser.getApiTenantId()).setSysId(systemId).setSysUser(targetUserId);
      *
      */
-    Credential credential = null;
     try
     {
       // Get the Security Kernel client
@@ -1347,7 +1921,7 @@ public class SystemsServiceImpl implements SystemsService
       else if (authnMethod.equals(AuthnMethod.CERT))sParms.setKeyType(KeyType.cert);
 
       // Retrieve the secrets
-      SkSecret skSecret = skClient.readSecret(sParms);
+      SkSecret skSecret = callSK("readSecret", () -> skClient.readSecret(sParms));
       if (skSecret == null) return null;
       var dataMap = skSecret.getSecretMap();
       if (dataMap == null) return null;
@@ -1366,13 +1940,10 @@ public class SystemsServiceImpl implements SystemsService
     {
       _log.warn(tce.toString());
     }
+    credCache.put(resourceTenantId, systemId, targetUserId, authnMethod, credGeneration, credential);
     return credential;
   }
 
-  // ************************************************************************
-  // **************************  Private Methods  ***************************
-  // ************************************************************************
-
   /**
    * Update enabled attribute for a system
    * @param rUser - ResourceRequestUser containing tenant, user and request info
@@ -1443,7 +2014,10 @@ public class SystemsServiceImpl implements SystemsService
 
     // ----------------- Make update --------------------
     if (sysOp == SystemOperation.delete)
+    {
       dao.updateDeleted(rUser, resourceTenantId, systemId, true);
+      getCredentialCache().invalidateSystem(resourceTenantId, systemId);
+    }
     else
       dao.updateDeleted(rUser, resourceTenantId, systemId, false);
     return 1;
@@ -1452,11 +2026,17 @@ public class SystemsServiceImpl implements SystemsService
   /**
    * Get Security Kernel client
    * Note: The service always calls SK as itself.
+   * If configured the in-process stand-in is returned instead. RuntimeParameters only allows this under a test or
+   *   bench run profile.
+   * Package-private so that tests can start PermMirror with the same client.
    * @return SK client
    * @throws TapisException - for Tapis related exceptions
    */
-  private SKClient getSKClient() throws TapisException
+  SKProvider getSKClient() throws TapisException
   {
+    RuntimeParameters parms = RuntimeParameters.getInstance();
+    if (parms != null && parms.isSkFake()) return FakeSKProvider.getInstance();
+
     SKClient skClient;
     String tenantId = getServiceTenantId();
     String userName = getServiceUserId();
@@ -1470,13 +2050,48 @@ public class SystemsServiceImpl implements SystemsService
       throw new TapisException(msg, e);
     }
 
-    return skClient;
+    return new SKClientProvider(skClient);
+  }
+
+  /**
+   * A single call to the Security Kernel that returns a result
+   */
+  @FunctionalInterface
+  interface SKOperation<T>
+  {
+    T call() throws TapisClientException;
+  }
+
+  /**
+   * Make a Security Kernel call and record its latency in the SK metrics and the request timing
+   * Package-private so that PermMirror records its calls in the same way.
+   * @param opName - name of the SK operation, used as the metric label
+   * @param operation - the call
+   * @return result of the call
+   * @throws TapisClientException - on error from SK
+   */
+  static <T> T callSK(String opName, SKOperation<T> operation) throws TapisClientException
+  {
+    long start = System.nanoTime();
+    boolean error = true;
+    try
+    {
+      T result = operation.call();
+      error = false;
+      return result;
+    }
+    finally
+    {
+      long elapsed = System.nanoTime() - start;
+      SystemsMetrics.SK.record(opName, elapsed, error);
+      RequestTiming.record(Phase.SK, elapsed);
+    }
   }
 
   /**
    * Check for reserved names.
    * Endpoints defined lead to certain names that are not valid.
-   * Invalid names: healthcheck, readycheck, search
+   * Invalid names: healthcheck, readycheck, search, metrics
    * @param rUser - ResourceRequestUser containing tenant, user and request info
    * @param id - the id to check
    * @throws IllegalStateException - if attempt to create a resource with a reserved name
@@ -1558,23 +2173,20 @@ public class SystemsServiceImpl implements SystemsService
 
   /**
    * Retrieve set of user permissions given sk client, user, tenant, id
+   * Permissions are determined from a single fetch of all permSpecs held by the user, evaluated locally using
+   *   the same wildcard rules as SK, rather than one isPermitted call for each permission.
    * @param skClient - SK client
    * @param userName - name of user
    * @param resourceTenantId - name of tenant associated with resource
    * @param resourceId - Id of resource
    * @return - Set of Permissions for the user
    */
-  private static Set<Permission> getUserPermSet(SKClient skClient, String userName, String resourceTenantId,
+  private static Set<Permission> getUserPermSet(SKProvider skClient, String userName, String resourceTenantId,
                                                 String resourceId)
           throws TapisClientException
   {
-    var userPerms = new HashSet<Permission>();
-    for (Permission perm : Permission.values())
-    {
-      String permSpec = String.format(PERM_SPEC_TEMPLATE, resourceTenantId, perm.name(), resourceId);
-      if (skClient.isPermitted(resourceTenantId, userName, permSpec)) userPerms.add(perm);
-    }
-    return userPerms;
+    List<String> heldPerms = callSK("getUserPerms", () -> skClient.getUserPerms(resourceTenantId, userName));
+    return PermSpecMatcher.getPermissions(heldPerms, resourceTenantId, resourceId);
   }
 
   /**
@@ -1635,13 +2247,25 @@ public class SystemsServiceImpl implements SystemsService
   private String checkForOwnerPermUpdate(ResourceRequestUser rUser, String systemId,
                                          String userName, String opStr)
           throws TapisException, NotAuthorizedException
+  {
+    return checkForOwnerPermUpdate(rUser, systemId, Set.of(userName), opStr);
+  }
+
+  /**
+   * Check to see if owner is trying to update permissions for themselves as one of several target users.
+   * Owner is looked up once.
+   * @return name of owner
+   */
+  private String checkForOwnerPermUpdate(ResourceRequestUser rUser, String systemId,
+                                         Collection<String> userNames, String opStr)
+          throws TapisException, NotAuthorizedException
   {
     // Look up owner. If not found then consider not authorized. Very unlikely at this point.
     String owner = dao.getSystemOwner(rUser.getApiTenantId(), systemId);
     if (StringUtils.isBlank(owner))
         throw new NotAuthorizedException(LibUtils.getMsgAuth("SYSLIB_UNAUTH", rUser, systemId, opStr), NO_CHALLENGE);
     // If owner making the request and owner is the target user for the perm update then reject.
-    if (owner.equals(rUser.getApiUserId()) && owner.equals(userName))
+    if (owner.equals(rUser.getApiUserId()) && userNames.contains(owner))
     {
       // If it is a svc making request reject with no auth, if user making request reject with special message.
       // Need this check since svc not allowed to update perms but checkAuth happens after checkForOwnerPermUpdate.
@@ -1801,6 +2425,88 @@ public class SystemsServiceImpl implements SystemsService
     throw new NotAuthorizedException(LibUtils.getMsgAuth("SYSLIB_UNAUTH", rUser, systemId, op.name()), NO_CHALLENGE);
   }
 
+  /**
+   * Send events recorded after afterToken to a paused subscription and then start it.
+   * Runs on a hub delivery thread. On error the subscription is closed.
+   */
+  private void replaySystemEvents(SystemEventHub.Subscription sub, String tenant, long afterToken,
+                                  Predicate<SystemEvent> filter, SystemEventHub.EventSink sink)
+  {
+    long lastToken = afterToken;
+    try
+    {
+      List<SystemEvent> events = dao.getSystemEvents(tenant, afterToken, MAX_EVENTS_REPLAY);
+      for (SystemEvent event : events)
+      {
+        if (sub.isClosed()) return;
+        if (filter == null || filter.test(event)) sink.send(event);
+        lastToken = event.getToken();
+      }
+      if (events.size() >= MAX_EVENTS_REPLAY)
+      {
+        sink.sendOverflow(lastToken);
+        sub.close();
+        return;
+      }
+    }
+    catch (Exception e)
+    {
+      _log.warn(LibUtils.getMsg("SYSLIB_EVENTS_SEND_ERROR", tenant, e.getMessage()), e);
+      sub.close();
+      return;
+    }
+    sub.start(lastToken);
+  }
+
+  /**
+   * Event filter for a user who may only READ some systems.
+   * Starts from the systems readable at the time of subscription. For any other system READ permission is
+   *   checked on first use and the result is remembered. The result for a system is discarded after an event
+   *   for a change in its owner or permissions so that a grant or revoke takes effect without reconnecting.
+   * Called from hub delivery threads, which may make calls to the DB and SK. If the check fails the event
+   *   is not sent and the system is checked again on its next event.
+   */
+  private final class ReadableSystemFilter implements Predicate<SystemEvent>
+  {
+    private final ResourceRequestUser rUser;
+    private final Map<String, Boolean> readable = new ConcurrentHashMap<>();
+
+    private ReadableSystemFilter(ResourceRequestUser rUser1, Set<String> allowedSysIDs)
+    {
+      rUser = rUser1;
+      for (String id : allowedSysIDs) readable.put(id, Boolean.TRUE);
+    }
+
+    @Override
+    public boolean test(SystemEvent event)
+    {
+      String systemId = event.getSystemId();
+      SystemOperation op = event.getOperation();
+      if (op == SystemOperation.changeOwner || op == SystemOperation.grantPerms || op == SystemOperation.revokePerms)
+      {
+        readable.remove(systemId);
+      }
+      Boolean allowed = readable.get(systemId);
+      if (allowed != null) return allowed;
+      // A system that has been removed has no owner or permissions left to check
+      if (op == SystemOperation.hardDelete) return false;
+      try
+      {
+        checkAuthUser(rUser, SystemOperation.read, rUser.getApiTenantId(), rUser.getApiUserId(), systemId,
+                      null, null, null);
+        allowed = true;
+      }
+      catch (NotAuthorizedException e) { allowed = false; }
+      catch (Exception e)
+      {
+        _log.warn(LibUtils.getMsgAuth("SYSLIB_EVENTS_AUTH_ERROR", rUser, systemId, e.getMessage()));
+        return false;
+      }
+      readable.put(systemId, allowed);
+      return allowed;
+    }
+  }
+
   /**
    * Determine all systems that a user is allowed to see.
    * If all systems return null else return list of system IDs
@@ -1809,31 +2515,41 @@ public class SystemsServiceImpl implements SystemsService
   private Set<String> getAllowedSysIDs(ResourceRequestUser rUser)
           throws TapisException, TapisClientException
   {
-    // If requester is a service calling as itself or an admin then all systems allowed
-    if (rUser.isServiceRequest() && rUser.getJwtUserId().equals(rUser.getOboUserId()) ||
-            hasAdminRole(rUser, null, null))
-    {
-      return null;
-    }
-    var sysIDs = new HashSet<String>();
-    var userPerms = getSKClient().getUserPerms(rUser.getApiTenantId(), rUser.getApiUserId());
-    // Check each perm to see if it allows user READ access.
-    for (String userPerm : userPerms)
-    {
-      if (StringUtils.isBlank(userPerm)) continue;
-      // Split based on :, permSpec has the format system:<tenant>:<perms>:<system_name>
-      // NOTE: This assumes value in last field is always an id and never a wildcard.
-      String[] permFields = COLON_SPLIT.split(userPerm);
-      if (permFields.length < 4) continue;
-      if (permFields[0].equals(PERM_SPEC_PREFIX) &&
-           (permFields[2].contains(Permission.READ.name()) ||
-            permFields[2].contains(Permission.MODIFY.name()) ||
-            permFields[2].contains(TSystem.PERMISSION_WILDCARD)))
-      {
-        sysIDs.add(permFields[3]);
-      }
-    }
-    return sysIDs;
+    return isAllSystemsAllowed(rUser) ? null : getReadableSysIDsFromSK(rUser);
+  }
+
+  /**
+   * Determine the systems a user may see using the permissions held by the user in SK.
+   * If all systems return null else return list of system IDs
+   */
+  private Set<String> getReadableSysIDsFromSK(ResourceRequestUser rUser)
+          throws TapisException, TapisClientException
+  {
+    var skClient = getSKClient();
+    var userPerms = callSK("getUserPerms", () -> skClient.getUserPerms(rUser.getApiTenantId(), rUser.getApiUserId()));
+    // A wildcard grant allows all systems, in which case null is returned and no ID restriction is applied
+    return getReadableSysIDs(userPerms, rUser.getApiTenantId());
+  }
+
+  /**
+   * Check if a user is allowed to see all systems: a service calling as itself or an admin.
+   */
+  private boolean isAllSystemsAllowed(ResourceRequestUser rUser) throws TapisException, TapisClientException
+  {
+    return rUser.isServiceRequest() && rUser.getJwtUserId().equals(rUser.getOboUserId()) ||
+           hasAdminRole(rUser, null, null);
+  }
+
+  /**
+   * Determine the systems a list of permSpecs allows READ access to, taking wildcards into account.
+   * Package-private so that benchmarks can call it without a Security Kernel.
+   * @param userPerms - permSpecs held by a user
+   * @param tenantId - tenant of the systems
+   * @return null if all systems may be read, otherwise IDs of systems that may be read
+   */
+  static Set<String> getReadableSysIDs(List<String> userPerms, String tenantId)
+  {
+    return PermSpecMatcher.getReadableSystemIds(userPerms, tenantId);
   }
 
   /**
@@ -1846,7 +2562,8 @@ public class SystemsServiceImpl implements SystemsService
     // Use tenant and user from authenticatedUsr or optional provided values
     String tenantName = (StringUtils.isBlank(tenantToCheck) ? rUser.getJwtTenantId() : tenantToCheck);
     String userName = (StringUtils.isBlank(userToCheck) ? rUser.getJwtUserId() : userToCheck);
-    return getSKClient().isAdmin(tenantName, userName);
+    var skClient = getSKClient();
+    return callSK("isAdmin", () -> skClient.isAdmin(tenantName, userName));
   }
 
   /**
@@ -1862,7 +2579,7 @@ public class SystemsServiceImpl implements SystemsService
     String userName = (StringUtils.isBlank(userToCheck) ? rUser.getJwtUserId() : userToCheck);
     var skClient = getSKClient();
     String permSpecStr = getPermSpecStr(tenantName, systemId, perm);
-    return skClient.isPermitted(tenantName, userName, permSpecStr);
+    return callSK("isPermitted", () -> skClient.isPermitted(tenantName, userName, permSpecStr));
   }
 
   /**
@@ -1881,7 +2598,7 @@ public class SystemsServiceImpl implements SystemsService
     for (Permission perm : perms) {
       permSpecs.add(getPermSpecStr(tenantName, systemId, perm));
     }
-    return skClient.isPermittedAny(tenantName, userName, permSpecs.toArray(TSystem.EMPTY_STR_ARRAY));
+    return callSK("isPermittedAny", () -> skClient.isPermittedAny(tenantName, userName, permSpecs.toArray(TSystem.EMPTY_STR_ARRAY)));
   }
 
   /**
@@ -1945,7 +2662,7 @@ public class SystemsServiceImpl implements SystemsService
    * See method writeSecret(String tenant, String user, SKSecretWriteParms parms) in SKClient.java
    * SK uses tenant from payload when constructing the full path for the secret. User from payload not used.
    */
-  private static void createCredential(SKClient skClient, ResourceRequestUser rUser, Credential credential,
+  private static void createCredential(SKProvider skClient, ResourceRequestUser rUser, Credential credential,
                                        String systemId, String userName)
           throws TapisClientException
   {
@@ -1965,7 +2682,7 @@ public class SystemsServiceImpl implements SystemsService
       sParms.setData(dataMap);
       // First 2 parameters correspond to tenant and user from request payload
       // Tenant is used in constructing full path for secret, user is not used.
-      skClient.writeSecret(rUser.getApiTenantId(), rUser.getApiUserId(), sParms);
+      callSK("writeSecret", () -> skClient.writeSecret(rUser.getApiTenantId(), rUser.getApiUserId(), sParms));
     }
     // Store PKI keys if both present
     if (!StringUtils.isBlank(credential.getPublicKey()) && !StringUtils.isBlank(credential.getPublicKey())) {
@@ -1974,7 +2691,7 @@ public class SystemsServiceImpl implements SystemsService
       dataMap.put(SK_KEY_PUBLIC_KEY, credential.getPublicKey());
       dataMap.put(SK_KEY_PRIVATE_KEY, credential.getPrivateKey());
       sParms.setData(dataMap);
-      skClient.writeSecret(rUser.getApiTenantId(), rUser.getApiUserId(), sParms);
+      callSK("writeSecret", () -> skClient.writeSecret(rUser.getApiTenantId(), rUser.getApiUserId(), sParms));
     }
     // Store Access key and secret if both present
     if (!StringUtils.isBlank(credential.getAccessKey()) && !StringUtils.isBlank(credential.getAccessSecret())) {
@@ -1983,7 +2700,7 @@ public class SystemsServiceImpl implements SystemsService
       dataMap.put(SK_KEY_ACCESS_KEY, credential.getAccessKey());
       dataMap.put(SK_KEY_ACCESS_SECRET, credential.getAccessSecret());
       sParms.setData(dataMap);
-      skClient.writeSecret(rUser.getApiTenantId(), rUser.getApiUserId(), sParms);
+      callSK("writeSecret", () -> skClient.writeSecret(rUser.getApiTenantId(), rUser.getApiUserId(), sParms));
     }
     // TODO if necessary handle ssh certificate when supported
   }
@@ -1992,7 +2709,7 @@ public class SystemsServiceImpl implements SystemsService
    * Delete a credential
    * No checks are done for incoming arguments and the system must exist
    */
-  private static int deleteCredential(SKClient skClient, ResourceRequestUser rUser, String systemId, String userName)
+  private static int deleteCredential(SKProvider skClient, ResourceRequestUser rUser, String systemId, String userName)
           throws TapisClientException
   {
     String apiTenantId = rUser.getApiTenantId();
@@ -2007,26 +2724,26 @@ public class SystemsServiceImpl implements SystemsService
     //       By default keyType is sshkey which may not exist
     boolean secretNotFound = true;
     sMetaParms.setKeyType(KeyType.password);
-    try { skClient.readSecretMeta(sMetaParms); secretNotFound = false; }
+    try { callSK("readSecretMeta", () -> skClient.readSecretMeta(sMetaParms)); secretNotFound = false; }
     catch (Exception e) { _log.trace(e.getMessage()); }
     sMetaParms.setKeyType(KeyType.sshkey);
-    try { skClient.readSecretMeta(sMetaParms); secretNotFound = false; }
+    try { callSK("readSecretMeta", () -> skClient.readSecretMeta(sMetaParms)); secretNotFound = false; }
     catch (Exception e) { _log.trace(e.getMessage()); }
     sMetaParms.setKeyType(KeyType.accesskey);
-    try { skClient.readSecretMeta(sMetaParms); secretNotFound = false; }
+    try { callSK("readSecretMeta", () -> skClient.readSecretMeta(sMetaParms)); secretNotFound = false; }
     catch (Exception e) { _log.trace(e.getMessage()); }
     if (secretNotFound) return 0;
 
     // Construct basic SK secret parameters and attempt to destroy each type of secret.
     // If destroy attempt throws an exception then log a message and continue.
     sMetaParms.setKeyType(KeyType.password);
-    try { skClient.destroySecretMeta(sMetaParms); }
+    try { callSK("destroySecretMeta", () -> skClient.destroySecretMeta(sMetaParms)); }
     catch (Exception e) { _log.trace(e.getMessage()); }
     sMetaParms.setKeyType(KeyType.sshkey);
-    try { skClient.destroySecretMeta(sMetaParms); }
+    try { callSK("destroySecretMeta", () -> skClient.destroySecretMeta(sMetaParms)); }
     catch (Exception e) { _log.trace(e.getMessage()); }
     sMetaParms.setKeyType(KeyType.accesskey);
-    try { skClient.destroySecretMeta(sMetaParms); }
+    try { callSK("destroySecretMeta", () -> skClient.destroySecretMeta(sMetaParms)); }
     catch (Exception e) { _log.trace(e.getMessage()); }
     return 1;
   }
@@ -2034,25 +2751,27 @@ public class SystemsServiceImpl implements SystemsService
   /**
    * Remove all SK artifacts associated with a System: user credentials, user permissions
    * No checks are done for incoming arguments and the system must exist
+   * @return users that held permissions for the system
    */
-  private void removeSKArtifacts(ResourceRequestUser rUser, String resourceTenantId, String systemId)
+  private List<String> removeSKArtifacts(ResourceRequestUser rUser, String resourceTenantId, String systemId)
           throws TapisException, TapisClientException
   {
     var skClient = getSKClient();
 
     // Use Security Kernel client to find all users with perms associated with the system.
     String permSpec = String.format(PERM_SPEC_TEMPLATE, resourceTenantId, "%", systemId);
-    var userNames = skClient.getUsersWithPermission(resourceTenantId, permSpec);
+    var userNames = callSK("getUsersWithPermission", () -> skClient.getUsersWithPermission(resourceTenantId, permSpec));
     // Revoke all perms for all users
     for (String userName : userNames) {
       revokePermissions(skClient, resourceTenantId, systemId, userName, ALL_PERMS);
       // Remove wildcard perm
-      skClient.revokeUserPermission(resourceTenantId, userName, getPermSpecAllStr(resourceTenantId, systemId));
+      callSK("revokeUserPermission", () -> skClient.revokeUserPermission(resourceTenantId, userName, getPermSpecAllStr(resourceTenantId, systemId)));
     }
+    if (PermMirror.isEnabled()) dao.removeAllUserPerms(resourceTenantId, systemId);
 
     // Fetch the system. If system not found then return
     TSystem system = dao.getSystem(resourceTenantId, systemId, true);
-    if (system == null) return;
+    if (system == null) return userNames;
 
     // Resolve effectiveUserId if necessary
     String effectiveUserId = system.getEffectiveUserId();
@@ -2066,13 +2785,211 @@ public class SystemsServiceImpl implements SystemsService
       // Use private internal method instead of public API to skip auth and other checks not needed here.
       deleteCredential(skClient, rUser, system.getId(), effectiveUserId);
     }
+    return userNames;
+  }
+
+  /**
+   * Grant or revoke permissions for all combinations of a set of systems and a set of users.
+   * Checks are made for all systems before any changes. SK calls are made concurrently with bounded parallelism.
+   * On failure changes are undone in the same way as for a single system and the exception is re-thrown.
+   */
+  private int updateUserPermissionsBulk(ResourceRequestUser rUser, SystemOperation op, Set<String> systemIds,
+                                        Set<String> userNames, Set<Permission> permissions, String updateText)
+          throws TapisException, NotAuthorizedException, TapisClientException
+  {
+    if (rUser == null) throw new IllegalArgumentException(LibUtils.getMsg("SYSLIB_NULL_INPUT_AUTHUSR"));
+    // Check inputs. If anything null or empty throw an exception
+    if (systemIds == null || systemIds.isEmpty() || userNames == null || userNames.isEmpty() ||
+        permissions == null || permissions.isEmpty())
+    {
+      throw new IllegalArgumentException(LibUtils.getMsg("SYSLIB_NULL_INPUT"));
+    }
+    if (systemIds.stream().anyMatch(StringUtils::isBlank) || userNames.stream().anyMatch(StringUtils::isBlank))
+      throw new IllegalArgumentException(LibUtils.getMsgAuth("SYSLIB_NULL_INPUT_SYSTEM", rUser));
+    if (systemIds.size() > MAX_BULK_PERM_SYSTEMS || userNames.size() > MAX_BULK_PERM_USERS)
+      throw new IllegalArgumentException(LibUtils.getMsgAuth("SYSLIB_PERM_BULK_TOO_MANY", rUser, systemIds.size(),
+                                                             userNames.size(), MAX_BULK_PERM_SYSTEMS,
+                                                             MAX_BULK_PERM_USERS));
+
+    String resourceTenantId = rUser.getApiTenantId();
+    boolean isGrant = (op == SystemOperation.grantPerms);
+
+    // Grant of MODIFY implies grant of READ, revoke of READ implies revoke of MODIFY
+    var perms = new HashSet<>(permissions);
+    if (isGrant && perms.contains(Permission.MODIFY)) perms.add(Permission.READ);
+    if (!isGrant && perms.contains(Permission.READ)) perms.add(Permission.MODIFY);
+
+    // ------------------------- Check each system once -------------------------
+    // A user may revoke their own permissions, so for revoke pass in the target user when there is only one.
+    String targetUser = (userNames.size() == 1) ? userNames.iterator().next() : null;
+    var targetSystemIds = new ArrayList<String>();
+    for (String systemId : systemIds)
+    {
+      if (!dao.checkForSystem(resourceTenantId, systemId, false))
+      {
+        // As for a single system, grant requires the system to exist and revoke makes no changes.
+        if (isGrant) throw new NotFoundException(LibUtils.getMsgAuth(NOT_FOUND, rUser, systemId));
+        continue;
+      }
+      String owner = checkForOwnerPermUpdate(rUser, systemId, userNames, op.name());
+      if (isGrant) checkAuth(rUser, op, systemId, owner, null, null);
+      else checkAuth(rUser, op, systemId, owner, targetUser, perms);
+      targetSystemIds.add(systemId);
+    }
+    if (targetSystemIds.isEmpty()) return 0;
+
+    // ------------------------- Update SK -------------------------
+    var skClient = getSKClient();
+    SKCallRunner runner = getSKCallRunner();
+    // The runner is shared with other requests, so only let this request use half of it at any time. Otherwise
+    //   calls for other requests, such as createSystem, would be queued behind all the calls for this request.
+    int maxInFlight = Math.max(1, runner.getMaxParallel() / 2);
+    // Track what has been attempted so it can be undone. For revoke record what each user held beforehand.
+    var attempted = ConcurrentHashMap.<PermTarget>newKeySet();
+    var priorPerms = new ConcurrentHashMap<PermTarget, Set<Permission>>();
+    var calls = new ArrayList<SKCallRunner.SKCall>();
+    for (String systemId : targetSystemIds)
+    {
+      Set<String> permSpecSet = getPermSpecSet(resourceTenantId, systemId, perms);
+      for (String userName : userNames)
+      {
+        var target = new PermTarget(systemId, userName);
+        if (isGrant)
+        {
+          calls.add(() ->
+          {
+            attempted.add(target);
+            for (String permSpec : permSpecSet) callSK("grantUserPermission", () -> skClient.grantUserPermission(resourceTenantId, userName, permSpec));
+          });
+        }
+        else
+        {
+          calls.add(() ->
+          {
+            priorPerms.put(target, getUserPermSet(skClient, userName, resourceTenantId, systemId));
+            attempted.add(target);
+            revokePermissions(skClient, resourceTenantId, systemId, userName, perms);
+          });
+        }
+      }
+    }
+
+    String systemIdsStr = String.join(",", targetSystemIds);
+    try
+    {
+      // Rollback runs for any failure, including an unchecked exception, before the failure is re-thrown.
+      runner.runAllOrUndo(calls, maxInFlight, e ->
+      {
+        // Something went wrong. Attempt to undo all changes.
+        String msg = LibUtils.getMsgAuth("SYSLIB_PERM_ERROR_ROLLBACK", rUser, systemIdsStr, e.getMessage());
+        _log.error(msg);
+        var rollbackCalls = new ArrayList<SKCallRunner.SKCall>();
+        for (PermTarget target : attempted)
+        {
+          // Rollback calls log their own failures and never throw
+          rollbackCalls.add(() -> rollbackPermUpdate(skClient, rUser, op, resourceTenantId, target, perms,
+                                                     priorPerms.get(target)));
+        }
+        return rollbackCalls;
+      });
+    }
+    catch (TapisClientException | TapisException e)
+    {
+      // Convert to TapisException and re-throw
+      throw new TapisException(LibUtils.getMsgAuth("SYSLIB_PERM_SK_ERROR", rUser, systemIdsStr, op.name()), e);
+    }
+
+    // Update local permission mirror
+    updatePermMirror(rUser, op, resourceTenantId, targetSystemIds, userNames, toPermNames(perms));
+    // Make the change visible to clients using delta sync
+    recordPermissionChange(rUser, op, resourceTenantId, targetSystemIds, userNames);
+
+    // Construct Json string representing the update
+    var updateMap = new HashMap<String, Object>();
+    updateMap.put("users", userNames);
+    updateMap.put("permissions", perms);
+    String updateJsonStr = TapisGsonUtils.getGson().toJson(updateMap);
+    // Create a record of the update for each system
+    dao.addUpdateRecords(rUser, resourceTenantId, targetSystemIds, op, updateJsonStr, updateText);
+    return targetSystemIds.size() * userNames.size();
+  }
+
+  /**
+   * Record a grant or revoke in the local permission mirror, if enabled.
+   * Only called once the change has been made in SK, so errors are logged and not thrown. The mirror is corrected
+   *   by the next reconciliation with SK.
+   */
+  private void updatePermMirror(ResourceRequestUser rUser, SystemOperation op, String resourceTenantId,
+                                Collection<String> systemIds, Collection<String> userNames,
+                                Collection<String> permNames)
+  {
+    if (!PermMirror.isEnabled()) return;
+    try
+    {
+      if (op == SystemOperation.grantPerms) dao.addUserPerms(resourceTenantId, systemIds, userNames, permNames);
+      else dao.removeUserPerms(resourceTenantId, systemIds, userNames, permNames);
+    }
+    catch (Exception e)
+    {
+      _log.warn(LibUtils.getMsgAuth("SYSLIB_PERM_MIRROR_UPDATE_ERROR", rUser, String.join(",", systemIds),
+                                    op.name(), e.getMessage()));
+    }
+  }
+
+  /*
+   * Names of permissions as stored in the local permission mirror
+   */
+  private static List<String> toPermNames(Set<Permission> perms)
+  {
+    return perms.stream().map(Permission::name).toList();
+  }
+
+  /**
+   * Record a grant or revoke so that clients using delta sync see it. See SystemsDao.recordPermissionChange().
+   * Only called once the change has been made in SK, so errors are logged and not thrown.
+   */
+  private void recordPermissionChange(ResourceRequestUser rUser, SystemOperation op, String resourceTenantId,
+                                      Collection<String> systemIds, Collection<String> userNames)
+  {
+    Collection<String> revokedUsers = (op == SystemOperation.revokePerms) ? userNames : Collections.emptyList();
+    try { dao.recordPermissionChange(resourceTenantId, systemIds, revokedUsers); }
+    catch (Exception e)
+    {
+      _log.warn(LibUtils.getMsgAuth("SYSLIB_PERM_CHANGE_RECORD_ERROR", rUser, String.join(",", systemIds),
+                                    op.name(), e.getMessage()));
+    }
+  }
+
+  /**
+   * Undo a grant or revoke for one system and user. Errors are logged and not thrown.
+   * For a grant all permissions are revoked. For a revoke permissions the user previously held are granted.
+   */
+  private static void rollbackPermUpdate(SKProvider skClient, ResourceRequestUser rUser, SystemOperation op,
+                                         String resourceTenantId, PermTarget target, Set<Permission> perms,
+                                         Set<Permission> priorPerms)
+  {
+    for (Permission perm : perms)
+    {
+      String permSpec = getPermSpecStr(resourceTenantId, target.systemId, perm);
+      try
+      {
+        if (op == SystemOperation.grantPerms) callSK("revokeUserPermission", () -> skClient.revokeUserPermission(resourceTenantId, target.userName, permSpec));
+        else if (priorPerms != null && priorPerms.contains(perm))
+          callSK("grantUserPermission", () -> skClient.grantUserPermission(resourceTenantId, target.userName, permSpec));
+      }
+      catch (Exception e)
+      {
+        String rollbackOp = (op == SystemOperation.grantPerms) ? "revokePerm" : "grantPerm";
+        _log.warn(LibUtils.getMsgAuth(ERROR_ROLLBACK, rUser, target.systemId, rollbackOp, e.getMessage()));
+      }
+    }
   }
 
   /**
    * Revoke permissions
    * No checks are done for incoming arguments and the system must exist
    */
-  private static int revokePermissions(SKClient skClient, String resourceTenantId, String systemId, String userName,
+  private static int revokePermissions(SKProvider skClient, String resourceTenantId, String systemId, String userName,
                                        Set<Permission> permissions)
           throws TapisClientException
   {
@@ -2081,7 +2998,7 @@ public class SystemsServiceImpl implements SystemsService
     // Remove perms from default user role
     for (String permSpec : permSpecSet)
     {
-      skClient.revokeUserPermission(resourceTenantId, userName, permSpec);
+      callSK("revokeUserPermission", () -> skClient.revokeUserPermission(resourceTenantId, userName, permSpec));
     }
     return permSpecSet.size();
   }
@@ -2147,4 +3064,31 @@ public class SystemsServiceImpl implements SystemsService
     if (p.getNotes() != null) p1.setNotes(p.getNotes());
     return p1;
   }
+
+  /*
+   * System and user combination that is the target of a bulk permissions update
+   */
+  private static final class PermTarget
+  {
+    private final String systemId;
+    private final String userName;
+
+    private PermTarget(String systemId1, String userName1)
+    {
+      systemId = systemId1;
+      userName = userName1;
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+      if (this == o) return true;
+      if (!(o instanceof PermTarget)) return false;
+      PermTarget t = (PermTarget) o;
+      return Objects.equals(systemId, t.systemId) && Objects.equals(userName, t.userName);
+    }
+
+    @Override
+    public int hashCode() { return Objects.hash(systemId, userName); }
+  }
 }
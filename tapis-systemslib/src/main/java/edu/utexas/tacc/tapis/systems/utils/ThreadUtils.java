@@ -0,0 +1,47 @@
+package edu.utexas.tacc.tapis.systems.utils;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+   Utility class containing static methods for creating the threads and executors used by the service.
+   This class is non-instantiable
+ */
+public class ThreadUtils
+{
+  // Private constructor to make it non-instantiable
+  private ThreadUtils() { throw new AssertionError(); }
+
+  /* **************************************************************************** */
+  /*                                Public Methods                                */
+  /* **************************************************************************** */
+
+  /**
+   * Create an executor that starts a virtual thread for each task, if supported by the JVM.
+   * Looked up by reflection so that the service also runs on JVMs without virtual threads.
+   * @return executor or null if virtual threads are not supported
+   */
+  public static ExecutorService newVirtualThreadExecutor()
+  {
+    try { return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null); }
+    catch (ReflectiveOperationException | RuntimeException e) { return null; }
+  }
+
+  /**
+   * Create a factory for daemon threads named prefix-1, prefix-2, ...
+   * @param prefix - prefix for thread names
+   * @return thread factory
+   */
+  public static ThreadFactory daemonThreadFactory(String prefix)
+  {
+    var threadNum = new AtomicInteger();
+    return r ->
+    {
+      Thread t = new Thread(r, prefix + "-" + threadNum.incrementAndGet());
+      t.setDaemon(true);
+      return t;
+    };
+  }
+}
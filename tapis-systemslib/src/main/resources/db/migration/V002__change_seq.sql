@@ -0,0 +1,41 @@
+-- Add change sequence tracking for systems to support delta sync
+--   GET /v3/systems/changes?since=<token>
+-- Every write to a row in the systems table sets change_seq to the next value of systems_change_seq.
+-- Writes are serialized per tenant (see SystemsDaoImpl) so within a tenant change_seq is committed in
+--   increasing order and a client may safely use the largest value it has seen as the next token.
+-- Hard deletes are recorded in the system_tombstones table using the same sequence.
+SET search_path TO tapis_sys;
+
+-- ----------------------------------------------------------------------------------------
+--                                  CHANGE SEQUENCE
+-- ----------------------------------------------------------------------------------------
+CREATE SEQUENCE IF NOT EXISTS systems_change_seq AS BIGINT;
+ALTER SEQUENCE systems_change_seq OWNER TO tapis_sys;
+
+-- Existing rows are assigned a value by the default
+ALTER TABLE systems ADD COLUMN IF NOT EXISTS change_seq BIGINT NOT NULL DEFAULT nextval('systems_change_seq');
+CREATE INDEX IF NOT EXISTS sys_tenant_change_seq_idx ON systems (tenant, change_seq);
+COMMENT ON COLUMN systems.change_seq IS 'Value of systems_change_seq at time of last create, update or delete';
+
+-- ----------------------------------------------------------------------------------------
+--                                  TOMBSTONES
+-- ----------------------------------------------------------------------------------------
+-- System tombstones table
+-- Record of systems that have been permanently removed
+CREATE TABLE IF NOT EXISTS system_tombstones
+(
+    seq_id SERIAL PRIMARY KEY,
+    tenant TEXT NOT NULL,
+    id TEXT NOT NULL,
+    uuid uuid NOT NULL,
+    change_seq BIGINT NOT NULL,
+    created TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT (NOW() AT TIME ZONE 'utc')
+);
+ALTER TABLE system_tombstones OWNER TO tapis_sys;
+CREATE INDEX IF NOT EXISTS sys_tomb_tenant_change_seq_idx ON system_tombstones (tenant, change_seq);
+COMMENT ON COLUMN system_tombstones.seq_id IS 'Tombstone sequence id';
+COMMENT ON COLUMN system_tombstones.tenant IS 'Tenant of system that was removed';
+COMMENT ON COLUMN system_tombstones.id IS 'Id of system that was removed';
+COMMENT ON COLUMN system_tombstones.uuid IS 'UUID of system that was removed';
+COMMENT ON COLUMN system_tombstones.change_seq IS 'Value of systems_change_seq at time of removal';
+COMMENT ON COLUMN system_tombstones.created IS 'UTC time for when record was created';
@@ -0,0 +1,7 @@
+-- Support replay of system change events for the server-sent events stream
+--   GET /v3/systems/events
+-- Events are rows in the system_updates table. A client that reconnects with the seq_id of the last event it
+--   received is sent all later events in the tenant, so lookups by (system_tenant, seq_id) must be fast.
+SET search_path TO tapis_sys;
+
+CREATE INDEX IF NOT EXISTS sys_upd_tenant_seq_id_idx ON system_updates (system_tenant, seq_id);
@@ -0,0 +1,29 @@
+-- Optional local copy of the system permissions held by users in the Security Kernel (SK).
+-- Used to filter lists and counts of systems by READ access with a join, instead of fetching a user's
+--   permissions from SK and building a list of IDs. Only maintained when TAPIS_PERM_MIRROR is set.
+-- SK remains the source of truth. Rows are written when the service grants or revokes permissions and the
+--   table is periodically reconciled with SK to pick up changes made by other means.
+-- Each row corresponds to a permSpec system:<tenant>:<permission>:<system_id> held by a user.
+--   permission and system_id may be * for a wildcard grant.
+SET search_path TO tapis_sys;
+
+-- ----------------------------------------------------------------------------------------
+--                                  USER PERMISSIONS
+-- ----------------------------------------------------------------------------------------
+CREATE TABLE IF NOT EXISTS system_user_perms
+(
+    tenant TEXT NOT NULL,
+    user_name TEXT NOT NULL,
+    system_id TEXT NOT NULL,
+    permission TEXT NOT NULL,
+    created TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT (NOW() AT TIME ZONE 'utc'),
+    PRIMARY KEY (tenant, user_name, system_id, permission)
+);
+ALTER TABLE system_user_perms OWNER TO tapis_sys;
+-- Lookups for a user are covered by the primary key. Removal of all permissions for a system uses this index.
+CREATE INDEX IF NOT EXISTS sys_perm_tenant_system_id_idx ON system_user_perms (tenant, system_id);
+COMMENT ON COLUMN system_user_perms.tenant IS 'Tenant of user and system';
+COMMENT ON COLUMN system_user_perms.user_name IS 'User holding the permission';
+COMMENT ON COLUMN system_user_perms.system_id IS 'Id of system, * for all systems';
+COMMENT ON COLUMN system_user_perms.permission IS 'Permission held: READ, MODIFY, EXECUTE or * for all';
+COMMENT ON COLUMN system_user_perms.created IS 'UTC time for when record was created';
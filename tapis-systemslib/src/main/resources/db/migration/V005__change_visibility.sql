@@ -0,0 +1,13 @@
+-- Support for delta sync when permissions change
+--   GET /v3/systems/changes?since=<token>
+-- Writes no longer hold an exclusive lock for the tenant. Each write holds a shared advisory lock for the tenant
+--   while it is in progress, and readers wait for writes in progress before returning changes (see SystemsDaoImpl).
+-- Tombstones now record the users who may no longer read a system so that they are only returned to those users.
+--   A tombstone is recorded when a system is permanently removed and when permissions for a system are revoked.
+SET search_path TO tapis_sys;
+
+-- Existing tombstones have no readers and are only returned to callers allowed to read all systems.
+ALTER TABLE system_tombstones ADD COLUMN IF NOT EXISTS readers TEXT[] NOT NULL DEFAULT '{}';
+ALTER TABLE system_tombstones ADD COLUMN IF NOT EXISTS removed BOOLEAN NOT NULL DEFAULT true;
+COMMENT ON COLUMN system_tombstones.readers IS 'Users who may no longer read the system';
+COMMENT ON COLUMN system_tombstones.removed IS 'Indicates if system was permanently removed rather than access revoked';
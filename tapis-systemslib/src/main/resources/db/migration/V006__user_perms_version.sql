@@ -0,0 +1,15 @@
+-- Ordering of changes to the local permission mirror (system_user_perms)
+-- Each grant and revoke written to the mirror is given a version from a sequence. Versions are assigned by the DB,
+--   so they are ordered across all service instances regardless of clock skew.
+-- A revoke marks the row as revoked instead of removing it. Reconciliation with SK takes a version before fetching
+--   the permissions of a user and does not change rows with a later version, so a revoke made while permissions
+--   are being fetched is not undone. Revoked rows are removed by the next reconciliation for the user.
+SET search_path TO tapis_sys;
+
+CREATE SEQUENCE IF NOT EXISTS system_user_perms_version_seq AS BIGINT;
+ALTER SEQUENCE system_user_perms_version_seq OWNER TO tapis_sys;
+
+ALTER TABLE system_user_perms ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT nextval('system_user_perms_version_seq');
+ALTER TABLE system_user_perms ADD COLUMN IF NOT EXISTS revoked BOOLEAN NOT NULL DEFAULT false;
+COMMENT ON COLUMN system_user_perms.version IS 'Value of system_user_perms_version_seq at time of last grant, revoke or reconciliation';
+COMMENT ON COLUMN system_user_perms.revoked IS 'Indicates if the permission has been revoked';
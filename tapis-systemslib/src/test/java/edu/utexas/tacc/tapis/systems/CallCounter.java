@@ -0,0 +1,92 @@
+package edu.utexas.tacc.tapis.systems;
+
+import java.util.List;
+
+import org.testng.Assert;
+
+import edu.utexas.tacc.tapis.systems.metrics.RequestTiming;
+import edu.utexas.tacc.tapis.systems.metrics.RequestTiming.Phase;
+import edu.utexas.tacc.tapis.systems.model.TSystem;
+
+/*
+ * Count the DB statements and Security Kernel calls made while running an operation, so that tests can fix a
+ *   budget for each operation and catch changes that add per-row queries or extra SK round trips.
+ * Counting uses a request timing context made current for the duration of the operation. Every statement run
+ *   through the Dao is recorded by the jOOQ statement listener and every SK call made by the service is recorded
+ *   by its SK call wrapper, including calls made in parallel on behalf of the request.
+ * Work done on other threads for other purposes, such as the change listener, is not counted.
+ */
+public final class CallCounter
+{
+  /*
+   * Operation to be counted
+   */
+  @FunctionalInterface
+  public interface Op
+  {
+    Object call() throws Exception;
+  }
+
+  /*
+   * Counts for one operation
+   */
+  public static final class Counts
+  {
+    private final long dbStatements;
+    private final long skCalls;
+
+    private Counts(long dbStatements1, long skCalls1) { dbStatements = dbStatements1; skCalls = skCalls1; }
+
+    public long getDbStatements() { return dbStatements; }
+    public long getSkCalls() { return skCalls; }
+
+    @Override
+    public String toString() { return "dbStatements=" + dbStatements + " skCalls=" + skCalls; }
+  }
+
+  private CallCounter() { }
+
+  /**
+   * Run an operation and count the DB statements and SK calls it makes.
+   * Any timing context already current is restored afterwards.
+   * @param op - operation to run
+   * @return counts
+   */
+  public static Counts count(Op op) throws Exception
+  {
+    RequestTiming previous = RequestTiming.current();
+    var timing = new RequestTiming(System.nanoTime());
+    RequestTiming.setCurrent(timing);
+    try { op.call(); }
+    finally { RequestTiming.setCurrent(previous); }
+    return new Counts(timing.getCount(Phase.DB), timing.getCount(Phase.SK));
+  }
+
+  /**
+   * Check that counts are within the budget for an operation
+   * @param opName - name of the operation, for messages
+   * @param counts - counts from running the operation
+   * @param maxDbStatements - maximum number of DB statements
+   * @param maxSkCalls - maximum number of SK calls
+   */
+  public static void assertBudget(String opName, Counts counts, long maxDbStatements, long maxSkCalls)
+  {
+    System.out.println("Call counts for " + opName + ": " + counts);
+    Assert.assertTrue(counts.getDbStatements() <= maxDbStatements,
+                      String.format("DB statement budget exceeded for %s. Count: %d Budget: %d", opName,
+                                    counts.getDbStatements(), maxDbStatements));
+    Assert.assertTrue(counts.getSkCalls() <= maxSkCalls,
+                      String.format("SK call budget exceeded for %s. Count: %d Budget: %d", opName,
+                                    counts.getSkCalls(), maxSkCalls));
+  }
+
+  /**
+   * Number of auxiliary table rows written when creating a system: job runtimes, logical queues and capabilities
+   */
+  public static int getAuxRowCount(TSystem system)
+  {
+    return size(system.getJobRuntimes()) + size(system.getBatchLogicalQueues()) + size(system.getJobCapabilities());
+  }
+
+  private static int size(List<?> list) { return (list == null) ? 0 : list.size(); }
+}
@@ -0,0 +1,224 @@
+package edu.utexas.tacc.tapis.systems;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import edu.utexas.tacc.tapis.shared.exceptions.TapisException;
+import edu.utexas.tacc.tapis.shared.threadlocal.TapisThreadContext;
+import edu.utexas.tacc.tapis.sharedapi.security.AuthenticatedUser;
+import edu.utexas.tacc.tapis.systems.dao.SystemsDao;
+import edu.utexas.tacc.tapis.systems.dao.SystemsDaoImpl;
+import edu.utexas.tacc.tapis.systems.model.Capability;
+import edu.utexas.tacc.tapis.systems.model.Capability.Category;
+import edu.utexas.tacc.tapis.systems.model.Capability.Datatype;
+import edu.utexas.tacc.tapis.systems.model.LogicalQueue;
+import edu.utexas.tacc.tapis.systems.model.ResourceRequestUser;
+import edu.utexas.tacc.tapis.systems.model.TSystem;
+
+import static edu.utexas.tacc.tapis.systems.IntegrationUtils.*;
+
+/*
+ * Generate and load a large, realistic set of systems for performance and load testing.
+ * Systems are built from the same test data as IntegrationUtils, with attribute values varied so that searches
+ *   and constraint matching have a realistic spread of selectivity.
+ * Systems are created directly through the Dao using several threads. No permissions or credentials are created.
+ * Loading skips systems that already exist, so an interrupted load may be resumed and a loaded dataset re-used.
+ *
+ * Settings are taken from system properties:
+ *   tapis.scale.key          - key used in system IDs, default Scale
+ *   tapis.scale.systems      - number of systems, default 50000
+ *   tapis.scale.capabilities - capabilities per system, default 20
+ *   tapis.scale.queues       - logical queues per system, default 10
+ *   tapis.scale.owners       - number of distinct owners, default 20
+ *   tapis.scale.threads      - threads used to load, default 8
+ *
+ * May be run standalone against the DB configured for the integration tests:
+ *   main with no arguments loads the systems, main with argument "delete" removes them.
+ */
+public final class ScaleDataGenerator
+{
+  // Defaults
+  public static final String DEFAULT_KEY = "Scale";
+  public static final int DEFAULT_NUM_SYSTEMS = 50000;
+  public static final int DEFAULT_NUM_CAPABILITIES = 20;
+  public static final int DEFAULT_NUM_QUEUES = 10;
+  public static final int DEFAULT_NUM_OWNERS = 20;
+  public static final int DEFAULT_NUM_THREADS = 8;
+
+  public static final String OWNER_PREFIX = "scaleowner";
+  // Scheduler types assigned in rotation, as values for the Scheduler/Type capability
+  private static final String[] SCHEDULERS = {"Slurm", "PBS", "Condor", "SGE"};
+  private static final Category[] CATEGORIES = Category.values();
+
+  private final String key;
+  private final int numSystems;
+  private final int numCapabilities;
+  private final int numQueues;
+  private final int numOwners;
+
+  public ScaleDataGenerator(String key1, int numSystems1, int numCapabilities1, int numQueues1, int numOwners1)
+  {
+    key = key1;
+    numSystems = numSystems1;
+    numCapabilities = Math.max(2, numCapabilities1);
+    numQueues = Math.max(1, numQueues1);
+    numOwners = Math.max(1, numOwners1);
+  }
+
+  /**
+   * Create a generator using settings from system properties
+   */
+  public static ScaleDataGenerator fromSystemProperties()
+  {
+    return new ScaleDataGenerator(System.getProperty("tapis.scale.key", DEFAULT_KEY),
+                                  Integer.getInteger("tapis.scale.systems", DEFAULT_NUM_SYSTEMS),
+                                  Integer.getInteger("tapis.scale.capabilities", DEFAULT_NUM_CAPABILITIES),
+                                  Integer.getInteger("tapis.scale.queues", DEFAULT_NUM_QUEUES),
+                                  Integer.getInteger("tapis.scale.owners", DEFAULT_NUM_OWNERS));
+  }
+
+  public int getNumSystems() { return numSystems; }
+  public int getNumOwners() { return numOwners; }
+
+  /**
+   * Id of system i, for i from 0 to numSystems-1
+   */
+  public String getSysId(int i) { return String.format("%s_%s_%06d", sysNamePrefix, key, i); }
+
+  /**
+   * Owner of system i. Owners are assigned in rotation.
+   */
+  public String getOwner(int i) { return OWNER_PREFIX + (i % numOwners); }
+
+  /**
+   * Prefix shared by the IDs of all systems, for use in searches
+   */
+  public String getSysIdPrefix() { return String.format("%s_%s_", sysNamePrefix, key); }
+
+  /**
+   * Create system i in memory
+   * Port varies from 1 to 1024, 1 in 10 systems is disabled, hardware capabilities vary and the scheduler type
+   *   is one of four values.
+   */
+  public TSystem makeSystem(int i)
+  {
+    String suffix = key + "_" + i;
+    String scheduler = SCHEDULERS[i % SCHEDULERS.length];
+    var system = new TSystem(-1, tenantName, getSysId(i), description1 + suffix, TSystem.SystemType.LINUX, getOwner(i),
+            "host" + key + i + ".scale.org", (i % 10 != 0), effectiveUserId1, prot1.getAuthnMethod(), null,
+            "/root" + suffix, 1 + (i % 1024), prot1.isUseProxy(), prot1.getProxyHost(), prot1.getProxyPort(),
+            dtnSystemIdNull, dtnMountPointNull, dtnMountSourcePathNull, isDtnFalse,
+            canExecTrue, "jobWorkDir" + suffix, jobEnvVariables1, jobMaxJobs1, jobMaxJobsPerUser1, jobIsBatchTrue,
+            batchScheduler1, "lq0", tags1, notes1, uuidNull, isDeletedFalse, createdNull, updatedNull);
+    system.setJobRuntimes(runtimeList1);
+
+    var queues = new ArrayList<LogicalQueue>(numQueues);
+    for (int q = 0; q < numQueues; q++)
+    {
+      queues.add(new LogicalQueue("lq" + q, "hq" + q, 10 * (q + 1), q + 1, 1, 16 * (q + 1), 1, 64, 1, 192000,
+                                  1, 60 * (q + 1)));
+    }
+    system.setBatchLogicalQueues(queues);
+
+    var caps = new ArrayList<Capability>(numCapabilities);
+    caps.add(new Capability(Category.SCHEDULER, "Type", Datatype.STRING, Capability.DEFAULT_PRECEDENCE, scheduler));
+    caps.add(new Capability(Category.HARDWARE, "CoresPerNode", Datatype.INTEGER, Capability.DEFAULT_PRECEDENCE,
+                            Integer.toString(16 * (1 + i % 8))));
+    for (int c = 2; c < numCapabilities; c++)
+    {
+      Category category = CATEGORIES[c % CATEGORIES.length];
+      // Each capability has c values in rotation, so later capabilities are more selective
+      caps.add(new Capability(category, "Cap" + c, Datatype.STRING, Capability.DEFAULT_PRECEDENCE,
+                              "value" + (i % c)));
+    }
+    system.setJobCapabilities(caps);
+    return system;
+  }
+
+  /**
+   * Create all systems not already present, using several threads.
+   * @param dao - Dao used to create the systems
+   * @param numThreads - number of threads
+   * @return number of systems created
+   */
+  public int load(SystemsDao dao, int numThreads) throws Exception
+  {
+    var created = new AtomicInteger();
+    var next = new AtomicInteger();
+    ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, numThreads));
+    try
+    {
+      var futures = new ArrayList<Future<Void>>();
+      for (int t = 0; t < numThreads; t++)
+      {
+        futures.add(executor.submit(() ->
+        {
+          for (int i = next.getAndIncrement(); i < numSystems; i = next.getAndIncrement())
+          {
+            if (dao.checkForSystem(tenantName, getSysId(i), true)) continue;
+            TSystem system = makeSystem(i);
+            dao.createSystem(makeOwnerUser(system.getOwner()), system, gson.toJson(system), scrubbedJson);
+            int count = created.incrementAndGet();
+            if (count % 1000 == 0) System.out.println("Created " + count + " systems");
+          }
+          return null;
+        }));
+      }
+      for (Future<Void> future : futures) future.get();
+    }
+    finally
+    {
+      executor.shutdownNow();
+    }
+    return created.get();
+  }
+
+  /**
+   * Remove all systems
+   * @return number of systems removed
+   */
+  public int delete(SystemsDao dao) throws TapisException
+  {
+    int count = 0;
+    for (int i = 0; i < numSystems; i++) count += dao.hardDeleteSystem(tenantName, getSysId(i));
+    return count;
+  }
+
+  /**
+   * Ids of the systems owned by each owner, in order of owner index
+   */
+  public List<List<String>> getSysIdsByOwner()
+  {
+    var idsByOwner = new ArrayList<List<String>>(numOwners);
+    for (int o = 0; o < numOwners; o++) idsByOwner.add(new ArrayList<>());
+    for (int i = 0; i < numSystems; i++) idsByOwner.get(i % numOwners).add(getSysId(i));
+    return idsByOwner;
+  }
+
+  public static ResourceRequestUser makeOwnerUser(String owner)
+  {
+    return new ResourceRequestUser(new AuthenticatedUser(owner, tenantName, TapisThreadContext.AccountType.user.name(),
+                                                         null, owner, tenantName, null, null, null));
+  }
+
+  public static void main(String[] args) throws Exception
+  {
+    ScaleDataGenerator generator = fromSystemProperties();
+    var dao = new SystemsDaoImpl();
+    long start = System.currentTimeMillis();
+    if (args.length > 0 && "delete".equals(args[0]))
+    {
+      System.out.println("Deleted " + generator.delete(dao) + " systems");
+    }
+    else
+    {
+      int created = generator.load(dao, Integer.getInteger("tapis.scale.threads", DEFAULT_NUM_THREADS));
+      System.out.println("Created " + created + " systems");
+    }
+    System.out.println("Elapsed ms: " + (System.currentTimeMillis() - start));
+  }
+}
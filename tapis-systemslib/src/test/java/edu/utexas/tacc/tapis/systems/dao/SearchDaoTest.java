@@ -1,12 +1,14 @@
 package edu.utexas.tacc.tapis.systems.dao;
 
 import edu.utexas.tacc.tapis.search.SearchUtils;
+import edu.utexas.tacc.tapis.shared.threadlocal.OrderBy;
 import edu.utexas.tacc.tapis.shared.threadlocal.TapisThreadContext;
 import edu.utexas.tacc.tapis.shared.utils.TapisUtils;
 import edu.utexas.tacc.tapis.sharedapi.security.AuthenticatedUser;
 import edu.utexas.tacc.tapis.systems.IntegrationUtils;
 import edu.utexas.tacc.tapis.systems.model.ResourceRequestUser;
 import edu.utexas.tacc.tapis.systems.model.TSystem;
+import edu.utexas.tacc.tapis.systems.model.TotalCount;
 import org.testng.Assert;
 import org.testng.annotations.AfterSuite;
 import org.testng.annotations.BeforeSuite;
@@ -17,8 +19,10 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import static edu.utexas.tacc.tapis.shared.threadlocal.SearchParameters.*;
 import static edu.utexas.tacc.tapis.systems.IntegrationUtils.*;
@@ -256,6 +260,142 @@ public class SearchDaoTest
     }
   }
 
+  /*
+   * Test that repeated searches are served from the search condition cache and give the same results.
+   * Also check that order of items in the search list does not matter.
+   */
+  @Test(groups={"integration"})
+  public void testSearchConditionCache() throws Exception
+  {
+    String cond1 = SearchUtils.validateAndProcessSearchCondition(sysIdLikeAll);
+    String cond2 = SearchUtils.validateAndProcessSearchCondition("owner.eq." + owner1);
+    var searchList1 = Arrays.asList(cond1, cond2);
+    var searchList2 = Arrays.asList(cond2, cond1);
+    SearchConditionCache cache = SystemsDaoImpl.getSearchConditionCache();
+    List<TSystem> searchResults = dao.getSystems(tenantName, searchList1, null, null, DEFAULT_LIMIT, orderByListNull,
+                                                 DEFAULT_SKIP, startAfterNull, showDeletedFalse);
+    assertEquals(searchResults.size(), numSystems / 2, "Incorrect result count");
+    // Same conditions in a different order should be a cache hit with the same results
+    long hitsBefore = cache.getHitCount();
+    searchResults = dao.getSystems(tenantName, searchList2, null, null, DEFAULT_LIMIT, orderByListNull,
+                                   DEFAULT_SKIP, startAfterNull, showDeletedFalse);
+    assertEquals(searchResults.size(), numSystems / 2, "Incorrect result count");
+    int count = dao.getSystemsCount(tenantName, searchList1, null, null, orderByListNull, startAfterNull, showDeletedFalse);
+    assertEquals(count, numSystems / 2, "Incorrect count");
+    // Other tests may be searching concurrently so only check for a lower bound
+    if (cache.isEnabled()) Assert.assertTrue(cache.getHitCount() >= hitsBefore + 2, "Incorrect cache hit count");
+    // Invalid condition should fail every time, nothing cached
+    var badList = Collections.singletonList(SearchUtils.validateAndProcessSearchCondition("no_such_column.eq.1"));
+    for (int i = 0; i < 2; i++)
+    {
+      try
+      {
+        dao.getSystems(tenantName, badList, null, null, DEFAULT_LIMIT, orderByListNull, DEFAULT_SKIP, startAfterNull,
+                       showDeletedFalse);
+        Assert.fail("Search with invalid column should have thrown an exception");
+      }
+      catch (Exception e) { System.out.println("Caught expected exception: " + e.getMessage()); }
+    }
+  }
+
+  /*
+   * Test search and sort attribute names given as camelCase or snake_case, including array and json attributes
+   */
+  @Test(groups={"integration"})
+  public void testColumnNames() throws Exception
+  {
+    String cond1 = SearchUtils.validateAndProcessSearchCondition(sysIdLikeAll);
+    var searchListSC = Arrays.asList(cond1, SearchUtils.validateAndProcessSearchCondition("system_type.eq.LINUX"));
+    var searchListCC = Arrays.asList(cond1, SearchUtils.validateAndProcessSearchCondition("systemType.eq.LINUX"));
+    List<OrderBy> orderByListCC = Collections.singletonList(OrderBy.fromString("jobWorkingDir(asc)"));
+    List<TSystem> searchResults;
+    searchResults = dao.getSystems(tenantName, searchListSC, null, null, DEFAULT_LIMIT, orderByListCC, DEFAULT_SKIP,
+                                   startAfterNull, showDeletedFalse);
+    assertEquals(searchResults.size(), numSystems, "Incorrect result count");
+    searchResults = dao.getSystems(tenantName, searchListCC, null, null, DEFAULT_LIMIT, orderByListCC, DEFAULT_SKIP,
+                                   startAfterNull, showDeletedFalse);
+    assertEquals(searchResults.size(), numSystems, "Incorrect result count");
+    // Array and json attributes may still be used for sorting
+    for (String orderByStr : Arrays.asList("tags(asc)", "jobEnvVariables(desc)", "notes(asc)"))
+    {
+      List<OrderBy> orderByList = Collections.singletonList(OrderBy.fromString(orderByStr));
+      searchResults = dao.getSystems(tenantName, searchListSC, null, null, DEFAULT_LIMIT, orderByList, DEFAULT_SKIP,
+                                     startAfterNull, showDeletedFalse);
+      assertEquals(searchResults.size(), numSystems, "Incorrect result count for orderBy: " + orderByStr);
+    }
+    // Unknown attribute may not be used for sorting
+    List<OrderBy> orderByListBad = Collections.singletonList(OrderBy.fromString("noSuchAttribute(asc)"));
+    try
+    {
+      dao.getSystemsCount(tenantName, searchListSC, null, null, orderByListBad, startAfterNull, showDeletedFalse);
+      Assert.fail("Sort using orderBy should have thrown an exception. orderBy: noSuchAttribute");
+    }
+    catch (Exception e) { System.out.println("Caught expected exception: " + e.getMessage()); }
+  }
+
+  /*
+   * Test cached and estimated total counts
+   */
+  @Test(groups={"integration"})
+  public void testCountCache() throws Exception
+  {
+    var searchList = Collections.singletonList(SearchUtils.validateAndProcessSearchCondition(sysIdLikeAll));
+    SystemsCountCache cache = SystemsDaoImpl.getSystemsCountCache();
+    int count = dao.getSystemsCount(tenantName, searchList, null, null, orderByListNull, startAfterNull, showDeletedFalse);
+    assertEquals(count, numSystems, "Incorrect count");
+    // Second call should be answered from the cache and estimate should report the exact cached value
+    long hitsBefore = cache.getHitCount();
+    count = dao.getSystemsCount(tenantName, searchList, null, null, orderByListNull, startAfterNull, showDeletedFalse);
+    assertEquals(count, numSystems, "Incorrect count");
+    TotalCount total = dao.getSystemsCountEstimate(tenantName, searchList, null, null, orderByListNull, startAfterNull,
+                                                   showDeletedFalse);
+    if (cache.isEnabled())
+    {
+      Assert.assertTrue(cache.getHitCount() >= hitsBefore + 2, "Incorrect cache hit count");
+      Assert.assertTrue(total.isExact(), "Estimate should have used cached count");
+      assertEquals(total.getCount(), numSystems, "Incorrect estimated count");
+    }
+    // A write to the tenant invalidates all cached counts for the tenant
+    cache.incrementGeneration(tenantName);
+    total = dao.getSystemsCountEstimate(tenantName, searchList, null, null, orderByListNull, startAfterNull,
+                                        showDeletedFalse);
+    Assert.assertFalse(total.isExact(), "Estimate should not have used cached count after a write");
+    Assert.assertTrue(total.getCount() >= 0, "Incorrect estimated count");
+  }
+
+  /*
+   * Test counts grouped by attribute value
+   */
+  @Test(groups={"integration"})
+  public void testFacets() throws Exception
+  {
+    var searchList = Collections.singletonList(SearchUtils.validateAndProcessSearchCondition(sysIdLikeAll));
+    Map<String, Map<String, Integer>> facets = dao.getSystemsFacets(tenantName, searchList, null, null,
+                                                                    TSystem.FACET_FIELDS, showDeletedFalse);
+    assertEquals(facets.keySet(), new LinkedHashSet<>(TSystem.FACET_FIELDS), "Incorrect facet attributes");
+    // Bucket counts for each attribute should add up to the number of matching systems
+    for (var entry : facets.entrySet())
+    {
+      int total = entry.getValue().values().stream().mapToInt(Integer::intValue).sum();
+      assertEquals(total, numSystems, "Incorrect total for facet: " + entry.getKey());
+    }
+    // Empty set of allowed IDs should give no buckets
+    facets = dao.getSystemsFacets(tenantName, searchList, null, Collections.emptySet(),
+                                  Collections.singletonList("systemType"), showDeletedFalse);
+    Assert.assertTrue(facets.get("systemType").isEmpty(), "Expected no buckets for empty set of IDs");
+    // Attribute given as snake_case is reported using the camelCase name
+    facets = dao.getSystemsFacets(tenantName, searchList, null, null, Collections.singletonList("system_type"),
+                                  showDeletedFalse);
+    assertEquals(facets.keySet(), Set.of("systemType"), "Incorrect facet attributes for snake_case name");
+    // Attribute not supported for facets should fail
+    try
+    {
+      dao.getSystemsFacets(tenantName, searchList, null, null, Collections.singletonList("host"), showDeletedFalse);
+      Assert.fail("Facet on unsupported attribute should have thrown an exception");
+    }
+    catch (Exception e) { System.out.println("Caught expected exception: " + e.getMessage()); }
+  }
+
   /*
    * Test pagination options: limit, skip
    */
@@ -0,0 +1,86 @@
+package edu.utexas.tacc.tapis.systems.dao;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.testng.annotations.Test;
+
+import edu.utexas.tacc.tapis.systems.model.StatementStats;
+
+import static org.testng.Assert.*;
+
+/*
+ * Test SQL fingerprints, bind type descriptions and aggregation in StatementStatsCollector.
+ * No DB is needed.
+ */
+public class StatementStatsCollectorTest
+{
+  /*
+   * Executions differing only in values or list length share a fingerprint and no values appear in it
+   */
+  @Test(groups={"unit"})
+  public void testFingerprint()
+  {
+    String fp1 = StatementStatsCollector.fingerprint(
+            "select \"systems\".\"id\" from \"systems\"\n  where \"tenant\" = ? and \"id\" in (?, ?, ?) limit ?");
+    String fp2 = StatementStatsCollector.fingerprint(
+            "select \"systems\".\"id\" from \"systems\" where \"tenant\" = ? and \"id\" in (?) limit ?");
+    String fp3 = StatementStatsCollector.fingerprint(
+            "select \"systems\".\"id\" from \"systems\" where \"tenant\" = 'dev' and \"id\" in ('a', 'it''s') limit 10");
+    assertEquals(fp1, "select \"systems\".\"id\" from \"systems\" where \"tenant\" = ? and \"id\" in (?, ...) limit ?");
+    assertEquals(fp3, fp1);
+    assertNotEquals(fp2, fp1);
+    assertFalse(fp3.contains("dev"));
+    assertFalse(fp3.contains("10"));
+    // Digits in identifiers are kept
+    assertEquals(StatementStatsCollector.fingerprint("select col1 from \"t2\" where x = 5"),
+                 "select col1 from \"t2\" where x = ?");
+  }
+
+  /*
+   * Only types and sizes are described, never values
+   */
+  @Test(groups={"unit"})
+  public void testDescribeBindTypes()
+  {
+    String types = StatementStatsCollector.describeBindTypes(
+            Arrays.asList("secretTenant", 42, null, new String[] {"a", "b", "c"}, List.of("x", "y")));
+    assertEquals(types, "[String, Integer, null, String[3], Collection[2]]");
+    assertFalse(types.contains("secretTenant"));
+    assertEquals(StatementStatsCollector.describeBindTypes(null), "[]");
+  }
+
+  /*
+   * Statistics are aggregated per fingerprint, sorted by total time and capped
+   */
+  @Test(groups={"unit"})
+  public void testAggregation()
+  {
+    var collector = new StatementStatsCollector(100, 2);
+    String sqlA = "select * from a where id = ?";
+    collector.record(sqlA, TimeUnit.MILLISECONDS.toNanos(10), 1, false, () -> "[String]");
+    collector.record(sqlA, TimeUnit.MILLISECONDS.toNanos(200), 3, false, () -> "[String]");
+    collector.record("update b set x = ? where id = 7", TimeUnit.MILLISECONDS.toNanos(5), 1, true,
+                     () -> { throw new AssertionError("Bind types requested for fast statement"); });
+    // Over the cap so counted as OTHER
+    collector.record("delete from c", TimeUnit.MILLISECONDS.toNanos(1), -1, false, () -> "[]");
+
+    List<StatementStats> stats = collector.getStatementStats();
+    assertEquals(stats.size(), 3);
+    StatementStats a = stats.get(0);
+    assertEquals(a.getFingerprint(), sqlA);
+    assertEquals(a.getCount(), 2L);
+    assertEquals(a.getSlowCount(), 1L);
+    assertEquals(a.getErrorCount(), 0L);
+    assertEquals(a.getRows(), 4L);
+    assertEquals(a.getTotalMillis(), 210.0, 0.001);
+    assertEquals(a.getMaxMillis(), 200.0, 0.001);
+    assertEquals(a.getMeanMillis(), 105.0, 0.001);
+    StatementStats b = stats.get(1);
+    assertEquals(b.getFingerprint(), "update b set x = ? where id = ?");
+    assertEquals(b.getErrorCount(), 1L);
+    assertEquals(stats.get(2).getFingerprint(), StatementStatsCollector.OTHER);
+    assertEquals(stats.get(2).getRows(), 0L);
+  }
+}
@@ -1,8 +1,10 @@
 package edu.utexas.tacc.tapis.systems.dao;
 
 import com.google.gson.JsonObject;
+import edu.utexas.tacc.tapis.search.SearchUtils;
 import edu.utexas.tacc.tapis.shared.threadlocal.TapisThreadContext;
 import edu.utexas.tacc.tapis.sharedapi.security.AuthenticatedUser;
+import edu.utexas.tacc.tapis.systems.CallCounter;
 import edu.utexas.tacc.tapis.systems.IntegrationUtils;
 import edu.utexas.tacc.tapis.systems.model.Capability;
 import edu.utexas.tacc.tapis.systems.model.JobRuntime;
@@ -17,8 +19,16 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
 
+import edu.utexas.tacc.tapis.systems.model.SystemChanges;
+import edu.utexas.tacc.tapis.systems.model.SystemEvent;
+import edu.utexas.tacc.tapis.systems.model.SystemTombstone;
+import edu.utexas.tacc.tapis.systems.model.SystemVersionInfo;
 import edu.utexas.tacc.tapis.systems.model.TSystem;
+import edu.utexas.tacc.tapis.systems.model.TSystem.SystemOperation;
 import edu.utexas.tacc.tapis.systems.model.TSystem.SystemType;
 
 import static edu.utexas.tacc.tapis.shared.threadlocal.SearchParameters.*;
@@ -34,7 +44,7 @@ public class SystemsDaoTest
   private ResourceRequestUser rUser;
 
   // Create test system definitions in memory
-  int numSystems = 12;
+  int numSystems = 16;
   String testKey = "Dao";
   TSystem dtnSystem1 = IntegrationUtils.makeDtnSystem1(testKey);
   TSystem dtnSystem2 = IntegrationUtils.makeDtnSystem2(testKey);
@@ -167,6 +177,15 @@ public class SystemsDaoTest
     }
     Assert.assertNotNull(tmpSys.getCreated(), "Fetched created timestamp should not be null");
     Assert.assertNotNull(tmpSys.getUpdated(), "Fetched updated timestamp should not be null");
+
+    // Lightweight version info should agree with the full system
+    SystemVersionInfo versionInfo = dao.getSystemVersionInfo(sys0.getTenant(), sys0.getId());
+    Assert.assertNotNull(versionInfo, "Failed to get version info: " + sys0.getId());
+    Assert.assertEquals(versionInfo.getUuid(), tmpSys.getUuid());
+    Assert.assertEquals(versionInfo.getUpdated(), tmpSys.getUpdated());
+    Assert.assertEquals(versionInfo.getOwner(), tmpSys.getOwner());
+    Assert.assertEquals(versionInfo.getEffectiveUserId(), tmpSys.getEffectiveUserId());
+    Assert.assertEquals(versionInfo.getCanExec(), tmpSys.getCanExec());
   }
 
   // Test retrieving all systems
@@ -203,6 +222,17 @@ public class SystemsDaoTest
       Assert.assertTrue(sysIdList.contains(system.getId()));
     }
     Assert.assertEquals(sysIdList.size(), systems.size());
+    // Get the same systems along with aux data in a single pass. Unknown IDs are ignored.
+    var batchIdList = new ArrayList<>(sysIdList);
+    batchIdList.add("no-such-system-" + UUID.randomUUID());
+    systems = dao.getSystemsByIds(tenantName, batchIdList);
+    Assert.assertEquals(systems.size(), sysIdList.size());
+    for (TSystem system : systems)
+    {
+      Assert.assertTrue(sysIdList.contains(system.getId()));
+      Assert.assertNotNull(system.getJobCapabilities());
+      Assert.assertNotNull(system.getBatchLogicalQueues());
+    }
   }
 
   // Test enable/disable/delete/undelete
@@ -256,6 +286,243 @@ public class SystemsDaoTest
     Assert.assertFalse(dao.checkForSystem(sys0.getTenant(), sys0.getId(), true),"System not deleted. System name: " + sys0.getId());
   }
 
+  // Test retrieving changes using the change sequence, including soft deletes and tombstones for hard deletes
+  @Test
+  public void testChanges() throws Exception {
+    TSystem sys0 = systems[2];
+    boolean itemCreated = dao.createSystem(rUser, sys0, gson.toJson(sys0), scrubbedJson);
+    Assert.assertTrue(itemCreated, "Item not created, id: " + sys0.getId());
+    TSystem tmpSys = dao.getSystem(sys0.getTenant(), sys0.getId());
+    long createSeq = tmpSys.getChangeSeq();
+    Assert.assertTrue(createSeq > 0, "Change sequence not set on create");
+    // Other tests may be running so only look for our own changes
+    SystemChanges changes = dao.getSystemChanges(tenantName, createSeq - 1, 1000, null);
+    Assert.assertTrue(findChangedSystem(changes, sys0.getId()) != null, "Created system not in changes");
+    Assert.assertTrue(changes.getNextToken() >= createSeq);
+
+    // Update and soft delete should each assign a larger value
+    dao.updateEnabled(rUser, tenantName, sys0.getId(), false);
+    long updateSeq = dao.getSystem(sys0.getTenant(), sys0.getId()).getChangeSeq();
+    Assert.assertTrue(updateSeq > createSeq, "Change sequence not increased on update");
+    dao.updateDeleted(rUser, tenantName, sys0.getId(), true);
+    changes = dao.getSystemChanges(tenantName, updateSeq, 1000, null);
+    TSystem changedSys = findChangedSystem(changes, sys0.getId());
+    Assert.assertNotNull(changedSys, "Soft deleted system not in changes");
+    Assert.assertTrue(changedSys.isDeleted());
+    Assert.assertTrue(changedSys.getChangeSeq() > updateSeq);
+
+    // Hard delete should produce a tombstone
+    TSystem sys1 = systems[3];
+    itemCreated = dao.createSystem(rUser, sys1, gson.toJson(sys1), scrubbedJson);
+    Assert.assertTrue(itemCreated, "Item not created, id: " + sys1.getId());
+    long sys1Seq = dao.getSystem(sys1.getTenant(), sys1.getId()).getChangeSeq();
+    dao.hardDeleteSystem(tenantName, sys1.getId());
+    changes = dao.getSystemChanges(tenantName, sys1Seq, 1000, null);
+    Assert.assertNull(findChangedSystem(changes, sys1.getId()), "Removed system should not be in changes");
+    boolean foundTombstone = false;
+    for (SystemTombstone t : changes.getTombstones())
+    {
+      if (t.getId().equals(sys1.getId())) { foundTombstone = true; Assert.assertTrue(t.getChangeSeq() > sys1Seq); }
+    }
+    Assert.assertTrue(foundTombstone, "Tombstone not found for removed system");
+    // Tombstone is also returned to the owner but not to other users
+    Assert.assertTrue(findTombstone(dao.getSystemChanges(tenantName, sys1Seq, 1000, sys1.getOwner()), sys1.getId()));
+    Assert.assertFalse(findTombstone(dao.getSystemChanges(tenantName, sys1Seq, 1000, "anotherUser"), sys1.getId()));
+
+    // Nothing of ours after the last token
+    changes = dao.getSystemChanges(tenantName, changes.getNextToken(), 1000, null);
+    Assert.assertNull(findChangedSystem(changes, sys0.getId()));
+    Assert.assertNull(findChangedSystem(changes, sys1.getId()));
+
+    // Limit is respected and more is indicated
+    changes = dao.getSystemChanges(tenantName, 0, 1, null);
+    Assert.assertEquals(changes.getSystems().size() + changes.getTombstones().size(), 1);
+    Assert.assertTrue(changes.isMore());
+  }
+
+  // Test recording permission changes for delta sync
+  @Test
+  public void testPermissionChanges() throws Exception {
+    TSystem sys0 = systems[13];
+    boolean itemCreated = dao.createSystem(rUser, sys0, gson.toJson(sys0), scrubbedJson);
+    Assert.assertTrue(itemCreated, "Item not created, id: " + sys0.getId());
+    long createSeq = dao.getSystem(sys0.getTenant(), sys0.getId()).getChangeSeq();
+    // Grant gives the system a new change sequence value and records no tombstone
+    dao.recordPermissionChange(tenantName, List.of(sys0.getId()), List.of());
+    long grantSeq = dao.getSystem(sys0.getTenant(), sys0.getId()).getChangeSeq();
+    Assert.assertTrue(grantSeq > createSeq, "Change sequence not increased on grant");
+    SystemChanges changes = dao.getSystemChanges(tenantName, createSeq, 1000, "revokedUser");
+    Assert.assertNotNull(findChangedSystem(changes, sys0.getId()), "System not in changes after grant");
+    Assert.assertFalse(findTombstone(changes, sys0.getId()), "Tombstone recorded for grant");
+    // Revoke records a tombstone only for the users who may have lost access
+    dao.recordPermissionChange(tenantName, List.of(sys0.getId()), List.of("revokedUser"));
+    Assert.assertTrue(dao.getSystem(sys0.getTenant(), sys0.getId()).getChangeSeq() > grantSeq);
+    Assert.assertTrue(findTombstone(dao.getSystemChanges(tenantName, grantSeq, 1000, "revokedUser"), sys0.getId()));
+    Assert.assertFalse(findTombstone(dao.getSystemChanges(tenantName, grantSeq, 1000, "anotherUser"), sys0.getId()));
+    // System still exists so callers allowed to read all systems get no tombstone
+    Assert.assertFalse(findTombstone(dao.getSystemChanges(tenantName, grantSeq, 1000, null), sys0.getId()));
+  }
+
+  // Test local permission mirror: grants, revokes, reconciliation and the systems a user may read
+  @Test
+  public void testPermMirror() throws Exception {
+    TSystem sys0 = systems[14];
+    boolean itemCreated = dao.createSystem(rUser, sys0, gson.toJson(sys0), scrubbedJson);
+    Assert.assertTrue(itemCreated, "Item not created, id: " + sys0.getId());
+    TSystem sys1 = systems[15];
+    itemCreated = dao.createSystem(rUser, sys1, gson.toJson(sys1), scrubbedJson);
+    Assert.assertTrue(itemCreated, "Item not created, id: " + sys1.getId());
+    String user1 = "mirrorUser1" + testKey;
+    String user2 = "mirrorUser2" + testKey;
+    // Cleanup anything leftover from previous failed run
+    dao.replaceUserPerms(tenantName, user1, Map.of(), dao.getUserPermsVersion());
+    dao.replaceUserPerms(tenantName, user2, Map.of(), dao.getUserPermsVersion());
+    Assert.assertFalse(isReadable(user1, sys0.getId()));
+
+    // Grant of READ makes the system readable and invalidates cached counts
+    long generation = SystemsDaoImpl.getSystemsCountCache().getGeneration(tenantName);
+    dao.addUserPerms(tenantName, List.of(sys0.getId()), List.of(user1), List.of("READ"));
+    Assert.assertTrue(SystemsDaoImpl.getSystemsCountCache().getGeneration(tenantName) > generation);
+    Assert.assertTrue(isReadable(user1, sys0.getId()));
+    Assert.assertFalse(isReadable(user1, sys1.getId()));
+    // EXECUTE alone does not allow reading, * for all permissions does
+    dao.addUserPerms(tenantName, List.of(sys1.getId()), List.of(user1), List.of("EXECUTE"));
+    Assert.assertFalse(isReadable(user1, sys1.getId()));
+    dao.addUserPerms(tenantName, List.of(sys1.getId()), List.of(user1), List.of("*"));
+    Assert.assertTrue(isReadable(user1, sys1.getId()));
+    // Revoke only matches exactly, as in SK
+    dao.removeUserPerms(tenantName, List.of(sys1.getId()), List.of(user1), List.of("READ"));
+    Assert.assertTrue(isReadable(user1, sys1.getId()));
+    dao.removeUserPerms(tenantName, List.of(sys1.getId()), List.of(user1), List.of("*"));
+    Assert.assertFalse(isReadable(user1, sys1.getId()));
+
+    // Grant on * for all systems
+    dao.addUserPerms(tenantName, List.of("*"), List.of(user2), List.of("MODIFY"));
+    Assert.assertTrue(isReadable(user2, sys0.getId()));
+    Assert.assertTrue(isReadable(user2, sys1.getId()));
+    // Removing all rows for a system does not affect grants on all systems
+    dao.removeAllUserPerms(tenantName, sys0.getId());
+    Assert.assertFalse(isReadable(user1, sys0.getId()));
+    Assert.assertTrue(isReadable(user2, sys0.getId()));
+
+    // Reconciliation replaces the rows of a user
+    dao.replaceUserPerms(tenantName, user2, Map.of(sys1.getId(), Set.of("READ")), dao.getUserPermsVersion());
+    Assert.assertFalse(isReadable(user2, sys0.getId()));
+    Assert.assertTrue(isReadable(user2, sys1.getId()));
+    // A revoke made after the permissions were fetched is not undone
+    long fetchedVersion = dao.getUserPermsVersion();
+    dao.removeUserPerms(tenantName, List.of(sys1.getId()), List.of(user2), List.of("READ"));
+    dao.replaceUserPerms(tenantName, user2, Map.of(sys1.getId(), Set.of("READ")), fetchedVersion);
+    Assert.assertFalse(isReadable(user2, sys1.getId()));
+    // A grant made after the permissions were fetched is kept
+    fetchedVersion = dao.getUserPermsVersion();
+    dao.addUserPerms(tenantName, List.of(sys0.getId()), List.of(user2), List.of("READ"));
+    dao.replaceUserPerms(tenantName, user2, Map.of(), fetchedVersion);
+    Assert.assertTrue(isReadable(user2, sys0.getId()));
+    Assert.assertFalse(isReadable(user2, sys1.getId()));
+    // Reconciliation with nothing held in SK removes all rows for the user, including revoked rows
+    dao.replaceUserPerms(tenantName, user2, Map.of(), dao.getUserPermsVersion());
+    Assert.assertFalse(isReadable(user2, sys0.getId()));
+    Assert.assertFalse(dao.getUserPermsUserNames(tenantName).contains(user2));
+    dao.replaceUserPerms(tenantName, user1, Map.of(), dao.getUserPermsVersion());
+    Assert.assertFalse(dao.getUserPermsUserNames(tenantName).contains(user1));
+  }
+
+  // Test retrieval of system change events used to resume the event stream
+  @Test
+  public void testEvents() throws Exception {
+    TSystem sys0 = systems[8];
+    boolean itemCreated = dao.createSystem(rUser, sys0, gson.toJson(sys0), scrubbedJson);
+    Assert.assertTrue(itemCreated, "Item not created, id: " + sys0.getId());
+    dao.updateEnabled(rUser, tenantName, sys0.getId(), false);
+    dao.updateEnabled(rUser, tenantName, sys0.getId(), true);
+    // Other tests may be running so only look at our own events
+    List<SystemEvent> events = new ArrayList<>();
+    for (SystemEvent e : dao.getSystemEvents(tenantName, 0, 100000))
+    {
+      Assert.assertEquals(e.getTenant(), tenantName);
+      if (e.getSystemId().equals(sys0.getId())) events.add(e);
+    }
+    Assert.assertEquals(events.size(), 3);
+    Assert.assertEquals(events.get(0).getOperation(), SystemOperation.create);
+    Assert.assertEquals(events.get(1).getOperation(), SystemOperation.disable);
+    Assert.assertEquals(events.get(2).getOperation(), SystemOperation.enable);
+    Assert.assertTrue(events.get(1).getToken() > events.get(0).getToken());
+    Assert.assertTrue(events.get(2).getToken() > events.get(1).getToken());
+    Assert.assertEquals(events.get(0).getUuid(), sys0.getUuid());
+    Assert.assertNotNull(events.get(0).getCreated());
+    // Resume after the first event
+    List<SystemEvent> resumed = dao.getSystemEvents(tenantName, events.get(0).getToken(), 2);
+    Assert.assertEquals(resumed.size(), 2);
+    Assert.assertTrue(resumed.get(0).getToken() > events.get(0).getToken());
+  }
+
+  // Test number of DB statements used by common operations.
+  // Retrieval must use a fixed number of statements regardless of the number of systems returned.
+  @Test
+  public void testStatementBudgets() throws Exception {
+    TSystem sys0 = systems[12];
+    // Existence check, tenant lock, change sequence, insert, update record, 2 notifications and one insert
+    //   for each job runtime, logical queue and capability.
+    CallCounter.Counts counts =
+            CallCounter.count(() -> dao.createSystem(rUser, sys0, gson.toJson(sys0), scrubbedJson));
+    CallCounter.assertBudget("createSystem", counts, 7 + CallCounter.getAuxRowCount(sys0), 0);
+    // System plus one query for each aux table
+    counts = CallCounter.count(() -> dao.getSystem(tenantName, sys0.getId()));
+    CallCounter.assertBudget("getSystem", counts, 4, 0);
+    // Page of systems plus one query for each aux table, for any page size
+    for (int pageSize : new int[] {1, 10, 100})
+    {
+      counts = CallCounter.count(() -> dao.getSystems(tenantName, null, null, null, pageSize, orderByListNull,
+                                                      DEFAULT_SKIP, startAfterNull, showDeletedFalse));
+      CallCounter.assertBudget("getSystems limit " + pageSize, counts, 4, 0);
+    }
+  }
+
+  // Test read-through cache of systems. Cached entries are copies and writes invalidate them.
+  @Test
+  public void testSystemsCache() throws Exception {
+    TSystem sys0 = systems[10];
+    boolean itemCreated = dao.createSystem(rUser, sys0, gson.toJson(sys0), scrubbedJson);
+    Assert.assertTrue(itemCreated, "Item not created, id: " + sys0.getId());
+    SystemsCache cache = new SystemsCache(10, 300);
+    SystemsCache.SystemLoader loader = () -> dao.getSystem(tenantName, sys0.getId());
+    TSystem tmpSys = cache.getSystem(tenantName, sys0.getId(), loader);
+    Assert.assertNotNull(tmpSys, "Failed to get system: " + sys0.getId());
+    Assert.assertEquals(cache.getLoadCount(), 1);
+    // Changing the result must not change the cached entry
+    String effUser = tmpSys.getEffectiveUserId();
+    String notesStr = tmpSys.getNotes().toString();
+    int numQueues = tmpSys.getBatchLogicalQueues().size();
+    tmpSys.setEffectiveUserId("changedUser");
+    ((JsonObject) tmpSys.getNotes()).addProperty("cacheTest", "changed");
+    tmpSys.setBatchLogicalQueues(new ArrayList<>());
+    tmpSys = cache.getSystem(tenantName, sys0.getId(), loader);
+    Assert.assertEquals(tmpSys.getEffectiveUserId(), effUser);
+    Assert.assertEquals(tmpSys.getNotes().toString(), notesStr);
+    Assert.assertEquals(tmpSys.getBatchLogicalQueues().size(), numQueues);
+    Assert.assertEquals(cache.getLoadCount(), 1);
+    Assert.assertEquals(cache.getHitCount(), 1);
+    Assert.assertEquals(cache.size(), 1);
+    // Write invalidates the entry
+    cache.invalidate(tenantName, sys0.getId());
+    Assert.assertEquals(cache.size(), 0);
+    dao.updateEnabled(rUser, tenantName, sys0.getId(), false);
+    tmpSys = cache.getSystem(tenantName, sys0.getId(), loader);
+    Assert.assertFalse(tmpSys.isEnabled());
+    Assert.assertEquals(cache.getLoadCount(), 2);
+    // Shared cache is updated by DAO writes
+    SystemsCache sharedCache = SystemsDaoImpl.getSystemsCache();
+    tmpSys = sharedCache.getSystem(tenantName, sys0.getId(), loader);
+    Assert.assertFalse(tmpSys.isEnabled());
+    dao.updateEnabled(rUser, tenantName, sys0.getId(), true);
+    tmpSys = sharedCache.getSystem(tenantName, sys0.getId(), loader);
+    Assert.assertTrue(tmpSys.isEnabled());
+    // Missing systems are not cached
+    Assert.assertNull(cache.getSystem(tenantName, "AMissingSystemName", () -> dao.getSystem(tenantName, "AMissingSystemName")));
+    Assert.assertEquals(cache.size(), 1);
+  }
+
   // Test behavior when system is missing, especially for cases where service layer depends on the behavior.
   //  update - throws not found exception
   //  get - returns null
@@ -290,4 +557,29 @@ public class SystemsDaoTest
     Assert.assertNull(dao.getSystem(tenantName, fakeSystemName));
     Assert.assertNull(dao.getSystemOwner(tenantName, fakeSystemName));
   }
+
+  // Check that a user may read a system according to the local permission mirror, using both list and count
+  private boolean isReadable(String userName, String systemId) throws Exception
+  {
+    List<String> searchList = List.of(SearchUtils.validateAndProcessSearchCondition("id.eq." + systemId));
+    List<TSystem> readable = dao.getSystemsReadableBy(tenantName, userName, searchList, null, DEFAULT_LIMIT,
+                                                      orderByListNull, DEFAULT_SKIP, startAfterNull, showDeletedFalse);
+    int count = dao.getSystemsCountReadableBy(tenantName, userName, searchList, null, orderByListNull,
+                                              startAfterNull, showDeletedFalse);
+    Assert.assertEquals(count, readable.size());
+    return count == 1;
+  }
+
+  // Find a system in a set of changes
+  private static TSystem findChangedSystem(SystemChanges changes, String systemId)
+  {
+    for (TSystem s : changes.getSystems()) { if (s.getId().equals(systemId)) return s; }
+    return null;
+  }
+
+  private static boolean findTombstone(SystemChanges changes, String systemId)
+  {
+    for (SystemTombstone t : changes.getTombstones()) { if (t.getId().equals(systemId)) return true; }
+    return false;
+  }
 }
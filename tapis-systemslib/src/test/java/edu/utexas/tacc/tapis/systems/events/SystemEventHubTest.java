@@ -0,0 +1,306 @@
+package edu.utexas.tacc.tapis.systems.events;
+
+import edu.utexas.tacc.tapis.systems.model.SystemEvent;
+import edu.utexas.tacc.tapis.systems.model.TSystem.SystemOperation;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.testng.Assert.*;
+
+/*
+ * Test fan-out, filtering and overflow handling of SystemEventHub using in-memory sinks.
+ * Includes a harness that registers thousands of idle subscribers on a single hub.
+ */
+public class SystemEventHubTest
+{
+  private static final String tenant1 = "dev";
+  private static final String tenant2 = "admin";
+  private static final int numIdleSubscribers = 5000;
+  private static final long waitSeconds = 10;
+
+  private SystemEventHub hub;
+
+  @BeforeMethod
+  public void setUp()
+  {
+  }
+
+  @AfterMethod
+  public void tearDown()
+  {
+    if (hub != null) hub.shutdown();
+    hub = null;
+  }
+
+  /*
+   * Many idle subscribers, events delivered only to matching tenant and filter.
+   */
+  @Test(groups={"unit"})
+  public void testIdleSubscribers() throws Exception
+  {
+    hub = new SystemEventHub(16, numIdleSubscribers + 10, 0, 0);
+    // Half the subscribers may see every system, half only sys1. One tenant2 subscriber.
+    var sinks = new ArrayList<TestSink>();
+    var subs = new ArrayList<SystemEventHub.Subscription>();
+    CountDownLatch latch = new CountDownLatch(numIdleSubscribers + numIdleSubscribers / 2);
+    for (int i = 0; i < numIdleSubscribers; i++)
+    {
+      var sink = new TestSink(latch);
+      sinks.add(sink);
+      var sub = (i % 2 == 0) ? hub.subscribe(tenant1, null, sink)
+                             : hub.subscribe(tenant1, e -> Set.of("sys1").contains(e.getSystemId()), sink);
+      assertNotNull(sub);
+      sub.start(0);
+      subs.add(sub);
+    }
+    var otherSink = new TestSink(null);
+    hub.subscribe(tenant2, null, otherSink).start(0);
+    assertEquals(hub.getSubscriberCount(), numIdleSubscribers + 1);
+
+    // Nothing is delivered to idle subscribers
+    for (TestSink sink : sinks) assertTrue(sink.events.isEmpty());
+
+    // Publish one event for sys1 and one for sys2
+    hub.publish(newEvent(1, tenant1, "sys1"));
+    hub.publish(newEvent(2, tenant1, "sys2"));
+    assertTrue(latch.await(waitSeconds, TimeUnit.SECONDS), "Events not delivered to all subscribers");
+
+    for (int i = 0; i < numIdleSubscribers; i++)
+    {
+      List<SystemEvent> events = sinks.get(i).events;
+      if (i % 2 == 0)
+      {
+        assertEquals(events.size(), 2);
+        assertEquals(events.get(0).getToken(), 1);
+        assertEquals(events.get(1).getToken(), 2);
+      }
+      else
+      {
+        assertEquals(events.size(), 1);
+        assertEquals(events.get(0).getSystemId(), "sys1");
+      }
+    }
+    assertTrue(otherSink.events.isEmpty(), "Event delivered to subscriber in another tenant");
+
+    // Closing removes subscribers
+    for (SystemEventHub.Subscription sub : subs) sub.close();
+    assertEquals(hub.getSubscriberCount(), 1);
+    for (TestSink sink : sinks) assertTrue(sink.isClosed());
+  }
+
+  /*
+   * Subscriber limit is enforced
+   */
+  @Test(groups={"unit"})
+  public void testMaxSubscribers()
+  {
+    hub = new SystemEventHub(16, 2, 0, 0);
+    assertNotNull(hub.subscribe(tenant1, null, new TestSink(null)));
+    var sub2 = hub.subscribe(tenant1, null, new TestSink(null));
+    assertNotNull(sub2);
+    assertNull(hub.subscribe(tenant1, null, new TestSink(null)));
+    sub2.close();
+    assertNotNull(hub.subscribe(tenant1, null, new TestSink(null)));
+  }
+
+  /*
+   * Events buffered while paused are delivered on start unless covered by replay
+   */
+  @Test(groups={"unit"})
+  public void testStartAfterReplay() throws Exception
+  {
+    hub = new SystemEventHub(16, 10, 0, 0);
+    CountDownLatch latch = new CountDownLatch(2);
+    var sink = new TestSink(latch);
+    var sub = hub.subscribe(tenant1, null, sink);
+    for (int i = 1; i <= 4; i++) hub.publish(newEvent(i, tenant1, "sys1"));
+    // Nothing sent while paused
+    assertTrue(sink.events.isEmpty());
+    assertEquals(sub.getBufferedCount(), 4);
+    // Pretend replay covered tokens 1 and 2
+    sub.start(2);
+    assertTrue(latch.await(waitSeconds, TimeUnit.SECONDS), "Events not delivered");
+    assertEquals(sink.events.size(), 2);
+    assertEquals(sink.events.get(0).getToken(), 3);
+    assertEquals(sink.events.get(1).getToken(), 4);
+    assertTrue(waitFor(() -> sub.getLastToken() == 4), "Last token not updated");
+  }
+
+  /*
+   * Events already buffered or delivered are ignored when published again, e.g. by replay after a reconnect
+   */
+  @Test(groups={"unit"})
+  public void testDuplicates() throws Exception
+  {
+    hub = new SystemEventHub(16, 10, 0, 0);
+    var sink = new TestSink(null);
+    hub.subscribe(tenant1, null, sink).start(0);
+    assertEquals(hub.getTenants(), Set.of(tenant1));
+    for (int i = 1; i <= 3; i++) hub.publish(newEvent(i, tenant1, "sys1"));
+    assertTrue(waitFor(() -> sink.size() == 3), "Events not delivered");
+    // Replay overlaps what has already been seen
+    for (int i = 2; i <= 5; i++) hub.publish(newEvent(i, tenant1, "sys1"));
+    assertTrue(waitFor(() -> sink.size() == 5), "New events not delivered");
+    Thread.sleep(100);
+    assertEquals(sink.size(), 5);
+    for (int i = 0; i < 5; i++) assertEquals(sink.events.get(i).getToken(), i + 1);
+  }
+
+  /*
+   * Filter is applied by a delivery thread so a slow filter does not hold up publishing
+   */
+  @Test(groups={"unit"})
+  public void testFilterOnDeliveryThread() throws Exception
+  {
+    hub = new SystemEventHub(16, 10, 0, 0);
+    CountDownLatch release = new CountDownLatch(1);
+    var filterThreads = new ArrayList<String>();
+    var sink = new TestSink(null);
+    hub.subscribe(tenant1, e ->
+    {
+      synchronized (filterThreads) { filterThreads.add(Thread.currentThread().getName()); }
+      try { release.await(waitSeconds, TimeUnit.SECONDS); }
+      catch (InterruptedException ie) { return false; }
+      return e.getSystemId().equals("sys1");
+    }, sink).start(0);
+    // Publishing returns while the filter is blocked
+    hub.publish(newEvent(1, tenant1, "sys1"));
+    hub.publish(newEvent(2, tenant1, "sys2"));
+    hub.publish(newEvent(3, tenant1, "sys1"));
+    assertTrue(sink.events.isEmpty());
+    release.countDown();
+    assertTrue(waitFor(() -> sink.size() == 2), "Events not delivered");
+    assertEquals(sink.events.get(0).getToken(), 1);
+    assertEquals(sink.events.get(1).getToken(), 3);
+    synchronized (filterThreads)
+    {
+      assertEquals(filterThreads.size(), 3);
+      for (String name : filterThreads) assertTrue(name.startsWith("SystemEventDelivery"), name);
+    }
+  }
+
+  /*
+   * Slow subscriber overflows, is told where to resume and is closed. Other subscribers are not affected.
+   */
+  @Test(groups={"unit"})
+  public void testOverflow() throws Exception
+  {
+    int bufSize = 4;
+    hub = new SystemEventHub(bufSize, 10, 0, 0);
+    // Slow sink blocks on the first event until released
+    CountDownLatch release = new CountDownLatch(1);
+    var slowSink = new TestSink(null)
+    {
+      @Override
+      public void send(SystemEvent event) throws Exception
+      {
+        release.await(waitSeconds, TimeUnit.SECONDS);
+        super.send(event);
+      }
+    };
+    var slowSub = hub.subscribe(tenant1, null, slowSink);
+    slowSub.start(0);
+    var fastSink = new TestSink(null);
+    hub.subscribe(tenant1, null, fastSink).start(0);
+
+    // First event is taken by the delivery thread and blocks. Remaining events fill the buffer and overflow.
+    // Fast subscriber keeps up since each event is received before the next is published.
+    for (int i = 1; i <= bufSize * 3; i++)
+    {
+      hub.publish(newEvent(i, tenant1, "sys1"));
+      int numEvents = i;
+      assertTrue(waitFor(() -> fastSink.size() == numEvents), "Fast subscriber did not receive event " + i);
+    }
+    release.countDown();
+
+    assertTrue(slowSink.closedLatch.await(waitSeconds, TimeUnit.SECONDS), "Slow subscriber not closed");
+    assertEquals(slowSink.overflowToken.get(), 1, "Overflow should report last delivered token");
+    assertEquals(slowSink.events.size(), 1);
+    assertTrue(slowSub.isClosed());
+    assertEquals(hub.getOverflowCount(), 1);
+    assertEquals(hub.getSubscriberCount(), 1);
+  }
+
+  /*
+   * Heartbeats are sent to idle subscribers and subscribers whose sink has been closed are removed
+   */
+  @Test(groups={"unit"})
+  public void testHeartbeat() throws Exception
+  {
+    hub = new SystemEventHub(16, 10, 1, 0);
+    var sink1 = new TestSink(null);
+    hub.subscribe(tenant1, null, sink1).start(0);
+    var sink2 = new TestSink(null);
+    hub.subscribe(tenant1, null, sink2).start(0);
+    // Client goes away
+    sink2.close();
+    assertTrue(sink1.heartbeatLatch.await(waitSeconds, TimeUnit.SECONDS), "Heartbeat not sent");
+    assertTrue(waitFor(() -> hub.getSubscriberCount() == 1), "Closed subscriber not removed");
+  }
+
+  /* ********************************************************************** */
+  /*                             Private Methods                            */
+  /* ********************************************************************** */
+
+  /*
+   * Wait for a condition to become true, up to waitSeconds
+   */
+  private static boolean waitFor(BooleanSupplier condition) throws InterruptedException
+  {
+    long deadline = System.currentTimeMillis() + waitSeconds * 1000;
+    while (!condition.getAsBoolean())
+    {
+      if (System.currentTimeMillis() > deadline) return false;
+      Thread.sleep(10);
+    }
+    return true;
+  }
+
+  private static SystemEvent newEvent(long token, String tenant, String systemId)
+  {
+    return new SystemEvent(token, tenant, systemId, UUID.randomUUID(), SystemOperation.modify, "testuser",
+                           Instant.now());
+  }
+
+  /*
+   * In-memory sink that records what it is sent
+   */
+  private static class TestSink implements SystemEventHub.EventSink
+  {
+    final List<SystemEvent> events = new ArrayList<>();
+    final AtomicInteger overflowToken = new AtomicInteger(-1);
+    final CountDownLatch closedLatch = new CountDownLatch(1);
+    final CountDownLatch heartbeatLatch = new CountDownLatch(1);
+    private final CountDownLatch eventLatch;
+    private volatile boolean closed;
+
+    TestSink(CountDownLatch eventLatch1) { eventLatch = eventLatch1; }
+
+    @Override
+    public void send(SystemEvent event) throws Exception
+    {
+      synchronized (events) { events.add(event); }
+      if (eventLatch != null) eventLatch.countDown();
+    }
+    int size() { synchronized (events) { return events.size(); } }
+    @Override
+    public void sendHeartbeat() { heartbeatLatch.countDown(); }
+    @Override
+    public void sendOverflow(long lastToken) { overflowToken.set((int) lastToken); }
+    @Override
+    public void close() { closed = true; closedLatch.countDown(); }
+    @Override
+    public boolean isClosed() { return closed; }
+  }
+}
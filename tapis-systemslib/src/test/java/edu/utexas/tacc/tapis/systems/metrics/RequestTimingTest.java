@@ -0,0 +1,57 @@
+package edu.utexas.tacc.tapis.systems.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+import org.testng.annotations.Test;
+
+import edu.utexas.tacc.tapis.systems.metrics.RequestTiming.Phase;
+
+import static org.testng.Assert.*;
+
+/*
+ * Test RequestTiming recording and the Server-Timing header value
+ */
+public class RequestTimingTest
+{
+  /*
+   * Phases are written in order with counts, phases not recorded are left out and total is always present
+   */
+  @Test(groups={"unit"})
+  public void testHeaderValue()
+  {
+    long start = 1000L;
+    var timing = new RequestTiming(start);
+    timing.add(Phase.SK, TimeUnit.MICROSECONDS.toNanos(12500));
+    timing.add(Phase.DB, TimeUnit.MICROSECONDS.toNanos(1200));
+    timing.add(Phase.SK, TimeUnit.MICROSECONDS.toNanos(7500));
+    timing.add(Phase.FILTERS, TimeUnit.MICROSECONDS.toNanos(300));
+    String value = timing.toHeaderValue(start + TimeUnit.MILLISECONDS.toNanos(25));
+    assertEquals(value, "filters;dur=0.3, db;dur=1.2;count=1, sk;dur=20.0;count=2, total;dur=25.0");
+    assertEquals(new RequestTiming(start).toHeaderValue(start), "total;dur=0.0");
+  }
+
+  /*
+   * Static recording only applies when a timing context is current for the thread
+   */
+  @Test(groups={"unit"})
+  public void testCurrent() throws Exception
+  {
+    RequestTiming.setCurrent(null);
+    RequestTiming.record(Phase.DB, 5L);
+    assertNull(RequestTiming.current());
+
+    var timing = new RequestTiming(System.nanoTime());
+    RequestTiming.setCurrent(timing);
+    RequestTiming.record(Phase.DB, 5L);
+    RequestTiming.record(Phase.DB, 7L);
+    // Other threads do not see the context unless it is passed on
+    Thread other = new Thread(() -> RequestTiming.record(Phase.DB, 100L));
+    other.start();
+    other.join();
+    RequestTiming.setCurrent(null);
+    RequestTiming.record(Phase.DB, 11L);
+    assertEquals(timing.getNanos(Phase.DB), 12L);
+    assertEquals(timing.getCount(Phase.DB), 2L);
+    assertEquals(timing.getCount(Phase.SK), 0L);
+  }
+}
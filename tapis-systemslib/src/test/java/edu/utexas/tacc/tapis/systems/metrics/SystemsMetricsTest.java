@@ -0,0 +1,124 @@
+package edu.utexas.tacc.tapis.systems.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.*;
+
+/*
+ * Test LatencyHistogram bucketing and concurrent recording and the SystemsMetrics text output and proxy
+ */
+public class SystemsMetricsTest
+{
+  /*
+   * Calls land in the first bucket whose bound is not exceeded and counts are cumulative
+   */
+  @Test(groups={"unit"})
+  public void testHistogramBuckets()
+  {
+    var histogram = new LatencyHistogram();
+    histogram.record(TimeUnit.MICROSECONDS.toNanos(500), false);
+    histogram.record(TimeUnit.MILLISECONDS.toNanos(1), false);
+    histogram.record(TimeUnit.MILLISECONDS.toNanos(3), true);
+    histogram.record(TimeUnit.SECONDS.toNanos(60), false);
+    long[] counts = histogram.getCumulativeCounts();
+    assertEquals(counts.length, LatencyHistogram.BUCKET_BOUNDS_SECONDS.length + 1);
+    // le=0.001
+    assertEquals(counts[0], 2L);
+    // le=0.0025
+    assertEquals(counts[1], 2L);
+    // le=0.005
+    assertEquals(counts[2], 3L);
+    // le=10.0
+    assertEquals(counts[counts.length - 2], 3L);
+    // +Inf
+    assertEquals(counts[counts.length - 1], 4L);
+    assertEquals(histogram.getCount(), 4L);
+    assertEquals(histogram.getErrorCount(), 1L);
+    assertEquals(histogram.getSumSeconds(), 60.0045, 1.0e-9);
+  }
+
+  /*
+   * No calls are lost when many threads record at once
+   */
+  @Test(groups={"unit"})
+  public void testConcurrentRecording() throws Exception
+  {
+    int numThreads = 8;
+    int callsPerThread = 10000;
+    var histogram = new LatencyHistogram();
+    ExecutorService pool = Executors.newFixedThreadPool(numThreads);
+    var tasks = new ArrayList<Callable<Void>>();
+    for (int t = 0; t < numThreads; t++)
+    {
+      tasks.add(() ->
+      {
+        for (int i = 0; i < callsPerThread; i++) histogram.record(TimeUnit.MILLISECONDS.toNanos(i % 20), i % 10 == 0);
+        return null;
+      });
+    }
+    for (Future<Void> f : pool.invokeAll(tasks)) f.get();
+    pool.shutdown();
+    assertEquals(histogram.getCount(), (long) numThreads * callsPerThread);
+    assertEquals(histogram.getErrorCount(), (long) numThreads * callsPerThread / 10);
+  }
+
+  /*
+   * Proxy records each interface call by method name, including calls that throw
+   */
+  @Test(groups={"unit"})
+  @SuppressWarnings("unchecked")
+  public void testTimedProxy()
+  {
+    List<String> target = SystemsMetrics.timed(List.class, new ArrayList<>(List.of("a", "b")), SystemsMetrics.DAO);
+    assertEquals(target.size(), 2);
+    assertEquals(target.get(1), "b");
+    assertThrows(IndexOutOfBoundsException.class, () -> target.get(5));
+    // Object methods are not recorded
+    assertNotNull(target.toString());
+
+    LatencyHistogram sizeHist = SystemsMetrics.DAO.histogram("size");
+    LatencyHistogram getHist = SystemsMetrics.DAO.histogram("get");
+    assertTrue(sizeHist.getCount() >= 1L);
+    assertTrue(getHist.getCount() >= 2L);
+    assertTrue(getHist.getErrorCount() >= 1L);
+    assertEquals(SystemsMetrics.DAO.histogram("toString").getCount(), 0L);
+  }
+
+  /*
+   * Output follows the Prometheus text format
+   */
+  @Test(groups={"unit"})
+  public void testScrape()
+  {
+    SystemsMetrics.SK.record("isPermitted", TimeUnit.MILLISECONDS.toNanos(2), false);
+    SystemsMetrics.SK.record("isPermitted", TimeUnit.MILLISECONDS.toNanos(7), true);
+    SystemsMetrics.registerGauge("test_gauge", "Test gauge", () -> 3.5);
+    SystemsMetrics.registerCounter("test_total", "Test counter", () -> 42);
+    SystemsMetrics.registerGauge("test_broken", "Test gauge that fails", () -> { throw new IllegalStateException(); });
+
+    String text = SystemsMetrics.scrape();
+    String name = "tapis_systems_sk_call_duration_seconds";
+    assertTrue(text.contains("# TYPE " + name + " histogram\n"), text);
+    assertTrue(text.contains(name + "_bucket{operation=\"isPermitted\",le=\"0.001\"} "), text);
+    assertTrue(text.contains(name + "_bucket{operation=\"isPermitted\",le=\"+Inf\"} "), text);
+    assertTrue(text.contains(name + "_count{operation=\"isPermitted\"} "), text);
+    assertTrue(text.contains("# TYPE tapis_systems_sk_call_errors_total counter\n"), text);
+    assertTrue(text.contains("tapis_systems_test_gauge 3.5\n"), text);
+    assertTrue(text.contains("# TYPE tapis_systems_test_total counter\n"), text);
+    assertTrue(text.contains("tapis_systems_test_total 42\n"), text);
+    assertTrue(text.contains("tapis_systems_test_broken NaN\n"), text);
+    // Every line is a comment or a sample with a name, optional labels and a value
+    for (String line : text.split("\n"))
+    {
+      assertTrue(line.startsWith("# ") || line.matches("[a-z_]+(\\{[^}]*\\})? \\S+"), "Bad line: " + line);
+    }
+  }
+}
@@ -0,0 +1,119 @@
+package edu.utexas.tacc.tapis.systems.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.testng.annotations.Test;
+
+import edu.utexas.tacc.tapis.client.shared.exceptions.TapisClientException;
+import edu.utexas.tacc.tapis.security.client.model.KeyType;
+import edu.utexas.tacc.tapis.security.client.model.SKSecretMetaParms;
+import edu.utexas.tacc.tapis.security.client.model.SKSecretReadParms;
+import edu.utexas.tacc.tapis.security.client.model.SKSecretWriteParms;
+import edu.utexas.tacc.tapis.security.client.model.SecretType;
+
+import static org.testng.Assert.*;
+
+/*
+ * Test permissions, secrets and latency and error injection of the in-process SK stand-in
+ */
+public class FakeSKProviderTest
+{
+  private static final String tenant = "dev";
+  private static final String user1 = "fakeskuser1";
+  private static final String user2 = "fakeskuser2";
+
+  /*
+   * Wildcard rules match those of SK
+   */
+  @Test(groups={"unit"})
+  public void testImplies()
+  {
+    assertTrue(FakeSKProvider.implies("system:dev:READ:sys1", "system:dev:READ:sys1"));
+    assertTrue(FakeSKProvider.implies("system:dev:*:sys1", "system:dev:MODIFY:sys1"));
+    assertTrue(FakeSKProvider.implies("system:dev:READ,MODIFY:sys1", "system:dev:MODIFY:sys1"));
+    assertTrue(FakeSKProvider.implies("system:dev:READ:*", "system:dev:READ:sys2"));
+    assertTrue(FakeSKProvider.implies("system:dev", "system:dev:EXECUTE:sys1"));
+    assertFalse(FakeSKProvider.implies("system:dev:READ:sys1", "system:dev:MODIFY:sys1"));
+    assertFalse(FakeSKProvider.implies("system:dev:READ:sys1", "system:dev:READ,MODIFY:sys1"));
+    assertFalse(FakeSKProvider.implies("system:dev:READ:sys1", "system:other:READ:sys1"));
+    assertFalse(FakeSKProvider.implies("system:dev:READ:sys1", "system:dev:READ"));
+  }
+
+  @Test(groups={"unit"})
+  public void testPermissions() throws TapisClientException
+  {
+    var sk = new FakeSKProvider(0, 0, 0);
+    assertEquals(sk.grantUserPermission(tenant, user1, "system:dev:*:sys1"), 1);
+    assertEquals(sk.grantUserPermission(tenant, user1, "system:dev:*:sys1"), 0);
+    sk.grantUserPermission(tenant, user2, "system:dev:READ:sys1");
+    sk.grantUserPermission(tenant, user2, "system:dev:READ:sys2");
+
+    assertTrue(sk.isPermitted(tenant, user1, "system:dev:MODIFY:sys1"));
+    assertFalse(sk.isPermitted(tenant, user2, "system:dev:MODIFY:sys1"));
+    assertFalse(sk.isPermitted("other", user1, "system:dev:MODIFY:sys1"));
+    assertTrue(sk.isPermittedAny(tenant, user2, new String[] {"system:dev:MODIFY:sys1", "system:dev:READ:sys2"}));
+    assertEquals(sk.getUserPerms(tenant, user2).size(), 2);
+    assertTrue(sk.getUserPerms(tenant, "nosuchuser").isEmpty());
+
+    List<String> users = sk.getUsersWithPermission(tenant, "system:dev:%:sys1");
+    assertEquals(users.size(), 2);
+    assertTrue(users.contains(user1) && users.contains(user2));
+    assertEquals(sk.getUsersWithPermission(tenant, "system:dev:%:sys2"), List.of(user2));
+
+    // Only an exact match is revoked
+    assertEquals(sk.revokeUserPermission(tenant, user1, "system:dev:READ:sys1"), 0);
+    assertEquals(sk.revokeUserPermission(tenant, user1, "system:dev:*:sys1"), 1);
+    assertFalse(sk.isPermitted(tenant, user1, "system:dev:READ:sys1"));
+
+    assertFalse(sk.isAdmin(tenant, user1));
+    sk.grantAdmin(tenant, user1);
+    assertTrue(sk.isAdmin(tenant, user1));
+  }
+
+  @Test(groups={"unit"})
+  public void testSecrets() throws TapisClientException
+  {
+    var sk = new FakeSKProvider(0, 0, 0);
+    var writeParms = new SKSecretWriteParms(SecretType.System).setSecretName("S1");
+    writeParms.setSysId("sys1").setSysUser(user1);
+    writeParms.setKeyType(KeyType.password);
+    writeParms.setData(Map.of("password", "secret1"));
+    sk.writeSecret(tenant, user1, writeParms);
+
+    var readParms = new SKSecretReadParms(SecretType.System).setSecretName("S1");
+    readParms.setTenant(tenant).setSysId("sys1").setSysUser(user1);
+    readParms.setKeyType(KeyType.password);
+    assertEquals(sk.readSecret(readParms).getSecretMap().get("password"), "secret1");
+    // Different key type is a different secret
+    readParms.setKeyType(KeyType.sshkey);
+    assertThrows(TapisClientException.class, () -> sk.readSecret(readParms));
+
+    var metaParms = new SKSecretMetaParms(SecretType.System).setSecretName("S1");
+    metaParms.setTenant(tenant).setSysId("sys1").setSysUser(user1);
+    metaParms.setKeyType(KeyType.password);
+    assertNotNull(sk.readSecretMeta(metaParms));
+    assertEquals(sk.destroySecretMeta(metaParms), List.of(1));
+    assertThrows(TapisClientException.class, () -> sk.readSecretMeta(metaParms));
+    assertTrue(sk.destroySecretMeta(metaParms).isEmpty());
+  }
+
+  @Test(groups={"unit"})
+  public void testInjection() throws TapisClientException
+  {
+    // Every call fails
+    var failing = new FakeSKProvider(0, 0, 100);
+    assertThrows(TapisClientException.class, () -> failing.isAdmin(tenant, user1));
+    assertThrows(TapisClientException.class, () -> failing.grantUserPermission(tenant, user1, "system:dev:*:sys1"));
+
+    // Every call is delayed by at least the fixed latency
+    int latencyMillis = 20;
+    var slow = new FakeSKProvider(latencyMillis, 10, 0);
+    long start = System.nanoTime();
+    slow.isAdmin(tenant, user1);
+    slow.isAdmin(tenant, user1);
+    long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    assertTrue(elapsedMillis >= 2L * latencyMillis, "Calls not delayed. Elapsed ms: " + elapsedMillis);
+  }
+}
@@ -0,0 +1,99 @@
+package edu.utexas.tacc.tapis.systems.service;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.testng.annotations.Test;
+
+import edu.utexas.tacc.tapis.systems.model.TSystem.Permission;
+
+import static org.testng.Assert.*;
+
+/*
+ * Test local evaluation of permSpecs held by a user
+ */
+public class PermSpecMatcherTest
+{
+  private static final String tenant = "dev";
+  private static final String sysId = "sys1";
+
+  @Test(groups={"unit"})
+  public void testImplies()
+  {
+    assertTrue(PermSpecMatcher.implies("system:dev:READ:sys1", "system:dev:READ:sys1"));
+    assertTrue(PermSpecMatcher.implies("system:dev:*:sys1", "system:dev:MODIFY:sys1"));
+    assertTrue(PermSpecMatcher.implies("system:dev:READ,MODIFY:sys1", "system:dev:MODIFY:sys1"));
+    assertTrue(PermSpecMatcher.implies("system:dev:READ:*", "system:dev:READ:sys2"));
+    assertTrue(PermSpecMatcher.implies("system", "system:dev:EXECUTE:sys1"));
+    assertTrue(PermSpecMatcher.implies("system:dev:READ:sys1:*", "system:dev:READ:sys1"));
+    assertFalse(PermSpecMatcher.implies("system:dev:READ:sys1", "system:dev:MODIFY:sys1"));
+    assertFalse(PermSpecMatcher.implies("system:dev:READ:sys1", "system:dev:READ:sys10"));
+    assertFalse(PermSpecMatcher.implies("system:dev:READ:sys1:x", "system:dev:READ:sys1"));
+    assertFalse(PermSpecMatcher.implies("files:dev:READ:sys1", "system:dev:READ:sys1"));
+  }
+
+  @Test(groups={"unit"})
+  public void testGetPermissions()
+  {
+    // Exact permSpecs
+    assertEquals(PermSpecMatcher.getPermissions(List.of("system:dev:READ:sys1", "system:dev:EXECUTE:sys1"), tenant, sysId),
+                 EnumSet.of(Permission.READ, Permission.EXECUTE));
+    // PermSpecs for other systems, tenants and resource types are ignored
+    assertTrue(PermSpecMatcher.getPermissions(List.of("system:dev:READ:sys2", "system:other:READ:sys1",
+                                                      "files:dev:*:sys1", ""), tenant, sysId).isEmpty());
+    // Wildcards in the permission and system parts, and lists of permissions
+    assertEquals(PermSpecMatcher.getPermissions(List.of("system:dev:*:sys1"), tenant, sysId),
+                 EnumSet.allOf(Permission.class));
+    assertEquals(PermSpecMatcher.getPermissions(List.of("system:dev:MODIFY:*"), tenant, sysId),
+                 EnumSet.of(Permission.MODIFY));
+    assertEquals(PermSpecMatcher.getPermissions(List.of("system:dev:READ,MODIFY:sys1"), tenant, sysId),
+                 EnumSet.of(Permission.READ, Permission.MODIFY));
+    assertEquals(PermSpecMatcher.getPermissions(List.of("system:dev"), tenant, sysId), EnumSet.allOf(Permission.class));
+    assertTrue(PermSpecMatcher.getPermissions(null, tenant, sysId).isEmpty());
+  }
+
+  @Test(groups={"unit"})
+  public void testGetReadableSystemIds()
+  {
+    // READ, MODIFY or a wildcard permission allows read. EXECUTE, other tenants and other resource types do not.
+    List<String> perms = List.of("system:dev:READ:sys1", "system:dev:MODIFY:sys2", "system:dev:*:sys3",
+                                 "system:dev:READ,EXECUTE:sys4,sys5", "system:dev:EXECUTE:sys6",
+                                 "system:other:READ:sys7", "files:dev:READ:sys8:/home", "system:dev:READ:sys9:x", "");
+    assertEquals(PermSpecMatcher.getReadableSystemIds(perms, tenant),
+                 Set.of("sys1", "sys2", "sys3", "sys4", "sys5"));
+    assertTrue(PermSpecMatcher.getReadableSystemIds(List.of("system:dev:EXECUTE:sys1"), tenant).isEmpty());
+    assertTrue(PermSpecMatcher.getReadableSystemIds(null, tenant).isEmpty());
+
+    // Wildcard or missing system part allows all systems in the tenant
+    assertNull(PermSpecMatcher.getReadableSystemIds(List.of("system:dev:READ:sys1", "system:dev:READ:*"), tenant));
+    assertNull(PermSpecMatcher.getReadableSystemIds(List.of("system:*:MODIFY:*"), tenant));
+    assertNull(PermSpecMatcher.getReadableSystemIds(List.of("system:dev:READ"), tenant));
+    assertNull(PermSpecMatcher.getReadableSystemIds(List.of("system:dev"), tenant));
+    assertNull(PermSpecMatcher.getReadableSystemIds(List.of("system:dev:READ:*:*"), tenant));
+    // Wildcard for another tenant or for EXECUTE only does not
+    assertTrue(PermSpecMatcher.getReadableSystemIds(List.of("system:other:READ:*", "system:dev:EXECUTE:*"),
+                                                    tenant).isEmpty());
+  }
+
+  @Test(groups={"unit"})
+  public void testGetSystemPermissions()
+  {
+    // Permissions are expanded for each system. Other tenants, resource types and unknown permissions are ignored.
+    List<String> perms = List.of("system:dev:READ:sys1", "system:dev:MODIFY,EXECUTE:sys1,sys2", "system:dev:*:sys3",
+                                 "system:other:READ:sys4", "files:dev:READ:sys5:/home", "system:dev:READ:sys6:x",
+                                 "system:dev:BOGUS:sys7", "");
+    assertEquals(PermSpecMatcher.getSystemPermissions(perms, tenant),
+                 Map.of("sys1", Set.of("READ", "MODIFY", "EXECUTE"), "sys2", Set.of("MODIFY", "EXECUTE"),
+                        "sys3", Set.of("*")));
+    assertTrue(PermSpecMatcher.getSystemPermissions(null, tenant).isEmpty());
+
+    // Wildcard or missing parts are recorded as wildcards
+    assertEquals(PermSpecMatcher.getSystemPermissions(List.of("system:dev:READ:*", "system:*:EXECUTE:sys1"), tenant),
+                 Map.of("*", Set.of("READ"), "sys1", Set.of("EXECUTE")));
+    assertEquals(PermSpecMatcher.getSystemPermissions(List.of("system:dev"), tenant), Map.of("*", Set.of("*")));
+    assertEquals(PermSpecMatcher.getSystemPermissions(List.of("system:dev:MODIFY:*:*"), tenant),
+                 Map.of("*", Set.of("MODIFY")));
+  }
+}
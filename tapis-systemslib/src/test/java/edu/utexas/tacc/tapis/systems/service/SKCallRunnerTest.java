@@ -0,0 +1,236 @@
+package edu.utexas.tacc.tapis.systems.service;
+
+import java.util.ArrayList;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.testng.annotations.Test;
+
+import edu.utexas.tacc.tapis.client.shared.exceptions.TapisClientException;
+import edu.utexas.tacc.tapis.shared.exceptions.TapisException;
+
+import static org.testng.Assert.*;
+
+/*
+ * Test bounded parallelism and failure handling of SKCallRunner
+ */
+public class SKCallRunnerTest
+{
+  private static final int numCalls = 50;
+
+  /*
+   * All calls are run and no more than the max run at once
+   */
+  @Test(groups={"unit"})
+  public void testMaxParallel() throws Exception
+  {
+    int maxParallel = 4;
+    var runner = new SKCallRunner(maxParallel);
+    var inFlight = new AtomicInteger();
+    var maxInFlight = new AtomicInteger();
+    Set<Integer> done = ConcurrentHashMap.newKeySet();
+    var calls = new ArrayList<SKCallRunner.SKCall>();
+    for (int i = 0; i < numCalls; i++)
+    {
+      int callNum = i;
+      calls.add(() ->
+      {
+        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        try { Thread.sleep(5); } catch (InterruptedException e) { Thread.currentThread().interrupt(); }
+        inFlight.decrementAndGet();
+        done.add(callNum);
+      });
+    }
+    runner.runAll(calls);
+    assertEquals(done.size(), numCalls);
+    assertTrue(maxInFlight.get() <= maxParallel, "Too many calls in flight: " + maxInFlight.get());
+    assertTrue(maxInFlight.get() > 1, "Calls were not run concurrently");
+    runner.shutdown();
+  }
+
+  /*
+   * A caller limited to some of the parallelism does not hold up calls made by other callers
+   */
+  @Test(groups={"unit"})
+  public void testMaxInFlight() throws Exception
+  {
+    var runner = new SKCallRunner(4);
+    var release = new CountDownLatch(1);
+    var bulkStarted = new CountDownLatch(2);
+    var bulkCount = new AtomicInteger();
+    var bulkCalls = new ArrayList<SKCallRunner.SKCall>();
+    for (int i = 0; i < numCalls; i++)
+    {
+      bulkCalls.add(() ->
+      {
+        bulkCount.incrementAndGet();
+        bulkStarted.countDown();
+        try { release.await(); } catch (InterruptedException e) { Thread.currentThread().interrupt(); }
+      });
+    }
+    var bulkFailure = new AtomicReference<Exception>();
+    var bulkThread = new Thread(() ->
+    {
+      try { runner.runAll(bulkCalls, 0L, 2); }
+      catch (Exception e) { bulkFailure.set(e); }
+    });
+    bulkThread.start();
+    assertTrue(bulkStarted.await(30, TimeUnit.SECONDS), "Bulk calls not started");
+    // Calls for another caller complete while the bulk calls are blocked
+    var otherDone = new AtomicInteger();
+    var otherCalls = new ArrayList<SKCallRunner.SKCall>();
+    for (int i = 0; i < 2; i++) otherCalls.add(otherDone::incrementAndGet);
+    runner.runAll(otherCalls, 30000L);
+    assertEquals(otherDone.get(), 2);
+    assertEquals(bulkCount.get(), 2, "Too many bulk calls submitted");
+    release.countDown();
+    bulkThread.join(30000L);
+    assertNull(bulkFailure.get());
+    assertEquals(bulkCount.get(), numCalls);
+    runner.shutdown();
+  }
+
+  /*
+   * First failure is thrown, calls not yet started are skipped and calls in progress finish before return
+   */
+  @Test(groups={"unit"})
+  public void testFailure()
+  {
+    var runner = new SKCallRunner(2);
+    var inFlight = new AtomicInteger();
+    var started = new AtomicInteger();
+    var calls = new ArrayList<SKCallRunner.SKCall>();
+    for (int i = 0; i < numCalls; i++)
+    {
+      int callNum = i;
+      calls.add(() ->
+      {
+        started.incrementAndGet();
+        inFlight.incrementAndGet();
+        try
+        {
+          Thread.sleep(5);
+          if (callNum == 3) throw new TapisClientException("call failed: " + callNum);
+        }
+        catch (InterruptedException e) { Thread.currentThread().interrupt(); }
+        finally { inFlight.decrementAndGet(); }
+      });
+    }
+    try
+    {
+      runner.runAll(calls);
+      fail("Failure not thrown");
+    }
+    catch (Exception e)
+    {
+      assertTrue(e instanceof TapisClientException, "Wrong exception type: " + e);
+      assertEquals(e.getMessage(), "call failed: 3");
+    }
+    assertEquals(inFlight.get(), 0, "Returned before all calls finished");
+    assertTrue(started.get() < numCalls, "Calls not skipped after failure");
+    runner.shutdown();
+  }
+
+  /*
+   * Attempted calls are undone when a call fails with an unchecked exception, and the exception is re-thrown
+   */
+  @Test(groups={"unit"})
+  public void testUndo() throws Exception
+  {
+    var runner = new SKCallRunner(2);
+    Set<Integer> applied = ConcurrentHashMap.newKeySet();
+    var undoFailure = new AtomicReference<Exception>();
+    var calls = new ArrayList<SKCallRunner.SKCall>();
+    for (int i = 0; i < numCalls; i++)
+    {
+      int callNum = i;
+      calls.add(() ->
+      {
+        if (callNum == 3) throw new IllegalStateException("call failed: " + callNum);
+        applied.add(callNum);
+      });
+    }
+    try
+    {
+      runner.runAllOrUndo(calls, 2, e ->
+      {
+        undoFailure.set(e);
+        var undoCalls = new ArrayList<SKCallRunner.SKCall>();
+        for (Integer callNum : applied) undoCalls.add(() -> applied.remove(callNum));
+        return undoCalls;
+      });
+      fail("Failure not thrown");
+    }
+    catch (IllegalStateException e) { assertEquals(e.getMessage(), "call failed: 3"); }
+    assertTrue(undoFailure.get() instanceof IllegalStateException, "Undo not given the failure");
+    assertTrue(applied.isEmpty(), "Attempted calls not undone: " + applied);
+    // Nothing is undone when all calls succeed
+    runner.runAllOrUndo(calls.subList(0, 3), 2, e -> { throw new IllegalStateException("undo called"); });
+    assertEquals(applied.size(), 3);
+    runner.shutdown();
+  }
+
+  /*
+   * Timeout is reported without waiting for calls in progress and calls not started are skipped
+   */
+  @Test(groups={"unit"})
+  public void testTimeout() throws Exception
+  {
+    var runner = new SKCallRunner(2);
+    var release = new CountDownLatch(1);
+    var started = new AtomicInteger();
+    var calls = new ArrayList<SKCallRunner.SKCall>();
+    for (int i = 0; i < 10; i++)
+    {
+      calls.add(() ->
+      {
+        started.incrementAndGet();
+        try { release.await(); } catch (InterruptedException e) { Thread.currentThread().interrupt(); }
+      });
+    }
+    long start = System.currentTimeMillis();
+    try
+    {
+      runner.runAll(calls, 100);
+      fail("Timeout not thrown");
+    }
+    catch (TapisException e)
+    {
+      assertTrue(e.getMessage().contains("SYSLIB_SK_TIMEOUT"), "Wrong message: " + e.getMessage());
+    }
+    assertTrue(System.currentTimeMillis() - start < 5000, "Did not return on timeout");
+    release.countDown();
+    Thread.sleep(100);
+    assertEquals(started.get(), 2, "Calls started after timeout");
+    runner.shutdown();
+  }
+
+  /*
+   * Parallelism of 1 runs calls in order in the calling thread and stops at the first failure
+   */
+  @Test(groups={"unit"})
+  public void testInline()
+  {
+    var runner = new SKCallRunner(1);
+    Thread caller = Thread.currentThread();
+    var order = new ArrayList<Integer>();
+    var calls = new ArrayList<SKCallRunner.SKCall>();
+    for (int i = 0; i < 5; i++)
+    {
+      int callNum = i;
+      calls.add(() ->
+      {
+        assertSame(Thread.currentThread(), caller);
+        order.add(callNum);
+        if (callNum == 2) throw new IllegalStateException("call failed");
+      });
+    }
+    assertThrows(IllegalStateException.class, () -> runner.runAll(calls));
+    assertEquals(order.size(), 3);
+    for (int i = 0; i < order.size(); i++) assertEquals(order.get(i).intValue(), i);
+  }
+}
@@ -0,0 +1,80 @@
+package edu.utexas.tacc.tapis.systems.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+import edu.utexas.tacc.tapis.client.shared.exceptions.TapisClientException;
+import edu.utexas.tacc.tapis.shared.exceptions.TapisException;
+
+import static org.testng.Assert.*;
+
+/*
+ * Test rollback ordering and late registration for SKCompensations
+ */
+public class SKCompensationsTest
+{
+  /*
+   * Only registered steps are undone, most recent first, and failures are reported without stopping rollback
+   */
+  @Test(groups={"unit"})
+  public void testRollback()
+  {
+    var undone = new ArrayList<String>();
+    var errors = new ArrayList<String>();
+    var compensations = new SKCompensations((name, e) -> errors.add(name));
+    compensations.add("step1", () -> undone.add("step1"));
+    compensations.add("step2", () -> { throw new TapisException("undo failed"); });
+    compensations.add("step3", () -> undone.add("step3"));
+    assertEquals(compensations.size(), 3);
+    compensations.rollback();
+    assertEquals(undone, List.of("step3", "step1"));
+    assertEquals(errors, List.of("step2"));
+    assertEquals(compensations.size(), 0);
+    // Rolling back again does nothing
+    compensations.rollback();
+    assertEquals(undone.size(), 2);
+  }
+
+  /*
+   * A step that completes after rollback has started is undone immediately
+   */
+  @Test(groups={"unit"})
+  public void testLateRegistration()
+  {
+    var undone = new ArrayList<String>();
+    var compensations = new SKCompensations(null);
+    compensations.add("step1", () -> undone.add("step1"));
+    compensations.rollback();
+    assertEquals(undone, List.of("step1"));
+    compensations.add("step2", () -> undone.add("step2"));
+    assertEquals(undone, List.of("step1", "step2"));
+    assertEquals(compensations.size(), 0);
+  }
+
+  /*
+   * An attempted step is undone even if it fails, and again if rollback starts while it is running
+   */
+  @Test(groups={"unit"})
+  public void testAttempt() throws Exception
+  {
+    var undone = new ArrayList<String>();
+    var compensations = new SKCompensations(null);
+    try
+    {
+      compensations.attempt("step1", () -> undone.add("step1"), () -> { throw new TapisClientException("timeout"); });
+      fail("Exception from step should be thrown");
+    }
+    catch (TapisClientException e) { assertEquals(e.getMessage(), "timeout"); }
+    assertEquals(compensations.size(), 1);
+    // Rollback while step2 is running
+    compensations.attempt("step2", () -> undone.add("step2"), compensations::rollback);
+    assertEquals(undone, List.of("step2", "step1", "step2"));
+    // No steps are run once rollback has started
+    var ran = new ArrayList<String>();
+    compensations.attempt("step3", () -> undone.add("step3"), () -> ran.add("step3"));
+    assertTrue(ran.isEmpty());
+    assertEquals(undone.size(), 3);
+  }
+}
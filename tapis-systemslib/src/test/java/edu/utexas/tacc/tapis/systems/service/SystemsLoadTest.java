@@ -0,0 +1,250 @@
+package edu.utexas.tacc.tapis.systems.service;
+
+import edu.utexas.tacc.tapis.shared.security.ServiceClients;
+import edu.utexas.tacc.tapis.shared.security.ServiceContext;
+import edu.utexas.tacc.tapis.shared.security.TenantManager;
+import edu.utexas.tacc.tapis.systems.ScaleDataGenerator;
+import edu.utexas.tacc.tapis.systems.config.RuntimeParameters;
+import edu.utexas.tacc.tapis.systems.dao.SystemsDao;
+import edu.utexas.tacc.tapis.systems.dao.SystemsDaoImpl;
+import edu.utexas.tacc.tapis.systems.model.ResourceRequestUser;
+import org.glassfish.hk2.api.ServiceLocator;
+import org.glassfish.hk2.utilities.ServiceLocatorUtilities;
+import org.glassfish.hk2.utilities.binding.AbstractBinder;
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static edu.utexas.tacc.tapis.systems.IntegrationUtils.*;
+
+/**
+ * Load test of the SystemsService implementation class against a large dataset in a DB running locally.
+ * Each test drives one operation from a fixed number of threads for a fixed duration and reports throughput
+ *   and latency percentiles.
+ * Not part of the default suite. To run:
+ *   mvn test -Dtestng.suite.file=src/test/resources/testng-load.xml
+ * Has the same dependencies as SystemsServiceTest. Set TAPIS_SK_FAKE=true and TAPIS_RUN_PROFILE=test to use the
+ *   in-process SK stand-in.
+ * The dataset is created by ScaleDataGenerator on first run and re-used after that.
+ *
+ * Settings are taken from system properties, in addition to those used by ScaleDataGenerator:
+ *   tapis.load.threads         - number of concurrent callers, default 16
+ *   tapis.load.seconds         - duration of each test, default 30
+ *   tapis.load.perm.systems    - number of systems the load user may read, default 1000
+ *   tapis.load.max.p99.millis  - fail a test if p99 latency exceeds this, default 0 for no check
+ */
+@Test(groups={"load"})
+public class SystemsLoadTest
+{
+  private static final String loadUser = "scaleloaduser";
+  private static final int pageSize = 100;
+
+  private final ScaleDataGenerator generator = ScaleDataGenerator.fromSystemProperties();
+  private final int numThreads = Integer.getInteger("tapis.load.threads", 16);
+  private final int durationSeconds = Integer.getInteger("tapis.load.seconds", 30);
+  private final int numPermSystems = Math.min(generator.getNumSystems(),
+                                              Integer.getInteger("tapis.load.perm.systems", 1000));
+  private final long maxP99Millis = Long.getLong("tapis.load.max.p99.millis", 0L);
+
+  private SystemsService svc;
+  private ResourceRequestUser rLoadUser;
+
+  @BeforeClass
+  public void setUp() throws Exception
+  {
+    System.out.println("Executing BeforeClass setup method: " + SystemsLoadTest.class.getSimpleName());
+    // Setup for HK2 dependency injection
+    ServiceLocator locator = ServiceLocatorUtilities.createAndPopulateServiceLocator();
+    ServiceLocatorUtilities.bind(locator, new AbstractBinder() {
+      @Override
+      protected void configure() {
+        bind(SystemsServiceImpl.class).to(SystemsService.class);
+        bind(SystemsServiceImpl.class).to(SystemsServiceImpl.class);
+        bind(SystemsDaoImpl.class).to(SystemsDao.class);
+        bindFactory(ServiceContextFactory.class).to(ServiceContext.class);
+        bindFactory(ServiceClientsFactory.class).to(ServiceClients.class);
+      }
+    });
+    locator.inject(this);
+
+    // Initialize TenantManager and services
+    String url = RuntimeParameters.getInstance().getTenantsSvcURL();
+    TenantManager.getInstance(url).getTenants();
+    svc = locator.getService(SystemsService.class);
+    SystemsServiceImpl svcImpl = locator.getService(SystemsServiceImpl.class);
+    svcImpl.initService(siteId, adminTenantName, RuntimeParameters.getInstance().getServicePassword());
+    rLoadUser = ScaleDataGenerator.makeOwnerUser(loadUser);
+
+    // Create any systems not already present
+    long start = System.currentTimeMillis();
+    int created = generator.load(locator.getService(SystemsDao.class),
+                                 Integer.getInteger("tapis.scale.threads", ScaleDataGenerator.DEFAULT_NUM_THREADS));
+    System.out.printf("Created %d systems in %d ms%n", created, System.currentTimeMillis() - start);
+
+    // Allow the load user to read the first numPermSystems systems. Grants are made by each owner in bulk.
+    List<List<String>> idsByOwner = generator.getSysIdsByOwner();
+    for (int o = 0; o < idsByOwner.size(); o++)
+    {
+      ResourceRequestUser rOwner = ScaleDataGenerator.makeOwnerUser(ScaleDataGenerator.OWNER_PREFIX + o);
+      List<String> ids = idsByOwner.get(o).subList(0, numPermSystems / idsByOwner.size() +
+                                                      (o < numPermSystems % idsByOwner.size() ? 1 : 0));
+      for (int i = 0; i < ids.size(); i += SystemsServiceImpl.MAX_BULK_PERM_SYSTEMS)
+      {
+        var chunk = new HashSet<>(ids.subList(i, Math.min(ids.size(), i + SystemsServiceImpl.MAX_BULK_PERM_SYSTEMS)));
+        svc.grantUserPermissionsBulk(rOwner, chunk, Set.of(loadUser), testPermsREAD, scrubbedJson);
+      }
+    }
+  }
+
+  @Test
+  public void testList() throws Exception
+  {
+    runLoad("list", () -> svc.getSystems(rLoadUser, searchListNull, pageSize, orderByListNull, randomSkip(),
+                                         startAferEmpty, showDeletedFalse));
+  }
+
+  @Test
+  public void testSearch() throws Exception
+  {
+    String searchStr = String.format("id LIKE '%s%%' AND enabled = true AND port <= '512'",
+                                     generator.getSysIdPrefix());
+    runLoad("search", () -> svc.getSystemsUsingSqlSearchStr(rLoadUser, searchStr, pageSize, orderByListNull,
+                                                            skipZero, startAferEmpty, showDeletedFalse));
+  }
+
+  @Test
+  public void testGet() throws Exception
+  {
+    runLoad("get", () -> svc.getSystem(rLoadUser, randomPermittedId(), false, null, false));
+  }
+
+  @Test
+  public void testMatch() throws Exception
+  {
+    runLoad("match", () -> svc.getSystemsSatisfyingConstraints(rLoadUser, "Hardware$CoresPerNode = 64"));
+  }
+
+  @Test
+  public void testPerms() throws Exception
+  {
+    runLoad("perms", () -> svc.getUserPermissions(rLoadUser, randomPermittedId(), loadUser));
+  }
+
+  /* ********************************************************************** */
+  /*                             Private Methods                            */
+  /* ********************************************************************** */
+
+  /*
+   * Operation under test
+   */
+  @FunctionalInterface
+  private interface LoadOp { Object call() throws Exception; }
+
+  /*
+   * Call an operation from numThreads threads until the duration has passed, then report and check results.
+   */
+  private void runLoad(String name, LoadOp op) throws Exception
+  {
+    // Warm up
+    for (int i = 0; i < 10; i++) op.call();
+
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(durationSeconds);
+    ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+    var futures = new ArrayList<Future<ThreadResult>>();
+    long start = System.nanoTime();
+    try
+    {
+      for (int t = 0; t < numThreads; t++)
+      {
+        futures.add(executor.submit(() ->
+        {
+          var result = new ThreadResult();
+          while (System.nanoTime() < deadline)
+          {
+            long callStart = System.nanoTime();
+            try { op.call(); }
+            catch (Exception e)
+            {
+              if (result.errors++ == 0) System.out.println("LOAD " + name + " error: " + e);
+            }
+            result.add(System.nanoTime() - callStart);
+          }
+          return result;
+        }));
+      }
+      long[] latencies = new long[0];
+      int errors = 0;
+      for (Future<ThreadResult> future : futures)
+      {
+        ThreadResult result = future.get();
+        int len = latencies.length;
+        latencies = Arrays.copyOf(latencies, len + result.count);
+        System.arraycopy(result.latencies, 0, latencies, len, result.count);
+        errors += result.errors;
+      }
+      double elapsedSeconds = (System.nanoTime() - start) / 1.0e9;
+      Arrays.sort(latencies);
+      long p99Millis = percentileMillis(latencies, 99);
+      System.out.printf("LOAD %-6s threads=%d requests=%d errors=%d throughput=%.1f/s p50=%dms p90=%dms p99=%dms max=%dms%n",
+                        name, numThreads, latencies.length, errors, latencies.length / elapsedSeconds,
+                        percentileMillis(latencies, 50), percentileMillis(latencies, 90), p99Millis,
+                        percentileMillis(latencies, 100));
+      Assert.assertEquals(errors, 0, "Errors during load test of " + name);
+      if (maxP99Millis > 0)
+        Assert.assertTrue(p99Millis <= maxP99Millis,
+                          String.format("p99 latency for %s is %d ms. Limit is %d ms", name, p99Millis, maxP99Millis));
+    }
+    finally
+    {
+      executor.shutdownNow();
+    }
+  }
+
+  /*
+   * Nearest rank percentile of sorted latencies, in milliseconds
+   */
+  private static long percentileMillis(long[] sortedNanos, int percentile)
+  {
+    if (sortedNanos.length == 0) return 0L;
+    int rank = (int) Math.ceil(percentile / 100.0 * sortedNanos.length);
+    return TimeUnit.NANOSECONDS.toMillis(sortedNanos[Math.max(0, rank - 1)]);
+  }
+
+  private String randomPermittedId()
+  {
+    // Systems the load user may read are the first ones for each owner, which are the lowest indexes overall
+    return generator.getSysId(ThreadLocalRandom.current().nextInt(numPermSystems));
+  }
+
+  private int randomSkip()
+  {
+    return pageSize * ThreadLocalRandom.current().nextInt(Math.max(1, numPermSystems / pageSize));
+  }
+
+  /*
+   * Latencies and errors recorded by one thread
+   */
+  private static final class ThreadResult
+  {
+    private long[] latencies = new long[1024];
+    private int count;
+    private int errors;
+
+    private void add(long nanos)
+    {
+      if (count == latencies.length) latencies = Arrays.copyOf(latencies, count * 2);
+      latencies[count++] = nanos;
+    }
+  }
+}
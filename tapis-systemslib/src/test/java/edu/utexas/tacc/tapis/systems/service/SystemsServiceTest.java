@@ -7,16 +7,21 @@ import edu.utexas.tacc.tapis.shared.security.TenantManager;
 import edu.utexas.tacc.tapis.shared.threadlocal.TapisThreadContext;
 import edu.utexas.tacc.tapis.shared.utils.TapisUtils;
 import edu.utexas.tacc.tapis.sharedapi.security.AuthenticatedUser;
+import edu.utexas.tacc.tapis.systems.CallCounter;
 import edu.utexas.tacc.tapis.systems.IntegrationUtils;
 import edu.utexas.tacc.tapis.systems.config.RuntimeParameters;
 import edu.utexas.tacc.tapis.systems.dao.SystemsDao;
 import edu.utexas.tacc.tapis.systems.dao.SystemsDaoImpl;
+import edu.utexas.tacc.tapis.systems.events.SystemEventHub;
 import edu.utexas.tacc.tapis.systems.model.Capability;
 import edu.utexas.tacc.tapis.systems.model.Credential;
 import edu.utexas.tacc.tapis.systems.model.JobRuntime;
 import edu.utexas.tacc.tapis.systems.model.LogicalQueue;
 import edu.utexas.tacc.tapis.systems.model.PatchSystem;
 import edu.utexas.tacc.tapis.systems.model.ResourceRequestUser;
+import edu.utexas.tacc.tapis.systems.model.SystemBatchItem;
+import edu.utexas.tacc.tapis.systems.model.SystemBatchItem.ItemStatus;
+import edu.utexas.tacc.tapis.systems.model.SystemEvent;
 import org.glassfish.hk2.api.ServiceLocator;
 import org.glassfish.hk2.utilities.ServiceLocatorUtilities;
 import org.glassfish.hk2.utilities.binding.AbstractBinder;
@@ -28,6 +33,7 @@ import org.testng.annotations.Test;
 import edu.utexas.tacc.tapis.systems.model.TSystem;
 import edu.utexas.tacc.tapis.systems.model.TSystem.AuthnMethod;
 import edu.utexas.tacc.tapis.systems.model.TSystem.Permission;
+import edu.utexas.tacc.tapis.systems.model.TSystem.SystemOperation;
 
 import javax.ws.rs.NotAuthorizedException;
 import javax.ws.rs.NotFoundException;
@@ -35,6 +41,7 @@ import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
@@ -59,7 +66,7 @@ public class SystemsServiceTest
           rFilesSvcOwner1, rFilesSvcTestUser3, rFilesSvcTestUser4;
 
   // Create test system definitions in memory
-  int numSystems = 26;
+  int numSystems = 32;
   String testKey = "Svc";
   TSystem dtnSystem1 = IntegrationUtils.makeDtnSystem1(testKey);
   TSystem dtnSystem2 = IntegrationUtils.makeDtnSystem2(testKey);
@@ -139,6 +146,9 @@ public class SystemsServiceTest
     catch (Exception e) { }
     try { svc.revokeUserPermissions(rOwner1, systems[14].getId(), testUser2, testPermsREADMODIFY, scrubbedJson); }
     catch (Exception e) { }
+    try { svc.revokeUserPermissionsBulk(rOwner1, Set.of(systems[2].getId(), systems[3].getId()),
+                                        Set.of(testUser2, testUser3), testPermsREADMODIFY, scrubbedJson); }
+    catch (Exception e) { }
 
     // Remove all objects created by tests
     for (int i = 0; i < numSystems; i++)
@@ -454,6 +464,42 @@ public class SystemsServiceTest
     }
   }
 
+  // Test number of DB statements and SK calls used by common operations.
+  // Retrieval must use a fixed number of statements and SK calls regardless of the number of systems returned.
+  @Test
+  public void testCallBudgets() throws Exception
+  {
+    TSystem sys0 = systems[26];
+    // Service existence check, DTN system lookup (4) and Dao create (7 plus one insert per aux row).
+    // Full permissions and files permissions for owner and static effectiveUser. Owner needs no admin check.
+    CallCounter.Counts counts = CallCounter.count(() -> { svc.createSystem(rOwner1, sys0, scrubbedJson); return null; });
+    CallCounter.assertBudget("createSystem", counts, 12 + CallCounter.getAuxRowCount(sys0), 4);
+    // System plus aux tables unless cached. Owner needs no SK calls.
+    counts = CallCounter.count(() -> svc.getSystem(rOwner1, sys0.getId(), false, null, false));
+    CallCounter.assertBudget("getSystem", counts, 4, 0);
+    // Admin check and one fetch of user permissions, then page of systems plus aux tables, for any page size
+    for (int pageSize : new int[] {1, 10, 100})
+    {
+      counts = CallCounter.count(() -> svc.getSystems(rOwner1, searchListNull, pageSize, orderByListNull, skipZero,
+                                                      startAferEmpty, showDeletedFalse));
+      CallCounter.assertBudget("getSystems limit " + pageSize, counts, 4, 2);
+    }
+    // Existence check, owner lookup and update record (4). One SK call per permission.
+    counts = CallCounter.count(() ->
+            { svc.grantUserPermissions(rOwner1, sys0.getId(), testUser3, testPermsREADMODIFY, scrubbedJson); return null; });
+    CallCounter.assertBudget("grantUserPermissions", counts, 6, testPermsREADMODIFY.size());
+    // Existence check and owner lookup. One fetch of the user's permissions.
+    var permsHolder = new ArrayList<Set<Permission>>();
+    counts = CallCounter.count(() -> permsHolder.add(svc.getUserPermissions(rOwner1, sys0.getId(), testUser3)));
+    CallCounter.assertBudget("getUserPermissions", counts, 2, 1);
+    Assert.assertEquals(permsHolder.get(0), testPermsREADMODIFY);
+    svc.revokeUserPermissions(rOwner1, sys0.getId(), testUser3, testPermsREADMODIFY, scrubbedJson);
+    // Existence check and at most one read of the secret
+    counts = CallCounter.count(() -> svc.getUserCredential(rFilesSvcOwner1, sys0.getId(), testUser3,
+                                                           AuthnMethod.PASSWORD));
+    CallCounter.assertBudget("getUserCredential", counts, 1, 1);
+  }
+
   // Check that user only sees systems they are authorized to see.
   //   and same for a service when it is calling with oboUser (i.e. not as itself).
   @Test
@@ -493,6 +539,151 @@ public class SystemsServiceTest
     Assert.assertEquals(systems.size(), 2);
   }
 
+  // Once the local permission mirror is ready for the tenant, lists and counts match those obtained using SK
+  @Test
+  public void testGetSystemsPermMirror() throws Exception
+  {
+    // Create 2 systems owned by testUser4 and share one of them with testUser2
+    TSystem sys0 = systems[27];
+    sys0.setOwner(rTestUser4.getApiUserId());
+    svc.createSystem(rTestUser4, sys0, scrubbedJson);
+    TSystem sys1 = systems[28];
+    sys1.setOwner(rTestUser4.getApiUserId());
+    svc.createSystem(rTestUser4, sys1, scrubbedJson);
+    svc.grantUserPermissions(rTestUser4, sys0.getId(), testUser2, testPermsREAD, scrubbedJson);
+    try
+    {
+      // Results using SK. Stop the mirror in case it was started by initService.
+      PermMirror.stop();
+      Assert.assertFalse(PermMirror.isReady(tenantName));
+      Set<String> skIds4 = getSystemIds(rTestUser4);
+      Set<String> skIds2 = getSystemIds(rTestUser2);
+      int skCount4 = svc.getSystemsTotalCount(rTestUser4, searchListNull, orderByListNull, startAferEmpty, showDeletedFalse);
+      int skCount2 = svc.getSystemsTotalCount(rTestUser2, searchListNull, orderByListNull, startAferEmpty, showDeletedFalse);
+      Assert.assertTrue(skIds4.containsAll(Set.of(sys0.getId(), sys1.getId())));
+      Assert.assertTrue(skIds2.contains(sys0.getId()));
+      Assert.assertFalse(skIds2.contains(sys1.getId()));
+
+      // Reconcile the mirror with SK and wait until it is used for the tenant
+      PermMirror.start(new SystemsDaoImpl(), svcImpl::getSKClient, 3600);
+      long deadline = System.currentTimeMillis() + 60000;
+      while (!PermMirror.isReady(tenantName) && System.currentTimeMillis() < deadline) Thread.sleep(100);
+      Assert.assertTrue(PermMirror.isReady(tenantName), "Permission mirror not ready for tenant: " + tenantName);
+
+      // Results using the mirror
+      Assert.assertEquals(getSystemIds(rTestUser4), skIds4);
+      Assert.assertEquals(getSystemIds(rTestUser2), skIds2);
+      Assert.assertEquals(svc.getSystemsTotalCount(rTestUser4, searchListNull, orderByListNull, startAferEmpty, showDeletedFalse), skCount4);
+      Assert.assertEquals(svc.getSystemsTotalCount(rTestUser2, searchListNull, orderByListNull, startAferEmpty, showDeletedFalse), skCount2);
+    }
+    finally
+    {
+      PermMirror.stop();
+      svc.revokeUserPermissions(rTestUser4, sys0.getId(), testUser2, testPermsREAD, scrubbedJson);
+    }
+  }
+
+  // A system shared with a user after the user subscribes to the event stream is included without reconnecting
+  @Test
+  public void testSubscribeSystemEventsPermChange() throws Exception
+  {
+    TSystem sys0 = systems[29];
+    sys0.setOwner(rTestUser4.getApiUserId());
+    var sink = new TestEventSink();
+    SystemEventHub.Subscription sub = svc.subscribeSystemEvents(rTestUser2, 0, sink);
+    Assert.assertNotNull(sub);
+    try
+    {
+      // Events before the grant are not delivered, events from the grant onwards are
+      svc.createSystem(rTestUser4, sys0, scrubbedJson);
+      svc.disableSystem(rTestUser4, sys0.getId());
+      svc.grantUserPermissions(rTestUser4, sys0.getId(), testUser2, testPermsREAD, scrubbedJson);
+      svc.enableSystem(rTestUser4, sys0.getId());
+      long deadline = System.currentTimeMillis() + 10000;
+      while (sink.getOperations(sys0.getId()).size() < 2 && System.currentTimeMillis() < deadline) Thread.sleep(100);
+      Assert.assertEquals(sink.getOperations(sys0.getId()), List.of(SystemOperation.grantPerms, SystemOperation.enable));
+    }
+    finally
+    {
+      sub.close();
+      svc.revokeUserPermissions(rTestUser4, sys0.getId(), testUser2, testPermsREAD, scrubbedJson);
+    }
+  }
+
+  // Batch get returns a result per ID: found, not found or not authorized, including a system owned by another user
+  @Test
+  public void testGetSystemsBatch() throws Exception
+  {
+    // sys0 is owned by owner1 and shared with testUser2, sys1 is owned by testUser4
+    TSystem sys0 = systems[30];
+    svc.createSystem(rOwner1, sys0, scrubbedJson);
+    TSystem sys1 = systems[31];
+    sys1.setOwner(rTestUser4.getApiUserId());
+    svc.createSystem(rTestUser4, sys1, scrubbedJson);
+    svc.grantUserPermissions(rOwner1, sys0.getId(), testUser2, testPermsREAD, scrubbedJson);
+    String missingId = "AMissingSystemName";
+    try
+    {
+      // Duplicate IDs are ignored and results are in request order
+      List<SystemBatchItem> items = svc.getSystemsBatch(rTestUser2, List.of(sys0.getId(), sys1.getId(), missingId,
+                                                                             sys0.getId()));
+      Assert.assertEquals(items.size(), 3);
+      checkBatchItem(items.get(0), sys0.getId(), ItemStatus.FOUND);
+      checkBatchItem(items.get(1), sys1.getId(), ItemStatus.NOT_AUTHORIZED);
+      checkBatchItem(items.get(2), missingId, ItemStatus.NOT_FOUND);
+      Assert.assertEquals(items.get(0).getSystem().getOwner(), owner1);
+      Assert.assertNull(items.get(0).getSystem().getAuthnCredential(), "Batch get should not include credentials");
+
+      // Owner may read own system but not a system owned by another user
+      items = svc.getSystemsBatch(rOwner1, List.of(sys1.getId(), sys0.getId()));
+      checkBatchItem(items.get(0), sys1.getId(), ItemStatus.NOT_AUTHORIZED);
+      checkBatchItem(items.get(1), sys0.getId(), ItemStatus.FOUND);
+      items = svc.getSystemsBatch(rTestUser4, List.of(sys0.getId(), sys1.getId()));
+      checkBatchItem(items.get(0), sys0.getId(), ItemStatus.NOT_AUTHORIZED);
+      checkBatchItem(items.get(1), sys1.getId(), ItemStatus.FOUND);
+    }
+    finally
+    {
+      svc.revokeUserPermissions(rOwner1, sys0.getId(), testUser2, testPermsREAD, scrubbedJson);
+    }
+  }
+
+  // DB statement statistics are only available to services and administrators in the site admin tenant
+  @Test
+  public void testGetStatementStatsAuth() throws Exception
+  {
+    Assert.assertNotNull(svc.getStatementStats(rSystemsSvc));
+    var rSvcOtherTenant = new ResourceRequestUser(new AuthenticatedUser(svcName, tenantName,
+                                 TapisThreadContext.AccountType.service.name(), null, svcName, tenantName,
+                                 null, null, null));
+    for (ResourceRequestUser rUser : List.of(rTestUser1, rSvcOtherTenant))
+    {
+      try
+      {
+        svc.getStatementStats(rUser);
+        Assert.fail("Statement statistics should be denied for: " + rUser.getJwtUserId() + "@" + rUser.getJwtTenantId());
+      }
+      catch (NotAuthorizedException e) { Assert.assertTrue(e.getMessage().startsWith("SYSLIB_AUTH_STMT_STATS")); }
+    }
+  }
+
+  // Facet attributes are accepted as camelCase or snake_case, the same as in the Dao
+  @Test
+  public void testGetSystemsFacetNames() throws Exception
+  {
+    var facetsCC = svc.getSystemsFacets(rOwner1, searchListNull, List.of("systemType", "canExec"), showDeletedFalse);
+    var facetsSC = svc.getSystemsFacets(rOwner1, searchListNull, List.of("system_type", "can_exec"), showDeletedFalse);
+    Assert.assertEquals(facetsSC, facetsCC);
+    Assert.assertEquals(facetsCC.keySet(), Set.of("systemType", "canExec"));
+    // Attribute not supported for facets should fail in the service
+    try
+    {
+      svc.getSystemsFacets(rOwner1, searchListNull, List.of("host"), showDeletedFalse);
+      Assert.fail("Facet on unsupported attribute should have thrown an exception");
+    }
+    catch (IllegalArgumentException e) { Assert.assertTrue(e.getMessage().startsWith("SYSLIB_FACET_ERROR")); }
+  }
+
   // Check enable/disable/delete/undelete as well as isEnabled
   // When resource deleted isEnabled should throw a NotFound exception
   @Test
@@ -762,6 +953,58 @@ public class SystemsServiceTest
     }
   }
 
+  // Test granting and revoking permissions for many users and systems at once
+  @Test
+  public void testUserPermsBulk() throws Exception
+  {
+    // Create 2 systems
+    TSystem sys0 = systems[2];
+    svc.createSystem(rOwner1, sys0, scrubbedJson);
+    TSystem sys1 = systems[3];
+    svc.createSystem(rOwner1, sys1, scrubbedJson);
+    var sysIds = Set.of(sys0.getId(), sys1.getId());
+    var userNames = Set.of(testUser2, testUser3);
+    // Grant perms to both users on both systems. Grant of MODIFY implies READ.
+    int count = svc.grantUserPermissionsBulk(rOwner1, sysIds, userNames, new HashSet<>(Set.of(Permission.MODIFY)),
+                                             scrubbedJson);
+    Assert.assertEquals(count, 4, "Incorrect number of updates when granting permissions in bulk.");
+    for (String sysId : sysIds)
+    {
+      for (String userName : userNames)
+      {
+        Set<Permission> userPerms = svc.getUserPermissions(rOwner1, sysId, userName);
+        for (Permission perm: testPermsREADMODIFY) { if (!userPerms.contains(perm)) Assert.fail("User perms should contain permission: " + perm.name()); }
+      }
+    }
+    // Revoke READ from both users on both systems. Revoke of READ implies MODIFY.
+    count = svc.revokeUserPermissionsBulk(rOwner1, sysIds, userNames, testPermsREAD, scrubbedJson);
+    Assert.assertEquals(count, 4, "Incorrect number of updates when revoking permissions in bulk.");
+    for (String sysId : sysIds)
+    {
+      for (String userName : userNames)
+      {
+        Set<Permission> userPerms = svc.getUserPermissions(rOwner1, sysId, userName);
+        for (Permission perm: testPermsREADMODIFY) { if (userPerms.contains(perm)) Assert.fail("User perms should not contain permission: " + perm.name()); }
+      }
+    }
+
+    // Owner should not be able to update perms for themselves, even as one of many users
+    try {
+      svc.grantUserPermissionsBulk(rOwner1, sysIds, Set.of(testUser3, sys0.getOwner()), testPermsREAD, scrubbedJson);
+      Assert.fail("Bulk update of perms by owner for owner should have thrown an exception");
+    } catch (Exception e) {
+      Assert.assertTrue(e.getMessage().contains("SYSLIB_PERM_OWNER_UPDATE"));
+    }
+    // Non-owner may not grant perms. No changes should be made.
+    try {
+      svc.grantUserPermissionsBulk(rTestUser2, sysIds, Set.of(testUser3), testPermsREAD, scrubbedJson);
+      Assert.fail("Bulk grant of perms by non-owner should have thrown an exception");
+    } catch (Exception e) {
+      Assert.assertTrue(e.getMessage().contains("SYSLIB_UNAUTH"));
+    }
+    Assert.assertFalse(svc.getUserPermissions(rOwner1, sys0.getId(), testUser3).contains(Permission.READ));
+  }
+
   // Test creating, reading and deleting user credentials for a system
   // Including retrieving credentials with a system when effectiveUserId=apiUserId for a system.
   @Test
@@ -1305,4 +1548,50 @@ public class SystemsServiceTest
     Assert.assertNotNull(tmpSys.getCreated(), "Fetched created timestamp should not be null");
     Assert.assertNotNull(tmpSys.getUpdated(), "Fetched updated timestamp should not be null");
   }
+
+  // Check the ID and status of a batch get result. Only found items include the system.
+  private static void checkBatchItem(SystemBatchItem item, String id, ItemStatus status)
+  {
+    Assert.assertEquals(item.getId(), id);
+    Assert.assertEquals(item.getStatus(), status, "Unexpected status for system: " + id);
+    if (status == ItemStatus.FOUND) Assert.assertNotNull(item.getSystem());
+    else
+    {
+      Assert.assertNull(item.getSystem());
+      Assert.assertNotNull(item.getMessage());
+    }
+  }
+
+  // Get IDs of all systems a user may see
+  private Set<String> getSystemIds(ResourceRequestUser rUser) throws Exception
+  {
+    var ids = new HashSet<String>();
+    for (TSystem system : svc.getSystems(rUser, searchListNull, limitNone, orderByListNull, skipZero, startAferEmpty,
+                                         showDeletedFalse)) ids.add(system.getId());
+    return ids;
+  }
+
+  // In-memory event sink that records the events it is sent
+  private static class TestEventSink implements SystemEventHub.EventSink
+  {
+    private final List<SystemEvent> events = new ArrayList<>();
+    private volatile boolean closed;
+
+    synchronized List<SystemOperation> getOperations(String systemId)
+    {
+      var ops = new ArrayList<SystemOperation>();
+      for (SystemEvent e : events) if (e.getSystemId().equals(systemId)) ops.add(e.getOperation());
+      return ops;
+    }
+    @Override
+    public synchronized void send(SystemEvent event) { events.add(event); }
+    @Override
+    public void sendHeartbeat() { }
+    @Override
+    public void sendOverflow(long lastToken) { }
+    @Override
+    public void close() { closed = true; }
+    @Override
+    public boolean isClosed() { return closed; }
+  }
 }